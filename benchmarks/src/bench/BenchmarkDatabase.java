@@ -0,0 +1,37 @@
+package bench;
+
+import service.InventoryService;
+
+/**
+ * Points the service layer at the database a benchmark fork runs against
+ * Without -Dwarehouse.db.url the in-process StubDriver serves the benchmark's scale.
+ * With a MySQL URL the data set must already be loaded with DatasetLoader at the
+ * same scale, which is checked so results are never labelled with the wrong size.
+ */
+public final class BenchmarkDatabase {
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Configure the connection for a data set scale; call from @Setup before any service is used
+     * @param scale Data set size, e.g. "1m"
+     * @return Generator for the same data set
+     */
+    public static SyntheticData use(String scale) {
+        SyntheticData data = new SyntheticData(scale);
+        String url = System.getProperty("warehouse.db.url");
+        if (url == null || url.isEmpty()) {
+            // DBConnection reads the property when first used, which is after this in a fresh fork
+            StubDriver.register();
+            System.setProperty("warehouse.db.url", StubDriver.URL_PREFIX + scale);
+        } else if (url.startsWith("jdbc:mysql:")) {
+            int rows = new InventoryService().countItems();
+            if (rows < data.getItemCount()) {
+                throw new IllegalStateException("Database has " + rows + " items but scale " + scale + " needs "
+                    + data.getItemCount() + "; load it with DatasetLoader " + scale);
+            }
+        }
+        return data;
+    }
+}
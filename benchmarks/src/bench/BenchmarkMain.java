@@ -0,0 +1,65 @@
+package bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the benchmarks and writes the results as JSON for trend tracking
+ * Takes the usual JMH command line (benchmark regex, -p scale=1m, -f, -wi, ...).
+ * Unless -rff is given, results go to benchmarks/results/jmh-<timestamp>.json.
+ * The warehouse.db.* system properties are handed on to the forked JVMs, so
+ * -Dwarehouse.db.url selects MySQL for every benchmark; without it they use StubDriver.
+ */
+public final class BenchmarkMain {
+
+    private static final String[] FORWARDED_PROPERTIES = {"warehouse.db.url", "warehouse.db.user", "warehouse.db.password"};
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        CommandLineOptions commandLine;
+        try {
+            commandLine = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("Error parsing command line: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResult().hasValue()) {
+            File dir = new File("benchmarks/results");
+            dir.mkdirs();
+            String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            options.result(new File(dir, "jmh-" + stamp + ".json").getPath());
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+
+        List<String> jvmArgs = new ArrayList<>();
+        if (commandLine.getJvmArgsAppend().hasValue()) {
+            jvmArgs.addAll(commandLine.getJvmArgsAppend().get());
+        }
+        for (String name : FORWARDED_PROPERTIES) {
+            String value = System.getProperty(name);
+            if (value != null) {
+                jvmArgs.add("-D" + name + "=" + value);
+            }
+        }
+        options.jvmArgsAppend(jvmArgs.toArray(new String[0]));
+
+        new Runner(options.build()).run();
+    }
+}
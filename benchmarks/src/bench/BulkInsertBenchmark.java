@@ -0,0 +1,63 @@
+package bench;
+
+import model.Item;
+import model.ItemWriteResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.InventoryService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InventoryService.addItems(): binding, batching and result bookkeeping per row
+ * Against MySQL every iteration really inserts rows, so run it on a scratch database
+ * and reload with DatasetLoader afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    // Rows per addItems() call; OperationsPerInvocation below reports the time per row
+    private static final int ROWS = 1000;
+
+    @Param({"10k", "1m", "10m"})
+    public String scale;
+
+    private InventoryService inventoryService;
+    private List<Item> items;
+
+    @Setup
+    public void setup() {
+        SyntheticData data = BenchmarkDatabase.use(scale);
+        inventoryService = new InventoryService();
+        items = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            items.add(data.newItem(i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<ItemWriteResult> addItems() {
+        List<ItemWriteResult> results = inventoryService.addItems(items);
+        if (!results.get(ROWS - 1).isSuccess()) {
+            throw new IllegalStateException("Insert failed: " + results.get(ROWS - 1).getError());
+        }
+        return results;
+    }
+}
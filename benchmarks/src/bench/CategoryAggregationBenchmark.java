@@ -0,0 +1,69 @@
+package bench;
+
+import model.CategorySummary;
+import model.InventorySnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregations over the columnar InventorySnapshot used by the reports, separate
+ * from the cost of loading it (see ReportBenchmark.loadInventorySnapshot)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryAggregationBenchmark {
+
+    @Param({"10k", "1m", "10m"})
+    public String scale;
+
+    private SyntheticData data;
+    private InventorySnapshot snapshot;
+
+    @Setup
+    public void setup() {
+        data = new SyntheticData(scale);
+        snapshot = buildSnapshot();
+    }
+
+    /** Appending rows to the builder and dictionary-encoding category and location */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public InventorySnapshot buildSnapshot() {
+        InventorySnapshot.Builder builder = new InventorySnapshot.Builder();
+        for (int id = 1; id <= data.getItemCount(); id++) {
+            builder.add(id, data.quantity(id), data.minStockLevel(id), data.priceCents(id), data.supplierId(id),
+                data.category(id), data.location(id), data.createdMillis(id), data.updatedMillis(id));
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public List<CategorySummary> categorySummaries() {
+        return snapshot.categorySummaries();
+    }
+
+    @Benchmark
+    public long[] sumQuantityByCategory() {
+        return snapshot.sumQuantityByCategory();
+    }
+
+    @Benchmark
+    public long totals() {
+        return snapshot.totalQuantity() + snapshot.totalValueCents() + snapshot.lowStockCount();
+    }
+}
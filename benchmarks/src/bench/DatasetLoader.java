@@ -0,0 +1,94 @@
+package bench;
+
+import database.DBConnection;
+import model.Item;
+import model.ItemWriteResult;
+import model.Supplier;
+import service.InventoryService;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads a synthetic data set into MySQL for benchmarks
+ * Usage: java -Dwarehouse.db.url=jdbc:mysql://localhost:3306/warehouse_bench ... bench.DatasetLoader 1m
+ *
+ * Empties items, suppliers and the tables that depend on them, then inserts the
+ * suppliers and items of the scale with their generated IDs, so the database holds
+ * exactly what the stub driver serves. Items go through InventoryService.upsertItems()
+ * so the summary triggers run as in production. Refuses to run unless the URL is
+ * given explicitly, so it cannot wipe the default warehouse_db by accident.
+ */
+public final class DatasetLoader {
+
+    private static final int CHUNK_SIZE = 10_000;
+    private static final String[] TABLES = {
+        "stock_movements", "item_deletions", "items", "suppliers", "item_summaries", "item_summaries_rebuild"
+    };
+
+    private DatasetLoader() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length != 1) {
+            System.err.println("Usage: DatasetLoader <scale>   e.g. 10k, 1m or 10m");
+            System.exit(2);
+        }
+        String url = System.getProperty("warehouse.db.url", "");
+        if (!url.startsWith("jdbc:mysql:")) {
+            System.err.println("Set -Dwarehouse.db.url to the MySQL database to load (its contents are replaced)");
+            System.exit(2);
+        }
+        SyntheticData data = new SyntheticData(args[0]);
+        long start = System.nanoTime();
+
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("SET FOREIGN_KEY_CHECKS = 0");
+            try {
+                for (String table : TABLES) {
+                    stmt.execute("TRUNCATE TABLE " + table);
+                }
+            } finally {
+                stmt.execute("SET FOREIGN_KEY_CHECKS = 1");
+            }
+            insertSuppliers(conn, data);
+        }
+        System.out.println("Loaded " + data.getSupplierCount() + " suppliers");
+
+        InventoryService inventoryService = new InventoryService();
+        List<Item> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (int id = 1; id <= data.getItemCount(); id++) {
+            chunk.add(data.item(id));
+            if (chunk.size() == CHUNK_SIZE || id == data.getItemCount()) {
+                for (ItemWriteResult result : inventoryService.upsertItems(chunk)) {
+                    if (!result.isSuccess()) {
+                        System.err.println("Item " + chunk.get(result.getIndex()).getId() + " failed: " + result.getError());
+                        System.exit(1);
+                    }
+                }
+                chunk.clear();
+                System.out.println("Loaded " + id + " / " + data.getItemCount() + " items");
+            }
+        }
+        System.out.println("Done in " + (System.nanoTime() - start) / 1_000_000_000 + " s");
+    }
+
+    private static void insertSuppliers(Connection conn, SyntheticData data) throws SQLException {
+        String sql = "INSERT INTO suppliers (id, name, contact, address) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int id = 1; id <= data.getSupplierCount(); id++) {
+                Supplier supplier = data.supplier(id);
+                pstmt.setInt(1, id);
+                pstmt.setString(2, supplier.getName());
+                pstmt.setString(3, supplier.getContact());
+                pstmt.setString(4, supplier.getAddress());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+}
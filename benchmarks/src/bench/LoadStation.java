@@ -0,0 +1,207 @@
+package bench;
+
+import model.Item;
+import model.ItemUpdateResult;
+import model.ScanEvent;
+import model.StockMovement;
+import service.InventoryService;
+import service.ReportService;
+import service.ScanIngestionPipeline;
+import service.StockMovementService;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One simulated station: a picker's handheld or an admin's desk, run on its own
+ * virtual thread. Picks an operation by weight from its mix, times it, then waits
+ * an exponentially distributed think time, until the test ends.
+ *
+ * Operations call the service layer as the GUI and API do:
+ * SCAN   - a barcode scan into the ScanIngestionPipeline (90% picks, 10% restocks)
+ * LOOKUP - an item by ID (70%) or a search-as-you-type query (30%)
+ * ADJUST - a stock movement (50%) or a versioned field edit of an item (50%)
+ * REPORT - a summary report; one in ten is a full inventory snapshot
+ */
+class LoadStation implements Runnable {
+
+    enum Operation { SCAN, LOOKUP, ADJUST, REPORT }
+
+    private static final String[] SEARCH_TERMS = {
+        "st", "bra", "cable", "steel br", "monitor", "hin", "valve m", "wireless", "sen", "pump"
+    };
+    private static final int SEARCH_LIMIT = 20;
+
+    private final String name;
+    private final Map<Operation, Integer> mix;
+    private final int totalWeight;
+    private final long meanThinkNanos;
+    private final LoadTest test;
+    private final SplittableRandom random;
+
+    private final InventoryService inventoryService = new InventoryService();
+    private final StockMovementService movementService = new StockMovementService();
+    private final ReportService reportService = new ReportService();
+    private final ScanIngestionPipeline pipeline = ScanIngestionPipeline.getInstance();
+
+    /**
+     * Constructor
+     * @param name Station name, used as the user name of its writes
+     * @param mix Weight of each operation
+     * @param meanThinkMillis Mean pause between operations
+     * @param test Test collecting the results
+     * @param seed Random seed, so a run can be repeated
+     */
+    LoadStation(String name, Map<Operation, Integer> mix, long meanThinkMillis, LoadTest test, long seed) {
+        this.name = name;
+        this.mix = new EnumMap<>(mix);
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.meanThinkNanos = TimeUnit.MILLISECONDS.toNanos(meanThinkMillis);
+        this.test = test;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Parse a mix such as "scan:60,lookup:35,adjust:5"
+     * @param text Mix text
+     * @return Weight per operation
+     * @throws IllegalArgumentException if the text is malformed or all weights are zero
+     */
+    static Map<Operation, Integer> parseMix(String text) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : text.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight, got '" + part + "'");
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in '" + part + "'");
+            }
+            mix.put(Operation.valueOf(pair[0].trim().toUpperCase()), weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Mix '" + text + "' has no operations");
+        }
+        return mix;
+    }
+
+    @Override
+    public void run() {
+        while (test.isRunning()) {
+            Operation operation = pick();
+            long start = System.nanoTime();
+            LoadTest.Outcome outcome;
+            try {
+                outcome = perform(operation);
+            } catch (RuntimeException | SQLException e) {
+                outcome = LoadTest.Outcome.FAILED;
+            } catch (InterruptedException e) {
+                return;
+            }
+            test.record(operation, System.nanoTime() - start, outcome);
+            think();
+        }
+    }
+
+    private Operation pick() {
+        int r = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            r -= entry.getValue();
+            if (r < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    private void think() {
+        if (meanThinkNanos <= 0) {
+            return;
+        }
+        // Exponential pauses give the bursty arrivals of independent users
+        long pause = (long) (-Math.log(1.0 - random.nextDouble()) * meanThinkNanos);
+        long deadline = System.nanoTime() + pause;
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0 && test.isRunning()) {
+            LockSupport.parkNanos(Math.min(remaining, TimeUnit.SECONDS.toNanos(1)));
+        }
+    }
+
+    private LoadTest.Outcome perform(Operation operation) throws SQLException, InterruptedException {
+        switch (operation) {
+            case SCAN: {
+                int delta = random.nextInt(10) == 0 ? 1 : -1;
+                ScanEvent scan = new ScanEvent(test.pickItemId(random), delta, null, name);
+                return pipeline.submit(scan, 1, TimeUnit.SECONDS) ? LoadTest.Outcome.OK : LoadTest.Outcome.FAILED;
+            }
+            case LOOKUP:
+                if (random.nextInt(10) < 7) {
+                    inventoryService.getItemById(test.pickItemId(random));
+                } else {
+                    inventoryService.searchItems(SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)], SEARCH_LIMIT);
+                }
+                // Lookups return null or empty on failure; the service error counters catch those
+                return LoadTest.Outcome.OK;
+            case ADJUST:
+                return random.nextBoolean() ? moveStock() : editItem();
+            default:
+                return report();
+        }
+    }
+
+    private LoadTest.Outcome moveStock() {
+        StockMovement.Type type = random.nextBoolean() ? StockMovement.Type.IN : StockMovement.Type.OUT;
+        StockMovement movement = new StockMovement(test.pickItemId(random), type, 1 + random.nextInt(5), "Load test", name);
+        return movementService.recordMovement(movement) ? LoadTest.Outcome.OK : LoadTest.Outcome.FAILED;
+    }
+
+    private LoadTest.Outcome editItem() {
+        Item original = inventoryService.getItemById(test.pickItemId(random));
+        if (original == null) {
+            return LoadTest.Outcome.OK;
+        }
+        Item edited = new Item(original);
+        if (random.nextBoolean()) {
+            edited.setMinStockLevel(5 + random.nextInt(20));
+        } else {
+            edited.setDescription("Checked by " + name);
+        }
+        ItemUpdateResult result = inventoryService.updateItemFields(original, edited);
+        switch (result.getStatus()) {
+            case CONFLICT:
+                return LoadTest.Outcome.CONFLICT;
+            case FAILED:
+                return LoadTest.Outcome.FAILED;
+            default:
+                return LoadTest.Outcome.OK;
+        }
+    }
+
+    private LoadTest.Outcome report() throws SQLException {
+        switch (random.nextInt(10)) {
+            case 0:
+                reportService.loadInventorySnapshot();
+                break;
+            case 1:
+            case 2:
+                reportService.getSupplierSummaries();
+                break;
+            case 3:
+            case 4:
+                reportService.getLocationSummaries();
+                break;
+            case 5:
+                inventoryService.getLowStockItems();
+                break;
+            default:
+                reportService.getCategorySummaries();
+                reportService.getInventoryTotals();
+                break;
+        }
+        return LoadTest.Outcome.OK;
+    }
+}
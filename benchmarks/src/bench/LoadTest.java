@@ -0,0 +1,349 @@
+package bench;
+
+import bench.LoadStation.Operation;
+import database.ConnectionPool;
+import database.DBConnection;
+import metrics.LatencyHistogram;
+import metrics.OperationMetrics;
+import metrics.ServiceMetrics;
+import service.InventoryService;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi-station load generator and soak test against MySQL
+ * Usage: java -Dwarehouse.db.url=jdbc:mysql://localhost:3306/warehouse_bench ... bench.LoadTest [--option=value ...]
+ *
+ * Runs picker and admin stations on virtual threads against the service layer,
+ * starting them according to a ramp-up profile, and prints one line per interval
+ * with throughput, latency percentiles and failures per operation, service errors
+ * caused by lock waits and deadlocks, and connection pool saturation. Options:
+ *
+ * --pickers=50             picker stations
+ * --admins=5               admin stations
+ * --picker-mix=scan:60,lookup:35,adjust:5
+ * --admin-mix=lookup:40,adjust:30,report:30
+ * --picker-think=500       mean think time between a picker's operations, ms
+ * --admin-think=3000       mean think time between an admin's operations, ms
+ * --duration=300           test length after ramp-up starts, seconds
+ * --ramp=60                ramp-up period, seconds
+ * --profile=linear         linear (stations start evenly over the ramp),
+ *                          steps:N (N equal steps) or instant
+ * --interval=10            report interval, seconds
+ * --skew=2.0               hot-spot skew of item IDs; 1 is uniform, higher values
+ *                          concentrate writes on low IDs and provoke lock waits
+ * --warm-cache             fill the item cache first, as Main --server does
+ * --csv=file               also write the interval lines as CSV
+ * --seed=1                 random seed for repeatable runs
+ *
+ * The test writes stock movements and item changes; run it on a scratch database
+ * loaded with DatasetLoader.
+ */
+public final class LoadTest {
+
+    /** Result of one operation as seen by a station */
+    enum Outcome { OK, FAILED, CONFLICT }
+
+    private static final double[] PERCENTILES = {0.50, 0.95, 0.99};
+
+    /**
+     * Latency and outcome counters of one operation type
+     */
+    private static final class OperationStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder count = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+        // State at the previous report, touched only by the reporting thread
+        long[] lastBuckets;
+        long lastCount;
+        long lastFailed;
+        long lastConflicts;
+    }
+
+    private final Map<String, String> options;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final LongAdder activeStations = new LongAdder();
+    private final double skew;
+    private volatile boolean running = true;
+    private int maxItemId;
+
+    private long lastErrors;
+    private long lastLockErrors;
+    private long lastPoolTimeouts;
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+        this.skew = Double.parseDouble(option("skew", "2.0"));
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                System.err.println("Unexpected argument: " + arg);
+                System.exit(2);
+            }
+            int eq = arg.indexOf('=');
+            options.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        String url = System.getProperty("warehouse.db.url", "");
+        if (!url.startsWith("jdbc:mysql:")) {
+            System.err.println("Set -Dwarehouse.db.url to the MySQL database to load test (the test writes to it)");
+            System.exit(2);
+        }
+        new LoadTest(options).run();
+        // Shutdown tasks flush the scan pipeline and stop the pool
+        System.exit(0);
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return Integer.parseInt(option(name, Integer.toString(defaultValue)));
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    void record(Operation operation, long nanos, Outcome outcome) {
+        OperationStats s = stats.get(operation);
+        s.latency.record(nanos);
+        s.count.increment();
+        if (outcome == Outcome.FAILED) {
+            s.failed.increment();
+        } else if (outcome == Outcome.CONFLICT) {
+            s.conflicts.increment();
+        }
+    }
+
+    /**
+     * Pick an item ID, skewed towards low IDs so stations contend for the same rows
+     */
+    int pickItemId(SplittableRandom random) {
+        return 1 + (int) (Math.pow(random.nextDouble(), skew) * maxItemId);
+    }
+
+    private void run() throws InterruptedException, IOException, SQLException {
+        int pickers = intOption("pickers", 50);
+        int admins = intOption("admins", 5);
+        long durationMillis = TimeUnit.SECONDS.toMillis(intOption("duration", 300));
+        long rampMillis = TimeUnit.SECONDS.toMillis(intOption("ramp", 60));
+        long intervalMillis = TimeUnit.SECONDS.toMillis(intOption("interval", 10));
+        String profile = option("profile", "linear");
+        long seed = Long.parseLong(option("seed", "1"));
+        Map<Operation, Integer> pickerMix = LoadStation.parseMix(option("picker-mix", "scan:60,lookup:35,adjust:5"));
+        Map<Operation, Integer> adminMix = LoadStation.parseMix(option("admin-mix", "lookup:40,adjust:30,report:30"));
+
+        InventoryService inventoryService = new InventoryService();
+        int items = inventoryService.countItems();
+        if (items <= 0) {
+            System.err.println("No items to work on; load a data set with DatasetLoader first");
+            return;
+        }
+        maxItemId = Math.max(inventoryService.getItemIdAtOffset(items - 1), 1);
+        if (options.containsKey("warm-cache")) {
+            System.out.println("Warming item cache...");
+            inventoryService.warmCache();
+        }
+        ConnectionPool pool = DBConnection.getPool();
+
+        // Stations in start order, pickers and admins interleaved so both ramp up together
+        List<LoadStation> stations = new ArrayList<>();
+        int total = pickers + admins;
+        for (int i = 0, p = 0, a = 0; i < total; i++) {
+            // Spread admins evenly: station i is an admin when the admin share steps up at i
+            if ((long) (i + 1) * admins / total > (long) i * admins / total) {
+                stations.add(new LoadStation("admin-" + a++, adminMix, intOption("admin-think", 3000), this, seed * 31 + i));
+            } else {
+                stations.add(new LoadStation("picker-" + p++, pickerMix, intOption("picker-think", 500), this, seed * 31 + i));
+            }
+        }
+        System.out.printf("Load test: %d pickers, %d admins, %d items, %s ramp over %ds, %ds total%n",
+            pickers, admins, items, profile, rampMillis / 1000, durationMillis / 1000);
+
+        PrintWriter csv = options.containsKey("csv") ? new PrintWriter(new FileWriter(option("csv", null))) : null;
+        if (csv != null) {
+            csv.println(csvHeader());
+        }
+
+        long startMillis = System.currentTimeMillis();
+        long endMillis = startMillis + durationMillis;
+        long nextReport = startMillis + intervalMillis;
+        List<Thread> threads = new ArrayList<>();
+        while (System.currentTimeMillis() < endMillis) {
+            long elapsed = System.currentTimeMillis() - startMillis;
+            while (threads.size() < stations.size() && threads.size() < stationsDue(profile, elapsed, rampMillis, stations.size())) {
+                LoadStation station = stations.get(threads.size());
+                threads.add(Thread.ofVirtual().name("load-station-" + threads.size()).start(() -> {
+                    activeStations.increment();
+                    try {
+                        station.run();
+                    } finally {
+                        activeStations.decrement();
+                    }
+                }));
+            }
+            long now = System.currentTimeMillis();
+            if (now >= nextReport) {
+                report(now - startMillis, intervalMillis, pool, csv);
+                nextReport += intervalMillis;
+            }
+            Thread.sleep(Math.max(1, Math.min(100, Math.min(nextReport, endMillis) - System.currentTimeMillis())));
+        }
+
+        report(System.currentTimeMillis() - startMillis, System.currentTimeMillis() - (nextReport - intervalMillis), pool, csv);
+        running = false;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (csv != null) {
+            csv.close();
+        }
+        printSummary(System.currentTimeMillis() - startMillis, pool);
+    }
+
+    /**
+     * Number of stations that should be running after some time, according to the profile
+     */
+    static int stationsDue(String profile, long elapsedMillis, long rampMillis, int stations) {
+        if (profile.equals("instant") || rampMillis <= 0 || elapsedMillis >= rampMillis) {
+            return stations;
+        }
+        if (profile.startsWith("steps:")) {
+            int steps = Math.max(1, Integer.parseInt(profile.substring("steps:".length())));
+            long step = elapsedMillis * steps / rampMillis + 1;
+            return (int) (stations * step / steps);
+        }
+        if (!profile.equals("linear")) {
+            throw new IllegalArgumentException("Unknown profile " + profile + "; use linear, steps:N or instant");
+        }
+        return (int) (stations * elapsedMillis / rampMillis) + 1;
+    }
+
+    private void report(long elapsedMillis, long intervalMillis, ConnectionPool pool, PrintWriter csv) {
+        double seconds = Math.max(intervalMillis, 1) / 1000.0;
+        StringBuilder operations = new StringBuilder();
+        StringBuilder row = new StringBuilder().append(elapsedMillis / 1000).append(',').append(activeStations.sum());
+        long intervalOps = 0;
+
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats s = entry.getValue();
+            long[] buckets = s.latency.snapshot();
+            long[] interval = buckets.clone();
+            if (s.lastBuckets != null) {
+                for (int i = 0; i < interval.length; i++) {
+                    interval[i] -= s.lastBuckets[i];
+                }
+            }
+            long count = s.count.sum();
+            long failed = s.failed.sum();
+            long conflicts = s.conflicts.sum();
+            long n = count - s.lastCount;
+            intervalOps += n;
+            operations.append(String.format("; %s %.1f/s", entry.getKey().name().toLowerCase(), n / seconds));
+            row.append(',').append(n);
+            for (double percentile : PERCENTILES) {
+                double millis = n == 0 ? 0 : LatencyHistogram.percentileMillis(interval, percentile);
+                if (n > 0) {
+                    operations.append(String.format(" p%d=%.1fms", Math.round(percentile * 100), millis));
+                }
+                row.append(',').append(String.format("%.3f", millis));
+            }
+            if (failed > s.lastFailed) {
+                operations.append(" fail=").append(failed - s.lastFailed);
+            }
+            if (conflicts > s.lastConflicts) {
+                operations.append(" conflict=").append(conflicts - s.lastConflicts);
+            }
+            row.append(',').append(failed - s.lastFailed).append(',').append(conflicts - s.lastConflicts);
+            s.lastBuckets = buckets;
+            s.lastCount = count;
+            s.lastFailed = failed;
+            s.lastConflicts = conflicts;
+        }
+
+        long errors = 0;
+        long lockErrors = 0;
+        for (OperationMetrics metrics : ServiceMetrics.operations()) {
+            errors += metrics.getErrorCount();
+            lockErrors += metrics.getLockErrorCount();
+        }
+        long timeouts = pool.getTimeoutCount();
+        StringBuilder line = new StringBuilder(String.format("[load] t=%ds stations=%d ops=%.1f/s",
+            elapsedMillis / 1000, activeStations.sum(), intervalOps / seconds));
+        line.append(operations);
+        line.append(String.format("; db errors=%d lock=%d; pool active=%d/%d waiting=%d timeouts=%d waitP99=%.1fms",
+            errors - lastErrors, lockErrors - lastLockErrors, pool.getActiveCount(), pool.getMaxSize(),
+            pool.getWaitingCount(), timeouts - lastPoolTimeouts, pool.getP99WaitMillis()));
+        row.append(',').append(errors - lastErrors).append(',').append(lockErrors - lastLockErrors)
+            .append(',').append(pool.getActiveCount()).append(',').append(pool.getWaitingCount())
+            .append(',').append(timeouts - lastPoolTimeouts).append(',').append(String.format("%.3f", pool.getP99WaitMillis()));
+        lastErrors = errors;
+        lastLockErrors = lockErrors;
+        lastPoolTimeouts = timeouts;
+
+        System.out.println(line);
+        if (csv != null) {
+            csv.println(row);
+            csv.flush();
+        }
+    }
+
+    private static String csvHeader() {
+        StringBuilder header = new StringBuilder("elapsed_s,stations");
+        for (Operation operation : Operation.values()) {
+            String op = operation.name().toLowerCase();
+            header.append(',').append(op).append("_n");
+            for (double percentile : PERCENTILES) {
+                header.append(',').append(op).append("_p").append(Math.round(percentile * 100)).append("_ms");
+            }
+            header.append(',').append(op).append("_failed,").append(op).append("_conflicts");
+        }
+        return header.append(",db_errors,lock_errors,pool_active,pool_waiting,pool_timeouts,pool_wait_p99_ms").toString();
+    }
+
+    private void printSummary(long elapsedMillis, ConnectionPool pool) {
+        double seconds = Math.max(elapsedMillis, 1) / 1000.0;
+        System.out.printf("%nSummary over %.0fs%n", seconds);
+        System.out.printf("%-8s %10s %9s %9s %9s %9s %9s %8s %9s%n",
+            "op", "count", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "failed", "conflict");
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats s = entry.getValue();
+            long count = s.count.sum();
+            System.out.printf("%-8s %10d %9.1f %9.1f %9.1f %9.1f %9.1f %8d %9d%n",
+                entry.getKey().name().toLowerCase(), count, count / seconds,
+                s.latency.getPercentileMillis(0.50), s.latency.getPercentileMillis(0.95),
+                s.latency.getPercentileMillis(0.99), s.latency.getMaxMillis(), s.failed.sum(), s.conflicts.sum());
+        }
+        long errors = 0;
+        long lockErrors = 0;
+        for (OperationMetrics metrics : ServiceMetrics.operations()) {
+            errors += metrics.getErrorCount();
+            lockErrors += metrics.getLockErrorCount();
+            if (metrics.getLockErrorCount() > 0) {
+                System.out.printf("  %s: %d lock wait/deadlock failures%n", metrics.getName(), metrics.getLockErrorCount());
+            }
+        }
+        System.out.printf("Database errors: %d (lock waits and deadlocks: %d)%n", errors, lockErrors);
+        System.out.printf("Pool: max %d, %d borrows, %d timeouts, wait avg %.1fms p99 %.1fms max %.1fms%n",
+            pool.getMaxSize(), pool.getBorrowCount(), pool.getTimeoutCount(),
+            pool.getAverageWaitMillis(), pool.getP99WaitMillis(), pool.getMaxWaitMillis());
+    }
+}
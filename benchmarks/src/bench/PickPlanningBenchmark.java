@@ -0,0 +1,72 @@
+package bench;
+
+import model.InventorySnapshot;
+import model.OrderLine;
+import model.Wave;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.LocationIndex;
+import service.PickPlanner;
+import service.ReportService;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wave planning for a batch of open order lines against a loaded location index, and
+ * building that index from a snapshot
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PickPlanningBenchmark {
+
+    @Param({"10k", "1m", "10m"})
+    public String scale;
+
+    @Param({"100000"})
+    public int orderLines;
+
+    @Param({"8"})
+    public int pickers;
+
+    @Param({"500"})
+    public int maxLinesPerWave;
+
+    private PickPlanner planner;
+    private InventorySnapshot snapshot;
+    private LocationIndex index;
+    private List<OrderLine> lines;
+
+    @Setup
+    public void setup() throws SQLException {
+        SyntheticData data = BenchmarkDatabase.use(scale);
+        planner = new PickPlanner();
+        snapshot = new ReportService().loadInventorySnapshot();
+        index = LocationIndex.build(snapshot);
+        lines = data.orderLines(orderLines);
+    }
+
+    /** Grouping into waves, walk order and the split across pickers */
+    @Benchmark
+    public List<Wave> planWaves() {
+        return planner.planWaves(index, lines, pickers, maxLinesPerWave);
+    }
+
+    @Benchmark
+    public LocationIndex buildLocationIndex() {
+        return LocationIndex.build(snapshot);
+    }
+}
@@ -0,0 +1,66 @@
+package bench;
+
+import model.InventorySnapshot;
+import model.PurchaseOrder;
+import model.ReorderLine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.ReplenishmentPlanner;
+import service.ReportService;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The replenishment planner end to end, and its parallel planning step alone on a
+ * loaded snapshot and demand rates
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplenishmentBenchmark {
+
+    @Param({"10k", "1m", "10m"})
+    public String scale;
+
+    private ReplenishmentPlanner planner;
+    private InventorySnapshot snapshot;
+    private double[] dailyDemand;
+
+    @Setup
+    public void setup() throws SQLException {
+        BenchmarkDatabase.use(scale);
+        planner = new ReplenishmentPlanner();
+        snapshot = new ReportService().loadInventorySnapshot();
+        dailyDemand = planner.loadDemandRates(snapshot);
+    }
+
+    /** Snapshot, demand, planning, item names and supplier grouping */
+    @Benchmark
+    public List<PurchaseOrder> planPurchaseOrders() throws SQLException {
+        return planner.planPurchaseOrders();
+    }
+
+    @Benchmark
+    public double[] loadDemandRates() throws SQLException {
+        return planner.loadDemandRates(snapshot);
+    }
+
+    @Benchmark
+    public Map<Integer, List<ReorderLine>> computeReorderLines() {
+        return planner.computeReorderLines(snapshot, dailyDemand);
+    }
+}
@@ -0,0 +1,76 @@
+package bench;
+
+import model.InventorySnapshot;
+import model.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import service.CsvExporter;
+import service.ReportService;
+import service.SupplierService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-table report work: loading the snapshot behind the reports window,
+ * exporting the inventory CSV, and the supplier list
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportBenchmark {
+
+    @Param({"10k", "1m", "10m"})
+    public String scale;
+
+    private ReportService reportService;
+    private SupplierService supplierService;
+    private CsvExporter csvExporter;
+    private Path csvFile;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkDatabase.use(scale);
+        reportService = new ReportService();
+        supplierService = new SupplierService();
+        csvExporter = new CsvExporter();
+        csvFile = Files.createTempFile("bench-inventory", ".csv");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csvFile);
+    }
+
+    @Benchmark
+    public InventorySnapshot loadInventorySnapshot() throws SQLException {
+        return reportService.loadInventorySnapshot();
+    }
+
+    @Benchmark
+    public long exportInventoryCsv() throws SQLException, IOException {
+        return csvExporter.export(CsvExporter.Report.INVENTORY, csvFile, null);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Supplier> getAllSuppliers() {
+        return supplierService.getAllSuppliers();
+    }
+}
@@ -0,0 +1,62 @@
+package bench;
+
+import model.Item;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import service.InventoryService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading items through ItemRowMapper: one keyset page at a time, as the table view
+ * and the API page, and the whole table through the forward-only stream
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    private static final int PAGE_SIZE = 1000;
+
+    @Param({"10k", "1m", "10m"})
+    public String scale;
+
+    private InventoryService inventoryService;
+    private int itemCount;
+    private int after;
+
+    @Setup
+    public void setup() {
+        itemCount = BenchmarkDatabase.use(scale).getItemCount();
+        inventoryService = new InventoryService();
+    }
+
+    /** Time per mapped row, reading pages that walk through the whole table */
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void mapPage(Blackhole bh) {
+        List<Item> page = inventoryService.getItemsAfter(after, PAGE_SIZE);
+        after = after + PAGE_SIZE >= itemCount ? 0 : after + PAGE_SIZE;
+        bh.consume(page);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long streamAll(Blackhole bh) {
+        return inventoryService.streamItems(bh::consume);
+    }
+}
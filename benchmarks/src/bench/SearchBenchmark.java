@@ -0,0 +1,84 @@
+package bench;
+
+import model.Item;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.ItemCache;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search-as-you-type against a warm item cache, the path InventoryService.searchItems()
+ * takes once the cache holds the whole table. The cache is filled straight from the
+ * generator; at 10m it needs a large heap (see benchmarks/README.md).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final int LIMIT = 50;
+
+    @Param({"10k", "1m", "10m"})
+    public String scale;
+
+    private ItemCache cache;
+
+    @Setup
+    public void setup() {
+        SyntheticData data = new SyntheticData(scale);
+        cache = new ItemCache(data.getItemCount());
+        // Generate items lazily so the full data set never exists twice in memory
+        cache.loadAll(new AbstractList<Item>() {
+            @Override
+            public Item get(int index) {
+                return data.item(index + 1);
+            }
+
+            @Override
+            public int size() {
+                return data.getItemCount();
+            }
+        });
+        if (cache.search("bracket", 1) == null) {
+            throw new IllegalStateException("Item cache did not load completely");
+        }
+    }
+
+    /** Short term answered from the word map, as after the first keystrokes */
+    @Benchmark
+    public List<Item> wordPrefix() {
+        return cache.search("br", LIMIT);
+    }
+
+    /** Substring term answered through trigram postings */
+    @Benchmark
+    public List<Item> trigram() {
+        return cache.search("racke", LIMIT);
+    }
+
+    /** Several terms that must all match, across name, category and location */
+    @Benchmark
+    public List<Item> multiTerm() {
+        return cache.search("steel bracket m8", LIMIT);
+    }
+
+    /** Rare term: few candidates, most of the cost is the postings lookup */
+    @Benchmark
+    public List<Item> sku() {
+        return cache.search("#0000042", LIMIT);
+    }
+}
@@ -0,0 +1,465 @@
+package bench;
+
+import service.ItemRowMapper;
+import service.SupplierRowMapper;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * In-process JDBC stand-in that serves the synthetic data set
+ * URL: jdbc:warehouse-stub:<scale>, e.g. jdbc:warehouse-stub:1m. Answers the queries
+ * the benchmarked service methods send by generating rows on the fly from
+ * SyntheticData, so a 10m-row table costs no memory and no I/O and the benchmark
+ * measures the service layer alone: row mapping, object creation, aggregation and
+ * formatting. Writes are accepted and counted but not stored; inserts receive
+ * increasing generated keys. Any other query fails with SQLFeatureNotSupportedException
+ * so a benchmark cannot silently measure nothing.
+ */
+public final class StubDriver implements Driver {
+
+    public static final String URL_PREFIX = "jdbc:warehouse-stub:";
+
+    // Queries answered, as the services build them
+    private static final String SELECT_ITEMS = "SELECT " + ItemRowMapper.COLUMNS + " FROM items";
+    private static final String SELECT_SUPPLIERS = "SELECT " + SupplierRowMapper.COLUMNS + " FROM suppliers";
+    private static final String SNAPSHOT_PREFIX = "SELECT id, COALESCE(quantity, 0), COALESCE(min_stock_level, 0), ";
+    private static final String EXPORT_PREFIX = "SELECT id, name, quantity, location, category, description, min_stock_level, " +
+            "CAST(ROUND(price * 100) AS SIGNED), supplier_id, created_date, updated_date FROM items";
+    private static final String DEMAND_PREFIX = "SELECT item_id, DATEDIFF(CURRENT_DATE, movement_date), SUM(quantity) ";
+    private static final String NAMES_PREFIX = "SELECT id, name FROM items WHERE id IN (";
+
+    private static final DateTimeFormatter DATETIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Generated keys start above the largest data set so they never collide with its IDs
+    private static final AtomicInteger NEXT_KEY = new AtomicInteger(100_000_001);
+    private static final LongAdder ROWS_WRITTEN = new LongAdder();
+    private static final Map<String, SyntheticData> DATA = new ConcurrentHashMap<>();
+
+    static {
+        try {
+            DriverManager.registerDriver(new StubDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Make sure the driver is registered with DriverManager
+     */
+    public static void register() {
+        // Registration happens in the static initializer
+    }
+
+    /**
+     * Number of rows inserted, updated or deleted through the driver so far
+     */
+    public static long rowsWritten() {
+        return ROWS_WRITTEN.sum();
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        String scale = url.substring(URL_PREFIX.length());
+        SyntheticData data = DATA.computeIfAbsent(scale, SyntheticData::new);
+        return proxy(Connection.class, new ConnectionHandler(data));
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StubDriver.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    /**
+     * Result for methods the stand-in ignores, e.g. setAutoCommit() or setFetchSize()
+     */
+    private static Object defaultValue(Method method, Object self, Object[] args) {
+        switch (method.getName()) {
+            case "isValid":
+                return true;
+            case "unwrap":
+                return self;
+            case "isWrapperFor":
+                return ((Class<?>) args[0]).isInstance(self);
+            case "equals":
+                return self == args[0];
+            case "hashCode":
+                return System.identityHashCode(self);
+            case "toString":
+                return "StubDriver " + method.getDeclaringClass().getSimpleName();
+            default:
+                break;
+        }
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        return null;
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final SyntheticData data;
+        private boolean autoCommit = true;
+        private boolean readOnly;
+
+        ConnectionHandler(SyntheticData data) {
+            this.data = data;
+        }
+
+        @Override
+        public Object invoke(Object self, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, new StatementHandler(data, (String) args[0]));
+                case "createStatement":
+                    return proxy(PreparedStatement.class, new StatementHandler(data, null));
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "getAutoCommit":
+                    return autoCommit;
+                case "setReadOnly":
+                    readOnly = (Boolean) args[0];
+                    return null;
+                case "isReadOnly":
+                    return readOnly;
+                default:
+                    return defaultValue(method, self, args);
+            }
+        }
+    }
+
+    /**
+     * Handles both Statement and PreparedStatement; a plain statement has no SQL until executed
+     */
+    private static final class StatementHandler implements InvocationHandler {
+        private final SyntheticData data;
+        private final String sql;
+        private final Map<Integer, Object> params = new HashMap<>();
+        private int batched;
+        private int firstKey;
+        private int keyCount;
+
+        StatementHandler(SyntheticData data, String sql) {
+            this.data = data;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object self, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                params.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                return null;
+            }
+            switch (name) {
+                case "executeQuery":
+                    return query(args != null && args.length > 0 ? (String) args[0] : sql);
+                case "addBatch":
+                    batched++;
+                    return null;
+                case "clearBatch":
+                    batched = 0;
+                    return null;
+                case "executeBatch": {
+                    int[] counts = new int[batched];
+                    Arrays.fill(counts, 1);
+                    written(batched);
+                    batched = 0;
+                    return counts;
+                }
+                case "executeUpdate":
+                    written(1);
+                    return 1;
+                case "execute":
+                    written(1);
+                    return false;
+                case "getGeneratedKeys":
+                    return rows(firstKey, firstKey + keyCount - 1, (id, column) -> id);
+                case "clearParameters":
+                    params.clear();
+                    return null;
+                default:
+                    return defaultValue(method, self, args);
+            }
+        }
+
+        private void written(int rows) {
+            ROWS_WRITTEN.add(rows);
+            firstKey = NEXT_KEY.getAndAdd(rows);
+            keyCount = rows;
+        }
+
+        private int intParam(int index) throws SQLException {
+            Object value = params.get(index);
+            if (!(value instanceof Number)) {
+                throw new SQLException("Parameter " + index + " not set");
+            }
+            return ((Number) value).intValue();
+        }
+
+        private ResultSet query(String sql) throws SQLException {
+            int count = data.getItemCount();
+            if (sql.startsWith(SELECT_ITEMS)) {
+                String where = sql.substring(SELECT_ITEMS.length()).trim();
+                if (where.equals("ORDER BY id")) {
+                    return rows(1, count, this::itemColumn);
+                }
+                if (where.equals("WHERE id = ?")) {
+                    int id = intParam(1);
+                    return id >= 1 && id <= count ? rows(id, id, this::itemColumn) : rows(1, 0, null);
+                }
+                if (where.equals("WHERE id > ? ORDER BY id LIMIT ?")) {
+                    int after = Math.max(intParam(1), 0);
+                    return rows(after + 1, (int) Math.min((long) after + intParam(2), count), this::itemColumn);
+                }
+            } else if (sql.startsWith(SNAPSHOT_PREFIX)) {
+                return rows(1, count, this::snapshotColumn);
+            } else if (sql.equals(EXPORT_PREFIX + " ORDER BY id")) {
+                return rows(1, count, this::exportColumn);
+            } else if (sql.equals(SELECT_SUPPLIERS + " ORDER BY id")) {
+                return rows(1, data.getSupplierCount(), this::supplierColumn);
+            } else if (sql.equals(SELECT_SUPPLIERS + " WHERE id = ?")) {
+                int id = intParam(1);
+                return id >= 1 && id <= data.getSupplierCount() ? rows(id, id, this::supplierColumn) : rows(1, 0, null);
+            } else if (sql.equals("SELECT COUNT(*) FROM items")) {
+                return rows(count, count, (id, column) -> id);
+            } else if (sql.equals("SELECT id FROM items ORDER BY id LIMIT 1 OFFSET ?")) {
+                int id = intParam(1) + 1;
+                return id >= 1 && id <= count ? rows(id, id, (row, column) -> row) : rows(1, 0, null);
+            } else if (sql.startsWith(DEMAND_PREFIX)) {
+                return rows(1, count * SyntheticData.DEMAND_WEEKS, this::demandColumn);
+            } else if (sql.startsWith(NAMES_PREFIX)) {
+                int[] ids = new int[params.size()];
+                int found = 0;
+                for (int i = 1; i <= ids.length; i++) {
+                    int id = intParam(i);
+                    if (id >= 1 && id <= count) {
+                        ids[found++] = id;
+                    }
+                }
+                return rows(1, found, (row, column) -> column == 1 ? ids[row - 1] : data.name(ids[row - 1]));
+            } else if (sql.equals("SHOW REPLICA STATUS")) {
+                return rows(1, 0, null);
+            }
+            throw new SQLFeatureNotSupportedException("Stub driver does not answer: " + sql);
+        }
+
+        // ItemRowMapper.COLUMNS
+        private Object itemColumn(int id, int column) {
+            switch (column) {
+                case 1: return id;
+                case 2: return data.name(id);
+                case 3: return data.quantity(id);
+                case 4: return data.location(id);
+                case 5: return data.category(id);
+                case 6: return data.description(id);
+                case 7: return data.minStockLevel(id);
+                case 8: return data.price(id);
+                case 9: return nullIfZero(data.supplierId(id));
+                case 10: return datetime(data.createdMillis(id));
+                case 11: return datetime(data.updatedMillis(id));
+                case 12: return id % 7;
+                default: return null;
+            }
+        }
+
+        // ReportService.loadInventorySnapshot()
+        private Object snapshotColumn(int id, int column) {
+            switch (column) {
+                case 1: return id;
+                case 2: return data.quantity(id);
+                case 3: return data.minStockLevel(id);
+                case 4: return data.priceCents(id);
+                case 5: return data.supplierId(id);
+                case 6: return data.category(id);
+                case 7: return data.location(id);
+                case 8: return data.createdMillis(id);
+                case 9: return data.updatedMillis(id);
+                default: return null;
+            }
+        }
+
+        // ReplenishmentPlanner.loadDemandRates(): DEMAND_WEEKS rows per item, one a week back from yesterday
+        private Object demandColumn(int row, int column) {
+            int id = (row - 1) / SyntheticData.DEMAND_WEEKS + 1;
+            int week = (row - 1) % SyntheticData.DEMAND_WEEKS;
+            switch (column) {
+                case 1: return id;
+                case 2: return 1 + 7 * week;
+                case 3: return data.unitsPicked(id, week);
+                default: return null;
+            }
+        }
+
+        // CsvExporter.Report.INVENTORY
+        private Object exportColumn(int id, int column) {
+            switch (column) {
+                case 8: return data.priceCents(id);
+                case 9: return nullIfZero(data.supplierId(id));
+                case 10: return datetime(data.createdMillis(id));
+                case 11: return datetime(data.updatedMillis(id));
+                default: return itemColumn(id, column);
+            }
+        }
+
+        // SupplierRowMapper.COLUMNS
+        private Object supplierColumn(int id, int column) {
+            switch (column) {
+                case 1: return id;
+                case 2: return data.supplier(id).getName();
+                case 3: return data.supplier(id).getContact();
+                case 4: return data.supplier(id).getAddress();
+                default: return null;
+            }
+        }
+
+        private static Integer nullIfZero(int value) {
+            return value == 0 ? null : value;
+        }
+
+        private static String datetime(long millis) {
+            return LocalDateTime.ofEpochSecond(millis / 1000, 0, ZoneOffset.UTC).format(DATETIME);
+        }
+    }
+
+    /**
+     * Produces the value of one column of the row for an ID
+     */
+    private interface RowSource {
+        Object column(int id, int column);
+    }
+
+    private static ResultSet rows(int first, int last, RowSource source) {
+        return proxy(ResultSet.class, new ResultSetHandler(first, last, source));
+    }
+
+    /**
+     * Forward-only result set over the IDs first to last
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final int last;
+        private final RowSource source;
+        private int current;
+        private boolean wasNull;
+        private boolean closed;
+
+        ResultSetHandler(int first, int last, RowSource source) {
+            this.current = first - 1;
+            this.last = last;
+            this.source = source;
+        }
+
+        @Override
+        public Object invoke(Object self, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "next":
+                    if (closed || current >= last) {
+                        return false;
+                    }
+                    current++;
+                    return true;
+                case "wasNull":
+                    return wasNull;
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                default:
+                    break;
+            }
+            if (name.startsWith("get") && args != null && args.length == 1 && args[0] instanceof Integer) {
+                if (closed || current < 1 || current > last) {
+                    throw new SQLException("Result set not positioned on a row");
+                }
+                Object value = source.column(current, (Integer) args[0]);
+                wasNull = value == null;
+                return convert(value, method.getReturnType());
+            }
+            if (name.startsWith("get") && args != null && args.length == 1 && args[0] instanceof String) {
+                throw new SQLFeatureNotSupportedException("Stub driver reads columns by position only");
+            }
+            return defaultValue(method, self, args);
+        }
+
+        private static Object convert(Object value, Class<?> type) {
+            if (type == String.class) {
+                return value == null ? null : value.toString();
+            }
+            Number number = value instanceof Number ? (Number) value : 0;
+            if (type == int.class) {
+                return number.intValue();
+            }
+            if (type == long.class) {
+                return number.longValue();
+            }
+            if (type == double.class) {
+                return number.doubleValue();
+            }
+            return value;
+        }
+    }
+}
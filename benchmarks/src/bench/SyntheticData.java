@@ -0,0 +1,230 @@
+package bench;
+
+import model.Item;
+import model.OrderLine;
+import model.Supplier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic synthetic items and suppliers for benchmarks
+ * Every value is a pure function of the row number, so row 7 of the 10m data set is
+ * the same on every run and every machine, and any row can be produced directly
+ * without generating the ones before it. Categories follow a skewed distribution
+ * (a few large categories, a long tail) like a real catalogue.
+ */
+public final class SyntheticData {
+
+    /** Data set sizes benchmarks are parameterised with */
+    public static final String[] SCALES = {"10k", "1m", "10m"};
+
+    /** Weeks of movement history behind unitsPicked() */
+    public static final int DEMAND_WEEKS = 8;
+
+    private static final String[] ADJECTIVES = {
+        "Steel", "Plastic", "Heavy Duty", "Compact", "Wireless", "Industrial", "Galvanized", "Insulated",
+        "Adjustable", "Folding", "Reinforced", "Portable", "Magnetic", "Waterproof", "Digital", "Premium"
+    };
+    private static final String[] NOUNS = {
+        "Bracket", "Hinge", "Cable", "Monitor", "Keyboard", "Drill", "Pallet", "Shelf", "Bolt", "Washer",
+        "Clamp", "Hose", "Valve", "Switch", "Sensor", "Fan", "Ladder", "Crate", "Tape", "Battery",
+        "Charger", "Router", "Lamp", "Glove", "Helmet", "Filter", "Pump", "Spring", "Chain", "Wheel"
+    };
+    private static final String[] SIZES = {"XS", "S", "M", "L", "XL", "M4", "M6", "M8", "M10", "1m", "2m", "5m"};
+    private static final String[] CATEGORIES = {
+        "Electronics", "Hardware", "Office Supplies", "Tools", "Safety", "Packaging", "Electrical", "Plumbing",
+        "Fasteners", "Cleaning", "Lighting", "Storage", "Automotive", "Garden", "Networking", "Furniture",
+        "Paint", "Adhesives", "Abrasives", "Hydraulics", "Pneumatics", "Welding", "Lab Equipment", "Medical",
+        "Food Service", "Janitorial", "Signage", "Textiles", "Batteries", "Cables"
+    };
+    private static final String[] SUPPLIER_WORDS = {
+        "Tech", "Office", "Global", "Prime", "Metro", "Allied", "United", "Summit", "Pioneer", "Atlas"
+    };
+    private static final String[] CITIES = {"Austin, TX", "New York, NY", "Denver, CO", "Seattle, WA", "Atlanta, GA"};
+
+    // Fixed epoch for created/updated dates so timestamps do not depend on when the data was generated
+    private static final long BASE_MILLIS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    private static final long YEAR_MILLIS = 365L * 24 * 60 * 60 * 1000;
+
+    private final int itemCount;
+    private final int supplierCount;
+
+    /**
+     * Constructor
+     * @param scale Data set size: "10k", "1m" or "10m", or a plain number of items
+     */
+    public SyntheticData(String scale) {
+        this.itemCount = parseScale(scale);
+        this.supplierCount = Math.max(10, itemCount / 1000);
+    }
+
+    /**
+     * Parse a scale such as "10k" or "1m"
+     * @param scale Scale text
+     * @return Number of items
+     */
+    public static int parseScale(String scale) {
+        String s = scale.trim().toLowerCase();
+        if (s.endsWith("k")) {
+            return Integer.parseInt(s.substring(0, s.length() - 1)) * 1_000;
+        }
+        if (s.endsWith("m")) {
+            return Integer.parseInt(s.substring(0, s.length() - 1)) * 1_000_000;
+        }
+        return Integer.parseInt(s);
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public int getSupplierCount() {
+        return supplierCount;
+    }
+
+    // Random but reproducible bits for (row, field); splitmix64 finalizer
+    private static long mix(long row, int field) {
+        long z = row * 0x9E3779B97F4A7C15L + field * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int pick(long row, int field, int bound) {
+        return (int) Math.floorMod(mix(row, field), (long) bound);
+    }
+
+    // Skewed towards low indexes: the square of a uniform value in [0, 1)
+    private static int pickSkewed(long row, int field, int bound) {
+        double u = (mix(row, field) >>> 11) * 0x1.0p-53;
+        return (int) (u * u * bound);
+    }
+
+    // Zero-padded number; String.format would dominate the cost of generating a row
+    private static String pad(int value, int width) {
+        String digits = Integer.toString(value);
+        return digits.length() >= width ? digits : "0".repeat(width - digits.length()) + digits;
+    }
+
+    /**
+     * Item name for an ID, e.g. "Galvanized Bracket M8 #0000123"
+     * Names repeat word combinations so search terms match many rows, and end in
+     * a SKU number so each name is unique
+     */
+    public String name(int id) {
+        return ADJECTIVES[pick(id, 1, ADJECTIVES.length)] + " " + NOUNS[pick(id, 2, NOUNS.length)] + " "
+            + SIZES[pick(id, 3, SIZES.length)] + " #" + pad(id, 7);
+    }
+
+    public int quantity(int id) {
+        // About one item in ten is at or below its minimum stock level
+        return pick(id, 4, 10) == 0 ? pick(id, 5, 10) : 10 + pick(id, 5, 990);
+    }
+
+    public String location(int id) {
+        // Aisles A-T, racks 1-40, shelves 01-20, in the "A1-01" format of the sample data
+        return (char) ('A' + pick(id, 6, 20)) + Integer.toString(1 + pick(id, 7, 40))
+            + "-" + pad(1 + pick(id, 8, 20), 2);
+    }
+
+    public String category(int id) {
+        // A few rows have no category, as in a real table
+        return pick(id, 9, 50) == 0 ? null : CATEGORIES[pickSkewed(id, 10, CATEGORIES.length)];
+    }
+
+    public String description(int id) {
+        return pick(id, 11, 3) == 0 ? null : "Synthetic item " + id + " for benchmarking";
+    }
+
+    public int minStockLevel(int id) {
+        return 5 + pick(id, 12, 20);
+    }
+
+    public long priceCents(int id) {
+        return 99 + pick(id, 13, 99_900);
+    }
+
+    public double price(int id) {
+        return priceCents(id) / 100.0;
+    }
+
+    /** Supplier ID for an item; 0 (no supplier) for about one item in twenty */
+    public int supplierId(int id) {
+        return pick(id, 14, 20) == 0 ? 0 : 1 + pick(id, 15, supplierCount);
+    }
+
+    /**
+     * Units of an item picked on one day of its movement history
+     * The history has a day with picks once a week for the last DEMAND_WEEKS weeks;
+     * about one item in four is never picked
+     * @param id Item ID
+     * @param week 0 for yesterday, 1 for a week before, up to DEMAND_WEEKS - 1
+     */
+    public int unitsPicked(int id, int week) {
+        int weeklyMax = pick(id, 25, 4) == 0 ? 0 : 1 + pickSkewed(id, 26, 400);
+        return weeklyMax == 0 ? 0 : pick((long) id * DEMAND_WEEKS + week, 27, weeklyMax + 1);
+    }
+
+    /**
+     * Open order lines for pick planning, a few lines per order
+     * Orders have 1 to 8 lines, most of them few, and low item IDs are ordered most often
+     * @param count Number of lines
+     * @return Lines of orders 1, 2, ... in order
+     */
+    public List<OrderLine> orderLines(int count) {
+        List<OrderLine> lines = new ArrayList<>(count);
+        int orderId = 0;
+        int left = 0;
+        for (int n = 0; n < count; n++) {
+            if (left == 0) {
+                orderId++;
+                left = 1 + pickSkewed(orderId, 28, 8);
+            }
+            left--;
+            lines.add(new OrderLine(orderId, 1 + pickSkewed(n, 29, itemCount), 1 + pickSkewed(n, 30, 10)));
+        }
+        return lines;
+    }
+
+    public long createdMillis(int id) {
+        return BASE_MILLIS + Math.floorMod(mix(id, 16), YEAR_MILLIS);
+    }
+
+    public long updatedMillis(int id) {
+        return createdMillis(id) + Math.floorMod(mix(id, 17), YEAR_MILLIS / 4);
+    }
+
+    /**
+     * Build the item with an ID, 1 to getItemCount()
+     * @param id Item ID
+     * @return Item with every column filled in
+     */
+    public Item item(int id) {
+        return new Item(id, name(id), quantity(id), location(id), category(id), description(id),
+            minStockLevel(id), price(id), supplierId(id));
+    }
+
+    /**
+     * Build the supplier with an ID, 1 to getSupplierCount()
+     * @param id Supplier ID
+     * @return Supplier
+     */
+    public Supplier supplier(int id) {
+        String name = SUPPLIER_WORDS[pick(id, 20, SUPPLIER_WORDS.length)] + " "
+            + SUPPLIER_WORDS[pick(id, 21, SUPPLIER_WORDS.length)] + " Supply " + id;
+        String contact = "555-" + pad(pick(id, 22, 10_000), 4);
+        String address = (1 + pick(id, 23, 999)) + " Industrial Way, " + CITIES[pick(id, 24, CITIES.length)];
+        return new Supplier(id, name, contact, address);
+    }
+
+    /**
+     * Build a new item that is not part of the data set, for insert benchmarks
+     * @param n Sequence number; the item gets ID 0 so the database assigns one
+     * @return Item without an ID
+     */
+    public Item newItem(int n) {
+        Item item = item(itemCount + 1 + n);
+        item.setId(0);
+        return item;
+    }
+}
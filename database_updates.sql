@@ -69,3 +69,188 @@ UPDATE items SET min_stock_level = 20, price = 999.99 WHERE name = 'Laptop';
 UPDATE items SET min_stock_level = 50, price = 25.99 WHERE name = 'Mouse';
 UPDATE items SET min_stock_level = 30, price = 75.99 WHERE name = 'Keyboard';
 UPDATE items SET min_stock_level = 15, price = 299.99 WHERE name = 'Monitor';
+
+-- Index used by the category report GROUP BY and category lookups
+CREATE INDEX idx_items_category ON items (category);
+
+-- Index used to re-fetch only items changed since the last cache sync
+CREATE INDEX idx_items_updated_date ON items (updated_date, id);
+
+-- Tombstones for deleted items, read by the item change feed
+CREATE TABLE IF NOT EXISTS item_deletions (
+    seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+    item_id INT NOT NULL,
+    deleted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_item_deletions_deleted_at (deleted_at)
+);
+
+CREATE TRIGGER trg_items_after_delete
+AFTER DELETE ON items
+FOR EACH ROW
+INSERT INTO item_deletions (item_id) VALUES (OLD.id);
+
+-- Replay position of each station's offline journal, so journaled changes are applied exactly once
+CREATE TABLE IF NOT EXISTS journal_applied (
+    station VARCHAR(64) PRIMARY KEY,
+    last_seq BIGINT NOT NULL
+);
+
+-- Running item totals per category, location and supplier, kept current by the item triggers below
+-- so reports read O(categories) rows instead of scanning items. Each total is split over 16 slots
+-- (item id % 16) so concurrent writers to one hot category rarely lock the same row; readers sum the slots.
+-- Items without a category, location or supplier are counted under ''.
+CREATE TABLE IF NOT EXISTS item_summaries (
+    dimension VARCHAR(16) NOT NULL,
+    dim_value VARCHAR(100) NOT NULL,
+    slot TINYINT NOT NULL,
+    item_count INT NOT NULL DEFAULT 0,
+    total_quantity BIGINT NOT NULL DEFAULT 0,
+    total_value_cents BIGINT NOT NULL DEFAULT 0,
+    low_stock_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (dimension, dim_value, slot)
+);
+
+-- Totals being rebuilt by the reconciliation job, swapped into item_summaries when complete
+CREATE TABLE IF NOT EXISTS item_summaries_rebuild LIKE item_summaries;
+
+-- Progress of the running rebuild; items below next_item_id are already in item_summaries_rebuild
+CREATE TABLE IF NOT EXISTS item_summary_rebuild_state (
+    id TINYINT PRIMARY KEY,
+    active BOOLEAN NOT NULL DEFAULT FALSE,
+    next_item_id INT NOT NULL DEFAULT 0
+);
+INSERT IGNORE INTO item_summary_rebuild_state (id) VALUES (1);
+
+DELIMITER //
+
+-- One statement for all three dimensions: the hot path is a quantity update per scan, so
+-- one multi-row upsert instead of three. Rows are listed in key order so writers lock them alike.
+CREATE PROCEDURE bump_item_summary(IN p_rebuild BOOLEAN, IN p_category VARCHAR(50), IN p_location VARCHAR(100),
+    IN p_supplier_id INT, IN p_slot TINYINT, IN p_count INT, IN p_quantity BIGINT, IN p_value_cents BIGINT, IN p_low INT)
+BEGIN
+    IF p_rebuild THEN
+        INSERT INTO item_summaries_rebuild
+            (dimension, dim_value, slot, item_count, total_quantity, total_value_cents, low_stock_count)
+        VALUES ('CATEGORY', COALESCE(p_category, ''), p_slot, p_count, p_quantity, p_value_cents, p_low),
+            ('LOCATION', COALESCE(p_location, ''), p_slot, p_count, p_quantity, p_value_cents, p_low),
+            ('SUPPLIER', COALESCE(p_supplier_id, ''), p_slot, p_count, p_quantity, p_value_cents, p_low)
+        ON DUPLICATE KEY UPDATE item_count = item_count + p_count, total_quantity = total_quantity + p_quantity,
+            total_value_cents = total_value_cents + p_value_cents, low_stock_count = low_stock_count + p_low;
+    ELSE
+        INSERT INTO item_summaries
+            (dimension, dim_value, slot, item_count, total_quantity, total_value_cents, low_stock_count)
+        VALUES ('CATEGORY', COALESCE(p_category, ''), p_slot, p_count, p_quantity, p_value_cents, p_low),
+            ('LOCATION', COALESCE(p_location, ''), p_slot, p_count, p_quantity, p_value_cents, p_low),
+            ('SUPPLIER', COALESCE(p_supplier_id, ''), p_slot, p_count, p_quantity, p_value_cents, p_low)
+        ON DUPLICATE KEY UPDATE item_count = item_count + p_count, total_quantity = total_quantity + p_quantity,
+            total_value_cents = total_value_cents + p_value_cents, low_stock_count = low_stock_count + p_low;
+    END IF;
+END //
+
+-- Add one item's contribution (or remove it, with negative figures) to every summary
+CREATE PROCEDURE apply_item_summary(IN p_item_id INT, IN p_category VARCHAR(50), IN p_location VARCHAR(100),
+    IN p_supplier_id INT, IN p_count INT, IN p_quantity BIGINT, IN p_value_cents BIGINT, IN p_low INT)
+BEGIN
+    DECLARE v_slot TINYINT DEFAULT p_item_id % 16;
+    DECLARE v_active BOOLEAN DEFAULT FALSE;
+    DECLARE v_next_item_id INT DEFAULT 0;
+
+    -- Locking read: waits for a rebuild chunk in progress and sees its committed cursor.
+    -- Taken before any summary row; the rebuild takes it before anything else and never
+    -- waits for item locks while holding it. A transaction writing many items takes it once.
+    SELECT active, next_item_id INTO v_active, v_next_item_id
+    FROM item_summary_rebuild_state WHERE id = 1 LOCK IN SHARE MODE;
+
+    CALL bump_item_summary(FALSE, p_category, p_location, p_supplier_id, v_slot, p_count, p_quantity, p_value_cents, p_low);
+    IF v_active AND p_item_id < v_next_item_id THEN
+        CALL bump_item_summary(TRUE, p_category, p_location, p_supplier_id, v_slot, p_count, p_quantity, p_value_cents, p_low);
+    END IF;
+END //
+
+CREATE TRIGGER trg_items_summary_after_insert
+AFTER INSERT ON items
+FOR EACH ROW
+BEGIN
+    CALL apply_item_summary(NEW.id, NEW.category, NEW.location, NEW.supplier_id, 1,
+        COALESCE(NEW.quantity, 0),
+        COALESCE(NEW.quantity, 0) * ROUND(COALESCE(NEW.price, 0) * 100),
+        IF(COALESCE(NEW.quantity, 0) <= COALESCE(NEW.min_stock_level, 0), 1, 0));
+END //
+
+CREATE TRIGGER trg_items_summary_after_update
+AFTER UPDATE ON items
+FOR EACH ROW
+BEGIN
+    IF OLD.id = NEW.id AND OLD.category <=> NEW.category AND OLD.location <=> NEW.location
+            AND OLD.supplier_id <=> NEW.supplier_id THEN
+        -- Same summary rows: apply the difference in one pass (the common quantity-only case)
+        IF NOT (OLD.quantity <=> NEW.quantity AND OLD.price <=> NEW.price
+                AND OLD.min_stock_level <=> NEW.min_stock_level) THEN
+            CALL apply_item_summary(NEW.id, NEW.category, NEW.location, NEW.supplier_id, 0,
+                COALESCE(NEW.quantity, 0) - COALESCE(OLD.quantity, 0),
+                COALESCE(NEW.quantity, 0) * ROUND(COALESCE(NEW.price, 0) * 100)
+                    - COALESCE(OLD.quantity, 0) * ROUND(COALESCE(OLD.price, 0) * 100),
+                IF(COALESCE(NEW.quantity, 0) <= COALESCE(NEW.min_stock_level, 0), 1, 0)
+                    - IF(COALESCE(OLD.quantity, 0) <= COALESCE(OLD.min_stock_level, 0), 1, 0));
+        END IF;
+    ELSE
+        CALL apply_item_summary(OLD.id, OLD.category, OLD.location, OLD.supplier_id, -1,
+            -COALESCE(OLD.quantity, 0),
+            -COALESCE(OLD.quantity, 0) * ROUND(COALESCE(OLD.price, 0) * 100),
+            -IF(COALESCE(OLD.quantity, 0) <= COALESCE(OLD.min_stock_level, 0), 1, 0));
+        CALL apply_item_summary(NEW.id, NEW.category, NEW.location, NEW.supplier_id, 1,
+            COALESCE(NEW.quantity, 0),
+            COALESCE(NEW.quantity, 0) * ROUND(COALESCE(NEW.price, 0) * 100),
+            IF(COALESCE(NEW.quantity, 0) <= COALESCE(NEW.min_stock_level, 0), 1, 0));
+    END IF;
+END //
+
+CREATE TRIGGER trg_items_summary_after_delete
+AFTER DELETE ON items
+FOR EACH ROW
+BEGIN
+    CALL apply_item_summary(OLD.id, OLD.category, OLD.location, OLD.supplier_id, -1,
+        -COALESCE(OLD.quantity, 0),
+        -COALESCE(OLD.quantity, 0) * ROUND(COALESCE(OLD.price, 0) * 100),
+        -IF(COALESCE(OLD.quantity, 0) <= COALESCE(OLD.min_stock_level, 0), 1, 0));
+END //
+
+DELIMITER ;
+
+-- Seed the summaries from the existing items
+INSERT INTO item_summaries (dimension, dim_value, slot, item_count, total_quantity, total_value_cents, low_stock_count)
+SELECT 'CATEGORY', COALESCE(category, ''), id % 16, COUNT(*), SUM(COALESCE(quantity, 0)),
+    SUM(COALESCE(quantity, 0) * ROUND(COALESCE(price, 0) * 100)),
+    SUM(IF(COALESCE(quantity, 0) <= COALESCE(min_stock_level, 0), 1, 0))
+FROM items GROUP BY COALESCE(category, ''), id % 16;
+INSERT INTO item_summaries (dimension, dim_value, slot, item_count, total_quantity, total_value_cents, low_stock_count)
+SELECT 'LOCATION', COALESCE(location, ''), id % 16, COUNT(*), SUM(COALESCE(quantity, 0)),
+    SUM(COALESCE(quantity, 0) * ROUND(COALESCE(price, 0) * 100)),
+    SUM(IF(COALESCE(quantity, 0) <= COALESCE(min_stock_level, 0), 1, 0))
+FROM items GROUP BY COALESCE(location, ''), id % 16;
+INSERT INTO item_summaries (dimension, dim_value, slot, item_count, total_quantity, total_value_cents, low_stock_count)
+SELECT 'SUPPLIER', COALESCE(supplier_id, ''), id % 16, COUNT(*), SUM(COALESCE(quantity, 0)),
+    SUM(COALESCE(quantity, 0) * ROUND(COALESCE(price, 0) * 100)),
+    SUM(IF(COALESCE(quantity, 0) <= COALESCE(min_stock_level, 0), 1, 0))
+FROM items GROUP BY COALESCE(supplier_id, ''), id % 16;
+
+-- Row version for optimistic concurrency: item edits are written with
+-- UPDATE ... WHERE id = ? AND version = ? and fail instead of overwriting a newer change.
+-- The trigger bumps it on every update, including stock movements and imports.
+ALTER TABLE items ADD COLUMN version INT NOT NULL DEFAULT 0;
+
+CREATE TRIGGER trg_items_before_update
+BEFORE UPDATE ON items
+FOR EACH ROW
+SET NEW.version = OLD.version + 1;
+
+-- Covering index for the replenishment planner's demand query: a range scan over
+-- recent OUT movements that never reads the table rows
+CREATE INDEX idx_stock_movements_type_date ON stock_movements (movement_type, movement_date, item_id, quantity);
+
+-- Every scan and adjustment now writes a movement row, so the plain foreign key made any
+-- item that was ever moved impossible to delete. Its movements go with it instead.
+ALTER TABLE stock_movements
+DROP FOREIGN KEY stock_movements_ibfk_1,
+ADD CONSTRAINT fk_stock_movements_item
+FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE;
@@ -1,6 +1,11 @@
 import java.sql.*;
+import api.ApiServer;
 import gui.LoginFrame;
 import database.DBConnection;
+import service.InventoryService;
+import service.OfflineJournal;
+import service.StockAlertEngine;
+import service.SummaryReconciler;
 import javax.swing.*;
 
 /**
@@ -11,28 +16,47 @@ public class Main {
     
     /**
      * Main method - entry point of the application
-     * @param args command line arguments (not used)
+     * @param args command line arguments; --server starts the headless HTTP API instead of the GUI
      */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--server")) {
+            runServer();
+            return;
+        }
+        
         // Set look and feel to system default (optional)
         // UIManager.setLookAndFeel(UIManager.getSystemLookAndFeel());
         
         // Test database connection
         System.out.println("Testing database connection...");
+        boolean offline = false;
         if (!DBConnection.testConnection()) {
-            JOptionPane.showMessageDialog(null, 
+            int choice = JOptionPane.showConfirmDialog(null, 
                 "Failed to connect to database!\n\n" +
                 "Please ensure:\n" +
                 "1. MySQL server is running\n" +
                 "2. Database 'warehouse_db' exists\n" +
                 "3. Username and password in DBConnection.java are correct\n" +
-                "4. MySQL JDBC driver is in classpath", 
+                "4. MySQL JDBC driver is in classpath\n\n" +
+                "Work offline? Item changes are saved locally and\n" +
+                "applied to the database once it is reachable again.", 
                 "Database Connection Error", 
+                JOptionPane.YES_NO_OPTION,
                 JOptionPane.ERROR_MESSAGE);
-            System.exit(1);
+            if (choice != JOptionPane.YES_OPTION) {
+                System.exit(1);
+            }
+            offline = true;
         }
         
-        System.out.println("Database connection successful!");
+        if (offline) {
+            System.out.println("Working offline, item changes go to the local journal");
+            // The database-backed services start once the journal has reached the database
+            OfflineJournal.getInstance().goOffline(Main::startServices);
+        } else {
+            System.out.println("Database connection successful!");
+            startServices();
+        }
         
         // Create and show login frame on EDT
         SwingUtilities.invokeLater(() -> {
@@ -48,5 +72,37 @@ public class Main {
             }
         });
     }
+    
+    /**
+     * Start the background services that need the database
+     */
+    private static void startServices() {
+        // Warm the item cache in the background so lookups are served from memory,
+        // then start low stock alerts, whose initial query the warm cache answers
+        Thread.ofVirtual().name("item-cache-warmup").start(() -> {
+            new InventoryService().warmCache();
+            StockAlertEngine.getInstance().start();
+        });
+        
+        // Periodically correct any drift in the report summary totals
+        SummaryReconciler.getInstance().start();
+    }
+    
+    /**
+     * Run headless, serving the JSON HTTP API until the process is stopped
+     */
+    private static void runServer() {
+        System.out.println("Testing database connection...");
+        if (!DBConnection.testConnection()) {
+            System.err.println("Failed to connect to database, exiting");
+            System.exit(1);
+        }
+        
+        new InventoryService().warmCache();
+        StockAlertEngine.getInstance().start();
+        SummaryReconciler.getInstance().start();
+        if (!new ApiServer().start()) {
+            System.exit(1);
+        }
+    }
 }
-
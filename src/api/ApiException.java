@@ -0,0 +1,18 @@
+package api;
+
+/**
+ * Request failure reported to the client as a JSON error with an HTTP status
+ */
+class ApiException extends RuntimeException {
+
+    private final int status;
+
+    ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,85 @@
+package api;
+
+import com.sun.net.httpserver.HttpServer;
+import database.DBConnection;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Headless JSON HTTP API for scanner stations and other clients
+ * Lets handhelds work through one server JVM instead of each holding database
+ * credentials. Every request runs on its own virtual thread; blocking on the
+ * database only parks the virtual thread, so hundreds of idle or waiting clients
+ * cost little, while the connection pool bounds how many reach MySQL at once.
+ *
+ * Configured with the system properties warehouse.api.port (default 8080) and
+ * warehouse.api.token; when a token is set, requests must send
+ * "Authorization: Bearer <token>". Without a token the API can change stock with no
+ * credentials at all, so it then only listens on the loopback interface.
+ */
+public class ApiServer {
+
+    private static final int PORT = Integer.getInteger("warehouse.api.port", 8080);
+    private static final String TOKEN = System.getProperty("warehouse.api.token");
+    // Pending connections the OS queues while every accept is busy
+    private static final int BACKLOG = 1024;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Start listening
+     * @return true if started, false if the port could not be bound
+     */
+    public synchronized boolean start() {
+        if (server != null) {
+            return true;
+        }
+        String token = TOKEN == null || TOKEN.isEmpty() ? null : TOKEN;
+        InetSocketAddress address = token == null
+            ? new InetSocketAddress(InetAddress.getLoopbackAddress(), PORT)
+            : new InetSocketAddress(PORT);
+        try {
+            server = HttpServer.create(address, BACKLOG);
+        } catch (IOException e) {
+            System.err.println("Error starting API server on port " + PORT + ": " + e.getMessage());
+            return false;
+        }
+        server.createContext("/api/items", new ItemHandler(token));
+        server.createContext("/api/suppliers", new SupplierHandler(token));
+        server.createContext("/api/scans", new ScanHandler(token));
+        server.createContext("/api/waves", new WaveHandler(token));
+        server.createContext("/api/health", new JsonHandler(null) {
+            @Override
+            void serve(Request request) throws IOException {
+                boolean up = DBConnection.testConnection();
+                send(request.exchange, up ? 200 : 503, json -> json.beginObject()
+                    .field("status", up ? "ok" : "database unavailable")
+                    .endObject());
+            }
+        });
+
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.start();
+        DBConnection.addShutdownTask(this::stop);
+        System.out.println("API server listening on port " + PORT
+            + (token == null ? " (no warehouse.api.token set: local connections only)" : ""));
+        return true;
+    }
+
+    /**
+     * Stop accepting requests and give running ones a moment to finish
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(2);
+        executor.shutdown();
+        server = null;
+    }
+}
@@ -0,0 +1,335 @@
+package api;
+
+import model.Item;
+import model.ItemUpdateResult;
+import model.ItemWriteResult;
+import service.InventoryService;
+import service.SupplierService;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * /api/items endpoints
+ *
+ * GET    /api/items?after=&limit=        one keyset page in ID order
+ * GET    /api/items?q= | category= | location= | lowStock=true
+ * GET    /api/items/stream               every item, streamed as one JSON array
+ * GET    /api/items/{id}
+ * POST   /api/items                      add one item
+ * POST   /api/items/batch?upsert=true    add or upsert an array of items in batched transactions
+ * POST   /api/items/lookup               array of IDs in, array of items out
+ * PUT    /api/items/{id}                 replace an item; with a version (field or If-Match)
+ *                                        only if the item is still at it, else 409
+ * DELETE /api/items/{id}
+ */
+class ItemHandler extends JsonHandler {
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1_000;
+    private static final int MAX_BATCH_SIZE = 10_000;
+
+    private final InventoryService inventoryService = new InventoryService();
+    private final SupplierService supplierService = new SupplierService();
+
+    ItemHandler(String token) {
+        super(token);
+    }
+
+    @Override
+    void serve(Request request) throws IOException {
+        String first = request.segment(0);
+        if (request.path.length > 1) {
+            throw notFound(request.exchange.getRequestURI().getPath());
+        }
+        switch (request.method) {
+            case "GET":
+                if (first == null) {
+                    list(request);
+                } else if (first.equals("stream")) {
+                    stream(request);
+                } else {
+                    get(request, parseId(first));
+                }
+                break;
+            case "POST":
+                if (first == null) {
+                    add(request);
+                } else if (first.equals("batch")) {
+                    batch(request);
+                } else if (first.equals("lookup")) {
+                    lookup(request);
+                } else {
+                    throw methodNotAllowed(request);
+                }
+                break;
+            case "PUT":
+                if (first == null) {
+                    throw methodNotAllowed(request);
+                }
+                update(request, parseId(first));
+                break;
+            case "DELETE":
+                if (first == null) {
+                    throw methodNotAllowed(request);
+                }
+                delete(request, parseId(first));
+                break;
+            default:
+                throw methodNotAllowed(request);
+        }
+    }
+
+    private void list(Request request) throws IOException {
+        int limit = Math.min(Math.max(request.intParam("limit", DEFAULT_PAGE_SIZE), 1), MAX_PAGE_SIZE);
+        List<Item> items;
+        if (request.query.containsKey("q")) {
+            items = inventoryService.searchItems(request.query.get("q"), limit);
+        } else if (request.query.containsKey("category")) {
+            items = inventoryService.getItemsByCategory(request.query.get("category"));
+        } else if (request.query.containsKey("location")) {
+            items = inventoryService.getItemsByLocation(request.query.get("location"));
+        } else if ("true".equals(request.query.get("lowStock"))) {
+            items = inventoryService.getLowStockItems();
+        } else {
+            items = inventoryService.getItemsAfter(request.intParam("after", 0), limit);
+        }
+        send(request.exchange, 200, json -> {
+            json.beginArray();
+            for (Item item : items) {
+                write(json, item);
+            }
+            json.endArray();
+        });
+    }
+
+    /**
+     * Stream the whole table from a forward-only result set straight into the response
+     * Neither side buffers more than one chunk, whatever the table size
+     */
+    private void stream(Request request) throws IOException {
+        try (Stream<Item> items = inventoryService.streamItems()) {
+            Iterator<Item> iterator = items.iterator();
+            send(request.exchange, 200, json -> {
+                json.beginArray();
+                while (iterator.hasNext()) {
+                    write(json, iterator.next());
+                }
+                json.endArray();
+            });
+        }
+    }
+
+    private void get(Request request, int id) throws IOException {
+        Item item = inventoryService.getItemById(id);
+        if (item == null) {
+            throw notFound("Item " + id);
+        }
+        send(request.exchange, 200, json -> write(json, item));
+    }
+
+    private void add(Request request) throws IOException {
+        Item item = read(request.objectBody());
+        item.setId(0);
+        checkSupplier(item);
+        if (!inventoryService.addItem(item)) {
+            throw new ApiException(500, "Could not add item");
+        }
+        send(request.exchange, 201, json -> write(json, item));
+    }
+
+    private void batch(Request request) throws IOException {
+        List<?> body = request.arrayBody();
+        if (body.size() > MAX_BATCH_SIZE) {
+            throw new ApiException(413, "At most " + MAX_BATCH_SIZE + " items per batch");
+        }
+        List<Item> items = new ArrayList<>(body.size());
+        for (Object element : body) {
+            items.add(read(asObject(element)));
+        }
+        boolean upsert = "true".equals(request.query.get("upsert"));
+        List<ItemWriteResult> results = upsert ? inventoryService.upsertItems(items) : inventoryService.addItems(items);
+        send(request.exchange, 200, json -> {
+            json.beginArray();
+            for (ItemWriteResult result : results) {
+                json.beginObject()
+                    .field("index", result.getIndex())
+                    .field("status", result.getStatus().name())
+                    .field("id", result.getItemId());
+                if (result.getError() != null) {
+                    json.field("error", result.getError());
+                }
+                json.endObject();
+            }
+            json.endArray();
+        });
+    }
+
+    /**
+     * Look up many items in one round trip; unknown IDs are left out
+     */
+    private void lookup(Request request) throws IOException {
+        List<?> body = request.arrayBody();
+        if (body.size() > MAX_PAGE_SIZE) {
+            throw new ApiException(413, "At most " + MAX_PAGE_SIZE + " IDs per lookup");
+        }
+        List<Item> items = new ArrayList<>(body.size());
+        for (Object element : body) {
+            if (!(element instanceof Long) || (Long) element != ((Long) element).intValue()) {
+                throw new ApiException(400, "Expected an array of item IDs");
+            }
+            Item item = inventoryService.getItemById(((Long) element).intValue());
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        send(request.exchange, 200, json -> {
+            json.beginArray();
+            for (Item item : items) {
+                write(json, item);
+            }
+            json.endArray();
+        });
+    }
+
+    /**
+     * Replace an item
+     * Given the version the client read, the changed fields are written through
+     * updateItemFields(): a concurrent change to other fields is merged, one to the same
+     * fields is a 409 with the current item. Without a version the item is overwritten.
+     */
+    private void update(Request request, int id) throws IOException {
+        Map<String, Object> body = request.objectBody();
+        Item item = read(body);
+        item.setId(id);
+        Item current = inventoryService.getItemById(id);
+        if (current == null) {
+            throw notFound("Item " + id);
+        }
+        checkSupplier(item);
+        Integer version = readVersion(request, body);
+        if (version == null) {
+            if (!inventoryService.updateItem(item)) {
+                throw new ApiException(500, "Could not update item " + id);
+            }
+            send(request.exchange, 200, json -> write(json, item));
+            return;
+        }
+        if (current.getVersion() != version) {
+            sendConflict(request, current);
+            return;
+        }
+        ItemUpdateResult result = inventoryService.updateItemFields(current, item);
+        switch (result.getStatus()) {
+            case UPDATED:
+            case UNCHANGED:
+            case JOURNALED:
+                send(request.exchange, 200, json -> write(json, result.getItem()));
+                break;
+            case CONFLICT:
+                sendConflict(request, result.getItem());
+                break;
+            case NOT_FOUND:
+                throw notFound("Item " + id);
+            default:
+                throw new ApiException(500, "Could not update item " + id);
+        }
+    }
+
+    /**
+     * Version the client based its change on: the version field, else an If-Match header
+     * @return Version, or null if the client sent neither
+     */
+    private static Integer readVersion(Request request, Map<String, Object> body) {
+        if (body.get("version") != null) {
+            return getInt(body, "version", 0);
+        }
+        String ifMatch = request.exchange.getRequestHeaders().getFirst("If-Match");
+        if (ifMatch == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(ifMatch.trim().replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "If-Match must be an item version");
+        }
+    }
+
+    private static void sendConflict(Request request, Item current) throws IOException {
+        send(request.exchange, 409, json -> {
+            json.beginObject().field("error", "Item " + current.getId() + " was changed by someone else");
+            json.name("current");
+            write(json, current);
+            json.endObject();
+        });
+    }
+
+    /**
+     * Reject an unknown supplier up front instead of failing the foreign key as a 500
+     */
+    private void checkSupplier(Item item) {
+        if (item.getSupplierId() > 0 && supplierService.getSupplierById(item.getSupplierId()) == null) {
+            throw new ApiException(400, "Unknown supplier " + item.getSupplierId());
+        }
+    }
+
+    private void delete(Request request, int id) throws IOException {
+        if (inventoryService.getItemById(id) == null) {
+            throw notFound("Item " + id);
+        }
+        if (!inventoryService.deleteItem(id)) {
+            throw new ApiException(500, "Could not delete item " + id);
+        }
+        send(request.exchange, 200, json -> json.beginObject().field("deleted", id).endObject());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asObject(Object element) {
+        if (!(element instanceof Map)) {
+            throw new ApiException(400, "Expected an array of item objects");
+        }
+        return (Map<String, Object>) element;
+    }
+
+    private static Item read(Map<String, Object> object) {
+        String name = getString(object, "name");
+        if (name == null || name.isBlank()) {
+            throw new ApiException(400, "Field name is required");
+        }
+        Item item = new Item();
+        item.setId(getInt(object, "id", 0));
+        item.setName(name);
+        item.setQuantity(getInt(object, "quantity", 0));
+        item.setLocation(getString(object, "location"));
+        item.setCategory(getString(object, "category"));
+        item.setDescription(getString(object, "description"));
+        item.setMinStockLevel(getInt(object, "minStockLevel", 0));
+        item.setPrice(getDouble(object, "price", 0));
+        // 0 or absent: no supplier, stored as NULL
+        int supplierId = getInt(object, "supplierId", 0);
+        if (supplierId < 0) {
+            throw new ApiException(400, "Field supplierId must not be negative");
+        }
+        item.setSupplierId(supplierId);
+        return item;
+    }
+
+    static void write(JsonWriter json, Item item) throws IOException {
+        json.beginObject()
+            .field("id", item.getId())
+            .field("name", item.getName())
+            .field("quantity", item.getQuantity())
+            .field("location", item.getLocation())
+            .field("category", item.getCategory())
+            .field("description", item.getDescription())
+            .field("minStockLevel", item.getMinStockLevel())
+            .field("price", item.getPrice())
+            .field("supplierId", item.getSupplierId())
+            .field("lowStock", item.isLowStock())
+            .field("version", item.getVersion())
+            .endObject();
+    }
+}
@@ -0,0 +1,231 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base class for the API's JSON endpoints
+ * Checks the bearer token, splits the path below the context into segments, parses
+ * query strings and bodies, and turns ApiException into a JSON error response.
+ * Each request runs on its own virtual thread, so handlers simply block on the services.
+ */
+abstract class JsonHandler implements HttpHandler {
+
+    // Largest request body accepted, e.g. a batch of a few thousand items
+    private static final int MAX_BODY_BYTES = 8 * 1024 * 1024;
+    private static final int RESPONSE_BUFFER = 64 * 1024;
+
+    private final String token;
+
+    JsonHandler(String token) {
+        this.token = token;
+    }
+
+    /**
+     * A request being handled
+     */
+    static final class Request {
+        final HttpExchange exchange;
+        final String method;
+        // Path segments below the handler's context, e.g. ["42"] for /api/items/42
+        final String[] path;
+        final Map<String, String> query;
+
+        private Request(HttpExchange exchange, String[] path, Map<String, String> query) {
+            this.exchange = exchange;
+            this.method = exchange.getRequestMethod();
+            this.path = path;
+            this.query = query;
+        }
+
+        String segment(int index) {
+            return index < path.length ? path[index] : null;
+        }
+
+        int intParam(String name, int defaultValue) {
+            String value = query.get(name);
+            if (value == null || value.isEmpty()) {
+                return defaultValue;
+            }
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new ApiException(400, "Parameter " + name + " must be a number");
+            }
+        }
+
+        /**
+         * Read and parse the JSON body
+         */
+        Object body() throws IOException {
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+                if (bytes.length > MAX_BODY_BYTES) {
+                    throw new ApiException(413, "Request body larger than " + MAX_BODY_BYTES + " bytes");
+                }
+                if (bytes.length == 0) {
+                    throw new ApiException(400, "Request body required");
+                }
+                return Json.parse(new String(bytes, StandardCharsets.UTF_8));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> objectBody() throws IOException {
+            Object body = body();
+            if (!(body instanceof Map)) {
+                throw new ApiException(400, "Expected a JSON object");
+            }
+            return (Map<String, Object>) body;
+        }
+
+        List<?> arrayBody() throws IOException {
+            Object body = body();
+            if (!(body instanceof List)) {
+                throw new ApiException(400, "Expected a JSON array");
+            }
+            return (List<?>) body;
+        }
+    }
+
+    /**
+     * Writes a response body
+     */
+    interface Body {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    /**
+     * Handle one request
+     * @param request Request being handled
+     * @throws IOException if the client connection fails
+     */
+    abstract void serve(Request request) throws IOException;
+
+    @Override
+    public final void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (token != null && !isAuthorized(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                throw new ApiException(401, "Missing or invalid API token");
+            }
+            String context = exchange.getHttpContext().getPath();
+            String rest = exchange.getRequestURI().getPath().substring(context.length());
+            String[] path = rest.isEmpty() || rest.equals("/") ? new String[0] : rest.replaceFirst("^/", "").split("/");
+            serve(new Request(exchange, path, parseQuery(exchange.getRequestURI().getRawQuery())));
+        } catch (ApiException e) {
+            sendError(exchange, e.getStatus(), e.getMessage());
+        } catch (UncheckedIOException e) {
+            // Client went away mid-response; nothing left to tell it
+        } catch (RuntimeException e) {
+            System.err.println("API error on " + exchange.getRequestMethod() + " " + exchange.getRequestURI() + ": " + e);
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Compare in constant time so response timing does not reveal how much of the token matched
+     */
+    private boolean isAuthorized(String authorization) {
+        return authorization != null && MessageDigest.isEqual(
+            ("Bearer " + token).getBytes(StandardCharsets.UTF_8), authorization.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Send a JSON response with a known status
+     */
+    static void send(HttpExchange exchange, int status, Body body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        // Length 0 means chunked: the body is streamed as it is written
+        exchange.sendResponseHeaders(status, 0);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), RESPONSE_BUFFER)) {
+            body.write(new JsonWriter(out));
+        }
+    }
+
+    static void sendError(HttpExchange exchange, int status, String message) {
+        try {
+            send(exchange, status, json -> json.beginObject().field("error", message).endObject());
+        } catch (IOException | IllegalStateException e) {
+            // Headers already sent or client gone
+        }
+    }
+
+    static ApiException methodNotAllowed(Request request) {
+        return new ApiException(405, request.method + " not supported on " + request.exchange.getRequestURI().getPath());
+    }
+
+    static ApiException notFound(String what) {
+        return new ApiException(404, what + " not found");
+    }
+
+    static int parseId(String segment) {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            throw notFound("'" + segment + "'");
+        }
+    }
+
+    // Typed access to parsed JSON objects
+    static String getString(Map<String, Object> object, String name) {
+        Object value = object.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new ApiException(400, "Field " + name + " must be a string");
+        }
+        return (String) value;
+    }
+
+    static int getInt(Map<String, Object> object, String name, int defaultValue) {
+        Object value = object.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!(value instanceof Long) || (Long) value != ((Long) value).intValue()) {
+            throw new ApiException(400, "Field " + name + " must be an integer");
+        }
+        return ((Long) value).intValue();
+    }
+
+    static double getDouble(Map<String, Object> object, String name, double defaultValue) {
+        Object value = object.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!(value instanceof Number)) {
+            throw new ApiException(400, "Field " + name + " must be a number");
+        }
+        return ((Number) value).doubleValue();
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            try {
+                query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                throw new ApiException(400, "Malformed query string: " + e.getMessage());
+            }
+        }
+        return query;
+    }
+}
@@ -0,0 +1,155 @@
+package api;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streaming JSON writer
+ * Values are written straight to the underlying writer, so large responses are never
+ * built in memory. Commas between members are inserted automatically.
+ */
+final class JsonWriter {
+
+    private static final int MAX_DEPTH = 32;
+
+    private final Writer out;
+    // Whether the container at each depth still has no members
+    private final boolean[] empty = new boolean[MAX_DEPTH];
+    private int depth;
+    // Set after name() so the value that follows gets no comma of its own
+    private boolean afterName;
+
+    JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    JsonWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    JsonWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    JsonWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    JsonWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    JsonWriter name(String name) throws IOException {
+        separate();
+        writeString(name);
+        out.write(':');
+        afterName = true;
+        return this;
+    }
+
+    JsonWriter value(String value) throws IOException {
+        separate();
+        if (value == null) {
+            out.write("null");
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    JsonWriter value(long value) throws IOException {
+        separate();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    JsonWriter value(double value) throws IOException {
+        separate();
+        out.write(Double.isFinite(value) ? Double.toString(value) : "null");
+        return this;
+    }
+
+    JsonWriter value(boolean value) throws IOException {
+        separate();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    JsonWriter field(String name, String value) throws IOException {
+        return name(name).value(value);
+    }
+
+    JsonWriter field(String name, long value) throws IOException {
+        return name(name).value(value);
+    }
+
+    JsonWriter field(String name, double value) throws IOException {
+        return name(name).value(value);
+    }
+
+    JsonWriter field(String name, boolean value) throws IOException {
+        return name(name).value(value);
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    private JsonWriter open(char bracket) throws IOException {
+        separate();
+        out.write(bracket);
+        empty[depth++] = true;
+        return this;
+    }
+
+    private JsonWriter close(char bracket) throws IOException {
+        depth--;
+        out.write(bracket);
+        return this;
+    }
+
+    /**
+     * Write the comma before a member unless it is the first one or follows its name
+     */
+    private void separate() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (!empty[depth - 1]) {
+                out.write(',');
+            }
+            empty[depth - 1] = false;
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+        out.write('"');
+        int runStart = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            String escape;
+            if (c == '"') {
+                escape = "\\\"";
+            } else if (c == '\\') {
+                escape = "\\\\";
+            } else if (c == '\n') {
+                escape = "\\n";
+            } else if (c == '\r') {
+                escape = "\\r";
+            } else if (c == '\t') {
+                escape = "\\t";
+            } else if (c < 0x20) {
+                escape = String.format("\\u%04x", (int) c);
+            } else {
+                continue;
+            }
+            out.write(s, runStart, i - runStart);
+            out.write(escape);
+            runStart = i + 1;
+        }
+        out.write(s, runStart, s.length() - runStart);
+        out.write('"');
+    }
+}
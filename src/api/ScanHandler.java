@@ -0,0 +1,71 @@
+package api;
+
+import model.ScanEvent;
+import service.ScanIngestionPipeline;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /api/scans endpoint
+ *
+ * POST /api/scans   array of {itemId, delta, location, user, scannedAt} objects
+ *
+ * Scans go to the ScanIngestionPipeline, so a handheld can send what it buffered in one
+ * request. The response is 202 with accepted and rejected counts; scans are accepted in
+ * order, so a scanner resends everything from index "accepted" on. When the pipeline is
+ * full the response carries Retry-After.
+ */
+class ScanHandler extends JsonHandler {
+
+    private static final int MAX_BATCH_SIZE = 10_000;
+
+    private final ScanIngestionPipeline pipeline = ScanIngestionPipeline.getInstance();
+
+    ScanHandler(String token) {
+        super(token);
+    }
+
+    @Override
+    void serve(Request request) throws IOException {
+        if (!request.method.equals("POST") || request.path.length > 0) {
+            throw methodNotAllowed(request);
+        }
+        List<?> body = request.arrayBody();
+        if (body.size() > MAX_BATCH_SIZE) {
+            throw new ApiException(413, "At most " + MAX_BATCH_SIZE + " scans per request");
+        }
+
+        // Validate everything first so a bad element does not leave the batch half submitted
+        ScanEvent[] events = new ScanEvent[body.size()];
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < events.length; i++) {
+            if (!(body.get(i) instanceof Map)) {
+                throw new ApiException(400, "Expected an array of scan objects");
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> scan = (Map<String, Object>) body.get(i);
+            int itemId = getInt(scan, "itemId", 0);
+            if (itemId <= 0) {
+                throw new ApiException(400, "Scan " + i + ": itemId is required");
+            }
+            Object scannedAt = scan.get("scannedAt");
+            events[i] = new ScanEvent(itemId, getInt(scan, "delta", 1), getString(scan, "location"),
+                getString(scan, "user"), scannedAt instanceof Long ? (Long) scannedAt : now);
+        }
+
+        int accepted = 0;
+        while (accepted < events.length && pipeline.trySubmit(events[accepted])) {
+            accepted++;
+        }
+        int rejected = events.length - accepted;
+        if (rejected > 0) {
+            request.exchange.getResponseHeaders().set("Retry-After", "1");
+        }
+        int acceptedCount = accepted;
+        send(request.exchange, rejected > 0 && accepted == 0 ? 503 : 202, json -> json.beginObject()
+            .field("accepted", acceptedCount)
+            .field("rejected", rejected)
+            .endObject());
+    }
+}
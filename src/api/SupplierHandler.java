@@ -0,0 +1,115 @@
+package api;
+
+import model.Supplier;
+import service.SupplierService;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /api/suppliers endpoints
+ *
+ * GET    /api/suppliers
+ * GET    /api/suppliers/{id}
+ * POST   /api/suppliers
+ * PUT    /api/suppliers/{id}
+ * DELETE /api/suppliers/{id}
+ */
+class SupplierHandler extends JsonHandler {
+
+    private final SupplierService supplierService = new SupplierService();
+
+    SupplierHandler(String token) {
+        super(token);
+    }
+
+    @Override
+    void serve(Request request) throws IOException {
+        String first = request.segment(0);
+        if (request.path.length > 1) {
+            throw notFound(request.exchange.getRequestURI().getPath());
+        }
+        switch (request.method) {
+            case "GET":
+                if (first == null) {
+                    List<Supplier> suppliers = supplierService.getAllSuppliers();
+                    send(request.exchange, 200, json -> {
+                        json.beginArray();
+                        for (Supplier supplier : suppliers) {
+                            write(json, supplier);
+                        }
+                        json.endArray();
+                    });
+                } else {
+                    int id = parseId(first);
+                    Supplier supplier = supplierService.getSupplierById(id);
+                    if (supplier == null) {
+                        throw notFound("Supplier " + id);
+                    }
+                    send(request.exchange, 200, json -> write(json, supplier));
+                }
+                break;
+            case "POST": {
+                if (first != null) {
+                    throw methodNotAllowed(request);
+                }
+                Supplier supplier = read(request.objectBody());
+                if (!supplierService.addSupplier(supplier)) {
+                    throw new ApiException(500, "Could not add supplier");
+                }
+                send(request.exchange, 201, json -> write(json, supplier));
+                break;
+            }
+            case "PUT": {
+                if (first == null) {
+                    throw methodNotAllowed(request);
+                }
+                int id = parseId(first);
+                Supplier supplier = read(request.objectBody());
+                supplier.setId(id);
+                if (supplierService.getSupplierById(id) == null) {
+                    throw notFound("Supplier " + id);
+                }
+                if (!supplierService.updateSupplier(supplier)) {
+                    throw new ApiException(500, "Could not update supplier " + id);
+                }
+                send(request.exchange, 200, json -> write(json, supplier));
+                break;
+            }
+            case "DELETE": {
+                if (first == null) {
+                    throw methodNotAllowed(request);
+                }
+                int id = parseId(first);
+                if (supplierService.getSupplierById(id) == null) {
+                    throw notFound("Supplier " + id);
+                }
+                if (!supplierService.deleteSupplier(id)) {
+                    // Most likely still referenced by items
+                    throw new ApiException(409, "Could not delete supplier " + id);
+                }
+                send(request.exchange, 200, json -> json.beginObject().field("deleted", id).endObject());
+                break;
+            }
+            default:
+                throw methodNotAllowed(request);
+        }
+    }
+
+    private static Supplier read(Map<String, Object> object) {
+        String name = getString(object, "name");
+        if (name == null || name.isBlank()) {
+            throw new ApiException(400, "Field name is required");
+        }
+        return new Supplier(name, getString(object, "contact"), getString(object, "address"));
+    }
+
+    private static void write(JsonWriter json, Supplier supplier) throws IOException {
+        json.beginObject()
+            .field("id", supplier.getId())
+            .field("name", supplier.getName())
+            .field("contact", supplier.getContact())
+            .field("address", supplier.getAddress())
+            .endObject();
+    }
+}
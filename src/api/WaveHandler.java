@@ -0,0 +1,108 @@
+package api;
+
+import model.OrderLine;
+import model.PickList;
+import model.PickTask;
+import model.Wave;
+import service.PickPlanner;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /api/waves endpoint
+ *
+ * POST /api/waves?pickers=&waveSize=   array of {orderId, itemId, quantity} open order lines
+ *
+ * Plans picking waves with the PickPlanner and returns them without storing anything:
+ * each wave has one pick list per picker in walk order, plus the lines that have no
+ * known location. pickers defaults to 1, waveSize to the planner's configured limit.
+ */
+class WaveHandler extends JsonHandler {
+
+    private static final int MAX_LINES = 200_000;
+    private static final int MAX_PICKERS = 1000;
+
+    private final PickPlanner planner = new PickPlanner();
+
+    WaveHandler(String token) {
+        super(token);
+    }
+
+    @Override
+    void serve(Request request) throws IOException {
+        if (!request.method.equals("POST") || request.path.length > 0) {
+            throw methodNotAllowed(request);
+        }
+        int pickers = request.intParam("pickers", 1);
+        if (pickers < 1 || pickers > MAX_PICKERS) {
+            throw new ApiException(400, "pickers must be between 1 and " + MAX_PICKERS);
+        }
+        int waveSize = request.intParam("waveSize", 0);
+        if (waveSize < 0) {
+            throw new ApiException(400, "waveSize must be positive");
+        }
+        List<?> body = request.arrayBody();
+        if (body.size() > MAX_LINES) {
+            throw new ApiException(413, "At most " + MAX_LINES + " order lines per request");
+        }
+
+        OrderLine[] lines = new OrderLine[body.size()];
+        for (int i = 0; i < lines.length; i++) {
+            if (!(body.get(i) instanceof Map)) {
+                throw new ApiException(400, "Expected an array of order line objects");
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> line = (Map<String, Object>) body.get(i);
+            int itemId = getInt(line, "itemId", 0);
+            if (itemId <= 0) {
+                throw new ApiException(400, "Line " + i + ": itemId is required");
+            }
+            lines[i] = new OrderLine(getInt(line, "orderId", 0), itemId, getInt(line, "quantity", 1));
+        }
+
+        List<Wave> waves = waveSize == 0 ? planner.planWaves(List.of(lines), pickers)
+            : planner.planWaves(List.of(lines), pickers, waveSize);
+        if (waves == null) {
+            throw new ApiException(503, "Item locations are unavailable");
+        }
+        send(request.exchange, 200, json -> {
+            json.beginArray();
+            for (Wave wave : waves) {
+                write(json, wave);
+            }
+            json.endArray();
+        });
+    }
+
+    private static void write(JsonWriter json, Wave wave) throws IOException {
+        json.beginObject()
+            .field("wave", wave.getWaveNumber())
+            .field("orders", wave.getOrderCount())
+            .name("pickLists").beginArray();
+        for (PickList pickList : wave.getPickLists()) {
+            json.beginObject()
+                .field("picker", pickList.getPickerNumber())
+                .field("aisles", pickList.getAisleCount())
+                .name("picks").beginArray();
+            for (PickTask pick : pickList.getPicks()) {
+                json.beginObject()
+                    .field("location", pick.getLocation())
+                    .field("orderId", pick.getOrderId())
+                    .field("itemId", pick.getItemId())
+                    .field("quantity", pick.getQuantity())
+                    .endObject();
+            }
+            json.endArray().endObject();
+        }
+        json.endArray().name("unlocated").beginArray();
+        for (OrderLine line : wave.getUnlocatedLines()) {
+            json.beginObject()
+                .field("orderId", line.getOrderId())
+                .field("itemId", line.getItemId())
+                .field("quantity", line.getQuantity())
+                .endObject();
+        }
+        json.endArray().endObject();
+    }
+}
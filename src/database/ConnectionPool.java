@@ -0,0 +1,440 @@
+package database;
+
+import metrics.LatencyHistogram;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, self-validating JDBC connection pool
+ * Hands out physical connections wrapped in a proxy whose close() returns
+ * the connection to the pool instead of tearing down the session
+ */
+public class ConnectionPool implements ConnectionPoolMXBean {
+
+    // Idle connections used more recently than this are handed out without a validation round-trip
+    private static final long VALIDATION_SKIP_MILLIS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 30_000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final boolean leakTraces;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // Metrics
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LatencyHistogram waitHistogram = new LatencyHistogram();
+
+    /**
+     * Constructor with pool sizing and timeouts
+     * @param url JDBC URL
+     * @param username Database user
+     * @param password Database password
+     * @param minSize Number of connections kept open even when idle
+     * @param maxSize Maximum number of connections open at once
+     * @param borrowTimeoutMillis How long a caller waits for a free connection
+     * @param idleTimeoutMillis How long a connection above minSize may stay idle
+     * @param leakThresholdMillis Borrow duration after which a connection is reported as leaked
+     * @param leakTraces Capture a stack trace on every borrow so leak reports show the borrower
+     */
+    public ConnectionPool(String url, String username, String password, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis,
+                          boolean leakTraces) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.leakTraces = leakThresholdMillis > 0 && leakTraces;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+            HOUSEKEEPING_INTERVAL_MILLIS, HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the borrow timeout for one to become free
+     * @return Connection whose close() returns it to the pool
+     * @throws SQLException if no connection could be obtained
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.increment();
+                throw new SQLTransientConnectionException("Timed out after " + borrowTimeoutMillis
+                    + "ms waiting for a database connection (" + active.size() + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = create();
+            }
+            pooled.borrowedAt = System.currentTimeMillis();
+            // A stack trace per borrow is costly on hot paths; by default only the thread is recorded
+            pooled.borrowThread = Thread.currentThread().getName();
+            pooled.borrowTrace = leakTraces ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            active.add(pooled);
+            borrowCount.increment();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Shuts the pool down and closes all idle connections
+     * Connections still borrowed are closed when they are returned
+     */
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    /**
+     * Takes the most recently used idle connection that is still valid
+     */
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isValid(pooled)) {
+                return pooled;
+            }
+            destroy(pooled);
+        }
+        return null;
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastUsed < VALIDATION_SKIP_MILLIS) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, username, password);
+        createdCount.increment();
+        return new PooledConnection(physical);
+    }
+
+    private void destroy(PooledConnection pooled) {
+        destroyedCount.increment();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns a borrowed connection, resetting session state left behind by the borrower
+     */
+    private void release(PooledConnection pooled) {
+        active.remove(pooled);
+        try {
+            // Connections created while others were being returned can briefly push the total past maxSize
+            boolean reusable = !closed && idle.size() + active.size() < maxSize && resetState(pooled.physical);
+            if (reusable) {
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            } else {
+                destroy(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean resetState(Connection physical) {
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+            physical.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Evicts connections idle for too long, tops the pool back up to its
+     * minimum size and reports connections held past the leak threshold
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // Idle deque is ordered most-recently-used first, so the stalest entries sit at the tail
+            while (idle.size() + active.size() > minSize) {
+                PooledConnection stalest = idle.peekLast();
+                if (stalest == null || now - stalest.lastUsed < idleTimeoutMillis) {
+                    break;
+                }
+                if (idle.removeLastOccurrence(stalest)) {
+                    destroy(stalest);
+                }
+            }
+
+            // Hold a permit while creating so borrowers and the top-up together stay within maxSize
+            while (!closed && idle.size() + active.size() < minSize && permits.tryAcquire()) {
+                try {
+                    PooledConnection pooled = create();
+                    pooled.lastUsed = now;
+                    idle.offerLast(pooled);
+                } finally {
+                    permits.release();
+                }
+            }
+
+            if (leakThresholdMillis > 0) {
+                for (PooledConnection pooled : active) {
+                    if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMillis) {
+                        pooled.leakReported = true;
+                        leakCount.increment();
+                        System.err.println("Possible connection leak: connection borrowed "
+                            + (now - pooled.borrowedAt) + "ms ago by thread " + pooled.borrowThread
+                            + " has not been returned" + (leakTraces ? "" : " (set warehouse.db.leakTraces=true for the stack)"));
+                        if (pooled.borrowTrace != null) {
+                            pooled.borrowTrace.printStackTrace();
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Connection pool housekeeping failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Connection pool housekeeping error: " + e);
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        totalWaitNanos.add(waitNanos);
+        waitHistogram.record(waitNanos);
+        long max;
+        while (waitNanos > (max = maxWaitNanos.get())) {
+            if (maxWaitNanos.compareAndSet(max, waitNanos)) {
+                break;
+            }
+        }
+    }
+
+    // Metrics
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    public long getCreatedCount() {
+        return createdCount.sum();
+    }
+
+    public long getDestroyedCount() {
+        return destroyedCount.sum();
+    }
+
+    public long getLeakCount() {
+        return leakCount.sum();
+    }
+
+    public double getAverageWaitMillis() {
+        long borrows = borrowCount.sum();
+        return borrows == 0 ? 0.0 : totalWaitNanos.sum() / 1_000_000.0 / borrows;
+    }
+
+    public double getP99WaitMillis() {
+        return waitHistogram.getPercentileMillis(0.99);
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * String representation of the pool state
+     * @return formatted string with pool metrics
+     */
+    @Override
+    public String toString() {
+        return "ConnectionPool{" +
+                "active=" + getActiveCount() +
+                ", idle=" + getIdleCount() +
+                ", waiting=" + getWaitingCount() +
+                ", max=" + maxSize +
+                ", borrows=" + getBorrowCount() +
+                ", timeouts=" + getTimeoutCount() +
+                ", avgWaitMs=" + String.format("%.3f", getAverageWaitMillis()) +
+                ", p99WaitMs=" + String.format("%.3f", getP99WaitMillis()) +
+                ", maxWaitMs=" + String.format("%.3f", getMaxWaitMillis()) +
+                ", leaks=" + getLeakCount() +
+                '}';
+    }
+
+    /**
+     * Physical connection plus the bookkeeping the pool keeps for it
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile long borrowedAt;
+        private volatile String borrowThread;
+        private volatile Throwable borrowTrace;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * Creates a fresh handle for one borrow so a stale reference kept
+         * by a previous borrower cannot touch the connection again
+         */
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new Handle(this));
+        }
+    }
+
+    /**
+     * Proxy handler that intercepts close() and guards use after close
+     */
+    private final class Handle implements InvocationHandler {
+        private PooledConnection pooled;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (pooled != null) {
+                            PooledConnection returning = pooled;
+                            pooled = null;
+                            release(returning);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    synchronized (this) {
+                        return pooled == null || pooled.physical.isClosed();
+                    }
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    break;
+            }
+
+            PooledConnection current;
+            synchronized (this) {
+                current = pooled;
+            }
+            if (current == null) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(current.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package database;
+
+/**
+ * JMX view of the connection pool
+ * Registered as warehouse:type=ConnectionPool
+ */
+public interface ConnectionPoolMXBean {
+
+    int getMaxSize();
+
+    int getActiveCount();
+
+    int getIdleCount();
+
+    int getWaitingCount();
+
+    long getBorrowCount();
+
+    long getTimeoutCount();
+
+    long getCreatedCount();
+
+    long getDestroyedCount();
+
+    long getLeakCount();
+
+    double getAverageWaitMillis();
+
+    double getP99WaitMillis();
+
+    double getMaxWaitMillis();
+}
@@ -1,44 +1,167 @@
 package database;
 
+import metrics.ServiceMetrics;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Database connection utility class
  * Provides a centralized way to manage database connections
+ * Connections are handed out from a shared pool; closing one returns it to the pool
+ *
+ * When read replicas are configured (-Dwarehouse.db.replicas=host:port,...) the pool
+ * uses the connector's replication URL: getConnection() talks to the primary and is
+ * used for writes, getReadConnection() is routed to a replica for reports and searches.
  */
 public class DBConnection {
     
     // Database connection parameters
-    private static final String URL = "jdbc:mysql://localhost:3306/warehouse_db";
-    private static final String USERNAME = "warehouse";
-    private static final String PASSWORD = "hello@123"; // Change this to your MySQL password
+    private static final String PRIMARY_HOST = "localhost:3306";
+    private static final String DATABASE = "warehouse_db";
+    // rewriteBatchedStatements turns JDBC batches into multi-row INSERT statements
+    private static final String URL_PARAMETERS = "rewriteBatchedStatements=true";
+    private static final String USERNAME = System.getProperty("warehouse.db.user", "warehouse");
+    private static final String PASSWORD = System.getProperty("warehouse.db.password", "hello@123"); // Change this to your MySQL password
+    // Full JDBC URL overriding the one built below, e.g. a scratch database for benchmarks
+    private static final String URL_OVERRIDE = System.getProperty("warehouse.db.url", "").trim();
+    
+    // Connection pool parameters
+    private static final int POOL_MIN_SIZE = 2;
+    private static final int POOL_MAX_SIZE = 10;
+    private static final long POOL_BORROW_TIMEOUT_MS = 5_000;
+    private static final long POOL_IDLE_TIMEOUT_MS = 5 * 60_000;
+    private static final long POOL_LEAK_THRESHOLD_MS = 60_000;
+    // Stack traces of borrowers in leak reports; costs a Throwable per borrow
+    private static final boolean POOL_LEAK_TRACES = Boolean.getBoolean("warehouse.db.leakTraces");
+    
+    // Read routing parameters
+    // Comma-separated host:port list of read replicas; empty sends every read to the primary
+    private static final String REPLICA_HOSTS = System.getProperty("warehouse.db.replicas", "").trim();
+    // Longest a replica read may lag behind this station's last write
+    private static final long MAX_REPLICA_STALENESS_MS = Long.getLong("warehouse.db.maxStalenessMillis", 2_000);
+    
+    private static final ReadRouter readRouter = new ReadRouter(MAX_REPLICA_STALENESS_MS);
+    private static volatile ConnectionPool pool;
+    private static final List<Runnable> shutdownTasks = new CopyOnWriteArrayList<>();
     
     /**
-     * Gets a database connection
-     * @return Connection object
-     * @throws SQLException if connection fails
+     * Gets a database connection from the pool
+     * @return Connection object; close it to return it to the pool
+     * @throws SQLException if no connection could be obtained
      */
     public static Connection getConnection() throws SQLException {
+        return getPool().getConnection();
+    }
+    
+    /**
+     * Gets a connection for reads that may be slightly stale, e.g. reports and searches
+     * It is served by a replica when one is configured, unless this station wrote
+     * within the staleness bound or the replica is lagging, then by the primary
+     * @return Connection object; close it to return it to the pool
+     * @throws SQLException if no connection could be obtained
+     */
+    public static Connection getReadConnection() throws SQLException {
+        Connection conn = getConnection();
+        if (REPLICA_HOSTS.isEmpty()) {
+            return conn;
+        }
         try {
-            // Load MySQL JDBC driver
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            
-            // Create and return connection
-            return DriverManager.getConnection(URL, USERNAME, PASSWORD);
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found", e);
+            return readRouter.route(conn);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Record that a write was committed, so this station's reads stay on the
+     * primary until replicas have caught up with it
+     */
+    public static void recordWrite() {
+        readRouter.recordWrite();
+    }
+    
+    /**
+     * Gets the shared connection pool, creating it on first use
+     * @return ConnectionPool instance
+     * @throws SQLException if the MySQL JDBC driver is missing
+     */
+    public static ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DBConnection.class) {
+                current = pool;
+                if (current == null) {
+                    String url = buildUrl();
+                    try {
+                        // Load MySQL JDBC driver; other drivers register themselves
+                        if (url.startsWith("jdbc:mysql:")) {
+                            Class.forName("com.mysql.cj.jdbc.Driver");
+                        }
+                    } catch (ClassNotFoundException e) {
+                        throw new SQLException("MySQL JDBC Driver not found", e);
+                    }
+                    current = new ConnectionPool(url, USERNAME, PASSWORD,
+                        POOL_MIN_SIZE, POOL_MAX_SIZE,
+                        POOL_BORROW_TIMEOUT_MS, POOL_IDLE_TIMEOUT_MS, POOL_LEAK_THRESHOLD_MS, POOL_LEAK_TRACES);
+                    ConnectionPool created = current;
+                    ServiceMetrics.registerMBean("type=ConnectionPool", created);
+                    ServiceMetrics.addReporter(created::toString);
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        runShutdownTasks();
+                        created.shutdown();
+                    }, "connection-pool-shutdown"));
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Build the JDBC URL, using the replication protocol when replicas are configured
+     */
+    private static String buildUrl() {
+        if (!URL_OVERRIDE.isEmpty()) {
+            return URL_OVERRIDE;
+        }
+        if (REPLICA_HOSTS.isEmpty()) {
+            return "jdbc:mysql://" + PRIMARY_HOST + "/" + DATABASE + "?" + URL_PARAMETERS;
+        }
+        // Reads fall back to the primary while no replica is reachable
+        return "jdbc:mysql:replication://" + PRIMARY_HOST + "," + REPLICA_HOSTS + "/" + DATABASE
+            + "?" + URL_PARAMETERS + "&readFromSourceWhenNoReplicas=true";
+    }
+    
+    /**
+     * Register work that must still reach the database when the JVM exits,
+     * e.g. flushing queued writes; it runs before the pool is shut down
+     * @param task Task to run at shutdown
+     */
+    public static void addShutdownTask(Runnable task) {
+        shutdownTasks.add(task);
+    }
+    
+    private static void runShutdownTasks() {
+        for (Runnable task : shutdownTasks) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("Shutdown task failed: " + e);
+            }
         }
     }
     
     /**
      * Test database connection
+     * The validated connection stays in the pool for the first real query
      * @return true if connection successful, false otherwise
      */
     public static boolean testConnection() {
         try (Connection conn = getConnection()) {
-            return conn != null && !conn.isClosed();
+            return conn != null && conn.isValid(2);
         } catch (SQLException e) {
             System.err.println("Database connection test failed: " + e.getMessage());
             return false;
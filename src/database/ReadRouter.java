@@ -0,0 +1,86 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether a read may be served by a replica
+ * With a replication URL the connector keeps a primary and a replica session per
+ * connection and switches between them on setReadOnly(). A read is sent to a
+ * replica only if this station has not written within the staleness bound and
+ * the replica last reported a lag within it, so a station always reads its own writes.
+ */
+class ReadRouter {
+
+    // How often the replica's lag is re-checked
+    private static final long LAG_CHECK_INTERVAL_MILLIS = 5_000;
+
+    private final long maxStalenessMillis;
+    private volatile long lastWriteMillis;
+    private final AtomicLong lastLagCheckMillis = new AtomicLong();
+    private volatile long replicaLagMillis;
+    private volatile boolean lagCheckEnabled = true;
+
+    /**
+     * Constructor with the staleness bound
+     * @param maxStalenessMillis Longest a replica read may lag behind the primary
+     */
+    ReadRouter(long maxStalenessMillis) {
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    /**
+     * Note that this station has just committed a write
+     */
+    void recordWrite() {
+        lastWriteMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Point a freshly borrowed connection at a replica if the read may be stale
+     * The pool switches it back to the primary when it is returned
+     * @param conn Borrowed connection
+     * @return The same connection
+     * @throws SQLException if the connection cannot be switched
+     */
+    Connection route(Connection conn) throws SQLException {
+        long now = System.currentTimeMillis();
+        if (now - lastWriteMillis < maxStalenessMillis) {
+            return conn;
+        }
+        conn.setReadOnly(true);
+        long lastCheck = lastLagCheckMillis.get();
+        if (lagCheckEnabled && now - lastCheck >= LAG_CHECK_INTERVAL_MILLIS
+                && lastLagCheckMillis.compareAndSet(lastCheck, now)) {
+            replicaLagMillis = checkLag(conn);
+        }
+        if (replicaLagMillis > maxStalenessMillis) {
+            conn.setReadOnly(false);
+        }
+        return conn;
+    }
+
+    /**
+     * Ask the replica how far behind the primary it is
+     * @return Lag in milliseconds; Long.MAX_VALUE if replication is stopped
+     */
+    private long checkLag(Connection conn) {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rs.next()) {
+                // Not a replica: the connector fell back to the primary
+                return 0;
+            }
+            long seconds = rs.getLong("Seconds_Behind_Source");
+            return rs.wasNull() ? Long.MAX_VALUE : seconds * 1000;
+        } catch (SQLException e) {
+            // Typically a missing REPLICATION CLIENT grant; rely on the write window alone
+            System.err.println("Replica lag check disabled: " + e.getMessage());
+            lagCheckEnabled = false;
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a result set to an object
+ * Implementations read columns by position, so the query must select the
+ * columns the mapper expects in the expected order; this avoids a column
+ * name lookup for every cell of every row
+ * @param <T> Type of object produced per row
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    
+    /**
+     * Map the row the result set is positioned on
+     * @param rs Result set positioned on a row
+     * @return Mapped object
+     * @throws SQLException if a column cannot be read
+     */
+    T map(ResultSet rs) throws SQLException;
+}
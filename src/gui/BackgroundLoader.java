@@ -0,0 +1,229 @@
+package gui;
+
+import javax.swing.*;
+import java.awt.Window;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs database work for a window off the Swing event dispatch thread
+ * Work runs on virtual threads; results, progress and rows are delivered on the EDT
+ * All pending work is cancelled when the owning window is disposed
+ */
+public class BackgroundLoader {
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Rows are handed to the EDT in batches, or sooner if the producer is slow
+    private static final int PUBLISH_BATCH_SIZE = 250;
+    private static final long PUBLISH_INTERVAL_NANOS = 50_000_000L;
+
+    private final Set<Task> pending = ConcurrentHashMap.newKeySet();
+    private volatile boolean disposed;
+
+    /**
+     * Produces rows one at a time on a background thread
+     * @param <T> Row type
+     */
+    public interface RowProducer<T> {
+        void produce(RowSink<T> sink) throws Exception;
+    }
+
+    /**
+     * Receives rows and progress from a RowProducer
+     * @param <T> Row type
+     */
+    public interface RowSink<T> {
+        /**
+         * Publish a row
+         * @param row Row to publish
+         * @return false if the task was cancelled and the producer should stop
+         */
+        boolean accept(T row);
+
+        /**
+         * Report progress
+         * @param percent Progress between 0 and 100
+         */
+        void setProgress(int percent);
+
+        boolean isCancelled();
+    }
+
+    /**
+     * Handle to a submitted piece of work
+     */
+    public static class Task {
+        private volatile boolean cancelled;
+        private volatile Future<?> future;
+
+        public void cancel() {
+            cancelled = true;
+            Future<?> f = future;
+            if (f != null) {
+                f.cancel(true);
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * Constructor binding the loader's lifetime to a window
+     * @param owner Window whose disposal cancels pending work
+     */
+    public BackgroundLoader(Window owner) {
+        owner.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                dispose();
+            }
+        });
+    }
+
+    /**
+     * Run a task in the background and deliver its result on the EDT
+     * @param work Work to run off the EDT
+     * @param onSuccess Called on the EDT with the result
+     * @param onError Called on the EDT if the work throws
+     * @return Task handle that can be cancelled
+     */
+    public <T> Task submit(Callable<T> work, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        Task task = new Task();
+        start(task, () -> {
+            T result = work.call();
+            deliver(task, () -> onSuccess.accept(result));
+            return null;
+        }, onError);
+        return task;
+    }
+
+    /**
+     * Stream rows from a producer in the background, publishing them to the EDT
+     * in small batches so the first rows appear before the load has finished
+     * @param producer Produces rows off the EDT
+     * @param onRows Called on the EDT with each batch of rows
+     * @param onProgress Called on the EDT with progress updates (may be null)
+     * @param onDone Called on the EDT after the last batch
+     * @param onError Called on the EDT if the producer throws
+     * @return Task handle that can be cancelled
+     */
+    public <T> Task stream(RowProducer<T> producer, Consumer<List<T>> onRows, IntConsumer onProgress,
+                           Runnable onDone, Consumer<Exception> onError) {
+        Task task = new Task();
+        start(task, () -> {
+            BatchingSink<T> sink = new BatchingSink<>(task, onRows, onProgress);
+            producer.produce(sink);
+            sink.flush();
+            deliver(task, onDone);
+            return null;
+        }, onError);
+        return task;
+    }
+
+    /**
+     * Cancel all pending work and refuse new work
+     */
+    public void dispose() {
+        disposed = true;
+        for (Task task : pending) {
+            task.cancel();
+        }
+        pending.clear();
+    }
+
+    private void start(Task task, Callable<Void> body, Consumer<Exception> onError) {
+        if (disposed) {
+            task.cancelled = true;
+            return;
+        }
+        pending.add(task);
+        task.future = EXECUTOR.submit(() -> {
+            try {
+                body.call();
+            } catch (Exception e) {
+                if (!task.cancelled) {
+                    deliver(task, () -> onError.accept(e));
+                }
+            } finally {
+                pending.remove(task);
+            }
+        });
+        if (disposed) {
+            task.cancel();
+        }
+    }
+
+    private void deliver(Task task, Runnable callback) {
+        SwingUtilities.invokeLater(() -> {
+            if (!task.cancelled && !disposed) {
+                callback.run();
+            }
+        });
+    }
+
+    /**
+     * Sink that buffers rows on the worker thread and posts them to the EDT in batches
+     */
+    private class BatchingSink<T> implements RowSink<T> {
+        private final Task task;
+        private final Consumer<List<T>> onRows;
+        private final IntConsumer onProgress;
+        private List<T> buffer = new ArrayList<>();
+        private long lastFlush = System.nanoTime();
+        private int lastProgress = -1;
+
+        private BatchingSink(Task task, Consumer<List<T>> onRows, IntConsumer onProgress) {
+            this.task = task;
+            this.onRows = onRows;
+            this.onProgress = onProgress;
+        }
+
+        @Override
+        public boolean accept(T row) {
+            if (task.cancelled) {
+                return false;
+            }
+            buffer.add(row);
+            if (buffer.size() >= PUBLISH_BATCH_SIZE || System.nanoTime() - lastFlush >= PUBLISH_INTERVAL_NANOS) {
+                flush();
+            }
+            return true;
+        }
+
+        @Override
+        public void setProgress(int percent) {
+            if (onProgress == null || percent == lastProgress || task.cancelled) {
+                return;
+            }
+            lastProgress = percent;
+            deliver(task, () -> onProgress.accept(percent));
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return task.cancelled;
+        }
+
+        private void flush() {
+            lastFlush = System.nanoTime();
+            if (buffer.isEmpty()) {
+                return;
+            }
+            List<T> batch = buffer;
+            buffer = new ArrayList<>();
+            deliver(task, () -> onRows.accept(batch));
+        }
+    }
+}
@@ -1,19 +1,34 @@
 package gui;
 
+import model.StockAlert;
+import service.StockAlertEngine;
+import service.StockAlertSink;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 /**
  * Dashboard frame - main navigation hub for the warehouse management system
  * Provides buttons to access different modules of the system
+ * and shows the items currently short of stock as alerts come in
  */
 public class DashboardFrame extends JFrame {
     private JButton inventoryButton;
     private JButton supplierButton;
     private JButton reportsButton;
     private JButton logoutButton;
+    private DefaultListModel<String> alertListModel;
+    private JLabel alertStatusLabel;
+    private StockAlertSink alertSink;
+    private Timer alertRefreshTimer;
+    
+    // Alerts listed on the dashboard, largest deficit first
+    private static final int ALERT_LIST_SIZE = 8;
+    // Also re-read the engine's in-memory queue now and then to show alerts still held back by its rate limits
+    private static final int ALERT_REFRESH_MILLIS = 5_000;
     
     /**
      * Constructor to initialize the dashboard frame
@@ -23,6 +38,7 @@ public class DashboardFrame extends JFrame {
         setupLayout();
         setupEventHandlers();
         setFrameProperties();
+        subscribeToAlerts();
     }
     
     /**
@@ -47,6 +63,9 @@ public class DashboardFrame extends JFrame {
         supplierButton.setFont(buttonFont);
         reportsButton.setFont(buttonFont);
         logoutButton.setFont(buttonFont);
+        
+        alertListModel = new DefaultListModel<>();
+        alertStatusLabel = new JLabel(" ");
     }
     
     /**
@@ -85,10 +104,19 @@ public class DashboardFrame extends JFrame {
         
         add(mainPanel, BorderLayout.CENTER);
         
-        // Status panel
+        // Low stock alerts and status panel
+        JPanel southPanel = new JPanel(new BorderLayout());
+        JList<String> alertList = new JList<>(alertListModel);
+        alertList.setVisibleRowCount(ALERT_LIST_SIZE / 2);
+        JScrollPane alertScrollPane = new JScrollPane(alertList);
+        alertScrollPane.setBorder(BorderFactory.createTitledBorder("Low Stock Alerts"));
+        southPanel.add(alertScrollPane, BorderLayout.CENTER);
+        
         JPanel statusPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         statusPanel.add(new JLabel("Welcome, Admin!"));
-        add(statusPanel, BorderLayout.SOUTH);
+        statusPanel.add(alertStatusLabel);
+        southPanel.add(statusPanel, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
     }
     
     /**
@@ -130,10 +158,67 @@ public class DashboardFrame extends JFrame {
     private void setFrameProperties() {
         setTitle("Warehouse Management System - Dashboard");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setSize(600, 400);
+        setSize(600, 520);
         setLocationRelativeTo(null); // Center on screen
     }
     
+    /**
+     * Show stock alerts while the dashboard is open
+     * The sink is removed again when the frame is closed, e.g. on logout
+     */
+    private void subscribeToAlerts() {
+        StockAlertEngine engine = StockAlertEngine.getInstance();
+        alertSink = alert -> SwingUtilities.invokeLater(() -> showAlert(alert));
+        engine.addSink(alertSink);
+        alertRefreshTimer = new Timer(ALERT_REFRESH_MILLIS, _ -> refreshAlertList());
+        alertRefreshTimer.start();
+        refreshAlertList();
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                engine.removeSink(alertSink);
+                alertRefreshTimer.stop();
+            }
+        });
+    }
+    
+    /**
+     * Show the latest alert in the status line and refresh the list
+     */
+    private void showAlert(StockAlert alert) {
+        String text;
+        switch (alert.getLevel()) {
+            case OUT_OF_STOCK:
+                text = "Out of stock: ";
+                break;
+            case LOW:
+                text = "Low stock: ";
+                break;
+            default:
+                text = "Restocked: ";
+                break;
+        }
+        alertStatusLabel.setText(" | " + text + alert.getItemName() + " (" + alert.getQuantity() + " left)");
+        refreshAlertList();
+    }
+    
+    /**
+     * Re-read the largest shortages from the alert engine; no database access
+     */
+    private void refreshAlertList() {
+        StockAlertEngine engine = StockAlertEngine.getInstance();
+        alertListModel.clear();
+        for (StockAlert alert : engine.getActiveAlerts(ALERT_LIST_SIZE)) {
+            alertListModel.addElement(String.format("%s  #%d %s: %d on hand, minimum %d",
+                alert.getLevel() == StockAlert.Level.OUT_OF_STOCK ? "OUT" : "LOW",
+                alert.getItemId(), alert.getItemName(), alert.getQuantity(), alert.getMinStockLevel()));
+        }
+        int more = engine.getActiveCount() - alertListModel.size();
+        if (more > 0) {
+            alertListModel.addElement("... and " + more + " more, see the Low Stock Alert report");
+        }
+    }
+    
     /**
      * Open the inventory management frame
      */
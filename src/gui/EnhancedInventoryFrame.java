@@ -12,6 +12,9 @@ public class EnhancedInventoryFrame extends JFrame {
     private DefaultTableModel model;
     private JTextField txtName, txtQuantity, txtCategory, txtPrice, txtSearch;
     private JButton btnAdd, btnEdit, btnDelete, btnSearch, btnClear;
+    private BackgroundLoader loader = new BackgroundLoader(this);
+    private BackgroundLoader.Task loadTask;
+    private TableSearchFilter searchFilter;
 
     public EnhancedInventoryFrame() {
         setTitle("Warehouse Inventory Management");
@@ -29,6 +32,8 @@ public class EnhancedInventoryFrame extends JFrame {
         String[] columns = {"ID", "Name", "Quantity","Category", "Price"};
         model = new DefaultTableModel(columns, 0);
         table = new JTable(model);
+        // Name and category are searched in memory as the user types
+        searchFilter = new TableSearchFilter(table, 1, 3);
         JScrollPane scrollPane = new JScrollPane(table);
         add(scrollPane, BorderLayout.CENTER);
 
@@ -75,6 +80,7 @@ formPanel.add(txtPrice, gbc);
         btnClear = new JButton("Clear");
 
         txtSearch = new JTextField(15);
+        searchFilter.attach(txtSearch);
         btnPanel.add(new JLabel("Search by Name:"));
         btnPanel.add(txtSearch);
         btnPanel.add(btnAdd);
@@ -96,12 +102,16 @@ formPanel.add(txtPrice, gbc);
         btnAdd.addActionListener(e -> addProduct());
         btnEdit.addActionListener(e -> editProduct());
         btnDelete.addActionListener(e -> deleteProduct());
-        btnSearch.addActionListener(e -> searchProduct());
+        btnSearch.addActionListener(e -> searchFilter.apply());
         btnClear.addActionListener(e -> clearFields());
 
      table.addMouseListener(new MouseAdapter() {
     public void mouseClicked(MouseEvent e) {
         int row = table.getSelectedRow();
+        if (row == -1) {
+            return;
+        }
+        row = table.convertRowIndexToModel(row);
         txtName.setText(model.getValueAt(row, 1).toString());
         txtQuantity.setText(model.getValueAt(row, 2).toString());
         txtCategory.setText(model.getValueAt(row, 3).toString());
@@ -113,22 +123,34 @@ formPanel.add(txtPrice, gbc);
 
 
     private void loadProducts() {
+        if (loadTask != null) {
+            loadTask.cancel();
+        }
         model.setRowCount(0);
-        try (Connection conn = DBConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT * FROM products")) {
-            while (rs.next()) {
-                model.addRow(new Object[]{
-                        rs.getInt("product_id"),
-                        rs.getString("name"),
-                        rs.getInt("quantity"),
-                        rs.getString("category"),
-                        rs.getDouble("price")
-                });
+        // Rows are read off the EDT and appended in batches as they arrive
+        loadTask = loader.<Object[]>stream(sink -> {
+            try (Connection conn = DBConnection.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT * FROM products")) {
+                while (rs.next()) {
+                    boolean more = sink.accept(new Object[]{
+                            rs.getInt("product_id"),
+                            rs.getString("name"),
+                            rs.getInt("quantity"),
+                            rs.getString("category"),
+                            rs.getDouble("price")
+                    });
+                    if (!more) {
+                        return;
+                    }
+                }
             }
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Error loading products: " + ex.getMessage());
-        }
+        }, rows -> {
+            for (Object[] row : rows) {
+                model.addRow(row);
+            }
+        }, null, () -> {
+        }, ex -> JOptionPane.showMessageDialog(this, "Error loading products: " + ex.getMessage()));
     }
 
     private void addProduct() {
@@ -153,6 +175,7 @@ formPanel.add(txtPrice, gbc);
             JOptionPane.showMessageDialog(this, "Please select a product to edit.");
             return;
         }
+        row = table.convertRowIndexToModel(row);
         int id = (int) model.getValueAt(row, 0);
         try (Connection conn = DBConnection.getConnection()) {
             String query = "UPDATE products SET name=?, quantity=?,category=?, price=? WHERE product_id=?";
@@ -177,6 +200,7 @@ formPanel.add(txtPrice, gbc);
             JOptionPane.showMessageDialog(this, "Please select a product to delete.");
             return;
         }
+        row = table.convertRowIndexToModel(row);
         int id = (int) model.getValueAt(row, 0);
         try (Connection conn = DBConnection.getConnection()) {
             String query = "DELETE FROM products WHERE product_id=?";
@@ -190,28 +214,6 @@ formPanel.add(txtPrice, gbc);
         }
     }
 
-    private void searchProduct() {
-        model.setRowCount(0);
-        String search = txtSearch.getText();
-        try (Connection conn = DBConnection.getConnection()) {
-            String query = "SELECT * FROM products WHERE name LIKE ?";
-            PreparedStatement ps = conn.prepareStatement(query);
-            ps.setString(1, "%" + search + "%");
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                model.addRow(new Object[]{
-                        rs.getInt("product_id"),
-                        rs.getString("name"),
-                        rs.getInt("quantity"),
-                        rs.getString("category"),
-                        rs.getDouble("price")
-                });
-            }
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Error searching product: " + ex.getMessage());
-        }
-    }
-
     private void clearFields() {
         txtName.setText("");
         txtQuantity.setText("");
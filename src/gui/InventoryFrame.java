@@ -1,42 +1,61 @@
 package gui;
 
 import model.Item;
+import model.ItemUpdateResult;
 import service.InventoryService;
+import service.ItemChangeFeed;
+import service.ItemChangeListener;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.List;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.Objects;
 
 /**
  * Inventory management frame for CRUD operations on items
  * Provides interface to add, edit, delete, and view inventory items
  */
 public class InventoryFrame extends JFrame {
+    private static final int SEARCH_DELAY_MILLIS = 150;
+    private static final int SEARCH_LIMIT = 500;
+    
     private JTable itemTable;
-    private DefaultTableModel tableModel;
+    private PagedItemTableModel tableModel;
     private JTextField nameField;
     private JTextField quantityField;
     private JTextField locationField;
+    private JTextField searchField;
+    private Timer searchTimer;
     private JButton addButton;
     private JButton editButton;
     private JButton deleteButton;
     private JButton refreshButton;
+    private JLabel statusLabel;
     
     private InventoryService inventoryService;
+    private BackgroundLoader loader;
+    private ItemChangeListener changeListener;
+    private BackgroundLoader.Task searchTask;
     private int selectedItemId = -1;
+    // Selected item as read, including its version, for conflict detection on edit
+    private Item selectedItem;
     
     /**
      * Constructor to initialize the inventory frame
      */
     public InventoryFrame() {
         inventoryService = new InventoryService();
+        loader = new BackgroundLoader(this);
         initializeComponents();
         setupLayout();
         setupEventHandlers();
         setFrameProperties();
         loadItems();
+        subscribeToChanges();
     }
     
     /**
@@ -45,12 +64,15 @@ public class InventoryFrame extends JFrame {
     private void initializeComponents() {
         // Table setup
         String[] columnNames = {"ID", "Name", "Quantity", "Location"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make table read-only
+        tableModel = new PagedItemTableModel(inventoryService, loader, columnNames, (item, column) -> {
+            switch (column) {
+                case 0: return item.getId();
+                case 1: return item.getName();
+                case 2: return item.getQuantity();
+                default: return item.getLocation();
             }
-        };
+        });
+        tableModel.setOnRefreshed(() -> statusLabel.setText(tableModel.getRowCount() + " items"));
         itemTable = new JTable(tableModel);
         itemTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         itemTable.getSelectionModel().addListSelectionListener(e -> {
@@ -63,12 +85,18 @@ public class InventoryFrame extends JFrame {
         nameField = new JTextField(20);
         quantityField = new JTextField(20);
         locationField = new JTextField(20);
+        searchField = new JTextField(25);
+        
+        // Search runs once typing pauses rather than on every keystroke
+        searchTimer = new Timer(SEARCH_DELAY_MILLIS, e -> runSearch());
+        searchTimer.setRepeats(false);
         
         // Buttons
         addButton = new JButton("Add Item");
         editButton = new JButton("Edit Item");
         deleteButton = new JButton("Delete Item");
         refreshButton = new JButton("Refresh");
+        statusLabel = new JLabel(" ");
         
         // Initially disable edit and delete buttons
         editButton.setEnabled(false);
@@ -90,6 +118,12 @@ public class InventoryFrame extends JFrame {
         // Main content panel
         JPanel mainPanel = new JPanel(new BorderLayout());
         
+        // Search panel
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        searchPanel.add(new JLabel("Search:"));
+        searchPanel.add(searchField);
+        mainPanel.add(searchPanel, BorderLayout.NORTH);
+        
         // Table panel
         JScrollPane scrollPane = new JScrollPane(itemTable);
         scrollPane.setPreferredSize(new Dimension(600, 300));
@@ -129,6 +163,7 @@ public class InventoryFrame extends JFrame {
         buttonPanel.add(editButton);
         buttonPanel.add(deleteButton);
         buttonPanel.add(refreshButton);
+        buttonPanel.add(statusLabel);
         
         add(mainPanel, BorderLayout.CENTER);
         add(buttonPanel, BorderLayout.SOUTH);
@@ -165,6 +200,23 @@ public class InventoryFrame extends JFrame {
                 loadItems();
             }
         });
+        
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+        });
     }
     
     /**
@@ -178,23 +230,55 @@ public class InventoryFrame extends JFrame {
     }
     
     /**
-     * Load all items from database and populate table
+     * Apply changes made by other stations to the table as they are detected
+     * instead of reloading it; the subscription ends when the frame is closed
+     */
+    private void subscribeToChanges() {
+        changeListener = changes -> SwingUtilities.invokeLater(() -> tableModel.applyChanges(changes));
+        ItemChangeFeed.getInstance().addListener(changeListener);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                ItemChangeFeed.getInstance().removeListener(changeListener);
+            }
+        });
+    }
+    
+    /**
+     * Reload the item table, or re-run the search if one is active
+     * Rows are paged in from the database as they scroll into view
      */
     private void loadItems() {
-        tableModel.setRowCount(0); // Clear existing data
-        
-        List<Item> items = inventoryService.getAllItems();
-        for (Item item : items) {
-            Object[] row = {
-                item.getId(),
-                item.getName(),
-                item.getQuantity(),
-                item.getLocation()
-            };
-            tableModel.addRow(row);
-        }
-        
         clearFields();
+        if (!searchField.getText().isBlank()) {
+            runSearch();
+            return;
+        }
+        if (searchTask != null) {
+            searchTask.cancel();
+        }
+        statusLabel.setText("Loading...");
+        tableModel.refresh();
+    }
+    
+    /**
+     * Show the items matching the search field, best match first
+     * An empty search goes back to the full paged table
+     */
+    private void runSearch() {
+        String query = searchField.getText().trim();
+        if (query.isEmpty()) {
+            loadItems();
+            return;
+        }
+        if (searchTask != null) {
+            searchTask.cancel();
+        }
+        itemTable.clearSelection();
+        searchTask = loader.submit(() -> inventoryService.searchItems(query, SEARCH_LIMIT), items -> {
+            tableModel.showResults(items);
+            statusLabel.setText(items.size() == SEARCH_LIMIT ? "First " + SEARCH_LIMIT + " matches" : items.size() + " matches");
+        }, e -> statusLabel.setText("Search failed: " + e.getMessage()));
     }
     
     /**
@@ -202,11 +286,13 @@ public class InventoryFrame extends JFrame {
      */
     private void onTableSelection() {
         int selectedRow = itemTable.getSelectedRow();
-        if (selectedRow >= 0) {
-            selectedItemId = (Integer) tableModel.getValueAt(selectedRow, 0);
-            nameField.setText((String) tableModel.getValueAt(selectedRow, 1));
-            quantityField.setText(tableModel.getValueAt(selectedRow, 2).toString());
-            locationField.setText((String) tableModel.getValueAt(selectedRow, 3));
+        Item selected = selectedRow >= 0 ? tableModel.getItemAt(selectedRow) : null;
+        if (selected != null) {
+            selectedItemId = selected.getId();
+            selectedItem = selected;
+            nameField.setText(selected.getName());
+            quantityField.setText(String.valueOf(selected.getQuantity()));
+            locationField.setText(selected.getLocation());
             
             editButton.setEnabled(true);
             deleteButton.setEnabled(true);
@@ -225,6 +311,7 @@ public class InventoryFrame extends JFrame {
         quantityField.setText("");
         locationField.setText("");
         selectedItemId = -1;
+        selectedItem = null;
         itemTable.clearSelection();
     }
     
@@ -272,16 +359,81 @@ public class InventoryFrame extends JFrame {
             int quantity = Integer.parseInt(quantityField.getText().trim());
             String location = locationField.getText().trim();
             
-            Item item = new Item(selectedItemId, name, quantity, location);
+            // Only the fields shown here are edited; category, price etc. are kept as read
+            Item edited = new Item(selectedItem);
+            edited.setName(name);
+            edited.setQuantity(quantity);
+            edited.setLocation(location);
             
-            if (inventoryService.updateItem(item)) {
+            saveEdit(selectedItem, edited);
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Please enter a valid quantity (number).", "Invalid Input", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    
+    /**
+     * Save an edit as a versioned, field-level update and report the outcome
+     * @param original Item as read before editing
+     * @param edited Item with the operator's changes
+     */
+    private void saveEdit(Item original, Item edited) {
+        ItemUpdateResult result = inventoryService.updateItemFields(original, edited);
+        switch (result.getStatus()) {
+            case UPDATED:
+            case UNCHANGED:
                 JOptionPane.showMessageDialog(this, "Item updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 loadItems();
-            } else {
+                break;
+            case JOURNALED:
+                JOptionPane.showMessageDialog(this, "Database unavailable. The change was saved locally and will be applied when it is back.", "Saved Offline", JOptionPane.INFORMATION_MESSAGE);
+                loadItems();
+                break;
+            case CONFLICT:
+                resolveConflict(edited, result.getItem());
+                break;
+            case NOT_FOUND:
+                JOptionPane.showMessageDialog(this, "This item has been deleted by another user.", "Item Deleted", JOptionPane.WARNING_MESSAGE);
+                clearFields();
+                loadItems();
+                break;
+            default:
                 JOptionPane.showMessageDialog(this, "Failed to update item. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
-        } catch (NumberFormatException e) {
-            JOptionPane.showMessageDialog(this, "Please enter a valid quantity (number).", "Invalid Input", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    
+    /**
+     * Another user changed the same fields first: show both versions and let the operator choose
+     * @param edited Operator's version
+     * @param current Version now in the database
+     */
+    private void resolveConflict(Item edited, Item current) {
+        StringBuilder message = new StringBuilder("This item was changed by another user while you were editing it.\n\n");
+        appendDifference(message, "Name", current.getName(), edited.getName());
+        appendDifference(message, "Quantity", String.valueOf(current.getQuantity()), String.valueOf(edited.getQuantity()));
+        appendDifference(message, "Location", current.getLocation(), edited.getLocation());
+        
+        String[] options = {"Keep My Changes", "Use Saved Values", "Cancel"};
+        int choice = JOptionPane.showOptionDialog(this, message.toString(), "Edit Conflict",
+            JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.WARNING_MESSAGE, null, options, options[1]);
+        if (choice == 0) {
+            // Re-apply the operator's values on top of the version just read
+            Item retry = new Item(current);
+            retry.setName(edited.getName());
+            retry.setQuantity(edited.getQuantity());
+            retry.setLocation(edited.getLocation());
+            saveEdit(current, retry);
+        } else if (choice == 1) {
+            selectedItem = current;
+            nameField.setText(current.getName());
+            quantityField.setText(String.valueOf(current.getQuantity()));
+            locationField.setText(current.getLocation());
+            loadItems();
+        }
+    }
+    
+    private static void appendDifference(StringBuilder message, String field, String saved, String yours) {
+        if (!Objects.equals(saved, yours)) {
+            message.append(field).append(": saved \"").append(saved).append("\", yours \"").append(yours).append("\"\n");
         }
     }
     
@@ -0,0 +1,555 @@
+package gui;
+
+import model.Item;
+import model.ItemChange;
+import service.InventoryService;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Read-only table model that pages items in on demand
+ * Only the pages the table actually asks for (plus the next one) are fetched,
+ * using keyset pagination on items.id, and a bounded LRU cache keeps memory flat
+ * regardless of how many items exist
+ *
+ * The model can also show a fixed list of items instead, e.g. search results,
+ * until the next refresh.
+ */
+public class PagedItemTableModel extends AbstractTableModel {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int DEFAULT_MAX_CACHED_PAGES = 40;
+
+    private final InventoryService inventoryService;
+    private final BackgroundLoader loader;
+    private final String[] columnNames;
+    private final BiFunction<Item, Integer, Object> cellValue;
+    private final int pageSize;
+    private final int maxCachedPages;
+
+    private final Map<Integer, List<Item>> pages;
+    private final Set<Integer> pagesInFlight = new HashSet<>();
+    // Keyset boundary per page: the ID of the last item before the page, or -1 if not known yet
+    private int[] pageKeys = new int[0];
+    private int rowCount;
+    private int generation;
+    // Bumped when rows move, so pages fetched for the old positions are discarded
+    private int layoutVersion;
+    // A background re-count is checking rows patched in where nothing was cached to confirm them
+    private boolean recountPending;
+    private Runnable onRefreshed;
+    // Fixed rows shown instead of the paged table, or null
+    private List<Item> results;
+
+    /**
+     * Constructor with default page size and cache bound
+     * @param inventoryService Service used to fetch pages
+     * @param loader Background loader owned by the frame showing the table
+     * @param columnNames Column headers
+     * @param cellValue Maps an item and a column index to the cell value
+     */
+    public PagedItemTableModel(InventoryService inventoryService, BackgroundLoader loader,
+                               String[] columnNames, BiFunction<Item, Integer, Object> cellValue) {
+        this(inventoryService, loader, columnNames, cellValue, DEFAULT_PAGE_SIZE, DEFAULT_MAX_CACHED_PAGES);
+    }
+
+    /**
+     * Constructor with all parameters
+     * @param inventoryService Service used to fetch pages
+     * @param loader Background loader owned by the frame showing the table
+     * @param columnNames Column headers
+     * @param cellValue Maps an item and a column index to the cell value
+     * @param pageSize Rows fetched per round-trip
+     * @param maxCachedPages Pages kept in memory before the least recently used is dropped
+     */
+    public PagedItemTableModel(InventoryService inventoryService, BackgroundLoader loader,
+                               String[] columnNames, BiFunction<Item, Integer, Object> cellValue,
+                               int pageSize, int maxCachedPages) {
+        this.inventoryService = inventoryService;
+        this.loader = loader;
+        this.columnNames = columnNames.clone();
+        this.cellValue = cellValue;
+        this.pageSize = pageSize;
+        this.maxCachedPages = maxCachedPages;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Item>> eldest) {
+                return size() > PagedItemTableModel.this.maxCachedPages;
+            }
+        };
+    }
+
+    /**
+     * Set a callback run on the EDT each time a refresh has re-counted the rows
+     * @param onRefreshed Callback, or null
+     */
+    public void setOnRefreshed(Runnable onRefreshed) {
+        this.onRefreshed = onRefreshed;
+    }
+
+    /**
+     * Drop all cached pages and re-count the rows in the background
+     */
+    public void refresh() {
+        int refreshGeneration = ++generation;
+        loader.submit(inventoryService::countItems, count -> {
+            if (refreshGeneration != generation) {
+                return;
+            }
+            pages.clear();
+            pagesInFlight.clear();
+            results = null;
+            rowCount = count;
+            pageKeys = new int[(count + pageSize - 1) / pageSize];
+            Arrays.fill(pageKeys, -1);
+            if (pageKeys.length > 0) {
+                pageKeys[0] = 0;
+            }
+            fireTableDataChanged();
+            if (onRefreshed != null) {
+                onRefreshed.run();
+            }
+        }, e -> System.err.println("Error counting items: " + e.getMessage()));
+    }
+
+    /**
+     * Show a fixed list of items instead of the paged table until the next refresh
+     * @param items Items to show, in display order
+     */
+    public void showResults(List<Item> items) {
+        ++generation;
+        pagesInFlight.clear();
+        results = new ArrayList<>(items);
+        fireTableDataChanged();
+    }
+
+    /**
+     * Get the item shown at a row if its page is loaded
+     * @param row Row index
+     * @return Item, or null if the page has not been fetched yet
+     */
+    public Item getItemAt(int row) {
+        if (results != null) {
+            return row >= 0 && row < results.size() ? results.get(row) : null;
+        }
+        if (row < 0 || row >= rowCount) {
+            return null;
+        }
+        int page = row / pageSize;
+        List<Item> items = pages.get(page);
+        if (items == null) {
+            requestPage(page);
+            return null;
+        }
+        int index = row % pageSize;
+        return index < items.size() ? items.get(index) : null;
+    }
+
+    /**
+     * Apply changes from the item change feed (call on the EDT)
+     * Updates to rows in cached pages are patched in place. Inserts and deletes are
+     * patched in place too, without re-counting: rows before the changed ID keep
+     * their pages, and each cached page after it passes one row on to its neighbour.
+     * Only a page whose neighbour is not cached is dropped, and re-fetched if shown.
+     * While showing fixed results, updated rows are patched and deleted rows dropped.
+     *
+     * A change can arrive after a refresh that already counted it, e.g. the feed echoing
+     * this station's own add or delete: an insert of a row that is there is applied as an
+     * update, and a delete of a row that is not there is ignored. Where the cached pages
+     * cannot tell, the change is applied and the rows re-counted in the background.
+     * @param changes Changes to apply
+     */
+    public void applyChanges(List<ItemChange> changes) {
+        if (results != null) {
+            applyToResults(changes);
+            return;
+        }
+        boolean unconfirmed = false;
+        for (ItemChange change : changes) {
+            Boolean present = change.getType() == ItemChange.Type.UPDATE ? null : isPresent(change.getItemId());
+            switch (change.getType()) {
+                case INSERT:
+                    if (Boolean.TRUE.equals(present)) {
+                        applyUpdate(change.getItemId(), change.getItem());
+                    } else {
+                        applyInsert(change.getItem());
+                    }
+                    break;
+                case DELETE:
+                    if (!Boolean.FALSE.equals(present)) {
+                        applyDelete(change.getItemId());
+                    }
+                    break;
+                default:
+                    applyUpdate(change.getItemId(), change.getItem());
+                    break;
+            }
+            unconfirmed |= change.getType() != ItemChange.Type.UPDATE && present == null;
+        }
+        if (unconfirmed) {
+            recount();
+        }
+    }
+
+    private void applyUpdate(int itemId, Item item) {
+        for (Map.Entry<Integer, List<Item>> entry : pages.entrySet()) {
+            List<Item> items = entry.getValue();
+            int index = indexOf(items, itemId);
+            if (index >= 0) {
+                items.set(index, item);
+                int row = entry.getKey() * pageSize + index;
+                fireTableRowsUpdated(row, row);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Whether a row with the given ID is in the table, as far as the cached pages and
+     * page boundaries show
+     * @return TRUE or FALSE, or null if the part of the table it would be in is not cached
+     */
+    private Boolean isPresent(int itemId) {
+        if (rowCount == 0) {
+            return false;
+        }
+        for (Map.Entry<Integer, List<Item>> entry : pages.entrySet()) {
+            int page = entry.getKey();
+            List<Item> items = entry.getValue();
+            if (items.isEmpty()) {
+                continue;
+            }
+            int first = items.get(0).getId();
+            int last = items.get(items.size() - 1).getId();
+            if (itemId >= first && itemId <= last) {
+                return indexOf(items, itemId) >= 0;
+            }
+            // The boundary is the last ID before the page, so anything between it and the page is absent
+            if (itemId < first && page < pageKeys.length && pageKeys[page] >= 0 && pageKeys[page] <= itemId) {
+                return pageKeys[page] == itemId;
+            }
+            if (itemId > last && page == pageKeys.length - 1 && page * pageSize + items.size() == rowCount) {
+                return false;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Count the rows again in the background and refresh if the patched count is off
+     */
+    private void recount() {
+        if (recountPending) {
+            return;
+        }
+        recountPending = true;
+        int recountGeneration = generation;
+        loader.submit(inventoryService::countItems, count -> {
+            recountPending = false;
+            if (recountGeneration == generation && results == null && count != rowCount) {
+                refresh();
+            }
+        }, e -> {
+            recountPending = false;
+            System.err.println("Error counting items: " + e.getMessage());
+        });
+    }
+
+    /**
+     * Remove a row: the page holding it and every page after it move up by one row
+     */
+    private void applyDelete(int itemId) {
+        Map<Integer, List<Item>> cached = new HashMap<>(pages);
+        int deletedRow = -1;
+        // Cached page that lost a row and takes the first row of the next page
+        int shortPage = -1;
+        for (int page = 0; page < pageKeys.length; page++) {
+            List<Item> items = cached.get(page);
+            if (endsBefore(page, items, itemId)) {
+                continue;
+            }
+            if (pageKeys[page] >= itemId) {
+                pageKeys[page] = -1;
+            }
+            int index = items == null ? -1 : indexOf(items, itemId);
+            if (index >= 0) {
+                items.remove(index);
+                deletedRow = page * pageSize + index;
+            } else if (items != null && !items.isEmpty() && items.get(0).getId() > itemId) {
+                Item first = items.remove(0);
+                pageKeys[page] = first.getId();
+                if (shortPage == page - 1) {
+                    cached.get(shortPage).add(first);
+                } else {
+                    dropPage(shortPage);
+                }
+            } else {
+                // Not cached, or does not hold the row it should: fetch again when shown
+                dropPage(page);
+                dropPage(shortPage);
+                shortPage = -1;
+                continue;
+            }
+            if (shortPage != page - 1) {
+                dropPage(shortPage);
+            }
+            shortPage = page;
+        }
+        rowCount--;
+        resizePages();
+        // The last page may be short; any other short page lacks a row it should show
+        if (shortPage >= 0 && shortPage < pageKeys.length - 1) {
+            dropPage(shortPage);
+        }
+        layoutChanged(deletedRow, false);
+    }
+
+    /**
+     * Add a row: the page it belongs on and every page after it move down by one row
+     */
+    private void applyInsert(Item item) {
+        int itemId = item.getId();
+        rowCount++;
+        resizePages();
+        Map<Integer, List<Item>> cached = new HashMap<>(pages);
+        int insertedRow = -1;
+        boolean shifting = false;
+        // Row pushed off the end of the previous page, or null if that page was not cached
+        Item carried = null;
+        for (int page = 0; page < pageKeys.length; page++) {
+            List<Item> items = cached.get(page);
+            boolean last = page == pageKeys.length - 1;
+            if (!shifting) {
+                if (endsBefore(page, items, itemId) && !(last && items != null)) {
+                    continue;
+                }
+                shifting = true;
+                if (pageKeys[page] >= itemId) {
+                    pageKeys[page] = -1;
+                }
+                boolean startsBefore = page == 0 || pageKeys[page] >= 0
+                    || (items != null && !items.isEmpty() && items.get(0).getId() < itemId);
+                if (items != null && startsBefore) {
+                    int index = lowerBound(items, itemId);
+                    items.add(index, item);
+                    insertedRow = page * pageSize + index;
+                } else if (items == null && last && pageKeys[page] >= 0 && (rowCount - 1) % pageSize == 0) {
+                    // Appended as the only row of a new last page
+                    List<Item> single = new ArrayList<>();
+                    single.add(item);
+                    pages.put(page, single);
+                    insertedRow = rowCount - 1;
+                    continue;
+                } else {
+                    // The row belongs on a page before this one that is not cached
+                    dropPage(page);
+                    continue;
+                }
+            } else if (carried == null) {
+                pageKeys[page] = -1;
+                dropPage(page);
+                continue;
+            } else if (items == null) {
+                // Its boundary was set from the previous page; the rows are fetched when shown
+                carried = null;
+                continue;
+            } else {
+                items.add(0, carried);
+            }
+            carried = items.size() > pageSize ? items.remove(items.size() - 1) : null;
+            if (carried != null && page + 1 < pageKeys.length) {
+                pageKeys[page + 1] = items.get(items.size() - 1).getId();
+            }
+        }
+        layoutChanged(insertedRow, true);
+    }
+
+    /**
+     * Whether every row of a page has an ID below the given one, so the page keeps its rows
+     */
+    private boolean endsBefore(int page, List<Item> items, int itemId) {
+        if (items != null && !items.isEmpty()) {
+            return items.get(items.size() - 1).getId() < itemId;
+        }
+        return page + 1 < pageKeys.length && pageKeys[page + 1] >= 0 && pageKeys[page + 1] < itemId;
+    }
+
+    private void dropPage(int page) {
+        if (page >= 0) {
+            pages.remove(page);
+        }
+    }
+
+    /**
+     * Fit the page boundaries to the row count after an insert or delete
+     */
+    private void resizePages() {
+        int pageCount = (rowCount + pageSize - 1) / pageSize;
+        if (pageCount == pageKeys.length) {
+            return;
+        }
+        int oldCount = pageKeys.length;
+        pageKeys = Arrays.copyOf(pageKeys, pageCount);
+        for (int page = oldCount; page < pageCount; page++) {
+            List<Item> previous = page > 0 ? pages.get(page - 1) : null;
+            pageKeys[page] = page == 0 ? 0 : previous != null && previous.size() == pageSize
+                ? previous.get(pageSize - 1).getId() : -1;
+        }
+        for (int page = pageCount; page < oldCount; page++) {
+            pages.remove(page);
+        }
+    }
+
+    /**
+     * Notify the table after rows moved; page fetches already under way are for the old rows
+     */
+    private void layoutChanged(int row, boolean inserted) {
+        layoutVersion++;
+        pagesInFlight.clear();
+        if (row < 0) {
+            fireTableDataChanged();
+        } else if (inserted) {
+            fireTableRowsInserted(row, row);
+        } else {
+            fireTableRowsDeleted(row, row);
+        }
+    }
+
+    private void applyToResults(List<ItemChange> changes) {
+        for (ItemChange change : changes) {
+            for (int row = 0; row < results.size(); row++) {
+                if (results.get(row).getId() != change.getItemId()) {
+                    continue;
+                }
+                if (change.getType() == ItemChange.Type.DELETE) {
+                    results.remove(row);
+                    fireTableRowsDeleted(row, row);
+                } else {
+                    results.set(row, change.getItem());
+                    fireTableRowsUpdated(row, row);
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * Position of the first item with an ID not below the given one
+     */
+    private static int lowerBound(List<Item> items, int id) {
+        int low = 0;
+        int high = items.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (items.get(mid).getId() < id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Binary search a page (pages are ordered by ID)
+     */
+    private static int indexOf(List<Item> items, int id) {
+        int low = 0;
+        int high = items.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = items.get(mid).getId();
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getRowCount() {
+        return results != null ? results.size() : rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Item item = getItemAt(row);
+        if (item == null) {
+            return null;
+        }
+        if (results != null) {
+            return cellValue.apply(item, column);
+        }
+        // Keep the page after the one being viewed warm for smooth scrolling
+        int nextPage = row / pageSize + 1;
+        if (nextPage < pageKeys.length && !pages.containsKey(nextPage)) {
+            requestPage(nextPage);
+        }
+        return cellValue.apply(item, column);
+    }
+
+    /**
+     * Fetch a page in the background unless it is already being fetched
+     */
+    private void requestPage(int page) {
+        if (page >= pageKeys.length || !pagesInFlight.add(page)) {
+            return;
+        }
+        int requestGeneration = generation;
+        int requestLayout = layoutVersion;
+        int knownKey = pageKeys[page];
+        int offset = page * pageSize;
+
+        loader.submit(() -> {
+            // Jumping straight to a page whose boundary is unknown: locate it on the index first
+            int key = knownKey >= 0 ? knownKey : inventoryService.getItemIdAtOffset(offset - 1);
+            return key < 0 ? List.<Item>of() : inventoryService.getItemsAfter(key, pageSize);
+        }, items -> {
+            if (requestGeneration != generation || requestLayout != layoutVersion) {
+                return;
+            }
+            pagesInFlight.remove(page);
+            // Patched in place by inserts and deletes
+            pages.put(page, new ArrayList<>(items));
+            if (!items.isEmpty() && page + 1 < pageKeys.length) {
+                pageKeys[page + 1] = items.get(items.size() - 1).getId();
+            }
+            int first = page * pageSize;
+            int last = Math.min(first + pageSize, rowCount) - 1;
+            if (first <= last) {
+                fireTableRowsUpdated(first, last);
+            }
+        }, e -> {
+            if (requestGeneration == generation && requestLayout == layoutVersion) {
+                pagesInFlight.remove(page);
+            }
+            System.err.println("Error loading item page: " + e.getMessage());
+        });
+    }
+}
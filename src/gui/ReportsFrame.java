@@ -1,12 +1,26 @@
 package gui;
 
+import model.CategorySummary;
 import model.Item;
+import model.ItemChange;
+import model.LocationSummary;
+import model.PurchaseOrder;
+import model.ReorderLine;
 import model.Supplier;
+import model.SupplierSummary;
 import service.InventoryService;
-import service.SupplierService;
+import service.ItemChangeFeed;
+import service.ItemChangeListener;
+import service.CsvExporter;
+import service.ReplenishmentPlanner;
+import service.ReportService;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -16,24 +30,47 @@ import java.util.List;
 public class ReportsFrame extends JFrame {
     private JTabbedPane tabbedPane;
     private JTable inventoryTable;
+    private PagedItemTableModel inventoryModel;
     private JTable lowStockTable;
     private JTable supplierTable;
     private JTable categoryTable;
+    private JTable locationTable;
+    private JTable reorderTable;
+    private JLabel statusLabel;
+    private JButton exportButton;
+    
+    private static final int REPORT_COUNT = 6;
+    // Aggregate reports re-read at most this often while items keep changing
+    private static final int AGGREGATE_REFRESH_DELAY_MS = 5_000;
     
     private InventoryService inventoryService;
-    private SupplierService supplierService;
+    private ReportService reportService;
+    private ReplenishmentPlanner replenishmentPlanner;
+    private BackgroundLoader loader;
+    private final List<BackgroundLoader.Task> loadTasks = new ArrayList<>();
+    private ItemChangeListener changeListener;
+    private Timer aggregateRefresh;
+    private int reportsLoaded;
+    // Kept apart from loadTasks so item changes do not cancel the slow reorder plan
+    private BackgroundLoader.Task reorderTask;
+    // Kept apart so the debounced aggregate reload does not cancel it
+    private BackgroundLoader.Task lowStockTask;
+    private BackgroundLoader.Task exportTask;
     
     /**
      * Constructor to initialize the reports frame
      */
     public ReportsFrame() {
         inventoryService = new InventoryService();
-        supplierService = new SupplierService();
+        reportService = new ReportService();
+        replenishmentPlanner = new ReplenishmentPlanner();
+        loader = new BackgroundLoader(this);
         initializeComponents();
         setupLayout();
         setupEventHandlers();
         setFrameProperties();
         loadAllReports();
+        subscribeToChanges();
     }
     
     /**
@@ -44,12 +81,19 @@ public class ReportsFrame extends JFrame {
         
         // Inventory Summary Table
         String[] inventoryColumns = {"ID", "Name", "Quantity", "Location", "Category", "Price", "Min Stock", "Status"};
-        DefaultTableModel inventoryModel = new DefaultTableModel(inventoryColumns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
+        inventoryModel = new PagedItemTableModel(inventoryService, loader, inventoryColumns, (item, column) -> {
+            switch (column) {
+                case 0: return item.getId();
+                case 1: return item.getName();
+                case 2: return item.getQuantity();
+                case 3: return item.getLocation();
+                case 4: return item.getCategory();
+                case 5: return String.format("$%.2f", item.getPrice());
+                case 6: return item.getMinStockLevel();
+                default: return item.isLowStock() ? "LOW STOCK" : "OK";
             }
-        };
+        });
+        inventoryModel.setOnRefreshed(this::reportLoaded);
         inventoryTable = new JTable(inventoryModel);
         
         // Low Stock Table
@@ -81,6 +125,29 @@ public class ReportsFrame extends JFrame {
             }
         };
         categoryTable = new JTable(categoryModel);
+        
+        // Location Summary Table
+        String[] locationColumns = {"Location", "Total Items", "Total Quantity", "Total Value", "Low Stock Items"};
+        DefaultTableModel locationModel = new DefaultTableModel(locationColumns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        locationTable = new JTable(locationModel);
+        
+        // Reorder Plan Table
+        String[] reorderColumns = {"Supplier", "Item ID", "Item", "On Hand", "Daily Demand", "Days of Cover",
+            "Reorder Point", "Order Qty", "Cost"};
+        DefaultTableModel reorderModel = new DefaultTableModel(reorderColumns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        reorderTable = new JTable(reorderModel);
+        
+        statusLabel = new JLabel(" ");
     }
     
     /**
@@ -100,13 +167,15 @@ public class ReportsFrame extends JFrame {
         tabbedPane.addTab("Low Stock Alert", createScrollPane(lowStockTable));
         tabbedPane.addTab("Supplier Summary", createScrollPane(supplierTable));
         tabbedPane.addTab("Category Analysis", createScrollPane(categoryTable));
+        tabbedPane.addTab("Location Analysis", createScrollPane(locationTable));
+        tabbedPane.addTab("Reorder Plan", createScrollPane(reorderTable));
         
         add(tabbedPane, BorderLayout.CENTER);
         
         // Button panel
         JPanel buttonPanel = new JPanel(new FlowLayout());
         JButton refreshButton = new JButton("Refresh All Reports");
-        JButton exportButton = new JButton("Export to CSV");
+        exportButton = new JButton("Export to CSV");
         JButton closeButton = new JButton("Close");
         
         refreshButton.addActionListener(_ -> loadAllReports());
@@ -116,6 +185,7 @@ public class ReportsFrame extends JFrame {
         buttonPanel.add(refreshButton);
         buttonPanel.add(exportButton);
         buttonPanel.add(closeButton);
+        buttonPanel.add(statusLabel);
         
         add(buttonPanel, BorderLayout.SOUTH);
     }
@@ -147,39 +217,149 @@ public class ReportsFrame extends JFrame {
     }
     
     /**
-     * Load all reports
+     * Load all reports in the background
+     * Reports still loading from a previous refresh are cancelled
      */
     private void loadAllReports() {
+        cancelLoads();
+        if (reorderTask != null) {
+            reorderTask.cancel();
+        }
+        if (lowStockTask != null) {
+            lowStockTask.cancel();
+        }
+        if (aggregateRefresh != null) {
+            aggregateRefresh.stop();
+        }
+        reportsLoaded = 0;
+        updateReportProgress();
+        
         loadInventorySummary();
         loadLowStockReport();
         loadSupplierSummary();
         loadCategoryAnalysis();
+        loadLocationAnalysis();
+        loadReorderPlan();
     }
     
     /**
-     * Load inventory summary report
+     * Cancel report loads that are still running
      */
-    private void loadInventorySummary() {
-        DefaultTableModel model = (DefaultTableModel) inventoryTable.getModel();
-        model.setRowCount(0);
+    private void cancelLoads() {
+        for (BackgroundLoader.Task task : loadTasks) {
+            task.cancel();
+        }
+        loadTasks.clear();
+    }
+    
+    /**
+     * Keep the reports current as other stations change items
+     * The subscription ends when the frame is closed
+     */
+    private void subscribeToChanges() {
+        aggregateRefresh = new Timer(AGGREGATE_REFRESH_DELAY_MS, e -> reloadAggregates());
+        aggregateRefresh.setRepeats(false);
+        changeListener = changes -> SwingUtilities.invokeLater(() -> onItemChanges(changes));
+        ItemChangeFeed.getInstance().addListener(changeListener);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                ItemChangeFeed.getInstance().removeListener(changeListener);
+                aggregateRefresh.stop();
+            }
+        });
+    }
+    
+    /**
+     * Patch the inventory and low stock tabs with the changed rows; the aggregate
+     * reports are re-read once the changes of the next few seconds are in
+     * The reorder plan reads every item and weeks of movements, so it is left to
+     * finish or kept as is until the next refresh
+     */
+    private void onItemChanges(List<ItemChange> changes) {
+        inventoryModel.applyChanges(changes);
+        patchLowStockReport(changes);
         
-        List<Item> items = inventoryService.getAllItems();
-        for (Item item : items) {
-            String status = item.isLowStock() ? "LOW STOCK" : "OK";
-            Object[] row = {
-                item.getId(),
-                item.getName(),
-                item.getQuantity(),
-                item.getLocation(),
-                item.getCategory(),
-                String.format("$%.2f", item.getPrice()),
-                item.getMinStockLevel(),
-                status
-            };
-            model.addRow(row);
+        // Not restarted on every change, so a steady stream of changes still refreshes
+        if (!aggregateRefresh.isRunning()) {
+            aggregateRefresh.start();
+        }
+    }
+    
+    /**
+     * Re-read the supplier, category and location reports from the summary tables
+     */
+    private void reloadAggregates() {
+        cancelLoads();
+        reportsLoaded = REPORT_COUNT - 3 - (reorderTask == null ? 0 : 1) - (lowStockTask == null ? 0 : 1);
+        updateReportProgress();
+        loadSupplierSummary();
+        loadCategoryAnalysis();
+        loadLocationAnalysis();
+    }
+    
+    /**
+     * Update the low stock tab for changed items, keeping it ordered by quantity
+     */
+    private void patchLowStockReport(List<ItemChange> changes) {
+        if (lowStockTask != null) {
+            // The load may have read the items before these changes; read them again
+            lowStockTask.cancel();
+            loadLowStockReport();
+            return;
+        }
+        DefaultTableModel model = (DefaultTableModel) lowStockTable.getModel();
+        for (ItemChange change : changes) {
+            for (int row = 0; row < model.getRowCount(); row++) {
+                if (((Integer) model.getValueAt(row, 0)) == change.getItemId()) {
+                    model.removeRow(row);
+                    break;
+                }
+            }
+            Item item = change.getItem();
+            if (item == null || item.getQuantity() > item.getMinStockLevel()) {
+                continue;
+            }
+            int row = 0;
+            while (row < model.getRowCount() && ((Integer) model.getValueAt(row, 2)) <= item.getQuantity()) {
+                row++;
+            }
+            model.insertRow(row, lowStockRow(item));
         }
     }
     
+    /**
+     * Record that one report has finished loading and update the status line
+     */
+    private void reportLoaded() {
+        reportsLoaded++;
+        updateReportProgress();
+    }
+    
+    private void updateReportProgress() {
+        if (reportsLoaded < REPORT_COUNT) {
+            statusLabel.setText("Loading reports (" + reportsLoaded + "/" + REPORT_COUNT + ")...");
+        } else {
+            statusLabel.setText("Reports up to date");
+        }
+    }
+    
+    /**
+     * Show a report load failure
+     */
+    private void reportFailed(String report, Exception e) {
+        reportLoaded();
+        JOptionPane.showMessageDialog(this, "Error loading " + report + ": " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+    }
+    
+    /**
+     * Load inventory summary report
+     * Rows are paged in from the database as they scroll into view
+     */
+    private void loadInventorySummary() {
+        inventoryModel.refresh();
+    }
+    
     /**
      * Load low stock report
      */
@@ -187,20 +367,29 @@ public class ReportsFrame extends JFrame {
         DefaultTableModel model = (DefaultTableModel) lowStockTable.getModel();
         model.setRowCount(0);
         
-        List<Item> lowStockItems = inventoryService.getLowStockItems();
-        for (Item item : lowStockItems) {
-            int deficit = item.getMinStockLevel() - item.getQuantity();
-            Object[] row = {
-                item.getId(),
-                item.getName(),
-                item.getQuantity(),
-                item.getMinStockLevel(),
-                deficit,
-                item.getCategory(),
-                item.getLocation()
-            };
-            model.addRow(row);
-        }
+        lowStockTask = loader.submit(inventoryService::getLowStockItems, lowStockItems -> {
+            lowStockTask = null;
+            for (Item item : lowStockItems) {
+                model.addRow(lowStockRow(item));
+            }
+            reportLoaded();
+        }, e -> {
+            lowStockTask = null;
+            reportFailed("low stock report", e);
+        });
+    }
+    
+    private static Object[] lowStockRow(Item item) {
+        int deficit = item.getMinStockLevel() - item.getQuantity();
+        return new Object[] {
+            item.getId(),
+            item.getName(),
+            item.getQuantity(),
+            item.getMinStockLevel(),
+            deficit,
+            item.getCategory(),
+            item.getLocation()
+        };
     }
     
     /**
@@ -210,65 +399,186 @@ public class ReportsFrame extends JFrame {
         DefaultTableModel model = (DefaultTableModel) supplierTable.getModel();
         model.setRowCount(0);
         
-        List<Supplier> suppliers = supplierService.getAllSuppliers();
-        for (Supplier supplier : suppliers) {
-            // Count items supplied by this supplier
-            int itemCount = countItemsBySupplier(supplier.getId());
-            
-            Object[] row = {
-                supplier.getId(),
-                supplier.getName(),
-                supplier.getContact(),
-                supplier.getAddress(),
-                itemCount
-            };
-            model.addRow(row);
-        }
+        loadTasks.add(loader.submit(reportService::getSupplierSummaries, summaries -> {
+            for (SupplierSummary summary : summaries) {
+                Supplier supplier = summary.getSupplier();
+                Object[] row = {
+                    supplier.getId(),
+                    supplier.getName(),
+                    supplier.getContact(),
+                    supplier.getAddress(),
+                    summary.getItemCount()
+                };
+                model.addRow(row);
+            }
+            reportLoaded();
+        }, e -> reportFailed("supplier summary", e)));
     }
     
     /**
      * Load category analysis report
+     * Read from the maintained category totals, with a warehouse-wide row at the bottom
      */
     private void loadCategoryAnalysis() {
         DefaultTableModel model = (DefaultTableModel) categoryTable.getModel();
         model.setRowCount(0);
         
-        List<String> categories = inventoryService.getAllCategories();
-        for (String category : categories) {
-            List<Item> categoryItems = inventoryService.getItemsByCategory(category);
-            
-            int totalItems = categoryItems.size();
-            int totalQuantity = categoryItems.stream().mapToInt(Item::getQuantity).sum();
-            double totalValue = categoryItems.stream().mapToDouble(item -> item.getQuantity() * item.getPrice()).sum();
-            long lowStockCount = categoryItems.stream().filter(Item::isLowStock).count();
-            
-            Object[] row = {
-                category,
-                totalItems,
-                totalQuantity,
-                String.format("$%.2f", totalValue),
-                lowStockCount
-            };
-            model.addRow(row);
-        }
+        loadTasks.add(loader.submit(() -> {
+            List<CategorySummary> rows = reportService.getCategorySummaries();
+            CategorySummary totals = reportService.getInventoryTotals();
+            if (totals != null) {
+                rows.add(totals);
+            }
+            return rows;
+        }, summaries -> {
+            for (CategorySummary summary : summaries) {
+                Object[] row = {
+                    summary.getCategory() != null ? summary.getCategory() : "All items",
+                    summary.getItemCount(),
+                    summary.getTotalQuantity(),
+                    String.format("$%.2f", summary.getTotalValue()),
+                    summary.getLowStockCount()
+                };
+                model.addRow(row);
+            }
+            reportLoaded();
+        }, e -> reportFailed("category analysis", e)));
     }
     
     /**
-     * Count items supplied by a specific supplier
+     * Load location analysis report
      */
-    private int countItemsBySupplier(int supplierId) {
-        List<Item> allItems = inventoryService.getAllItems();
-        return (int) allItems.stream().filter(item -> item.getSupplierId() == supplierId).count();
+    private void loadLocationAnalysis() {
+        DefaultTableModel model = (DefaultTableModel) locationTable.getModel();
+        model.setRowCount(0);
+        
+        loadTasks.add(loader.submit(reportService::getLocationSummaries, summaries -> {
+            for (LocationSummary summary : summaries) {
+                Object[] row = {
+                    summary.getLocation(),
+                    summary.getItemCount(),
+                    summary.getTotalQuantity(),
+                    String.format("$%.2f", summary.getTotalValue()),
+                    summary.getLowStockCount()
+                };
+                model.addRow(row);
+            }
+            reportLoaded();
+        }, e -> reportFailed("location analysis", e)));
     }
     
     /**
-     * Export current report to CSV (placeholder)
+     * Load the reorder plan: one block of lines per supplier, most urgent first,
+     * each followed by the order total
+     */
+    private void loadReorderPlan() {
+        DefaultTableModel model = (DefaultTableModel) reorderTable.getModel();
+        model.setRowCount(0);
+        
+        reorderTask = loader.submit(replenishmentPlanner::planPurchaseOrders, orders -> {
+            reorderTask = null;
+            for (PurchaseOrder order : orders) {
+                for (ReorderLine line : order.getLines()) {
+                    Object[] row = {
+                        order.getSupplierName(),
+                        line.getItemId(),
+                        line.getItemName(),
+                        line.getQuantityOnHand(),
+                        String.format("%.1f", line.getDailyDemand()),
+                        line.getDailyDemand() > 0 ? String.format("%.1f", line.getDaysOfCover()) : "-",
+                        line.getReorderPoint(),
+                        line.getReorderQuantity(),
+                        String.format("$%.2f", line.getLineCostCents() / 100.0)
+                    };
+                    model.addRow(row);
+                }
+                Object[] total = {
+                    order.getSupplierName() + " total", null, order.getLines().size() + " items", null, null, null, null,
+                    order.getTotalQuantity(),
+                    String.format("$%.2f", order.getTotalCostCents() / 100.0)
+                };
+                model.addRow(total);
+            }
+            reportLoaded();
+        }, e -> {
+            reorderTask = null;
+            reportFailed("reorder plan", e);
+        });
+    }
+    
+    /**
+     * Export a report to CSV, or cancel the export in progress
      */
     private void exportToCSV() {
-        JOptionPane.showMessageDialog(this, 
-            "CSV export functionality would be implemented here.\n" +
-            "This would export the currently visible report to a CSV file.", 
-            "Export to CSV", 
-            JOptionPane.INFORMATION_MESSAGE);
+        if (exportTask != null) {
+            cancelExport();
+            return;
+        }
+        
+        // The report shown in the current tab is preselected; full dumps are offered as well
+        CsvExporter.Report[] reports = CsvExporter.Report.values();
+        CsvExporter.Report[] byTab = {
+            CsvExporter.Report.INVENTORY,
+            CsvExporter.Report.LOW_STOCK,
+            CsvExporter.Report.SUPPLIER_SUMMARY,
+            CsvExporter.Report.CATEGORY_ANALYSIS,
+            CsvExporter.Report.LOCATION_ANALYSIS
+        };
+        int tab = tabbedPane.getSelectedIndex();
+        CsvExporter.Report selected = (CsvExporter.Report) JOptionPane.showInputDialog(this,
+            "Report to export:", "Export to CSV", JOptionPane.QUESTION_MESSAGE, null,
+            reports, tab >= 0 && tab < byTab.length ? byTab[tab] : reports[0]);
+        if (selected == null) {
+            return;
+        }
+        
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File(selected.name().toLowerCase() + ".csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+        if (file.exists() && JOptionPane.showConfirmDialog(this,
+                file.getName() + " already exists. Replace it?", "Export to CSV",
+                JOptionPane.YES_NO_OPTION) != JOptionPane.YES_OPTION) {
+            return;
+        }
+        
+        // Rows are written straight to the file off the EDT; only row counts come back for the status line
+        CsvExporter exporter = new CsvExporter();
+        long[] rowsWritten = {0};
+        statusLabel.setText("Exporting " + selected.getTitle() + "...");
+        exportButton.setText("Cancel Export");
+        exportTask = loader.<Long>stream(
+            sink -> exporter.export(selected, file.toPath(), rows -> sink.accept(rows)),
+            counts -> {
+                rowsWritten[0] = counts.get(counts.size() - 1);
+                statusLabel.setText("Exporting " + selected.getTitle() + ": " + rowsWritten[0] + " rows");
+            },
+            null,
+            () -> {
+                exportFinished();
+                statusLabel.setText("Exported " + rowsWritten[0] + " rows to " + file.getName());
+            },
+            e -> {
+                exportFinished();
+                statusLabel.setText("Export failed");
+                JOptionPane.showMessageDialog(this, "Error exporting " + selected.getTitle() + ": " + e.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            });
+    }
+    
+    /**
+     * Cancel a running export; the exporter removes its partial file
+     */
+    private void cancelExport() {
+        exportTask.cancel();
+        exportFinished();
+        statusLabel.setText("Export cancelled");
+    }
+    
+    private void exportFinished() {
+        exportTask = null;
+        exportButton.setText("Export to CSV");
     }
 }
@@ -1,5 +1,6 @@
 package gui;
 
+import database.DBConnection;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
@@ -12,6 +13,8 @@ public class SearchProduct extends JFrame {
     private JButton searchButton;
     private JTable table;
     private DefaultTableModel model;
+    private TableSearchFilter searchFilter;
+    private BackgroundLoader loader = new BackgroundLoader(this);
 
     public SearchProduct() {
         setTitle("Search Products");
@@ -42,40 +45,44 @@ public class SearchProduct extends JFrame {
         JScrollPane scrollPane = new JScrollPane(table);
         add(scrollPane, BorderLayout.CENTER);
 
+        // Products are loaded once and filtered in memory by name or category as the user types
+        searchFilter = new TableSearchFilter(table, 1, 2);
+        searchFilter.attach(searchField);
+
         searchButton.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
-                String keyword = searchField.getText().trim();
-                searchProducts(keyword);
+                searchFilter.apply();
             }
         });
+
+        loadProducts();
     }
 
-    private void searchProducts(String keyword) {
+    private void loadProducts() {
         model.setRowCount(0);
-        String url = "jdbc:mysql://localhost:3306/warehouse_db";
-        String user = "root";
-        String pass = "";
-
-        try (Connection con = DriverManager.getConnection(url, user, pass)) {
-            String query = "SELECT * FROM products WHERE name LIKE ? OR category LIKE ?";
-            PreparedStatement pst = con.prepareStatement(query);
-            pst.setString(1, "%" + keyword + "%");
-            pst.setString(2, "%" + keyword + "%");
-            ResultSet rs = pst.executeQuery();
-
-            while (rs.next()) {
-                model.addRow(new Object[]{
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("category"),
-                    rs.getInt("quantity"),
-                    rs.getDouble("price")
-                });
+        loader.<Object[]>stream(sink -> {
+            try (Connection con = DBConnection.getConnection();
+                 Statement stmt = con.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT * FROM products")) {
+                while (rs.next()) {
+                    boolean more = sink.accept(new Object[]{
+                        rs.getInt("product_id"),
+                        rs.getString("name"),
+                        rs.getString("category"),
+                        rs.getInt("quantity"),
+                        rs.getDouble("price")
+                    });
+                    if (!more) {
+                        return;
+                    }
+                }
             }
-
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
-        }
+        }, rows -> {
+            for (Object[] row : rows) {
+                model.addRow(row);
+            }
+        }, null, () -> {
+        }, ex -> JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage()));
     }
 
     public static void main(String[] args) {
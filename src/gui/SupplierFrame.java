@@ -7,7 +7,6 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.List;
 
 /**
  * Supplier management frame for CRUD operations on suppliers
@@ -23,8 +22,11 @@ public class SupplierFrame extends JFrame {
     private JButton editButton;
     private JButton deleteButton;
     private JButton refreshButton;
+    private JLabel statusLabel;
     
     private SupplierService supplierService;
+    private BackgroundLoader loader;
+    private BackgroundLoader.Task loadTask;
     private int selectedSupplierId = -1;
     
     /**
@@ -32,6 +34,7 @@ public class SupplierFrame extends JFrame {
      */
     public SupplierFrame() {
         supplierService = new SupplierService();
+        loader = new BackgroundLoader(this);
         initializeComponents();
         setupLayout();
         setupEventHandlers();
@@ -69,6 +72,7 @@ public class SupplierFrame extends JFrame {
         editButton = new JButton("Edit Supplier");
         deleteButton = new JButton("Delete Supplier");
         refreshButton = new JButton("Refresh");
+        statusLabel = new JLabel(" ");
         
         // Initially disable edit and delete buttons
         editButton.setEnabled(false);
@@ -129,6 +133,7 @@ public class SupplierFrame extends JFrame {
         buttonPanel.add(editButton);
         buttonPanel.add(deleteButton);
         buttonPanel.add(refreshButton);
+        buttonPanel.add(statusLabel);
         
         add(mainPanel, BorderLayout.CENTER);
         add(buttonPanel, BorderLayout.SOUTH);
@@ -178,23 +183,42 @@ public class SupplierFrame extends JFrame {
     }
     
     /**
-     * Load all suppliers from database and populate table
+     * Load all suppliers from database in the background and populate table
+     * A previous load still running is cancelled
      */
     private void loadSuppliers() {
-        tableModel.setRowCount(0); // Clear existing data
-        
-        List<Supplier> suppliers = supplierService.getAllSuppliers();
-        for (Supplier supplier : suppliers) {
-            Object[] row = {
-                supplier.getId(),
-                supplier.getName(),
-                supplier.getContact(),
-                supplier.getAddress()
-            };
-            tableModel.addRow(row);
+        if (loadTask != null) {
+            loadTask.cancel();
         }
-        
+        tableModel.setRowCount(0); // Clear existing data
         clearFields();
+        statusLabel.setText("Loading...");
+        
+        loadTask = loader.<Supplier>stream(
+            sink -> {
+                for (Supplier supplier : supplierService.getAllSuppliers()) {
+                    if (!sink.accept(supplier)) {
+                        return;
+                    }
+                }
+            },
+            suppliers -> {
+                for (Supplier supplier : suppliers) {
+                    Object[] row = {
+                        supplier.getId(),
+                        supplier.getName(),
+                        supplier.getContact(),
+                        supplier.getAddress()
+                    };
+                    tableModel.addRow(row);
+                }
+            },
+            null,
+            () -> statusLabel.setText(tableModel.getRowCount() + " suppliers"),
+            e -> {
+                statusLabel.setText("Load failed");
+                JOptionPane.showMessageDialog(this, "Error loading suppliers: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            });
     }
     
     /**
@@ -0,0 +1,123 @@
+package gui;
+
+import service.SearchIndex;
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.TableModel;
+import javax.swing.table.TableRowSorter;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Search-as-you-type filter for a table whose rows are all held in its model
+ * Text columns are indexed in a SearchIndex as rows arrive, and the table is
+ * filtered in memory while the user types instead of querying the database
+ * per search. The first text column is ranked as the primary field.
+ *
+ * Installs a row sorter on the table, so callers must convert selected view
+ * rows with JTable.convertRowIndexToModel.
+ */
+public class TableSearchFilter {
+    private static final int SEARCH_DELAY_MILLIS = 150;
+
+    private final TableModel model;
+    private final int[] textColumns;
+    private final TableRowSorter<TableModel> sorter;
+    private final SearchIndex index = new SearchIndex();
+    private final Timer timer;
+    private JTextField field;
+
+    /**
+     * Constructor
+     * @param table Table to filter
+     * @param textColumns Model columns to search, primary column first
+     */
+    public TableSearchFilter(JTable table, int... textColumns) {
+        this.model = table.getModel();
+        this.textColumns = textColumns.clone();
+        this.sorter = new TableRowSorter<>(model);
+        table.setRowSorter(sorter);
+        this.timer = new Timer(SEARCH_DELAY_MILLIS, e -> apply());
+        timer.setRepeats(false);
+        model.addTableModelListener(this::onModelChanged);
+    }
+
+    /**
+     * Filter the table as the user types into a field
+     * @param field Search field
+     */
+    public void attach(JTextField field) {
+        this.field = field;
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                timer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                timer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                timer.restart();
+            }
+        });
+    }
+
+    /**
+     * Apply the current search text immediately
+     */
+    public void apply() {
+        timer.stop();
+        String query = field != null ? field.getText().trim() : "";
+        if (query.isEmpty()) {
+            sorter.setRowFilter(null);
+            return;
+        }
+        Set<Integer> matches = new HashSet<>(index.search(query, false, Integer.MAX_VALUE));
+        sorter.setRowFilter(new RowFilter<TableModel, Integer>() {
+            @Override
+            public boolean include(Entry<? extends TableModel, ? extends Integer> entry) {
+                return matches.contains(entry.getIdentifier());
+            }
+        });
+    }
+
+    /**
+     * Keep the index in step with the model; rows are keyed by model index
+     */
+    private void onModelChanged(TableModelEvent e) {
+        int first = e.getFirstRow();
+        int last = Math.min(e.getLastRow(), model.getRowCount() - 1);
+        boolean appended = e.getType() == TableModelEvent.INSERT && last == model.getRowCount() - 1;
+        boolean updated = e.getType() == TableModelEvent.UPDATE && first != TableModelEvent.HEADER_ROW
+                && e.getLastRow() != Integer.MAX_VALUE;
+        if (appended || updated) {
+            for (int row = first; row <= last; row++) {
+                indexRow(row);
+            }
+        } else {
+            // Rows removed, inserted in the middle or everything changed: indexes shifted, so rebuild
+            index.clear();
+            for (int row = 0; row < model.getRowCount(); row++) {
+                indexRow(row);
+            }
+        }
+        if (field != null && !field.getText().isBlank()) {
+            timer.restart();
+        }
+    }
+
+    private void indexRow(int row) {
+        String[] fields = new String[textColumns.length];
+        for (int i = 0; i < textColumns.length; i++) {
+            Object value = model.getValueAt(row, textColumns[i]);
+            fields[i] = value != null ? value.toString() : null;
+        }
+        index.put(row, fields);
+    }
+}
@@ -0,0 +1,113 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear latency histogram
+ * Values are kept in microseconds in buckets with eight linear sub-buckets per
+ * power of two, so any percentile is accurate to within about 12% and recording
+ * is a bit scan plus one atomic increment. Values of 2^41 us (25 days) and more
+ * land in the top bucket.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - 1) * SUB_BUCKETS;
+    private static final long MAX_MICROS = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record one latency
+     * @param nanos Latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.min(Math.max(nanos / 1000, 0), MAX_MICROS);
+        buckets.incrementAndGet(bucketOf(micros));
+        long current;
+        while (nanos > (current = max.get())) {
+            if (max.compareAndSet(current, nanos)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Copy the bucket counts, e.g. to compute percentiles over an interval
+     * @return Bucket counts
+     */
+    public long[] snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * Largest latency recorded so far
+     * @return Maximum in milliseconds
+     */
+    public double getMaxMillis() {
+        return max.get() / 1_000_000.0;
+    }
+
+    /**
+     * Percentile over everything recorded so far
+     * @param percentile Between 0 and 1, e.g. 0.99
+     * @return Latency in milliseconds, 0 if nothing was recorded
+     */
+    public double getPercentileMillis(double percentile) {
+        // Bucket midpoints can overshoot the largest value actually seen
+        return Math.min(percentileMillis(snapshot(), percentile), getMaxMillis());
+    }
+
+    /**
+     * Percentile over a set of bucket counts from snapshot()
+     * @param counts Bucket counts, possibly the difference of two snapshots
+     * @param percentile Between 0 and 1
+     * @return Latency in milliseconds, 0 if the counts are empty
+     */
+    public static double percentileMillis(long[] counts, double percentile) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0.0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return midpointMicros(i) / 1000.0;
+            }
+        }
+        return midpointMicros(counts.length - 1) / 1000.0;
+    }
+
+    private static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static double midpointMicros(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (long) (SUB_BUCKETS + sub) * width;
+        return lower + (width - 1) / 2.0;
+    }
+}
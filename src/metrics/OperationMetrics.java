@@ -0,0 +1,206 @@
+package metrics;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, call, error and row counts of one service operation
+ * Service methods catch their SQLExceptions and still return, so a call is timed
+ * at each return and a caught exception is counted separately:
+ * <pre>
+ *     long start = GET_ITEMS.start();
+ *     try (...) {
+ *         ...
+ *     } catch (SQLException e) {
+ *         GET_ITEMS.error(e);
+ *         ...
+ *     }
+ *     GET_ITEMS.finished(start, items.size());
+ *     return items;
+ * </pre>
+ * When metrics are disabled start() returns 0 and the other calls return at once.
+ */
+public final class OperationMetrics implements OperationMetricsMXBean {
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    // Failures caused by lock wait timeouts and deadlocks, also counted in errors
+    private final LongAdder lockErrors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    // Largest latency since the last log line
+    private final AtomicLong intervalMaxNanos = new AtomicLong();
+
+    // State of the previous log line, touched only by the reporter thread
+    private long[] lastBuckets;
+    private long lastCount;
+    private long lastErrors;
+    private long lastLockErrors;
+    private long lastRows;
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Start timing a call
+     * @return Start timestamp to pass to finished()
+     */
+    public long start() {
+        return ServiceMetrics.ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record a call that returned
+     * @param start Value returned by start()
+     * @param rowCount Rows returned or affected
+     */
+    public void finished(long start, long rowCount) {
+        if (!ServiceMetrics.ENABLED) {
+            return;
+        }
+        record(System.nanoTime() - start);
+        rows.add(rowCount);
+    }
+
+    /**
+     * Count a failure of the current call; the call itself is still timed by finished()
+     */
+    public void error() {
+        if (!ServiceMetrics.ENABLED) {
+            return;
+        }
+        errors.increment();
+    }
+
+    /**
+     * Count a failure of the current call, noting lock contention separately
+     * @param e Exception the call caught
+     */
+    public void error(SQLException e) {
+        if (!ServiceMetrics.ENABLED) {
+            return;
+        }
+        errors.increment();
+        if (isLockConflict(e)) {
+            lockErrors.increment();
+        }
+    }
+
+    /**
+     * Whether a failure was a lock wait timeout or a deadlock
+     * MySQL reports both with SQLState 40001 (error codes 1205 and 1213)
+     * @param e Exception from a database call
+     * @return true if the statement lost out to another transaction's locks
+     */
+    public static boolean isLockConflict(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                SQLException sql = (SQLException) t;
+                if ("40001".equals(sql.getSQLState()) || sql.getErrorCode() == 1205 || sql.getErrorCode() == 1213) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void record(long nanos) {
+        latency.record(nanos);
+        count.increment();
+        totalNanos.add(nanos);
+        long max;
+        while (nanos > (max = intervalMaxNanos.get())) {
+            if (intervalMaxNanos.compareAndSet(max, nanos)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Summarize the calls since the previous summary
+     * @return Log fragment, or null if there were no calls
+     */
+    String intervalSummary() {
+        long[] buckets = latency.snapshot();
+        long calls = count.sum();
+        long failures = errors.sum();
+        long lockFailures = lockErrors.sum();
+        long rowCount = rows.sum();
+        long maxNanos = intervalMaxNanos.getAndSet(0);
+        if (calls == lastCount) {
+            return null;
+        }
+
+        long[] interval = buckets.clone();
+        if (lastBuckets != null) {
+            for (int i = 0; i < interval.length; i++) {
+                interval[i] -= lastBuckets[i];
+            }
+        }
+        double maxMillis = maxNanos / 1_000_000.0;
+        String summary = String.format("%s n=%d err=%d%s rows=%d p50=%.2fms p99=%.2fms max=%.2fms",
+            name, calls - lastCount, failures - lastErrors,
+            lockFailures == lastLockErrors ? "" : " (lock=" + (lockFailures - lastLockErrors) + ")",
+            rowCount - lastRows,
+            Math.min(LatencyHistogram.percentileMillis(interval, 0.50), maxMillis),
+            Math.min(LatencyHistogram.percentileMillis(interval, 0.99), maxMillis),
+            maxMillis);
+        lastBuckets = buckets;
+        lastCount = calls;
+        lastErrors = failures;
+        lastLockErrors = lockFailures;
+        lastRows = rowCount;
+        return summary;
+    }
+
+    // MXBean attributes, cumulative since startup
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getLockErrorCount() {
+        return lockErrors.sum();
+    }
+
+    @Override
+    public long getRowCount() {
+        return rows.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        long calls = count.sum();
+        return calls == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / calls;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.getPercentileMillis(0.50);
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.getPercentileMillis(0.99);
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.getMaxMillis();
+    }
+}
@@ -0,0 +1,26 @@
+package metrics;
+
+/**
+ * JMX view of one instrumented service operation
+ * Registered as warehouse:type=ServiceOperation,name=&lt;Service.method&gt;
+ */
+public interface OperationMetricsMXBean {
+
+    String getName();
+
+    long getCount();
+
+    long getErrorCount();
+
+    long getLockErrorCount();
+
+    long getRowCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+}
@@ -0,0 +1,129 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of service operation metrics
+ * Each operation is exposed as a JMX MXBean and summarized in one log line per
+ * interval listing the operations called since the previous line.
+ *
+ * Configured with system properties:
+ * warehouse.metrics=false turns instrumentation off (start() then costs one constant check);
+ * warehouse.metrics.logIntervalSeconds sets the log interval, 0 disables the log line.
+ */
+public final class ServiceMetrics {
+
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("warehouse.metrics", "true"));
+    private static final long LOG_INTERVAL_SECONDS = Long.getLong("warehouse.metrics.logIntervalSeconds", 60);
+    private static final String DOMAIN = "warehouse";
+
+    // Sorted so the log line lists operations in a stable order
+    private static final Map<String, OperationMetrics> operations = new ConcurrentSkipListMap<>();
+    private static final List<Supplier<String>> reporters = new CopyOnWriteArrayList<>();
+    private static ScheduledExecutorService logger;
+
+    private ServiceMetrics() {}
+
+    /**
+     * Get the metrics of an operation, registering them on first use
+     * @param name Operation name, e.g. "InventoryService.getAllItems"
+     * @return OperationMetrics shared by every caller using the same name
+     */
+    public static OperationMetrics operation(String name) {
+        return operations.computeIfAbsent(name, n -> {
+            OperationMetrics metrics = new OperationMetrics(n);
+            registerMBean("type=ServiceOperation,name=" + n, metrics);
+            startLogger();
+            return metrics;
+        });
+    }
+
+    /**
+     * Get every registered operation, e.g. to total their counters
+     * @return Operations in name order
+     */
+    public static Collection<OperationMetrics> operations() {
+        return Collections.unmodifiableCollection(operations.values());
+    }
+
+    /**
+     * Register an MXBean in the warehouse JMX domain; failures are logged, not thrown
+     * @param properties Key properties of the object name, e.g. "type=ConnectionPool"
+     * @param mbean MXBean implementation
+     */
+    public static void registerMBean(String properties, Object mbean) {
+        if (!ENABLED) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mbean, name);
+        } catch (JMException e) {
+            System.err.println("Error registering MBean " + properties + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Add a fragment to every metrics log line, e.g. connection pool state
+     * @param reporter Supplies the fragment; may return null to skip it
+     */
+    public static void addReporter(Supplier<String> reporter) {
+        reporters.add(reporter);
+    }
+
+    private static synchronized void startLogger() {
+        if (!ENABLED || LOG_INTERVAL_SECONDS <= 0 || logger != null) {
+            return;
+        }
+        logger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "service-metrics-log");
+            t.setDaemon(true);
+            return t;
+        });
+        logger.scheduleAtFixedRate(ServiceMetrics::logSafely, LOG_INTERVAL_SECONDS, LOG_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private static void logSafely() {
+        try {
+            StringJoiner line = new StringJoiner("; ", "[metrics] ", "");
+            line.setEmptyValue("");
+            for (OperationMetrics metrics : operations.values()) {
+                String summary = metrics.intervalSummary();
+                if (summary != null) {
+                    line.add(summary);
+                }
+            }
+            // Reporters only accompany operation summaries, so an idle station stays quiet
+            if (line.length() == 0) {
+                return;
+            }
+            for (Supplier<String> reporter : reporters) {
+                String fragment = reporter.get();
+                if (fragment != null) {
+                    line.add(fragment);
+                }
+            }
+            System.out.println(line);
+        } catch (RuntimeException e) {
+            System.err.println("Error logging service metrics: " + e);
+        }
+    }
+}
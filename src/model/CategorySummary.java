@@ -0,0 +1,90 @@
+package model;
+
+/**
+ * CategorySummary model class representing aggregated inventory figures for one category
+ * Used by the category analysis report
+ */
+public class CategorySummary {
+    private String category;
+    private int itemCount;
+    private long totalQuantity;
+    private double totalValue;
+    private int lowStockCount;
+    
+    /**
+     * Default constructor
+     */
+    public CategorySummary() {}
+    
+    /**
+     * Constructor with all parameters
+     * @param category Category name
+     * @param itemCount Number of items in the category
+     * @param totalQuantity Sum of item quantities
+     * @param totalValue Sum of quantity * price
+     * @param lowStockCount Number of items at or below their minimum stock level
+     */
+    public CategorySummary(String category, int itemCount, long totalQuantity, double totalValue, int lowStockCount) {
+        this.category = category;
+        this.itemCount = itemCount;
+        this.totalQuantity = totalQuantity;
+        this.totalValue = totalValue;
+        this.lowStockCount = lowStockCount;
+    }
+    
+    // Getters and Setters
+    public String getCategory() {
+        return category;
+    }
+    
+    public void setCategory(String category) {
+        this.category = category;
+    }
+    
+    public int getItemCount() {
+        return itemCount;
+    }
+    
+    public void setItemCount(int itemCount) {
+        this.itemCount = itemCount;
+    }
+    
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+    
+    public void setTotalQuantity(long totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+    
+    public double getTotalValue() {
+        return totalValue;
+    }
+    
+    public void setTotalValue(double totalValue) {
+        this.totalValue = totalValue;
+    }
+    
+    public int getLowStockCount() {
+        return lowStockCount;
+    }
+    
+    public void setLowStockCount(int lowStockCount) {
+        this.lowStockCount = lowStockCount;
+    }
+    
+    /**
+     * String representation of CategorySummary
+     * @return formatted string with summary details
+     */
+    @Override
+    public String toString() {
+        return "CategorySummary{" +
+                "category='" + category + '\'' +
+                ", itemCount=" + itemCount +
+                ", totalQuantity=" + totalQuantity +
+                ", totalValue=" + totalValue +
+                ", lowStockCount=" + lowStockCount +
+                '}';
+    }
+}
@@ -0,0 +1,451 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * InventorySnapshot model class holding the whole items table in columnar form
+ * One primitive array per column instead of one object per item: prices are
+ * stored in cents, categories and locations as codes into small dictionaries,
+ * timestamps as epoch milliseconds. The snapshot is immutable once built.
+ *
+ * Aggregations are plain loops over the arrays, which the JIT can unroll and
+ * vectorize, split across the fork/join pool for large snapshots.
+ */
+public class InventorySnapshot {
+    
+    /** Category or location code of items without one */
+    public static final int NO_CODE = -1;
+    
+    // Rows per fork/join leaf; below this a single pass is cheaper than splitting
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    
+    private final int size;
+    private final int[] ids;
+    private final int[] quantities;
+    private final int[] minStockLevels;
+    private final long[] priceCents;
+    private final int[] supplierIds;
+    private final int[] categoryCodes;
+    private final int[] locationCodes;
+    private final long[] createdMillis;
+    private final long[] updatedMillis;
+    private final String[] categories;
+    private final String[] locations;
+    private final long loadedAtMillis;
+    // Computed on first use; the snapshot never changes, so neither do its aggregates
+    private volatile Totals totals;
+    private volatile IdIndex idIndex;
+    
+    private InventorySnapshot(Builder builder) {
+        size = builder.size;
+        ids = Arrays.copyOf(builder.ids, size);
+        quantities = Arrays.copyOf(builder.quantities, size);
+        minStockLevels = Arrays.copyOf(builder.minStockLevels, size);
+        priceCents = Arrays.copyOf(builder.priceCents, size);
+        supplierIds = Arrays.copyOf(builder.supplierIds, size);
+        categoryCodes = Arrays.copyOf(builder.categoryCodes, size);
+        locationCodes = Arrays.copyOf(builder.locationCodes, size);
+        createdMillis = Arrays.copyOf(builder.createdMillis, size);
+        updatedMillis = Arrays.copyOf(builder.updatedMillis, size);
+        categories = builder.categories.toArray(new String[0]);
+        locations = builder.locations.toArray(new String[0]);
+        loadedAtMillis = System.currentTimeMillis();
+    }
+    
+    /**
+     * Builder that appends one item row at a time, e.g. while streaming a result set
+     */
+    public static class Builder {
+        private int size;
+        private int[] ids = new int[1024];
+        private int[] quantities = new int[1024];
+        private int[] minStockLevels = new int[1024];
+        private long[] priceCents = new long[1024];
+        private int[] supplierIds = new int[1024];
+        private int[] categoryCodes = new int[1024];
+        private int[] locationCodes = new int[1024];
+        private long[] createdMillis = new long[1024];
+        private long[] updatedMillis = new long[1024];
+        private final List<String> categories = new ArrayList<>();
+        private final List<String> locations = new ArrayList<>();
+        private final Map<String, Integer> categoryIndex = new HashMap<>();
+        private final Map<String, Integer> locationIndex = new HashMap<>();
+        
+        /**
+         * Append one item
+         * @param id Item ID
+         * @param quantity Quantity on hand
+         * @param minStockLevel Minimum stock level
+         * @param priceCents Unit price in cents
+         * @param supplierId Supplier ID, 0 if none
+         * @param category Category name, may be null
+         * @param location Location code, may be null
+         * @param createdMillis Creation time in epoch milliseconds
+         * @param updatedMillis Last update time in epoch milliseconds
+         * @return this builder
+         */
+        public Builder add(int id, int quantity, int minStockLevel, long priceCents, int supplierId,
+                           String category, String location, long createdMillis, long updatedMillis) {
+            if (size == ids.length) {
+                grow();
+            }
+            this.ids[size] = id;
+            this.quantities[size] = quantity;
+            this.minStockLevels[size] = minStockLevel;
+            this.priceCents[size] = priceCents;
+            this.supplierIds[size] = supplierId;
+            this.categoryCodes[size] = encode(category, categories, categoryIndex);
+            this.locationCodes[size] = encode(location, locations, locationIndex);
+            this.createdMillis[size] = createdMillis;
+            this.updatedMillis[size] = updatedMillis;
+            size++;
+            return this;
+        }
+        
+        /**
+         * Build the immutable snapshot; arrays are trimmed to the number of rows
+         * @return InventorySnapshot
+         */
+        public InventorySnapshot build() {
+            return new InventorySnapshot(this);
+        }
+        
+        private static int encode(String value, List<String> dictionary, Map<String, Integer> index) {
+            if (value == null) {
+                return NO_CODE;
+            }
+            Integer code = index.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                index.put(value, code);
+            }
+            return code;
+        }
+        
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            minStockLevels = Arrays.copyOf(minStockLevels, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            supplierIds = Arrays.copyOf(supplierIds, capacity);
+            categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+            locationCodes = Arrays.copyOf(locationCodes, capacity);
+            createdMillis = Arrays.copyOf(createdMillis, capacity);
+            updatedMillis = Arrays.copyOf(updatedMillis, capacity);
+        }
+    }
+    
+    // Row accessors
+    public int size() {
+        return size;
+    }
+    
+    public int getId(int row) {
+        return ids[row];
+    }
+    
+    public int getQuantity(int row) {
+        return quantities[row];
+    }
+    
+    public int getMinStockLevel(int row) {
+        return minStockLevels[row];
+    }
+    
+    public long getPriceCents(int row) {
+        return priceCents[row];
+    }
+    
+    public int getSupplierId(int row) {
+        return supplierIds[row];
+    }
+    
+    public int getCategoryCode(int row) {
+        return categoryCodes[row];
+    }
+    
+    public int getLocationCode(int row) {
+        return locationCodes[row];
+    }
+    
+    public long getCreatedMillis(int row) {
+        return createdMillis[row];
+    }
+    
+    public long getUpdatedMillis(int row) {
+        return updatedMillis[row];
+    }
+    
+    public long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+    
+    /**
+     * Find the row of an item
+     * The ID index is built on first use
+     * @param id Item ID
+     * @return Row of the item, or -1 if it is not in the snapshot
+     */
+    public int rowOf(int id) {
+        IdIndex index = idIndex;
+        if (index == null) {
+            index = new IdIndex(ids, size);
+            idIndex = index;
+        }
+        return index.rowOf(id);
+    }
+    
+    // Dictionaries
+    public int getCategoryCount() {
+        return categories.length;
+    }
+    
+    /**
+     * Get the category name for a code
+     * @param code Category code
+     * @return Category name, or null for NO_CODE
+     */
+    public String getCategory(int code) {
+        return code == NO_CODE ? null : categories[code];
+    }
+    
+    public int getLocationCount() {
+        return locations.length;
+    }
+    
+    /**
+     * Get the location for a code
+     * @param code Location code
+     * @return Location, or null for NO_CODE
+     */
+    public String getLocation(int code) {
+        return code == NO_CODE ? null : locations[code];
+    }
+    
+    /**
+     * Total quantity on hand over all items
+     * @return Sum of quantities
+     */
+    public long totalQuantity() {
+        return aggregate().totalQuantity;
+    }
+    
+    /**
+     * Total stock value over all items
+     * @return Sum of quantity * price, in cents
+     */
+    public long totalValueCents() {
+        return aggregate().totalValueCents;
+    }
+    
+    /**
+     * Number of items at or below their minimum stock level
+     * @return Low stock count
+     */
+    public int lowStockCount() {
+        return aggregate().lowStockCount;
+    }
+    
+    /**
+     * Sum of quantities per category
+     * @return Array indexed by category code
+     */
+    public long[] sumQuantityByCategory() {
+        return aggregate().categoryQuantity.clone();
+    }
+    
+    /**
+     * Item count, total quantity, total value and low stock count per category
+     * Items without a category are left out, as in the SQL category report
+     * @return Category summaries ordered by category name
+     */
+    public List<CategorySummary> categorySummaries() {
+        Totals totals = aggregate();
+        List<CategorySummary> summaries = new ArrayList<>(categories.length);
+        for (int code = 0; code < categories.length; code++) {
+            summaries.add(new CategorySummary(
+                categories[code],
+                totals.categoryItems[code],
+                totals.categoryQuantity[code],
+                totals.categoryValueCents[code] / 100.0,
+                totals.categoryLowStock[code]
+            ));
+        }
+        summaries.sort(Comparator.comparing(CategorySummary::getCategory, String.CASE_INSENSITIVE_ORDER));
+        return summaries;
+    }
+    
+    /**
+     * Compute every aggregate in one pass, in parallel for large snapshots
+     */
+    private Totals aggregate() {
+        Totals result = totals;
+        if (result == null) {
+            AggregateTask task = new AggregateTask(this, 0, size);
+            result = size < PARALLEL_THRESHOLD ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+            totals = result;
+        }
+        return result;
+    }
+    
+    /**
+     * Aggregates of a range of rows
+     */
+    private static final class Totals {
+        private long totalQuantity;
+        private long totalValueCents;
+        private int lowStockCount;
+        private final int[] categoryItems;
+        private final long[] categoryQuantity;
+        private final long[] categoryValueCents;
+        private final int[] categoryLowStock;
+        
+        private Totals(int categoryCount) {
+            categoryItems = new int[categoryCount];
+            categoryQuantity = new long[categoryCount];
+            categoryValueCents = new long[categoryCount];
+            categoryLowStock = new int[categoryCount];
+        }
+        
+        private Totals merge(Totals other) {
+            totalQuantity += other.totalQuantity;
+            totalValueCents += other.totalValueCents;
+            lowStockCount += other.lowStockCount;
+            for (int c = 0; c < categoryItems.length; c++) {
+                categoryItems[c] += other.categoryItems[c];
+                categoryQuantity[c] += other.categoryQuantity[c];
+                categoryValueCents[c] += other.categoryValueCents[c];
+                categoryLowStock[c] += other.categoryLowStock[c];
+            }
+            return this;
+        }
+    }
+    
+    /**
+     * Fork/join reduction over a row range
+     */
+    private static final class AggregateTask extends RecursiveTask<Totals> {
+        private final InventorySnapshot snapshot;
+        private final int from;
+        private final int to;
+        
+        private AggregateTask(InventorySnapshot snapshot, int from, int to) {
+            this.snapshot = snapshot;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected Totals compute() {
+            if (to - from > PARALLEL_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                AggregateTask left = new AggregateTask(snapshot, from, mid);
+                left.fork();
+                Totals right = new AggregateTask(snapshot, mid, to).compute();
+                return left.join().merge(right);
+            }
+            
+            Totals totals = new Totals(snapshot.categories.length);
+            int[] quantities = snapshot.quantities;
+            int[] minStockLevels = snapshot.minStockLevels;
+            long[] priceCents = snapshot.priceCents;
+            int[] categoryCodes = snapshot.categoryCodes;
+            
+            // Branch-free loop over the primitive columns: vectorizable totals first
+            long quantity = 0;
+            long value = 0;
+            int lowStock = 0;
+            for (int i = from; i < to; i++) {
+                quantity += quantities[i];
+                value += quantities[i] * priceCents[i];
+                lowStock += quantities[i] <= minStockLevels[i] ? 1 : 0;
+            }
+            totals.totalQuantity = quantity;
+            totals.totalValueCents = value;
+            totals.lowStockCount = lowStock;
+            
+            // Then the per-category scatter, which is inherently a gather/scatter loop
+            for (int i = from; i < to; i++) {
+                int c = categoryCodes[i];
+                if (c == NO_CODE) {
+                    continue;
+                }
+                totals.categoryItems[c]++;
+                totals.categoryQuantity[c] += quantities[i];
+                totals.categoryValueCents[c] += quantities[i] * priceCents[i];
+                totals.categoryLowStock[c] += quantities[i] <= minStockLevels[i] ? 1 : 0;
+            }
+            return totals;
+        }
+    }
+    
+    /**
+     * Maps item IDs to rows
+     * IDs are usually dense, so a direct array is used; sparse IDs fall back to a
+     * sorted array of (id, row) pairs packed into longs and a binary search
+     */
+    private static final class IdIndex {
+        private final int[] rowById;
+        private final long[] sortedPairs;
+        
+        private IdIndex(int[] ids, int size) {
+            int maxId = 0;
+            for (int row = 0; row < size; row++) {
+                maxId = Math.max(maxId, ids[row]);
+            }
+            
+            if (maxId <= 4L * size + 1024) {
+                rowById = new int[maxId + 1];
+                Arrays.fill(rowById, -1);
+                for (int row = 0; row < size; row++) {
+                    rowById[ids[row]] = row;
+                }
+                sortedPairs = null;
+            } else {
+                sortedPairs = new long[size];
+                for (int row = 0; row < size; row++) {
+                    sortedPairs[row] = (long) ids[row] << 32 | row;
+                }
+                Arrays.parallelSort(sortedPairs);
+                rowById = null;
+            }
+        }
+        
+        private int rowOf(int id) {
+            if (id < 0) {
+                return -1;
+            }
+            if (rowById != null) {
+                return id < rowById.length ? rowById[id] : -1;
+            }
+            int i = Arrays.binarySearch(sortedPairs, (long) id << 32);
+            // The key has row 0, so any other row of the ID sorts just after the insertion point
+            if (i < 0) {
+                i = -i - 1;
+            }
+            return i < sortedPairs.length && (int) (sortedPairs[i] >>> 32) == id ? (int) sortedPairs[i] : -1;
+        }
+    }
+    
+    /**
+     * String representation of InventorySnapshot
+     * @return formatted string with size and dictionary sizes
+     */
+    @Override
+    public String toString() {
+        return "InventorySnapshot{" +
+                "size=" + size +
+                ", categories=" + categories.length +
+                ", locations=" + locations.length +
+                '}';
+    }
+}
@@ -16,6 +16,8 @@ public class Item {
     private int supplierId;
     private String createdDate;
     private String updatedDate;
+    // Row version, incremented by the database on every update; used for optimistic concurrency
+    private int version;
     
     /**
      * Default constructor
@@ -70,6 +72,18 @@ public class Item {
         this.supplierId = supplierId;
     }
     
+    /**
+     * Copy constructor
+     * @param other Item to copy
+     */
+    public Item(Item other) {
+        this(other.id, other.name, other.quantity, other.location, other.category,
+             other.description, other.minStockLevel, other.price, other.supplierId);
+        this.createdDate = other.createdDate;
+        this.updatedDate = other.updatedDate;
+        this.version = other.version;
+    }
+    
     // Getters and Setters
     public int getId() {
         return id;
@@ -159,6 +173,14 @@ public class Item {
         this.updatedDate = updatedDate;
     }
     
+    public int getVersion() {
+        return version;
+    }
+    
+    public void setVersion(int version) {
+        this.version = version;
+    }
+    
     /**
      * Check if item is low in stock
      * @return true if quantity is below minimum stock level
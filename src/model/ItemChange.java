@@ -0,0 +1,58 @@
+package model;
+
+/**
+ * ItemChange model class describing one change to the items table
+ * Emitted by the item change feed so views and caches can apply deltas
+ */
+public class ItemChange {
+    
+    /**
+     * Kind of change
+     */
+    public enum Type {
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+    
+    private Type type;
+    private int itemId;
+    private Item item;
+    
+    /**
+     * Constructor with all parameters
+     * @param type Kind of change
+     * @param itemId ID of the changed item
+     * @param item Current state of the item, or null for deletes
+     */
+    public ItemChange(Type type, int itemId, Item item) {
+        this.type = type;
+        this.itemId = itemId;
+        this.item = item;
+    }
+    
+    // Getters
+    public Type getType() {
+        return type;
+    }
+    
+    public int getItemId() {
+        return itemId;
+    }
+    
+    public Item getItem() {
+        return item;
+    }
+    
+    /**
+     * String representation of ItemChange
+     * @return formatted string with change details
+     */
+    @Override
+    public String toString() {
+        return "ItemChange{" +
+                "type=" + type +
+                ", itemId=" + itemId +
+                '}';
+    }
+}
@@ -0,0 +1,63 @@
+package model;
+
+/**
+ * ItemUpdateResult model class describing the outcome of a versioned item update
+ * On a conflict the item is the current database row, so the caller can show what changed
+ */
+public class ItemUpdateResult {
+    
+    /**
+     * Outcome of the update
+     */
+    public enum Status {
+        UPDATED,
+        UNCHANGED,
+        JOURNALED,
+        CONFLICT,
+        NOT_FOUND,
+        FAILED
+    }
+    
+    private Status status;
+    private Item item;
+    
+    /**
+     * Constructor with all parameters
+     * @param status Outcome of the update
+     * @param item Item as written for UPDATED, UNCHANGED and JOURNALED, the current row
+     *             for CONFLICT, null otherwise
+     */
+    public ItemUpdateResult(Status status, Item item) {
+        this.status = status;
+        this.item = item;
+    }
+    
+    // Getters
+    public Status getStatus() {
+        return status;
+    }
+    
+    public Item getItem() {
+        return item;
+    }
+    
+    /**
+     * Check if the change was saved
+     * @return true if written to the database or the offline journal, or nothing needed writing
+     */
+    public boolean isSuccess() {
+        return status == Status.UPDATED || status == Status.UNCHANGED || status == Status.JOURNALED;
+    }
+    
+    /**
+     * String representation of ItemUpdateResult
+     * @return formatted string with outcome details
+     */
+    @Override
+    public String toString() {
+        return "ItemUpdateResult{" +
+                "status=" + status +
+                ", item=" + item +
+                '}';
+    }
+}
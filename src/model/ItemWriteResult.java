@@ -0,0 +1,75 @@
+package model;
+
+/**
+ * ItemWriteResult model class describing the outcome of writing one item in a batch
+ * Results are reported in the same order as the items that were submitted
+ */
+public class ItemWriteResult {
+    
+    /**
+     * Outcome of a single row
+     */
+    public enum Status {
+        INSERTED,
+        UPSERTED,
+        FAILED
+    }
+    
+    private int index;
+    private Status status;
+    private int itemId;
+    private String error;
+    
+    /**
+     * Constructor with all parameters
+     * @param index Position of the item in the submitted batch
+     * @param status Outcome of the write
+     * @param itemId ID of the written item (generated for inserts), 0 on failure
+     * @param error Error message on failure, null otherwise
+     */
+    public ItemWriteResult(int index, Status status, int itemId, String error) {
+        this.index = index;
+        this.status = status;
+        this.itemId = itemId;
+        this.error = error;
+    }
+    
+    // Getters
+    public int getIndex() {
+        return index;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public int getItemId() {
+        return itemId;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    /**
+     * Check if the row was written
+     * @return true unless the row failed
+     */
+    public boolean isSuccess() {
+        return status != Status.FAILED;
+    }
+    
+    /**
+     * String representation of ItemWriteResult
+     * @return formatted string with outcome details
+     */
+    @Override
+    public String toString() {
+        return "ItemWriteResult{" +
+                "index=" + index +
+                ", status=" + status +
+                ", itemId=" + itemId +
+                (error != null ? ", error='" + error + '\'' : "") +
+                '}';
+    }
+}
@@ -0,0 +1,131 @@
+package model;
+
+/**
+ * Location model class representing a parsed warehouse location code
+ * Codes are aisle letters, bay number, dash, slot number: "A1-02" is aisle A, bay 1,
+ * slot 2. Aisles are numbered A = 1 to Z = 26, then AA = 27 and so on; the slot may be
+ * left out ("C14"). Locations are immutable.
+ */
+public class Location implements Comparable<Location> {
+    
+    // Longer parts are not location codes, and would overflow the numbers
+    private static final int MAX_AISLE_LETTERS = 4;
+    private static final int MAX_DIGITS = 6;
+    
+    private final String code;
+    private final int aisle;
+    private final int bay;
+    private final int slot;
+    
+    /**
+     * Constructor with all parameters
+     * @param code Location code as stored on items
+     * @param aisle Aisle number, from 1
+     * @param bay Bay number along the aisle
+     * @param slot Slot number within the bay, 0 if the code has none
+     */
+    public Location(String code, int aisle, int bay, int slot) {
+        this.code = code;
+        this.aisle = aisle;
+        this.bay = bay;
+        this.slot = slot;
+    }
+    
+    /**
+     * Parse a location code, ignoring case and surrounding spaces
+     * @param code Location code, e.g. "A1-02"
+     * @return Parsed location, or null if the code is not of that form
+     */
+    public static Location parse(String code) {
+        if (code == null) {
+            return null;
+        }
+        String s = code.trim();
+        int i = 0;
+        int aisle = 0;
+        while (i < s.length() && Character.isLetter(s.charAt(i)) && i < MAX_AISLE_LETTERS) {
+            char c = Character.toUpperCase(s.charAt(i));
+            if (c < 'A' || c > 'Z') {
+                return null;
+            }
+            aisle = aisle * 26 + (c - 'A' + 1);
+            i++;
+        }
+        int bayStart = i;
+        int bay = 0;
+        while (i < s.length() && isDigit(s.charAt(i)) && i - bayStart < MAX_DIGITS) {
+            bay = bay * 10 + (s.charAt(i) - '0');
+            i++;
+        }
+        if (bayStart == 0 || i == bayStart) {
+            return null;
+        }
+        
+        int slot = 0;
+        if (i < s.length()) {
+            if (s.charAt(i) != '-' || i + 1 == s.length()) {
+                return null;
+            }
+            int slotStart = ++i;
+            while (i < s.length() && isDigit(s.charAt(i)) && i - slotStart < MAX_DIGITS) {
+                slot = slot * 10 + (s.charAt(i) - '0');
+                i++;
+            }
+            if (i < s.length()) {
+                return null;
+            }
+        }
+        return new Location(code, aisle, bay, slot);
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    // Getters
+    public String getCode() {
+        return code;
+    }
+    
+    public int getAisle() {
+        return aisle;
+    }
+    
+    public int getBay() {
+        return bay;
+    }
+    
+    public int getSlot() {
+        return slot;
+    }
+    
+    /**
+     * Order by aisle, then bay, then slot
+     * @param other Location to compare with
+     * @return Negative, zero or positive
+     */
+    @Override
+    public int compareTo(Location other) {
+        if (aisle != other.aisle) {
+            return Integer.compare(aisle, other.aisle);
+        }
+        if (bay != other.bay) {
+            return Integer.compare(bay, other.bay);
+        }
+        return Integer.compare(slot, other.slot);
+    }
+    
+    /**
+     * String representation of Location
+     * @return formatted string with location details
+     */
+    @Override
+    public String toString() {
+        return "Location{" +
+                "code='" + code + '\'' +
+                ", aisle=" + aisle +
+                ", bay=" + bay +
+                ", slot=" + slot +
+                '}';
+    }
+}
@@ -0,0 +1,90 @@
+package model;
+
+/**
+ * LocationSummary model class representing aggregated inventory figures for one location
+ * Used by the location analysis report
+ */
+public class LocationSummary {
+    private String location;
+    private int itemCount;
+    private long totalQuantity;
+    private double totalValue;
+    private int lowStockCount;
+    
+    /**
+     * Default constructor
+     */
+    public LocationSummary() {}
+    
+    /**
+     * Constructor with all parameters
+     * @param location Location
+     * @param itemCount Number of items at the location
+     * @param totalQuantity Sum of item quantities
+     * @param totalValue Sum of quantity * price
+     * @param lowStockCount Number of items at or below their minimum stock level
+     */
+    public LocationSummary(String location, int itemCount, long totalQuantity, double totalValue, int lowStockCount) {
+        this.location = location;
+        this.itemCount = itemCount;
+        this.totalQuantity = totalQuantity;
+        this.totalValue = totalValue;
+        this.lowStockCount = lowStockCount;
+    }
+    
+    // Getters and Setters
+    public String getLocation() {
+        return location;
+    }
+    
+    public void setLocation(String location) {
+        this.location = location;
+    }
+    
+    public int getItemCount() {
+        return itemCount;
+    }
+    
+    public void setItemCount(int itemCount) {
+        this.itemCount = itemCount;
+    }
+    
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+    
+    public void setTotalQuantity(long totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+    
+    public double getTotalValue() {
+        return totalValue;
+    }
+    
+    public void setTotalValue(double totalValue) {
+        this.totalValue = totalValue;
+    }
+    
+    public int getLowStockCount() {
+        return lowStockCount;
+    }
+    
+    public void setLowStockCount(int lowStockCount) {
+        this.lowStockCount = lowStockCount;
+    }
+    
+    /**
+     * String representation of LocationSummary
+     * @return formatted string with summary details
+     */
+    @Override
+    public String toString() {
+        return "LocationSummary{" +
+                "location='" + location + '\'' +
+                ", itemCount=" + itemCount +
+                ", totalQuantity=" + totalQuantity +
+                ", totalValue=" + totalValue +
+                ", lowStockCount=" + lowStockCount +
+                '}';
+    }
+}
@@ -0,0 +1,65 @@
+package model;
+
+/**
+ * OrderLine model class representing one open customer order line to be picked
+ */
+public class OrderLine {
+    private int orderId;
+    private int itemId;
+    private int quantity;
+    
+    /**
+     * Default constructor
+     */
+    public OrderLine() {}
+    
+    /**
+     * Constructor with all parameters
+     * @param orderId Order the line belongs to
+     * @param itemId Item to pick
+     * @param quantity Units to pick
+     */
+    public OrderLine(int orderId, int itemId, int quantity) {
+        this.orderId = orderId;
+        this.itemId = itemId;
+        this.quantity = quantity;
+    }
+    
+    // Getters and Setters
+    public int getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(int orderId) {
+        this.orderId = orderId;
+    }
+    
+    public int getItemId() {
+        return itemId;
+    }
+    
+    public void setItemId(int itemId) {
+        this.itemId = itemId;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+    
+    /**
+     * String representation of OrderLine
+     * @return formatted string with line details
+     */
+    @Override
+    public String toString() {
+        return "OrderLine{" +
+                "orderId=" + orderId +
+                ", itemId=" + itemId +
+                ", quantity=" + quantity +
+                '}';
+    }
+}
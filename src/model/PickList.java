@@ -0,0 +1,50 @@
+package model;
+
+import java.util.List;
+
+/**
+ * PickList model class holding one picker's share of a wave, in walk order
+ */
+public class PickList {
+    private int pickerNumber;
+    private List<PickTask> picks;
+    private int aisleCount;
+    
+    /**
+     * Constructor with all parameters
+     * @param pickerNumber Picker within the wave, from 1
+     * @param picks Picks in the order they are walked
+     * @param aisleCount Number of aisles the walk enters
+     */
+    public PickList(int pickerNumber, List<PickTask> picks, int aisleCount) {
+        this.pickerNumber = pickerNumber;
+        this.picks = picks;
+        this.aisleCount = aisleCount;
+    }
+    
+    // Getters
+    public int getPickerNumber() {
+        return pickerNumber;
+    }
+    
+    public List<PickTask> getPicks() {
+        return picks;
+    }
+    
+    public int getAisleCount() {
+        return aisleCount;
+    }
+    
+    /**
+     * String representation of PickList
+     * @return formatted string with list details
+     */
+    @Override
+    public String toString() {
+        return "PickList{" +
+                "pickerNumber=" + pickerNumber +
+                ", picks=" + picks.size() +
+                ", aisleCount=" + aisleCount +
+                '}';
+    }
+}
@@ -0,0 +1,55 @@
+package model;
+
+/**
+ * PickTask model class representing one stop on a picker's walk
+ * An order line together with the location to pick it from
+ */
+public class PickTask {
+    private OrderLine line;
+    private String location;
+    
+    /**
+     * Constructor with all parameters
+     * @param line Order line to pick
+     * @param location Location code of the item
+     */
+    public PickTask(OrderLine line, String location) {
+        this.line = line;
+        this.location = location;
+    }
+    
+    // Getters
+    public OrderLine getLine() {
+        return line;
+    }
+    
+    public int getOrderId() {
+        return line.getOrderId();
+    }
+    
+    public int getItemId() {
+        return line.getItemId();
+    }
+    
+    public int getQuantity() {
+        return line.getQuantity();
+    }
+    
+    public String getLocation() {
+        return location;
+    }
+    
+    /**
+     * String representation of PickTask
+     * @return formatted string with pick details
+     */
+    @Override
+    public String toString() {
+        return "PickTask{" +
+                "location='" + location + '\'' +
+                ", orderId=" + line.getOrderId() +
+                ", itemId=" + line.getItemId() +
+                ", quantity=" + line.getQuantity() +
+                '}';
+    }
+}
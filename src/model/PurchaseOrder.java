@@ -0,0 +1,95 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PurchaseOrder model class grouping the reorder lines of one supplier
+ * Proposed by the replenishment planner; nothing is sent or stored
+ */
+public class PurchaseOrder {
+    private int supplierId;
+    private String supplierName;
+    private List<ReorderLine> lines;
+    
+    /**
+     * Default constructor
+     */
+    public PurchaseOrder() {
+        this.lines = new ArrayList<>();
+    }
+    
+    /**
+     * Constructor with all parameters
+     * @param supplierId Supplier ID, 0 for items without a supplier
+     * @param supplierName Supplier name
+     * @param lines Lines to order, most urgent first
+     */
+    public PurchaseOrder(int supplierId, String supplierName, List<ReorderLine> lines) {
+        this.supplierId = supplierId;
+        this.supplierName = supplierName;
+        this.lines = lines;
+    }
+    
+    // Getters and Setters
+    public int getSupplierId() {
+        return supplierId;
+    }
+    
+    public void setSupplierId(int supplierId) {
+        this.supplierId = supplierId;
+    }
+    
+    public String getSupplierName() {
+        return supplierName;
+    }
+    
+    public void setSupplierName(String supplierName) {
+        this.supplierName = supplierName;
+    }
+    
+    public List<ReorderLine> getLines() {
+        return lines;
+    }
+    
+    public void setLines(List<ReorderLine> lines) {
+        this.lines = lines;
+    }
+    
+    /**
+     * Total units over all lines
+     * @return Sum of reorder quantities
+     */
+    public long getTotalQuantity() {
+        long total = 0;
+        for (ReorderLine line : lines) {
+            total += line.getReorderQuantity();
+        }
+        return total;
+    }
+    
+    /**
+     * Total cost over all lines
+     * @return Sum of line costs, in cents
+     */
+    public long getTotalCostCents() {
+        long total = 0;
+        for (ReorderLine line : lines) {
+            total += line.getLineCostCents();
+        }
+        return total;
+    }
+    
+    /**
+     * String representation of PurchaseOrder
+     * @return formatted string with order details
+     */
+    @Override
+    public String toString() {
+        return "PurchaseOrder{" +
+                "supplierId=" + supplierId +
+                ", supplierName='" + supplierName + '\'' +
+                ", lines=" + lines.size() +
+                '}';
+    }
+}
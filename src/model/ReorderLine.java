@@ -0,0 +1,155 @@
+package model;
+
+/**
+ * ReorderLine model class representing one item the replenishment planner wants to reorder
+ * Demand is an exponentially weighted daily rate of recent OUT movements; days of
+ * cover is the quantity on hand divided by that rate
+ */
+public class ReorderLine {
+    private int itemId;
+    private String itemName;
+    private int supplierId;
+    private int quantityOnHand;
+    private int minStockLevel;
+    private double dailyDemand;
+    private double daysOfCover;
+    private int reorderPoint;
+    private int reorderQuantity;
+    private long unitPriceCents;
+    
+    /**
+     * Default constructor
+     */
+    public ReorderLine() {}
+    
+    /**
+     * Constructor with all parameters except the item name, which is filled in later
+     * @param itemId Item ID
+     * @param supplierId Supplier ID, 0 if the item has no supplier
+     * @param quantityOnHand Current quantity
+     * @param minStockLevel Minimum stock level
+     * @param dailyDemand Expected units picked per day
+     * @param daysOfCover Days until the item runs out at the expected demand
+     * @param reorderPoint Quantity at or below which the item is reordered
+     * @param reorderQuantity Quantity to order
+     * @param unitPriceCents Unit price in cents
+     */
+    public ReorderLine(int itemId, int supplierId, int quantityOnHand, int minStockLevel, double dailyDemand,
+                       double daysOfCover, int reorderPoint, int reorderQuantity, long unitPriceCents) {
+        this.itemId = itemId;
+        this.supplierId = supplierId;
+        this.quantityOnHand = quantityOnHand;
+        this.minStockLevel = minStockLevel;
+        this.dailyDemand = dailyDemand;
+        this.daysOfCover = daysOfCover;
+        this.reorderPoint = reorderPoint;
+        this.reorderQuantity = reorderQuantity;
+        this.unitPriceCents = unitPriceCents;
+    }
+    
+    // Getters and Setters
+    public int getItemId() {
+        return itemId;
+    }
+    
+    public void setItemId(int itemId) {
+        this.itemId = itemId;
+    }
+    
+    public String getItemName() {
+        return itemName;
+    }
+    
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+    
+    public int getSupplierId() {
+        return supplierId;
+    }
+    
+    public void setSupplierId(int supplierId) {
+        this.supplierId = supplierId;
+    }
+    
+    public int getQuantityOnHand() {
+        return quantityOnHand;
+    }
+    
+    public void setQuantityOnHand(int quantityOnHand) {
+        this.quantityOnHand = quantityOnHand;
+    }
+    
+    public int getMinStockLevel() {
+        return minStockLevel;
+    }
+    
+    public void setMinStockLevel(int minStockLevel) {
+        this.minStockLevel = minStockLevel;
+    }
+    
+    public double getDailyDemand() {
+        return dailyDemand;
+    }
+    
+    public void setDailyDemand(double dailyDemand) {
+        this.dailyDemand = dailyDemand;
+    }
+    
+    public double getDaysOfCover() {
+        return daysOfCover;
+    }
+    
+    public void setDaysOfCover(double daysOfCover) {
+        this.daysOfCover = daysOfCover;
+    }
+    
+    public int getReorderPoint() {
+        return reorderPoint;
+    }
+    
+    public void setReorderPoint(int reorderPoint) {
+        this.reorderPoint = reorderPoint;
+    }
+    
+    public int getReorderQuantity() {
+        return reorderQuantity;
+    }
+    
+    public void setReorderQuantity(int reorderQuantity) {
+        this.reorderQuantity = reorderQuantity;
+    }
+    
+    public long getUnitPriceCents() {
+        return unitPriceCents;
+    }
+    
+    public void setUnitPriceCents(long unitPriceCents) {
+        this.unitPriceCents = unitPriceCents;
+    }
+    
+    /**
+     * Cost of the reorder quantity
+     * @return reorderQuantity * unitPriceCents
+     */
+    public long getLineCostCents() {
+        return reorderQuantity * unitPriceCents;
+    }
+    
+    /**
+     * String representation of ReorderLine
+     * @return formatted string with line details
+     */
+    @Override
+    public String toString() {
+        return "ReorderLine{" +
+                "itemId=" + itemId +
+                ", itemName='" + itemName + '\'' +
+                ", supplierId=" + supplierId +
+                ", quantityOnHand=" + quantityOnHand +
+                ", dailyDemand=" + dailyDemand +
+                ", daysOfCover=" + daysOfCover +
+                ", reorderQuantity=" + reorderQuantity +
+                '}';
+    }
+}
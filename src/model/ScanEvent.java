@@ -0,0 +1,77 @@
+package model;
+
+/**
+ * ScanEvent model class representing one barcode scan at a scanner station
+ * The barcode resolves to an item ID; the delta is the signed change in stock
+ * (positive when receiving, negative when picking)
+ */
+public class ScanEvent {
+
+    private final int itemId;
+    private final int delta;
+    private final String location;
+    private final String userName;
+    private final long scannedAtMillis;
+
+    /**
+     * Constructor for a scan taken now
+     * @param itemId ID of the scanned item
+     * @param delta Signed quantity change
+     * @param location Location scanned at, may be null
+     * @param userName User or station that scanned, may be null
+     */
+    public ScanEvent(int itemId, int delta, String location, String userName) {
+        this(itemId, delta, location, userName, System.currentTimeMillis());
+    }
+
+    /**
+     * Constructor with the time of the scan
+     * @param itemId ID of the scanned item
+     * @param delta Signed quantity change
+     * @param location Location scanned at, may be null
+     * @param userName User or station that scanned, may be null
+     * @param scannedAtMillis Time of the scan in epoch milliseconds
+     */
+    public ScanEvent(int itemId, int delta, String location, String userName, long scannedAtMillis) {
+        this.itemId = itemId;
+        this.delta = delta;
+        this.location = location;
+        this.userName = userName;
+        this.scannedAtMillis = scannedAtMillis;
+    }
+
+    // Getters
+    public int getItemId() {
+        return itemId;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public long getScannedAtMillis() {
+        return scannedAtMillis;
+    }
+
+    /**
+     * String representation of ScanEvent
+     * @return formatted string with scan details
+     */
+    @Override
+    public String toString() {
+        return "ScanEvent{" +
+                "itemId=" + itemId +
+                ", delta=" + delta +
+                ", location='" + location + '\'' +
+                ", userName='" + userName + '\'' +
+                '}';
+    }
+}
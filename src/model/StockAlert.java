@@ -0,0 +1,91 @@
+package model;
+
+/**
+ * StockAlert model class describing a change in an item's stock level alert
+ * Emitted by the stock alert engine when an item falls to or below its minimum
+ * stock level, runs out, or recovers
+ */
+public class StockAlert {
+    
+    /**
+     * Alert level of an item
+     */
+    public enum Level {
+        LOW,
+        OUT_OF_STOCK,
+        RESOLVED
+    }
+    
+    private Level level;
+    private int itemId;
+    private String itemName;
+    private int quantity;
+    private int minStockLevel;
+    private long timeMillis;
+    
+    /**
+     * Constructor with all parameters
+     * @param level New alert level of the item
+     * @param itemId Item ID
+     * @param itemName Item name
+     * @param quantity Quantity on hand
+     * @param minStockLevel Minimum stock level
+     * @param timeMillis When the level was reached, in epoch milliseconds
+     */
+    public StockAlert(Level level, int itemId, String itemName, int quantity, int minStockLevel, long timeMillis) {
+        this.level = level;
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.quantity = quantity;
+        this.minStockLevel = minStockLevel;
+        this.timeMillis = timeMillis;
+    }
+    
+    // Getters
+    public Level getLevel() {
+        return level;
+    }
+    
+    public int getItemId() {
+        return itemId;
+    }
+    
+    public String getItemName() {
+        return itemName;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public int getMinStockLevel() {
+        return minStockLevel;
+    }
+    
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+    
+    /**
+     * Units missing to reach the minimum stock level
+     * @return minStockLevel - quantity, 0 if the item is not short
+     */
+    public int getDeficit() {
+        return Math.max(minStockLevel - quantity, 0);
+    }
+    
+    /**
+     * String representation of StockAlert
+     * @return formatted string with alert details
+     */
+    @Override
+    public String toString() {
+        return "StockAlert{" +
+                "level=" + level +
+                ", itemId=" + itemId +
+                ", itemName='" + itemName + '\'' +
+                ", quantity=" + quantity +
+                ", minStockLevel=" + minStockLevel +
+                '}';
+    }
+}
@@ -0,0 +1,128 @@
+package model;
+
+/**
+ * StockMovement model class representing one row of the stock movement ledger
+ * IN and OUT quantities are positive amounts received or picked; an ADJUSTMENT
+ * quantity is the signed correction applied to the item's stock
+ */
+public class StockMovement {
+    
+    /**
+     * Kind of movement, matching stock_movements.movement_type
+     */
+    public enum Type {
+        IN,
+        OUT,
+        ADJUSTMENT
+    }
+    
+    private int id;
+    private int itemId;
+    private Type type;
+    private int quantity;
+    private String reason;
+    private String userName;
+    private String movementDate;
+    
+    /**
+     * Default constructor
+     */
+    public StockMovement() {}
+    
+    /**
+     * Constructor for a new movement
+     * @param itemId ID of the item moved
+     * @param type Kind of movement
+     * @param quantity Amount moved (signed for adjustments)
+     * @param reason Free-text reason, may be null
+     * @param userName User or station recording the movement, may be null
+     */
+    public StockMovement(int itemId, Type type, int quantity, String reason, String userName) {
+        this.itemId = itemId;
+        this.type = type;
+        this.quantity = quantity;
+        this.reason = reason;
+        this.userName = userName;
+    }
+    
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+    
+    public void setId(int id) {
+        this.id = id;
+    }
+    
+    public int getItemId() {
+        return itemId;
+    }
+    
+    public void setItemId(int itemId) {
+        this.itemId = itemId;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public void setType(Type type) {
+        this.type = type;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+    
+    public String getReason() {
+        return reason;
+    }
+    
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+    
+    public String getUserName() {
+        return userName;
+    }
+    
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+    
+    public String getMovementDate() {
+        return movementDate;
+    }
+    
+    public void setMovementDate(String movementDate) {
+        this.movementDate = movementDate;
+    }
+    
+    /**
+     * Get the change this movement makes to the item's quantity
+     * @return Positive for IN, negative for OUT, the signed quantity for ADJUSTMENT
+     */
+    public int getDelta() {
+        return type == Type.OUT ? -quantity : quantity;
+    }
+    
+    /**
+     * String representation of StockMovement
+     * @return formatted string with movement details
+     */
+    @Override
+    public String toString() {
+        return "StockMovement{" +
+                "id=" + id +
+                ", itemId=" + itemId +
+                ", type=" + type +
+                ", quantity=" + quantity +
+                ", reason='" + reason + '\'' +
+                ", userName='" + userName + '\'' +
+                '}';
+    }
+}
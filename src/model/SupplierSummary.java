@@ -0,0 +1,54 @@
+package model;
+
+/**
+ * SupplierSummary model class pairing a supplier with the number of items it supplies
+ * Used by the supplier summary report
+ */
+public class SupplierSummary {
+    private Supplier supplier;
+    private int itemCount;
+    
+    /**
+     * Default constructor
+     */
+    public SupplierSummary() {}
+    
+    /**
+     * Constructor with all parameters
+     * @param supplier Supplier details
+     * @param itemCount Number of items supplied by this supplier
+     */
+    public SupplierSummary(Supplier supplier, int itemCount) {
+        this.supplier = supplier;
+        this.itemCount = itemCount;
+    }
+    
+    // Getters and Setters
+    public Supplier getSupplier() {
+        return supplier;
+    }
+    
+    public void setSupplier(Supplier supplier) {
+        this.supplier = supplier;
+    }
+    
+    public int getItemCount() {
+        return itemCount;
+    }
+    
+    public void setItemCount(int itemCount) {
+        this.itemCount = itemCount;
+    }
+    
+    /**
+     * String representation of SupplierSummary
+     * @return formatted string with summary details
+     */
+    @Override
+    public String toString() {
+        return "SupplierSummary{" +
+                "supplier=" + supplier +
+                ", itemCount=" + itemCount +
+                '}';
+    }
+}
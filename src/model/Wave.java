@@ -0,0 +1,71 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Wave model class grouping orders that are picked together
+ * The lines of every order are in the same wave, split over its pick lists
+ */
+public class Wave {
+    private int waveNumber;
+    private int orderCount;
+    private List<PickList> pickLists;
+    private List<OrderLine> unlocatedLines;
+    
+    /**
+     * Constructor with all parameters
+     * @param waveNumber Wave number, from 1
+     * @param orderCount Number of orders in the wave
+     * @param pickLists One pick list per picker
+     * @param unlocatedLines Lines whose item is unknown or has no location, to be picked by hand
+     */
+    public Wave(int waveNumber, int orderCount, List<PickList> pickLists, List<OrderLine> unlocatedLines) {
+        this.waveNumber = waveNumber;
+        this.orderCount = orderCount;
+        this.pickLists = pickLists;
+        this.unlocatedLines = unlocatedLines;
+    }
+    
+    // Getters
+    public int getWaveNumber() {
+        return waveNumber;
+    }
+    
+    public int getOrderCount() {
+        return orderCount;
+    }
+    
+    public List<PickList> getPickLists() {
+        return pickLists;
+    }
+    
+    public List<OrderLine> getUnlocatedLines() {
+        return unlocatedLines;
+    }
+    
+    /**
+     * Number of order lines in the wave
+     * @return Picks over all pick lists plus unlocated lines
+     */
+    public int getLineCount() {
+        int lines = unlocatedLines.size();
+        for (PickList pickList : pickLists) {
+            lines += pickList.getPicks().size();
+        }
+        return lines;
+    }
+    
+    /**
+     * String representation of Wave
+     * @return formatted string with wave details
+     */
+    @Override
+    public String toString() {
+        return "Wave{" +
+                "waveNumber=" + waveNumber +
+                ", orderCount=" + orderCount +
+                ", pickLists=" + pickLists.size() +
+                ", unlocatedLines=" + unlocatedLines.size() +
+                '}';
+    }
+}
@@ -0,0 +1,350 @@
+package service;
+
+import database.DBConnection;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Streams reports from the database to CSV files in constant memory
+ * Rows are read from a forward-only streaming result set and encoded straight
+ * into a reusable direct buffer that is drained to a FileChannel; numbers and
+ * CSV quoting are written by hand so no per-row strings are built.
+ *
+ * The export is written to a temporary file next to the target and moved into
+ * place when complete, so a cancelled or failed export never leaves a partial file.
+ */
+public class CsvExporter {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+    // Rows between progress callbacks (which are also the cancellation checks)
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    /**
+     * How a column is read and written
+     */
+    private enum Kind {
+        TEXT,
+        INT,
+        LONG,
+        CENTS
+    }
+
+    /**
+     * Reports that can be exported
+     */
+    public enum Report {
+        INVENTORY("Full inventory",
+            "SELECT id, name, quantity, location, category, description, min_stock_level, " +
+            "CAST(ROUND(price * 100) AS SIGNED), supplier_id, created_date, updated_date FROM items ORDER BY id",
+            new String[]{"id", "name", "quantity", "location", "category", "description", "min_stock_level",
+                         "price", "supplier_id", "created_date", "updated_date"},
+            Kind.INT, Kind.TEXT, Kind.INT, Kind.TEXT, Kind.TEXT, Kind.TEXT, Kind.INT,
+            Kind.CENTS, Kind.INT, Kind.TEXT, Kind.TEXT),
+        LOW_STOCK("Low stock report",
+            "SELECT id, name, quantity, min_stock_level, min_stock_level - quantity, category, location " +
+            "FROM items WHERE quantity <= min_stock_level ORDER BY quantity ASC",
+            new String[]{"ID", "Name", "Current Stock", "Min Required", "Deficit", "Category", "Location"},
+            Kind.INT, Kind.TEXT, Kind.INT, Kind.INT, Kind.INT, Kind.TEXT, Kind.TEXT),
+        SUPPLIER_SUMMARY("Supplier summary",
+            "SELECT " + SupplierRowMapper.columns("s") + ", COALESCE(t.item_count, 0) " +
+            "FROM suppliers s LEFT JOIN (SELECT dim_value, SUM(item_count) AS item_count FROM item_summaries " +
+            "WHERE dimension = 'SUPPLIER' GROUP BY dim_value) t ON t.dim_value = CAST(s.id AS CHAR) ORDER BY s.id",
+            new String[]{"ID", "Name", "Contact", "Address", "Items Supplied"},
+            Kind.INT, Kind.TEXT, Kind.TEXT, Kind.TEXT, Kind.LONG),
+        CATEGORY_ANALYSIS("Category analysis",
+            summarySql("CATEGORY"),
+            new String[]{"Category", "Total Items", "Total Quantity", "Total Value", "Low Stock Items"},
+            Kind.TEXT, Kind.LONG, Kind.LONG, Kind.CENTS, Kind.LONG),
+        LOCATION_ANALYSIS("Location analysis",
+            summarySql("LOCATION"),
+            new String[]{"Location", "Total Items", "Total Quantity", "Total Value", "Low Stock Items"},
+            Kind.TEXT, Kind.LONG, Kind.LONG, Kind.CENTS, Kind.LONG),
+        STOCK_MOVEMENTS("Stock movements",
+            "SELECT id, item_id, movement_type, quantity, reason, user_name, movement_date FROM stock_movements ORDER BY id",
+            new String[]{"id", "item_id", "movement_type", "quantity", "reason", "user_name", "movement_date"},
+            Kind.INT, Kind.INT, Kind.TEXT, Kind.INT, Kind.TEXT, Kind.TEXT, Kind.TEXT);
+
+        private final String title;
+        private final String sql;
+        private final String[] header;
+        private final Kind[] kinds;
+
+        Report(String title, String sql, String[] header, Kind... kinds) {
+            this.title = title;
+            this.sql = sql;
+            this.header = header;
+            this.kinds = kinds;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        /**
+         * Totals per value of one item_summaries dimension, summed over its slots
+         */
+        private static String summarySql(String dimension) {
+            return "SELECT dim_value, SUM(item_count), SUM(total_quantity), SUM(total_value_cents), SUM(low_stock_count) " +
+                   "FROM item_summaries WHERE dimension = '" + dimension + "' AND dim_value <> '' " +
+                   "GROUP BY dim_value HAVING SUM(item_count) > 0 ORDER BY dim_value";
+        }
+
+        @Override
+        public String toString() {
+            return title;
+        }
+    }
+
+    /**
+     * Receives progress during an export
+     */
+    public interface ExportProgress {
+        /**
+         * Called every thousand rows and once at the end
+         * @param rows Rows written so far
+         * @return false to cancel the export
+         */
+        boolean rowsWritten(long rows);
+    }
+
+    /**
+     * Export a report to a CSV file
+     * @param report Report to export
+     * @param file Target file; replaced if it exists
+     * @param progress Progress callback, may be null
+     * @return Number of data rows written
+     * @throws SQLException if the query fails
+     * @throws IOException if the file cannot be written
+     * @throws CancellationException if the progress callback cancelled the export
+     */
+    public long export(Report report, Path file, ExportProgress progress) throws SQLException, IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".part");
+        boolean complete = false;
+        Connection conn = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        boolean exhausted = false;
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            conn = DBConnection.getReadConnection();
+            stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Stream rows one at a time instead of buffering the result in the driver
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            CsvWriter out = new CsvWriter(channel);
+
+            for (String column : report.header) {
+                out.text(column);
+            }
+            out.endRow();
+
+            long rows = 0;
+            Kind[] kinds = report.kinds;
+            rs = stmt.executeQuery(report.sql);
+            while (rs.next()) {
+                for (int i = 0; i < kinds.length; i++) {
+                    writeColumn(out, rs, i + 1, kinds[i]);
+                }
+                out.endRow();
+                rows++;
+                if (rows % PROGRESS_INTERVAL == 0 && progress != null && !progress.rowsWritten(rows)) {
+                    throw new CancellationException("Export cancelled");
+                }
+            }
+            exhausted = true;
+            out.flush();
+            channel.force(false);
+            if (progress != null) {
+                progress.rowsWritten(rows);
+            }
+            complete = true;
+            return rows;
+
+        } finally {
+            // Closing a half-read streaming result would read the rest of it, so the query is
+            // cancelled first, while this export still holds the connection it runs on
+            InventoryService.closeQuietly(rs, stmt, conn, rs != null && !exhausted);
+            if (complete) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private static void writeColumn(CsvWriter out, ResultSet rs, int column, Kind kind) throws SQLException, IOException {
+        switch (kind) {
+            case TEXT:
+                out.text(rs.getString(column));
+                break;
+            case INT: {
+                int value = rs.getInt(column);
+                if (rs.wasNull()) {
+                    out.text(null);
+                } else {
+                    out.number(value);
+                }
+                break;
+            }
+            case LONG: {
+                long value = rs.getLong(column);
+                if (rs.wasNull()) {
+                    out.text(null);
+                } else {
+                    out.number(value);
+                }
+                break;
+            }
+            default: {
+                long cents = rs.getLong(column);
+                if (rs.wasNull()) {
+                    out.text(null);
+                } else {
+                    out.cents(cents);
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * Encodes CSV fields as UTF-8 into a direct buffer drained to a channel
+     */
+    private static final class CsvWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final byte[] digits = new byte[20];
+        private boolean firstField = true;
+
+        private CsvWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void text(String value) throws IOException {
+            separator();
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            boolean quote = needsQuotes(value);
+            if (quote) {
+                put((byte) '"');
+            }
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    put((byte) '"');
+                    put((byte) '"');
+                } else if (c < 0x80) {
+                    put((byte) c);
+                } else if (c < 0x800) {
+                    put((byte) (0xC0 | (c >> 6)));
+                    put((byte) (0x80 | (c & 0x3F)));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, value.charAt(++i));
+                    put((byte) (0xF0 | (cp >> 18)));
+                    put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                    put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                    put((byte) (0x80 | (cp & 0x3F)));
+                } else if (Character.isSurrogate(c)) {
+                    put((byte) '?');
+                } else {
+                    put((byte) (0xE0 | (c >> 12)));
+                    put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                    put((byte) (0x80 | (c & 0x3F)));
+                }
+            }
+            if (quote) {
+                put((byte) '"');
+            }
+        }
+
+        void number(long value) throws IOException {
+            separator();
+            writeLong(value);
+        }
+
+        /**
+         * Write an amount in cents as a decimal with two places, e.g. 12345 as 123.45
+         */
+        void cents(long cents) throws IOException {
+            separator();
+            if (cents < 0) {
+                put((byte) '-');
+                cents = -cents;
+            }
+            writeLong(cents / 100);
+            int fraction = (int) (cents % 100);
+            put((byte) '.');
+            put((byte) ('0' + fraction / 10));
+            put((byte) ('0' + fraction % 10));
+        }
+
+        void endRow() throws IOException {
+            put((byte) '\r');
+            put((byte) '\n');
+            firstField = true;
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void separator() throws IOException {
+            if (!firstField) {
+                put((byte) ',');
+            }
+            firstField = false;
+        }
+
+        private void writeLong(long value) throws IOException {
+            if (value == Long.MIN_VALUE) {
+                for (char c : Long.toString(value).toCharArray()) {
+                    put((byte) c);
+                }
+                return;
+            }
+            if (value < 0) {
+                put((byte) '-');
+                value = -value;
+            }
+            int n = 0;
+            do {
+                digits[n++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value != 0);
+            while (n > 0) {
+                put(digits[--n]);
+            }
+        }
+
+        private void put(byte b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.put(b);
+        }
+
+        private static boolean needsQuotes(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            // Leading/trailing spaces would be trimmed by some readers
+            return value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' ';
+        }
+    }
+}
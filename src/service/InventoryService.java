@@ -1,10 +1,23 @@
 package service;
 
 import database.DBConnection;
+import metrics.OperationMetrics;
+import metrics.ServiceMetrics;
 import model.Item;
+import model.ItemChange;
+import model.ItemUpdateResult;
+import model.ItemWriteResult;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Service class for inventory management operations
@@ -12,85 +25,658 @@ import java.util.List;
  */
 public class InventoryService {
     
+    // Tells MySQL Connector/J to stream rows one at a time instead of buffering the whole result
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    
+    // Rows per batch transaction; with rewriteBatchedStatements each chunk goes out as multi-row INSERTs
+    private static final int BATCH_CHUNK_SIZE = 1000;
+    
+    // Explicit column list read by position through ITEM_MAPPER
+    private static final String SELECT_ITEMS = "SELECT " + ItemRowMapper.COLUMNS + " FROM items";
+    private static final ItemRowMapper ITEM_MAPPER = ItemRowMapper.INSTANCE;
+    
+    private static final String INSERT_ITEM_SQL = "INSERT INTO items (name, quantity, location, category, description, min_stock_level, price, supplier_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPSERT_ITEM_SQL = "INSERT INTO items (id, name, quantity, location, category, description, min_stock_level, price, supplier_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE name = VALUES(name), quantity = VALUES(quantity), location = VALUES(location), category = VALUES(category), " +
+            "description = VALUES(description), min_stock_level = VALUES(min_stock_level), price = VALUES(price), supplier_id = VALUES(supplier_id)";
+    
+    // Latency metrics per operation, see ServiceMetrics
+    private static final OperationMetrics ADD_ITEM = ServiceMetrics.operation("InventoryService.addItem");
+    private static final OperationMetrics ADD_ITEMS = ServiceMetrics.operation("InventoryService.addItems");
+    private static final OperationMetrics UPSERT_ITEMS = ServiceMetrics.operation("InventoryService.upsertItems");
+    private static final OperationMetrics UPDATE_ITEM = ServiceMetrics.operation("InventoryService.updateItem");
+    private static final OperationMetrics UPDATE_ITEM_FIELDS = ServiceMetrics.operation("InventoryService.updateItemFields");
+    private static final OperationMetrics DELETE_ITEM = ServiceMetrics.operation("InventoryService.deleteItem");
+    private static final OperationMetrics GET_ALL_ITEMS = ServiceMetrics.operation("InventoryService.getAllItems");
+    private static final OperationMetrics GET_ITEMS_AFTER = ServiceMetrics.operation("InventoryService.getItemsAfter");
+    private static final OperationMetrics GET_ITEM_ID_AT_OFFSET = ServiceMetrics.operation("InventoryService.getItemIdAtOffset");
+    private static final OperationMetrics COUNT_ITEMS = ServiceMetrics.operation("InventoryService.countItems");
+    private static final OperationMetrics GET_ITEM_BY_ID = ServiceMetrics.operation("InventoryService.getItemById");
+    private static final OperationMetrics SEARCH_ITEMS_BY_NAME = ServiceMetrics.operation("InventoryService.searchItemsByName");
+    private static final OperationMetrics SEARCH_ITEMS = ServiceMetrics.operation("InventoryService.searchItems");
+    private static final OperationMetrics GET_ITEMS_BY_CATEGORY = ServiceMetrics.operation("InventoryService.getItemsByCategory");
+    private static final OperationMetrics GET_ITEMS_BY_LOCATION = ServiceMetrics.operation("InventoryService.getItemsByLocation");
+    private static final OperationMetrics GET_LOW_STOCK_ITEMS = ServiceMetrics.operation("InventoryService.getLowStockItems");
+    private static final OperationMetrics GET_ALL_CATEGORIES = ServiceMetrics.operation("InventoryService.getAllCategories");
+    
+    // Versioned updates re-applied on top of a concurrent change to other fields before giving up
+    private static final int MAX_MERGE_ATTEMPTS = 3;
+    
+    // Mutations are journaled locally while the database is unreachable
+    private static final OfflineJournal JOURNAL = OfflineJournal.getInstance();
+    
+    // Item cache shared by every InventoryService instance
+    private static final int CACHE_MAX_SIZE = 200_000;
+    private static final ItemCache CACHE = new ItemCache(CACHE_MAX_SIZE);
+    private static boolean cacheSubscribed;
+    
+    // Low stock alerts are evaluated as items are written, see StockAlertEngine
+    private static final StockAlertEngine ALERTS = StockAlertEngine.getInstance();
+    
+    /**
+     * Get the shared item cache, e.g. to read its hit/miss/eviction counters
+     * @return ItemCache instance
+     */
+    public static ItemCache getCache() {
+        return CACHE;
+    }
+    
+    /**
+     * Put a written item in the shared cache and evaluate its stock level for alerts
+     */
+    private static void itemWritten(Item item) {
+        CACHE.put(item);
+        ALERTS.itemChanged(item);
+    }
+    
+    private static void itemDeleted(int id) {
+        CACHE.remove(id);
+        ALERTS.itemRemoved(id);
+    }
+    
     /**
      * Adds a new item to the inventory
+     * While the database is unreachable the item is written to the offline journal
+     * instead and inserted (without an ID until then) once the database is back
      * @param item Item object to add
-     * @return true if successful, false otherwise
+     * @return true if successful or journaled, false otherwise
      */
     public boolean addItem(Item item) {
-        String sql = "INSERT INTO items (name, quantity, location, category, description, min_stock_level, price, supplier_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        long start = ADD_ITEM.start();
+        if (JOURNAL.isActive()) {
+            ADD_ITEM.finished(start, 0);
+            return JOURNAL.record(OfflineJournal.Operation.ADD_ITEM, item);
+        }
         
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, item.getName());
-            pstmt.setInt(2, item.getQuantity());
-            pstmt.setString(3, item.getLocation());
-            pstmt.setString(4, item.getCategory());
-            pstmt.setString(5, item.getDescription());
-            pstmt.setInt(6, item.getMinStockLevel());
-            pstmt.setDouble(7, item.getPrice());
-            pstmt.setInt(8, item.getSupplierId());
+        try (Connection conn = DBConnection.getConnection()) {
             
-            int rowsAffected = pstmt.executeUpdate();
+            int rowsAffected = insertItemRow(conn, item);
+            DBConnection.recordWrite();
+            if (rowsAffected > 0 && item.getId() > 0) {
+                itemWritten(item);
+            }
+            ADD_ITEM.finished(start, rowsAffected);
             return rowsAffected > 0;
             
         } catch (SQLException e) {
+            ADD_ITEM.error(e);
             System.err.println("Error adding item: " + e.getMessage());
+            ADD_ITEM.finished(start, 0);
+            if (OfflineJournal.isConnectionFailure(e)) {
+                return JOURNAL.record(OfflineJournal.Operation.ADD_ITEM, item);
+            }
             return false;
         }
     }
     
     /**
-     * Updates an existing item in the inventory
-     * @param item Item object with updated information
-     * @return true if successful, false otherwise
+     * Insert one item on a given connection and set its generated ID
+     * Shared with the offline journal replay
+     * @return Number of rows inserted
      */
-    public boolean updateItem(Item item) {
-        String sql = "UPDATE items SET name = ?, quantity = ?, location = ?, category = ?, description = ?, min_stock_level = ?, price = ?, supplier_id = ? WHERE id = ?";
+    static int insertItemRow(Connection conn, Item item) throws SQLException {
+        String sql = "INSERT INTO items (name, quantity, location, category, description, min_stock_level, price, supplier_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            bindItemColumns(pstmt, 1, item);
+            
+            int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        item.setId(keys.getInt(1));
+                    }
+                }
+            }
+            return rowsAffected;
+        }
+    }
+    
+    /**
+     * Adds many items using JDBC batching in chunked transactions
+     * Generated IDs are set on the items and reported in the results
+     * @param items Items to add
+     * @return One result per item, in submission order
+     */
+    public List<ItemWriteResult> addItems(Collection<Item> items) {
+        return writeItems(new ArrayList<>(items), false);
+    }
+    
+    /**
+     * Inserts or updates many items using JDBC batching in chunked transactions
+     * Items with an ID are inserted with that ID or, if it exists, overwritten;
+     * items without an ID (0) are inserted and receive a generated ID
+     * @param items Items to write
+     * @return One result per item, in submission order
+     */
+    public List<ItemWriteResult> upsertItems(Collection<Item> items) {
+        return writeItems(new ArrayList<>(items), true);
+    }
+    
+    /**
+     * Writes items chunk by chunk, committing each chunk separately
+     * A chunk that fails as a whole is rolled back and retried row by row so
+     * only the offending rows are reported as failed
+     */
+    private List<ItemWriteResult> writeItems(List<Item> items, boolean upsert) {
+        OperationMetrics metrics = upsert ? UPSERT_ITEMS : ADD_ITEMS;
+        long startNanos = metrics.start();
+        ItemWriteResult[] results = new ItemWriteResult[items.size()];
         
         try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement insertStmt = conn.prepareStatement(INSERT_ITEM_SQL, Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement upsertStmt = upsert ? conn.prepareStatement(UPSERT_ITEM_SQL) : null) {
             
-            pstmt.setString(1, item.getName());
-            pstmt.setInt(2, item.getQuantity());
-            pstmt.setString(3, item.getLocation());
-            pstmt.setString(4, item.getCategory());
-            pstmt.setString(5, item.getDescription());
-            pstmt.setInt(6, item.getMinStockLevel());
-            pstmt.setDouble(7, item.getPrice());
-            pstmt.setInt(8, item.getSupplierId());
-            pstmt.setInt(9, item.getId());
+            conn.setAutoCommit(false);
+            for (int start = 0; start < items.size(); start += BATCH_CHUNK_SIZE) {
+                int end = Math.min(start + BATCH_CHUNK_SIZE, items.size());
+                int[] originalIds = new int[end - start];
+                for (int i = start; i < end; i++) {
+                    originalIds[i - start] = items.get(i).getId();
+                }
+                try {
+                    writeChunk(insertStmt, upsertStmt, items, start, end, results);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    // The insert batch may have succeeded before the rollback; its generated IDs
+                    // and results are gone, and a stale ID would turn the retry into an upsert
+                    for (int i = start; i < end; i++) {
+                        items.get(i).setId(originalIds[i - start]);
+                        results[i] = null;
+                    }
+                    insertStmt.clearBatch();
+                    if (upsertStmt != null) {
+                        upsertStmt.clearBatch();
+                    }
+                    writeRowByRow(conn, insertStmt, upsertStmt, items, start, end, results);
+                }
+            }
             
-            int rowsAffected = pstmt.executeUpdate();
+        } catch (SQLException e) {
+            metrics.error(e);
+            System.err.println("Error writing item batch: " + e.getMessage());
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null) {
+                    results[i] = new ItemWriteResult(i, ItemWriteResult.Status.FAILED, 0, e.getMessage());
+                }
+            }
+        }
+        DBConnection.recordWrite();
+        
+        for (ItemWriteResult result : results) {
+            if (result.isSuccess()) {
+                itemWritten(items.get(result.getIndex()));
+            }
+        }
+        metrics.finished(startNanos, results.length);
+        return Arrays.asList(results);
+    }
+    
+    /**
+     * Sends one chunk as (at most) two batches: plain inserts and upserts
+     */
+    private void writeChunk(PreparedStatement insertStmt, PreparedStatement upsertStmt, List<Item> items,
+                            int start, int end, ItemWriteResult[] results) throws SQLException {
+        List<Integer> inserted = new ArrayList<>();
+        List<Integer> upserted = new ArrayList<>();
+        
+        for (int i = start; i < end; i++) {
+            Item item = items.get(i);
+            if (upsertStmt != null && item.getId() > 0) {
+                upsertStmt.setInt(1, item.getId());
+                bindItemColumns(upsertStmt, 2, item);
+                upsertStmt.addBatch();
+                upserted.add(i);
+            } else {
+                bindItemColumns(insertStmt, 1, item);
+                insertStmt.addBatch();
+                inserted.add(i);
+            }
+        }
+        
+        if (!inserted.isEmpty()) {
+            insertStmt.executeBatch();
+            try (ResultSet keys = insertStmt.getGeneratedKeys()) {
+                for (int index : inserted) {
+                    int id = keys.next() ? keys.getInt(1) : 0;
+                    items.get(index).setId(id);
+                    results[index] = new ItemWriteResult(index, ItemWriteResult.Status.INSERTED, id, null);
+                }
+            }
+        }
+        if (!upserted.isEmpty()) {
+            upsertStmt.executeBatch();
+            for (int index : upserted) {
+                results[index] = new ItemWriteResult(index, ItemWriteResult.Status.UPSERTED, items.get(index).getId(), null);
+            }
+        }
+    }
+    
+    /**
+     * Fallback for a failed chunk: write each row in its own transaction
+     */
+    private void writeRowByRow(Connection conn, PreparedStatement insertStmt, PreparedStatement upsertStmt,
+                               List<Item> items, int start, int end, ItemWriteResult[] results) throws SQLException {
+        for (int i = start; i < end; i++) {
+            Item item = items.get(i);
+            try {
+                if (upsertStmt != null && item.getId() > 0) {
+                    upsertStmt.setInt(1, item.getId());
+                    bindItemColumns(upsertStmt, 2, item);
+                    upsertStmt.executeUpdate();
+                    conn.commit();
+                    results[i] = new ItemWriteResult(i, ItemWriteResult.Status.UPSERTED, item.getId(), null);
+                } else {
+                    bindItemColumns(insertStmt, 1, item);
+                    insertStmt.executeUpdate();
+                    int id = 0;
+                    try (ResultSet keys = insertStmt.getGeneratedKeys()) {
+                        if (keys.next()) {
+                            id = keys.getInt(1);
+                        }
+                    }
+                    conn.commit();
+                    item.setId(id);
+                    results[i] = new ItemWriteResult(i, ItemWriteResult.Status.INSERTED, id, null);
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                results[i] = new ItemWriteResult(i, ItemWriteResult.Status.FAILED, 0, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Bind the eight writable item columns starting at a parameter index
+     * A supplier ID of 0 is written as NULL so it does not violate the supplier foreign key
+     */
+    private static void bindItemColumns(PreparedStatement pstmt, int first, Item item) throws SQLException {
+        pstmt.setString(first, item.getName());
+        pstmt.setInt(first + 1, item.getQuantity());
+        pstmt.setString(first + 2, item.getLocation());
+        pstmt.setString(first + 3, item.getCategory());
+        pstmt.setString(first + 4, item.getDescription());
+        pstmt.setInt(first + 5, item.getMinStockLevel());
+        pstmt.setDouble(first + 6, item.getPrice());
+        if (item.getSupplierId() > 0) {
+            pstmt.setInt(first + 7, item.getSupplierId());
+        } else {
+            pstmt.setNull(first + 7, Types.INTEGER);
+        }
+    }
+    
+    /**
+     * Updates an existing item in the inventory, overwriting every column
+     * Last writer wins; editors should use updateItemFields() so concurrent edits are detected
+     * While the database is unreachable the update is written to the offline journal
+     * @param item Item object with updated information
+     * @return true if successful or journaled, false otherwise
+     */
+    public boolean updateItem(Item item) {
+        long start = UPDATE_ITEM.start();
+        if (JOURNAL.isActive()) {
+            UPDATE_ITEM.finished(start, 0);
+            return journalUpdate(item);
+        }
+        
+        try (Connection conn = DBConnection.getConnection()) {
+            
+            int rowsAffected = updateItemRow(conn, item);
+            DBConnection.recordWrite();
+            if (rowsAffected > 0) {
+                itemWritten(item);
+            }
+            UPDATE_ITEM.finished(start, rowsAffected);
             return rowsAffected > 0;
             
         } catch (SQLException e) {
+            UPDATE_ITEM.error(e);
             System.err.println("Error updating item: " + e.getMessage());
+            UPDATE_ITEM.finished(start, 0);
+            return OfflineJournal.isConnectionFailure(e) && journalUpdate(item);
+        }
+    }
+    
+    /**
+     * Journal a full-row update against the version this station last saw of the row,
+     * so the replay does not overwrite changes other stations made in the meantime
+     */
+    private boolean journalUpdate(Item item) {
+        Item cached = CACHE.get(item.getId());
+        int baseVersion = cached != null ? cached.getVersion() : OfflineJournal.NO_VERSION;
+        if (!JOURNAL.record(OfflineJournal.Operation.UPDATE_ITEM, item, baseVersion)) {
             return false;
         }
+        // Show the pending change locally until the journal is replayed, at the version
+        // the replay will leave the row at so a further offline edit is based on it
+        Item pending = new Item(item);
+        if (baseVersion != OfflineJournal.NO_VERSION) {
+            pending.setVersion(baseVersion + 1);
+        }
+        itemWritten(pending);
+        return true;
+    }
+    
+    /**
+     * Update one item on a given connection
+     * Shared with the offline journal replay
+     * @return Number of rows updated
+     */
+    static int updateItemRow(Connection conn, Item item) throws SQLException {
+        return updateItemRow(conn, item, OfflineJournal.NO_VERSION);
+    }
+    
+    /**
+     * Update one item on a given connection if it is still at a given version
+     * Used by the offline journal replay
+     * @param baseVersion Version the change was made on, or OfflineJournal.NO_VERSION to update unconditionally
+     * @return Number of rows updated, 0 if the row is gone or at another version
+     */
+    static int updateItemRow(Connection conn, Item item, int baseVersion) throws SQLException {
+        String sql = "UPDATE items SET name = ?, quantity = ?, location = ?, category = ?, description = ?, min_stock_level = ?, price = ?, supplier_id = ? WHERE id = ?";
+        if (baseVersion != OfflineJournal.NO_VERSION) {
+            sql += " AND version = ?";
+        }
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bindItemColumns(pstmt, 1, item);
+            pstmt.setInt(9, item.getId());
+            if (baseVersion != OfflineJournal.NO_VERSION) {
+                pstmt.setInt(10, baseVersion);
+            }
+            return pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Updates only the fields an operator changed, provided nobody changed them in the meantime
+     * The UPDATE sets just the changed columns and is conditional on the version the
+     * original was read at (WHERE id = ? AND version = ?), so no row lock is held while
+     * the operator edits. If the row moved on but the other writer only touched other
+     * fields, e.g. a scan changed the quantity while the name was edited, the change is
+     * re-applied on the current version; if it touched the same fields the result is
+     * CONFLICT with the current row.
+     * @param original Item as read before editing, including its version
+     * @param edited Same item with the operator's changes
+     * @return Outcome; the item is the row as written, or the current row on conflict
+     */
+    public ItemUpdateResult updateItemFields(Item original, Item edited) {
+        long start = UPDATE_ITEM_FIELDS.start();
+        List<ItemField> changed = changedFields(original, edited);
+        if (changed.isEmpty()) {
+            UPDATE_ITEM_FIELDS.finished(start, 0);
+            return new ItemUpdateResult(ItemUpdateResult.Status.UNCHANGED, original);
+        }
+        
+        if (JOURNAL.isActive()) {
+            UPDATE_ITEM_FIELDS.finished(start, 0);
+            return journalFields(original, edited, changed);
+        }
+        
+        try (Connection conn = DBConnection.getConnection()) {
+            
+            ItemUpdateResult result = writeItemFields(conn, original, edited, changed);
+            UPDATE_ITEM_FIELDS.finished(start, result.getStatus() == ItemUpdateResult.Status.UPDATED ? 1 : 0);
+            return result;
+            
+        } catch (SQLException e) {
+            UPDATE_ITEM_FIELDS.error(e);
+            System.err.println("Error updating item: " + e.getMessage());
+            UPDATE_ITEM_FIELDS.finished(start, 0);
+            if (OfflineJournal.isConnectionFailure(e)) {
+                return journalFields(original, edited, changed);
+            }
+            return new ItemUpdateResult(ItemUpdateResult.Status.FAILED, null);
+        }
+    }
+    
+    /**
+     * Apply a journaled field-level edit on a given connection, merging it like updateItemFields()
+     * Used by the offline journal replay
+     * @return Outcome; CONFLICT if the same fields were changed on the database meanwhile
+     */
+    static ItemUpdateResult replayItemFields(Connection conn, Item original, Item edited) throws SQLException {
+        List<ItemField> changed = changedFields(original, edited);
+        if (changed.isEmpty()) {
+            return new ItemUpdateResult(ItemUpdateResult.Status.UNCHANGED, original);
+        }
+        return writeItemFields(conn, original, edited, changed);
+    }
+    
+    private static List<ItemField> changedFields(Item original, Item edited) {
+        List<ItemField> changed = new ArrayList<>();
+        for (ItemField field : ItemField.values()) {
+            if (field.differs(original, edited)) {
+                changed.add(field);
+            }
+        }
+        return changed;
+    }
+    
+    /**
+     * Conditional update of the changed fields, re-applied on the current version while
+     * the other writers only touched other fields
+     */
+    private static ItemUpdateResult writeItemFields(Connection conn, Item original, Item edited,
+                                                    List<ItemField> changed) throws SQLException {
+        StringBuilder sql = new StringBuilder("UPDATE items SET ");
+        for (int i = 0; i < changed.size(); i++) {
+            sql.append(i > 0 ? ", " : "").append(changed.get(i).column).append(" = ?");
+        }
+        sql.append(" WHERE id = ? AND version = ?");
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            
+            Item base = original;
+            for (int attempt = 0; attempt < MAX_MERGE_ATTEMPTS; attempt++) {
+                int index = 1;
+                for (ItemField field : changed) {
+                    field.bind(pstmt, index++, edited);
+                }
+                pstmt.setInt(index++, original.getId());
+                pstmt.setInt(index, base.getVersion());
+                
+                if (pstmt.executeUpdate() > 0) {
+                    DBConnection.recordWrite();
+                    Item written = apply(base, edited, changed);
+                    written.setVersion(base.getVersion() + 1);
+                    itemWritten(written);
+                    return new ItemUpdateResult(ItemUpdateResult.Status.UPDATED, written);
+                }
+                
+                // Someone else wrote first: see what they changed, on the primary. Inside a
+                // transaction (the journal replay) a plain read would return its snapshot, so
+                // lock the row instead and the next attempt cannot lose to another writer.
+                Item current = readItem(conn, original.getId(), !conn.getAutoCommit());
+                if (current == null) {
+                    itemDeleted(original.getId());
+                    return new ItemUpdateResult(ItemUpdateResult.Status.NOT_FOUND, null);
+                }
+                itemWritten(current);
+                for (ItemField field : changed) {
+                    // Both sides changed this field, to different values
+                    if (field.differs(original, current) && field.differs(current, edited)) {
+                        return new ItemUpdateResult(ItemUpdateResult.Status.CONFLICT, current);
+                    }
+                }
+                base = current;
+            }
+            
+            // The row keeps moving, e.g. a hot SKU being scanned; let the operator retry
+            return new ItemUpdateResult(ItemUpdateResult.Status.CONFLICT, base);
+        }
+    }
+    
+    /**
+     * Journal the changed fields together with the item as read before editing, so the
+     * replay merges them into the row as it is then instead of overwriting the whole row
+     */
+    private ItemUpdateResult journalFields(Item original, Item edited, List<ItemField> changed) {
+        if (!JOURNAL.recordFields(original, edited)) {
+            return new ItemUpdateResult(ItemUpdateResult.Status.FAILED, null);
+        }
+        // Show the pending change locally until the journal is replayed
+        Item merged = apply(original, edited, changed);
+        merged.setVersion(original.getVersion() + 1);
+        itemWritten(merged);
+        return new ItemUpdateResult(ItemUpdateResult.Status.JOURNALED, merged);
+    }
+    
+    /**
+     * Copy of base with the changed fields taken from edited
+     */
+    private static Item apply(Item base, Item edited, List<ItemField> changed) {
+        Item merged = new Item(base);
+        for (ItemField field : changed) {
+            field.copy(edited, merged);
+        }
+        return merged;
+    }
+    
+    private static Item readItem(Connection conn, int id, boolean lock) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(SELECT_ITEMS + " WHERE id = ?" + (lock ? " FOR UPDATE" : ""))) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? ITEM_MAPPER.map(rs) : null;
+            }
+        }
+    }
+    
+    /**
+     * Editable item columns, for field-level updates
+     */
+    private enum ItemField {
+        NAME("name"),
+        QUANTITY("quantity"),
+        LOCATION("location"),
+        CATEGORY("category"),
+        DESCRIPTION("description"),
+        MIN_STOCK_LEVEL("min_stock_level"),
+        PRICE("price"),
+        SUPPLIER_ID("supplier_id");
+        
+        private final String column;
+        
+        ItemField(String column) {
+            this.column = column;
+        }
+        
+        boolean differs(Item a, Item b) {
+            switch (this) {
+                case NAME: return !Objects.equals(a.getName(), b.getName());
+                case QUANTITY: return a.getQuantity() != b.getQuantity();
+                case LOCATION: return !Objects.equals(a.getLocation(), b.getLocation());
+                case CATEGORY: return !Objects.equals(a.getCategory(), b.getCategory());
+                case DESCRIPTION: return !Objects.equals(a.getDescription(), b.getDescription());
+                case MIN_STOCK_LEVEL: return a.getMinStockLevel() != b.getMinStockLevel();
+                case PRICE: return Double.compare(a.getPrice(), b.getPrice()) != 0;
+                default: return a.getSupplierId() != b.getSupplierId();
+            }
+        }
+        
+        void bind(PreparedStatement pstmt, int index, Item item) throws SQLException {
+            switch (this) {
+                case NAME: pstmt.setString(index, item.getName()); break;
+                case QUANTITY: pstmt.setInt(index, item.getQuantity()); break;
+                case LOCATION: pstmt.setString(index, item.getLocation()); break;
+                case CATEGORY: pstmt.setString(index, item.getCategory()); break;
+                case DESCRIPTION: pstmt.setString(index, item.getDescription()); break;
+                case MIN_STOCK_LEVEL: pstmt.setInt(index, item.getMinStockLevel()); break;
+                case PRICE: pstmt.setDouble(index, item.getPrice()); break;
+                default:
+                    if (item.getSupplierId() > 0) {
+                        pstmt.setInt(index, item.getSupplierId());
+                    } else {
+                        pstmt.setNull(index, Types.INTEGER);
+                    }
+            }
+        }
+        
+        void copy(Item from, Item to) {
+            switch (this) {
+                case NAME: to.setName(from.getName()); break;
+                case QUANTITY: to.setQuantity(from.getQuantity()); break;
+                case LOCATION: to.setLocation(from.getLocation()); break;
+                case CATEGORY: to.setCategory(from.getCategory()); break;
+                case DESCRIPTION: to.setDescription(from.getDescription()); break;
+                case MIN_STOCK_LEVEL: to.setMinStockLevel(from.getMinStockLevel()); break;
+                case PRICE: to.setPrice(from.getPrice()); break;
+                default: to.setSupplierId(from.getSupplierId());
+            }
+        }
     }
     
     /**
      * Deletes an item from the inventory
+     * Its stock movements are deleted with it (ON DELETE CASCADE on stock_movements)
+     * While the database is unreachable the delete is written to the offline journal
      * @param id ID of the item to delete
-     * @return true if successful, false otherwise
+     * @return true if successful or journaled, false otherwise
      */
     public boolean deleteItem(int id) {
-        String sql = "DELETE FROM items WHERE id = ?";
+        long start = DELETE_ITEM.start();
+        if (JOURNAL.isActive()) {
+            DELETE_ITEM.finished(start, 0);
+            return journalDelete(id);
+        }
         
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
+        try (Connection conn = DBConnection.getConnection()) {
             
-            int rowsAffected = pstmt.executeUpdate();
+            int rowsAffected = deleteItemRow(conn, id);
+            DBConnection.recordWrite();
+            itemDeleted(id);
+            DELETE_ITEM.finished(start, rowsAffected);
             return rowsAffected > 0;
             
         } catch (SQLException e) {
+            DELETE_ITEM.error(e);
             System.err.println("Error deleting item: " + e.getMessage());
+            DELETE_ITEM.finished(start, 0);
+            return OfflineJournal.isConnectionFailure(e) && journalDelete(id);
+        }
+    }
+    
+    private boolean journalDelete(int id) {
+        Item item = new Item();
+        item.setId(id);
+        if (!JOURNAL.record(OfflineJournal.Operation.DELETE_ITEM, item)) {
             return false;
         }
+        itemDeleted(id);
+        return true;
+    }
+    
+    /**
+     * Delete one item on a given connection
+     * Shared with the offline journal replay
+     * @return Number of rows deleted
+     */
+    static int deleteItemRow(Connection conn, int id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM items WHERE id = ?")) {
+            pstmt.setInt(1, id);
+            return pstmt.executeUpdate();
+        }
     }
     
     /**
@@ -98,44 +684,255 @@ public class InventoryService {
      * @return List of all items
      */
     public List<Item> getAllItems() {
+        long start = GET_ALL_ITEMS.start();
         List<Item> items = new ArrayList<>();
-        String sql = "SELECT * FROM items ORDER BY id";
+        String sql = SELECT_ITEMS + " ORDER BY id";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
-                Item item = new Item(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getInt("quantity"),
-                    rs.getString("location"),
-                    rs.getString("category"),
-                    rs.getString("description"),
-                    rs.getInt("min_stock_level"),
-                    rs.getDouble("price"),
-                    rs.getInt("supplier_id")
-                );
-                item.setCreatedDate(rs.getString("created_date"));
-                item.setUpdatedDate(rs.getString("updated_date"));
-                items.add(item);
+                items.add(ITEM_MAPPER.map(rs));
             }
             
         } catch (SQLException e) {
+            GET_ALL_ITEMS.error(e);
             System.err.println("Error retrieving items: " + e.getMessage());
         }
         
+        GET_ALL_ITEMS.finished(start, items.size());
+        return items;
+    }
+    
+    /**
+     * Streams every item in ID order to a consumer in constant memory
+     * @param consumer Receives each item as it is read
+     * @return Number of items streamed, or -1 if the query failed
+     */
+    public long streamItems(Consumer<Item> consumer) {
+        try (Stream<Item> items = streamItems()) {
+            long[] count = {0};
+            items.forEach(item -> {
+                consumer.accept(item);
+                count[0]++;
+            });
+            return count[0];
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage());
+            return -1;
+        }
+    }
+    
+    /**
+     * Opens a forward-only stream over every item in ID order
+     * Rows are read from the server as the stream is consumed, so memory use stays
+     * constant; the stream holds a database connection and must be closed
+     * (use try-with-resources)
+     * @return Stream of items; throws IllegalStateException from terminal operations if reading fails
+     */
+    public Stream<Item> streamItems() {
+        String sql = SELECT_ITEMS + " ORDER BY id";
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = DBConnection.getConnection();
+            pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(STREAMING_FETCH_SIZE);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            closeQuietly(rs, pstmt, conn, false);
+            System.err.println("Error streaming items: " + e.getMessage());
+            return Stream.empty();
+        }
+        
+        ItemCursor cursor = new ItemCursor(conn, pstmt, rs);
+        return StreamSupport.stream(cursor, false).onClose(cursor::close);
+    }
+    
+    /**
+     * Spliterator that reads one item per advance from an open result set
+     */
+    private static class ItemCursor extends Spliterators.AbstractSpliterator<Item> {
+        private final Connection conn;
+        private final PreparedStatement pstmt;
+        private final ResultSet rs;
+        private boolean exhausted;
+        
+        ItemCursor(Connection conn, PreparedStatement pstmt, ResultSet rs) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT);
+            this.conn = conn;
+            this.pstmt = pstmt;
+            this.rs = rs;
+        }
+        
+        @Override
+        public boolean tryAdvance(Consumer<? super Item> action) {
+            if (exhausted) {
+                return false;
+            }
+            try {
+                if (!rs.next()) {
+                    exhausted = true;
+                    return false;
+                }
+                action.accept(ITEM_MAPPER.map(rs));
+                return true;
+            } catch (SQLException e) {
+                exhausted = true;
+                throw new IllegalStateException("Error streaming items: " + e.getMessage(), e);
+            }
+        }
+        
+        void close() {
+            // A streaming result set closed early would otherwise drain every remaining row
+            closeQuietly(rs, pstmt, conn, !exhausted);
+        }
+    }
+    
+    /**
+     * Close JDBC resources, ignoring errors
+     * Shared with CsvExporter
+     * @param cancel true to cancel a still-running query before closing
+     */
+    static void closeQuietly(ResultSet rs, Statement stmt, Connection conn, boolean cancel) {
+        try {
+            if (cancel && stmt != null) {
+                stmt.cancel();
+            }
+        } catch (SQLException e) {
+            // Closing below still releases the connection
+        }
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+        } catch (SQLException e) {
+            // Ignored
+        }
+        try {
+            if (stmt != null) {
+                stmt.close();
+            }
+        } catch (SQLException e) {
+            // Ignored
+        }
+        try {
+            if (conn != null) {
+                conn.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error closing connection: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Retrieves one page of items using keyset pagination on the primary key
+     * @param lastId ID of the last item on the previous page (0 for the first page)
+     * @param limit Maximum number of items to return
+     * @return List of items with ID greater than lastId, ordered by ID
+     */
+    public List<Item> getItemsAfter(int lastId, int limit) {
+        long start = GET_ITEMS_AFTER.start();
+        List<Item> items = new ArrayList<>();
+        String sql = SELECT_ITEMS + " WHERE id > ? ORDER BY id LIMIT ?";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, lastId);
+            pstmt.setInt(2, limit);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(ITEM_MAPPER.map(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            GET_ITEMS_AFTER.error(e);
+            System.err.println("Error retrieving item page: " + e.getMessage());
+        }
+        
+        GET_ITEMS_AFTER.finished(start, items.size());
         return items;
     }
     
+    /**
+     * Get the ID of the item at a given position in ID order
+     * Only walks the primary key index, so it is cheap enough to locate a page boundary
+     * @param offset Zero-based position
+     * @return Item ID, or -1 if there is no item at that position
+     */
+    public int getItemIdAtOffset(int offset) {
+        long start = GET_ITEM_ID_AT_OFFSET.start();
+        String sql = "SELECT id FROM items ORDER BY id LIMIT 1 OFFSET ?";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, offset);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    int id = rs.getInt(1);
+                    GET_ITEM_ID_AT_OFFSET.finished(start, 1);
+                    return id;
+                }
+            }
+            
+        } catch (SQLException e) {
+            GET_ITEM_ID_AT_OFFSET.error(e);
+            System.err.println("Error locating item offset: " + e.getMessage());
+        }
+        
+        GET_ITEM_ID_AT_OFFSET.finished(start, 0);
+        return -1;
+    }
+    
+    /**
+     * Count all items in the inventory
+     * @return Number of items
+     */
+    public int countItems() {
+        long start = COUNT_ITEMS.start();
+        String sql = "SELECT COUNT(*) FROM items";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            if (rs.next()) {
+                int count = rs.getInt(1);
+                COUNT_ITEMS.finished(start, 1);
+                return count;
+            }
+            
+        } catch (SQLException e) {
+            COUNT_ITEMS.error(e);
+            System.err.println("Error counting items: " + e.getMessage());
+        }
+        
+        COUNT_ITEMS.finished(start, 0);
+        return 0;
+    }
+    
     /**
      * Retrieves an item by its ID
      * @param id Item ID
      * @return Item object or null if not found
      */
     public Item getItemById(int id) {
-        String sql = "SELECT * FROM items WHERE id = ?";
+        long start = GET_ITEM_BY_ID.start();
+        Item cached = CACHE.get(id);
+        if (cached != null) {
+            GET_ITEM_BY_ID.finished(start, 1);
+            return cached;
+        }
+        
+        String sql = SELECT_ITEMS + " WHERE id = ?";
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -144,27 +941,19 @@ public class InventoryService {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    Item item = new Item(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getInt("quantity"),
-                        rs.getString("location"),
-                        rs.getString("category"),
-                        rs.getString("description"),
-                        rs.getInt("min_stock_level"),
-                        rs.getDouble("price"),
-                        rs.getInt("supplier_id")
-                    );
-                    item.setCreatedDate(rs.getString("created_date"));
-                    item.setUpdatedDate(rs.getString("updated_date"));
+                    Item item = ITEM_MAPPER.map(rs);
+                    CACHE.put(item);
+                    GET_ITEM_BY_ID.finished(start, 1);
                     return item;
                 }
             }
             
         } catch (SQLException e) {
+            GET_ITEM_BY_ID.error(e);
             System.err.println("Error retrieving item by ID: " + e.getMessage());
         }
         
+        GET_ITEM_BY_ID.finished(start, 0);
         return null;
     }
     
@@ -174,37 +963,76 @@ public class InventoryService {
      * @return List of matching items
      */
     public List<Item> searchItemsByName(String searchTerm) {
+        long start = SEARCH_ITEMS_BY_NAME.start();
+        List<Item> cached = CACHE.searchByName(searchTerm);
+        if (cached != null) {
+            SEARCH_ITEMS_BY_NAME.finished(start, cached.size());
+            return cached;
+        }
+        
         List<Item> items = new ArrayList<>();
-        String sql = "SELECT * FROM items WHERE name LIKE ? ORDER BY name";
+        String sql = SELECT_ITEMS + " WHERE name LIKE ? ORDER BY name";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, "%" + searchTerm + "%");
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Item item = new Item(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getInt("quantity"),
-                        rs.getString("location"),
-                        rs.getString("category"),
-                        rs.getString("description"),
-                        rs.getInt("min_stock_level"),
-                        rs.getDouble("price"),
-                        rs.getInt("supplier_id")
-                    );
-                    item.setCreatedDate(rs.getString("created_date"));
-                    item.setUpdatedDate(rs.getString("updated_date"));
-                    items.add(item);
+                    items.add(ITEM_MAPPER.map(rs));
                 }
             }
             
         } catch (SQLException e) {
+            SEARCH_ITEMS_BY_NAME.error(e);
             System.err.println("Error searching items: " + e.getMessage());
         }
         
+        SEARCH_ITEMS_BY_NAME.finished(start, items.size());
+        return items;
+    }
+    
+    /**
+     * Ranked search over item name, category and location, for search-as-you-type
+     * Served from the in-memory search index once the cache is warm, so it is cheap
+     * enough to call on every keystroke
+     * @param query Search text; every whitespace-separated term must match
+     * @param limit Maximum number of items returned
+     * @return Matching items, best match first
+     */
+    public List<Item> searchItems(String query, int limit) {
+        long start = SEARCH_ITEMS.start();
+        List<Item> cached = CACHE.search(query, limit);
+        if (cached != null) {
+            SEARCH_ITEMS.finished(start, cached.size());
+            return cached;
+        }
+        
+        List<Item> items = new ArrayList<>();
+        String sql = SELECT_ITEMS + " WHERE name LIKE ? OR category LIKE ? OR location LIKE ? ORDER BY name LIMIT ?";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            String pattern = "%" + query.trim() + "%";
+            pstmt.setString(1, pattern);
+            pstmt.setString(2, pattern);
+            pstmt.setString(3, pattern);
+            pstmt.setInt(4, limit);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(ITEM_MAPPER.map(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            SEARCH_ITEMS.error(e);
+            System.err.println("Error searching items: " + e.getMessage());
+        }
+        
+        SEARCH_ITEMS.finished(start, items.size());
         return items;
     }
     
@@ -214,37 +1042,69 @@ public class InventoryService {
      * @return List of items in the category
      */
     public List<Item> getItemsByCategory(String category) {
+        long start = GET_ITEMS_BY_CATEGORY.start();
+        List<Item> cached = CACHE.getByCategory(category);
+        if (cached != null) {
+            GET_ITEMS_BY_CATEGORY.finished(start, cached.size());
+            return cached;
+        }
+        
         List<Item> items = new ArrayList<>();
-        String sql = "SELECT * FROM items WHERE category = ? ORDER BY name";
+        String sql = SELECT_ITEMS + " WHERE category = ? ORDER BY name";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, category);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Item item = new Item(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getInt("quantity"),
-                        rs.getString("location"),
-                        rs.getString("category"),
-                        rs.getString("description"),
-                        rs.getInt("min_stock_level"),
-                        rs.getDouble("price"),
-                        rs.getInt("supplier_id")
-                    );
-                    item.setCreatedDate(rs.getString("created_date"));
-                    item.setUpdatedDate(rs.getString("updated_date"));
-                    items.add(item);
+                    items.add(ITEM_MAPPER.map(rs));
                 }
             }
             
         } catch (SQLException e) {
+            GET_ITEMS_BY_CATEGORY.error(e);
             System.err.println("Error getting items by category: " + e.getMessage());
         }
         
+        GET_ITEMS_BY_CATEGORY.finished(start, items.size());
+        return items;
+    }
+    
+    /**
+     * Get items stored at a location
+     * @param location Location code
+     * @return List of items at the location
+     */
+    public List<Item> getItemsByLocation(String location) {
+        long start = GET_ITEMS_BY_LOCATION.start();
+        List<Item> cached = CACHE.getByLocation(location);
+        if (cached != null) {
+            GET_ITEMS_BY_LOCATION.finished(start, cached.size());
+            return cached;
+        }
+        
+        List<Item> items = new ArrayList<>();
+        String sql = SELECT_ITEMS + " WHERE location = ? ORDER BY name";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, location);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(ITEM_MAPPER.map(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            GET_ITEMS_BY_LOCATION.error(e);
+            System.err.println("Error getting items by location: " + e.getMessage());
+        }
+        
+        GET_ITEMS_BY_LOCATION.finished(start, items.size());
         return items;
     }
     
@@ -253,34 +1113,30 @@ public class InventoryService {
      * @return List of items with low stock
      */
     public List<Item> getLowStockItems() {
+        long start = GET_LOW_STOCK_ITEMS.start();
+        List<Item> cached = CACHE.getLowStock();
+        if (cached != null) {
+            GET_LOW_STOCK_ITEMS.finished(start, cached.size());
+            return cached;
+        }
+        
         List<Item> items = new ArrayList<>();
-        String sql = "SELECT * FROM items WHERE quantity <= min_stock_level ORDER BY quantity ASC";
+        String sql = SELECT_ITEMS + " WHERE quantity <= min_stock_level ORDER BY quantity ASC";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
-                Item item = new Item(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getInt("quantity"),
-                    rs.getString("location"),
-                    rs.getString("category"),
-                    rs.getString("description"),
-                    rs.getInt("min_stock_level"),
-                    rs.getDouble("price"),
-                    rs.getInt("supplier_id")
-                );
-                item.setCreatedDate(rs.getString("created_date"));
-                item.setUpdatedDate(rs.getString("updated_date"));
-                items.add(item);
+                items.add(ITEM_MAPPER.map(rs));
             }
             
         } catch (SQLException e) {
+            GET_LOW_STOCK_ITEMS.error(e);
             System.err.println("Error retrieving low stock items: " + e.getMessage());
         }
         
+        GET_LOW_STOCK_ITEMS.finished(start, items.size());
         return items;
     }
     
@@ -289,10 +1145,11 @@ public class InventoryService {
      * @return List of category names
      */
     public List<String> getAllCategories() {
+        long start = GET_ALL_CATEGORIES.start();
         List<String> categories = new ArrayList<>();
         String sql = "SELECT DISTINCT category FROM items WHERE category IS NOT NULL ORDER BY category";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
@@ -301,10 +1158,80 @@ public class InventoryService {
             }
             
         } catch (SQLException e) {
+            GET_ALL_CATEGORIES.error(e);
             System.err.println("Error retrieving categories: " + e.getMessage());
         }
         
+        GET_ALL_CATEGORIES.finished(start, categories.size());
         return categories;
     }
+    
+    /**
+     * Load every item into the shared cache and keep it fresh from the item change feed
+     * Intended to run once in the background at startup
+     */
+    public void warmCache() {
+        // Subscribe first so changes made while the table is streaming are applied too
+        subscribeCacheToChangeFeed();
+        try (Stream<Item> items = streamItems()) {
+            CACHE.loadAll(items::iterator);
+        } catch (IllegalStateException e) {
+            System.err.println("Error warming item cache: " + e.getMessage());
+            CACHE.clear();
+        }
+    }
+    
+    /**
+     * Re-read items from the database into the shared cache and the stock alert engine
+     * Used after writes made outside this class, e.g. stock movement deltas
+     * @param ids IDs of the items to refresh
+     */
+    void refreshCachedItems(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder(SELECT_ITEMS + " WHERE id IN (");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            
+            int index = 1;
+            for (int id : ids) {
+                pstmt.setInt(index++, id);
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    itemWritten(ITEM_MAPPER.map(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            // The change feed will still bring the cache up to date
+            System.err.println("Error refreshing cached items: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Apply inserts, updates and deletes from other stations to the shared cache
+     */
+    private static synchronized void subscribeCacheToChangeFeed() {
+        if (cacheSubscribed) {
+            return;
+        }
+        cacheSubscribed = true;
+        ItemChangeFeed.getInstance().addListener(changes -> {
+            for (ItemChange change : changes) {
+                if (change.getType() == ItemChange.Type.DELETE) {
+                    CACHE.remove(change.getItemId());
+                } else {
+                    CACHE.put(change.getItem());
+                }
+            }
+        });
+    }
 }
-
@@ -0,0 +1,335 @@
+package service;
+
+import model.Item;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Bounded in-memory cache of items keyed by ID
+ * Keeps least-recently-used order for eviction and secondary indexes by
+ * category and location. Items are copied on the way in and out so callers
+ * can never mutate cached state.
+ *
+ * Lookups by ID are always served when present. Category, location and name
+ * queries (the latter through a trigram SearchIndex over name, category and
+ * location) are only answered when the cache is complete, i.e. it was filled
+ * from the whole table and nothing has been evicted since; otherwise they
+ * return null and the caller goes to the database.
+ */
+public class ItemCache {
+    private final int maxSize;
+    private final LinkedHashMap<Integer, Item> items;
+    private final Map<String, Set<Integer>> byCategory = new HashMap<>();
+    private final Map<String, Set<Integer>> byLocation = new HashMap<>();
+    private final SearchIndex searchIndex = new SearchIndex();
+    private boolean complete;
+    // IDs written or removed while loadAll() runs; the bulk load must not overwrite them with older data
+    private Set<Integer> touchedDuringLoad;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor
+     * @param maxSize Maximum number of items held before the least recently used is evicted
+     */
+    public ItemCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.items = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Item> eldest) {
+                if (size() <= ItemCache.this.maxSize) {
+                    return false;
+                }
+                unindex(eldest.getValue());
+                evictions.increment();
+                complete = false;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get a cached item
+     * @param id Item ID
+     * @return Copy of the cached item, or null on a miss
+     */
+    public synchronized Item get(int id) {
+        Item item = items.get(id);
+        if (item == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return new Item(item);
+    }
+
+    /**
+     * Add or replace an item
+     * @param item Item to cache (a copy is stored)
+     */
+    public synchronized void put(Item item) {
+        if (touchedDuringLoad != null) {
+            touchedDuringLoad.add(item.getId());
+        }
+        store(item);
+    }
+
+    private void store(Item item) {
+        Item copy = new Item(item);
+        Item previous = items.remove(copy.getId());
+        if (previous != null) {
+            unindex(previous);
+        }
+        items.put(copy.getId(), copy);
+        index(copy);
+    }
+
+    /**
+     * Remove an item, e.g. after it was deleted
+     * @param id Item ID
+     */
+    public synchronized void remove(int id) {
+        if (touchedDuringLoad != null) {
+            touchedDuringLoad.add(id);
+        }
+        Item previous = items.remove(id);
+        if (previous != null) {
+            unindex(previous);
+        }
+    }
+
+    /**
+     * Replace the whole cache contents with every item in the table
+     * The lock is only held per item, so lookups by ID keep being served while loading.
+     * Items put or removed by other threads during the load are newer than the
+     * snapshot being loaded and are left alone.
+     * @param all Every item; the cache is marked complete if they all fit
+     */
+    public void loadAll(Iterable<Item> all) {
+        long evictionsBefore;
+        synchronized (this) {
+            clear();
+            touchedDuringLoad = new HashSet<>();
+            evictionsBefore = evictions.sum();
+        }
+        try {
+            for (Item item : all) {
+                synchronized (this) {
+                    if (!touchedDuringLoad.contains(item.getId())) {
+                        store(item);
+                    }
+                }
+            }
+            synchronized (this) {
+                complete = evictions.sum() == evictionsBefore;
+            }
+        } finally {
+            synchronized (this) {
+                touchedDuringLoad = null;
+            }
+        }
+    }
+
+    /**
+     * Drop every cached item
+     */
+    public synchronized void clear() {
+        items.clear();
+        byCategory.clear();
+        byLocation.clear();
+        searchIndex.clear();
+        complete = false;
+    }
+
+    /**
+     * Check if the cache holds every item in the table
+     * @return true if category, location and name queries can be answered from memory
+     */
+    public synchronized boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Get the items in a category, ordered by name
+     * @param category Category name
+     * @return Copies of the matching items, or null if the cache is not complete
+     */
+    public synchronized List<Item> getByCategory(String category) {
+        return lookup(byCategory.get(category));
+    }
+
+    /**
+     * Get the items stored at a location, ordered by name
+     * @param location Location code
+     * @return Copies of the matching items, or null if the cache is not complete
+     */
+    public synchronized List<Item> getByLocation(String location) {
+        return lookup(byLocation.get(location));
+    }
+
+    /**
+     * Case-insensitive substring match on item names, ordered by name
+     * @param term Search term
+     * @return Copies of the matching items, or null if the cache is not complete
+     */
+    public synchronized List<Item> searchByName(String term) {
+        String needle = term.toLowerCase(Locale.ROOT);
+        Predicate<Item> nameContains = item -> item.getName() != null && item.getName().toLowerCase(Locale.ROOT).contains(needle);
+        Comparator<Item> byName = Comparator.comparing(Item::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+        if (needle.trim().length() < SearchIndex.GRAM) {
+            return scan(nameContains, byName);
+        }
+        List<Item> result = search(term, true, Integer.MAX_VALUE);
+        if (result != null) {
+            result.removeIf(nameContains.negate());
+            result.sort(byName);
+        }
+        return result;
+    }
+
+    /**
+     * Ranked search over item name, category and location
+     * @param query Search text; every whitespace-separated term must match
+     * @param limit Maximum number of items returned
+     * @return Copies of the matching items, best match first, or null if the cache is not complete
+     */
+    public synchronized List<Item> search(String query, int limit) {
+        return search(query, false, limit);
+    }
+
+    private List<Item> search(String query, boolean namesOnly, int limit) {
+        if (!complete) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        List<Item> result = new ArrayList<>();
+        for (int id : searchIndex.search(query, namesOnly, limit)) {
+            Item item = items.get(id);
+            if (item != null) {
+                result.add(new Item(item));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get items at or below their minimum stock level, lowest quantity first
+     * @return Copies of the matching items, or null if the cache is not complete
+     */
+    public synchronized List<Item> getLowStock() {
+        return scan(Item::isLowStock, Comparator.comparingInt(Item::getQuantity));
+    }
+
+    private List<Item> lookup(Set<Integer> ids) {
+        if (!complete) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        List<Item> result = new ArrayList<>();
+        if (ids != null) {
+            for (int id : ids) {
+                Item item = items.get(id);
+                if (item != null) {
+                    result.add(new Item(item));
+                }
+            }
+        }
+        result.sort(Comparator.comparing(Item::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)));
+        return result;
+    }
+
+    private List<Item> scan(Predicate<Item> filter, Comparator<Item> order) {
+        if (!complete) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        List<Item> result = new ArrayList<>();
+        for (Item item : items.values()) {
+            if (filter.test(item)) {
+                result.add(new Item(item));
+            }
+        }
+        result.sort(order);
+        return result;
+    }
+
+    private void index(Item item) {
+        if (item.getCategory() != null) {
+            byCategory.computeIfAbsent(item.getCategory(), k -> new HashSet<>()).add(item.getId());
+        }
+        if (item.getLocation() != null) {
+            byLocation.computeIfAbsent(item.getLocation(), k -> new HashSet<>()).add(item.getId());
+        }
+        searchIndex.put(item.getId(), item.getName(), item.getCategory(), item.getLocation());
+    }
+
+    private void unindex(Item item) {
+        removeFromIndex(byCategory, item.getCategory(), item.getId());
+        removeFromIndex(byLocation, item.getLocation(), item.getId());
+        searchIndex.remove(item.getId());
+    }
+
+    private static void removeFromIndex(Map<String, Set<Integer>> index, String key, int id) {
+        if (key == null) {
+            return;
+        }
+        Set<Integer> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    // Statistics
+    public synchronized int size() {
+        return items.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * String representation of the cache statistics
+     * @return formatted string with size and counters
+     */
+    @Override
+    public String toString() {
+        return "ItemCache{" +
+                "size=" + size() +
+                ", maxSize=" + maxSize +
+                ", complete=" + isComplete() +
+                ", hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                ", evictions=" + getEvictionCount() +
+                '}';
+    }
+}
@@ -0,0 +1,252 @@
+package service;
+
+import database.DBConnection;
+import model.Item;
+import model.ItemChange;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Change feed over the items table
+ * Polls items.updated_date with an (updated_date, id) keyset cursor for inserts and
+ * updates, and the item_deletions tombstone table (filled by a trigger) for deletes,
+ * then hands the deltas to registered listeners.
+ *
+ * updated_date only has one-second resolution and a row can commit after rows with a
+ * later timestamp, so each poll re-reads a short lookback window and skips rows it has
+ * already emitted in exactly that version.
+ */
+public class ItemChangeFeed {
+    private static final long POLL_INTERVAL_MILLIS = 2_000;
+    private static final long LOOKBACK_MILLIS = 5_000;
+    private static final int PAGE_SIZE = 1000;
+
+    private static final ItemChangeFeed INSTANCE = new ItemChangeFeed();
+
+    private final List<ItemChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService poller;
+
+    // Polling state, only touched by the polling thread after start()
+    private Timestamp cursorTime;
+    private long tombstoneCursor;
+    private final Map<Integer, Emitted> recentlyEmitted = new HashMap<>();
+
+    /**
+     * Version of a row last handed to listeners
+     * The content hash catches a second update within the same updated_date second
+     */
+    private static final class Emitted {
+        private final Timestamp updated;
+        private final int contentHash;
+
+        private Emitted(Timestamp updated, int contentHash) {
+            this.updated = updated;
+            this.contentHash = contentHash;
+        }
+    }
+
+    /**
+     * Get the shared feed
+     * @return ItemChangeFeed instance
+     */
+    public static ItemChangeFeed getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Register a listener and start polling if this is the first one
+     * Changes are reported from the moment polling started
+     * @param listener Listener to add
+     */
+    public void addListener(ItemChangeListener listener) {
+        listeners.add(listener);
+        start();
+    }
+
+    /**
+     * Unregister a listener
+     * @param listener Listener to remove
+     */
+    public void removeListener(ItemChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Start polling from the current database time if not already running
+     */
+    public synchronized void start() {
+        if (poller != null) {
+            return;
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "item-change-feed");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.execute(this::initCursors);
+        poller.scheduleWithFixedDelay(this::pollSafely, POLL_INTERVAL_MILLIS, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Position the cursors at "now" so only changes from here on are reported
+     */
+    private void initCursors() {
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            try (ResultSet rs = stmt.executeQuery("SELECT CURRENT_TIMESTAMP")) {
+                if (rs.next()) {
+                    cursorTime = rs.getTimestamp(1);
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(seq), 0) FROM item_deletions")) {
+                if (rs.next()) {
+                    tombstoneCursor = rs.getLong(1);
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error initialising item change feed: " + e.getMessage());
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            if (cursorTime == null) {
+                initCursors();
+                return;
+            }
+            List<ItemChange> changes = poll();
+            if (!changes.isEmpty()) {
+                for (ItemChangeListener listener : listeners) {
+                    try {
+                        listener.onItemChanges(changes);
+                    } catch (RuntimeException e) {
+                        System.err.println("Item change listener failed: " + e);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error polling item changes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Read every change since the previous poll
+     * @return Changes in detection order: inserts/updates by (updated_date, id), then deletes
+     */
+    private List<ItemChange> poll() throws SQLException {
+        List<ItemChange> changes = new ArrayList<>();
+        String changedSql = "SELECT " + ItemRowMapper.COLUMNS + " FROM items WHERE updated_date > ? OR (updated_date = ? AND id > ?) " +
+                            "ORDER BY updated_date, id LIMIT ?";
+        String deletedSql = "SELECT seq, item_id FROM item_deletions WHERE seq > ? ORDER BY seq LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement changed = conn.prepareStatement(changedSql);
+             PreparedStatement deleted = conn.prepareStatement(deletedSql)) {
+
+            Timestamp pageTime = new Timestamp(cursorTime.getTime() - LOOKBACK_MILLIS);
+            int pageId = 0;
+            Timestamp newest = cursorTime;
+            int rows;
+            do {
+                changed.setTimestamp(1, pageTime);
+                changed.setTimestamp(2, pageTime);
+                changed.setInt(3, pageId);
+                changed.setInt(4, PAGE_SIZE);
+                rows = 0;
+                try (ResultSet rs = changed.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                        Item item = ItemRowMapper.INSTANCE.map(rs);
+                        Timestamp updated = rs.getTimestamp(1 + ItemRowMapper.UPDATED_DATE);
+                        int id = item.getId();
+                        pageTime = updated;
+                        pageId = id;
+                        if (updated.after(newest)) {
+                            newest = updated;
+                        }
+
+                        int contentHash = Objects.hash(item.getName(), item.getQuantity(), item.getLocation(),
+                            item.getCategory(), item.getDescription(), item.getMinStockLevel(), item.getPrice(),
+                            item.getSupplierId());
+                        Emitted previous = recentlyEmitted.get(id);
+                        if (previous != null && previous.updated.equals(updated) && previous.contentHash == contentHash) {
+                            continue;
+                        }
+                        recentlyEmitted.put(id, new Emitted(updated, contentHash));
+
+                        // An edit in the second the row was created still has updated == created;
+                        // only the first time the row is seen is it an insert
+                        Timestamp created = rs.getTimestamp(1 + ItemRowMapper.CREATED_DATE);
+                        ItemChange.Type type = previous == null && updated.equals(created)
+                            ? ItemChange.Type.INSERT : ItemChange.Type.UPDATE;
+                        changes.add(new ItemChange(type, id, item));
+                    }
+                }
+            } while (rows == PAGE_SIZE);
+
+            do {
+                deleted.setLong(1, tombstoneCursor);
+                deleted.setInt(2, PAGE_SIZE);
+                rows = 0;
+                try (ResultSet rs = deleted.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                        tombstoneCursor = rs.getLong(1);
+                        int id = rs.getInt(2);
+                        recentlyEmitted.remove(id);
+                        changes.add(new ItemChange(ItemChange.Type.DELETE, id, null));
+                    }
+                }
+            } while (rows == PAGE_SIZE);
+
+            cursorTime = newest;
+            pruneRecentlyEmitted();
+        }
+        return changes;
+    }
+
+    /**
+     * Forget emitted rows that have fallen out of the lookback window
+     */
+    private void pruneRecentlyEmitted() {
+        long horizon = cursorTime.getTime() - LOOKBACK_MILLIS;
+        Iterator<Emitted> it = recentlyEmitted.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().updated.getTime() < horizon) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Delete tombstones older than a retention period
+     * Listeners that were offline longer than this must do a full reload
+     * @param retentionDays Days of tombstones to keep
+     * @return Number of tombstones removed, or -1 on error
+     */
+    public int purgeTombstones(int retentionDays) {
+        String sql = "DELETE FROM item_deletions WHERE deleted_at < CURRENT_TIMESTAMP - INTERVAL ? DAY";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, retentionDays);
+            return pstmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("Error purging item tombstones: " + e.getMessage());
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package service;
+
+import model.ItemChange;
+import java.util.List;
+
+/**
+ * Listener notified by the item change feed
+ * Called on the feed's polling thread; Swing listeners must hop to the EDT themselves
+ */
+public interface ItemChangeListener {
+    
+    /**
+     * Handle a batch of changes, in the order they were detected
+     * @param changes Inserts, updates and deletes since the previous batch
+     */
+    void onItemChanges(List<ItemChange> changes);
+}
@@ -0,0 +1,301 @@
+package service;
+
+import model.Item;
+import model.ItemWriteResult;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming CSV/TSV importer for supplier item feeds
+ * Reads the file one record at a time and upserts items in chunks through
+ * InventoryService, so memory use does not depend on the size of the feed
+ *
+ * The first record is a header naming the columns; recognised columns are
+ * id, name, quantity, location, category, description, min_stock_level,
+ * price and supplier_id. Only name is required. Rows with an id update that
+ * item, rows without one are inserted.
+ */
+public class ItemImporter {
+    private static final int CHUNK_SIZE = 5000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final InventoryService inventoryService;
+
+    /**
+     * Result of an import run
+     */
+    public static class ImportResult {
+        private long rowsRead;
+        private long rowsWritten;
+        private long rowsFailed;
+        private final List<String> errors = new ArrayList<>();
+
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        public long getRowsWritten() {
+            return rowsWritten;
+        }
+
+        public long getRowsFailed() {
+            return rowsFailed;
+        }
+
+        /**
+         * Get the first errors encountered (at most 100)
+         * @return Error messages prefixed with their line number
+         */
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        private void fail(long line, String message) {
+            rowsFailed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Line " + line + ": " + message);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "ImportResult{" +
+                    "rowsRead=" + rowsRead +
+                    ", rowsWritten=" + rowsWritten +
+                    ", rowsFailed=" + rowsFailed +
+                    '}';
+        }
+    }
+
+    /**
+     * Constructor
+     * @param inventoryService Service used to write the items
+     */
+    public ItemImporter(InventoryService inventoryService) {
+        this.inventoryService = inventoryService;
+    }
+
+    /**
+     * Import a file, choosing tab or comma delimiters from its extension (.tsv/.tab or anything else)
+     * @param file File to import
+     * @return Import result
+     * @throws IOException if the file cannot be read or has no usable header
+     */
+    public ImportResult importFile(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        char delimiter = name.endsWith(".tsv") || name.endsWith(".tab") ? '\t' : ',';
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(reader, delimiter);
+        }
+    }
+
+    /**
+     * Import delimited records from a reader
+     * @param reader Source of the records
+     * @param delimiter Field delimiter, usually ',' or '\t'
+     * @return Import result
+     * @throws IOException if reading fails or the header has no name column
+     */
+    public ImportResult importFrom(Reader reader, char delimiter) throws IOException {
+        // Excel writes UTF-8 CSV with a byte order mark, which would become part of the first column name
+        PushbackReader source = new PushbackReader(reader);
+        int first = source.read();
+        if (first != -1 && first != '\uFEFF') {
+            source.unread(first);
+        }
+        RecordReader records = new RecordReader(source, delimiter);
+        ImportResult result = new ImportResult();
+
+        List<String> header = records.next();
+        if (header == null) {
+            return result;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("name")) {
+            throw new IOException("Import header must contain a 'name' column");
+        }
+
+        List<Item> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Long> chunkLines = new ArrayList<>(CHUNK_SIZE);
+        List<String> record;
+        while ((record = records.next()) != null) {
+            long line = records.getRecordLine();
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            result.rowsRead++;
+            try {
+                chunk.add(toItem(record, columns));
+                chunkLines.add(line);
+            } catch (IllegalArgumentException e) {
+                result.fail(line, e.getMessage());
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                flush(chunk, chunkLines, result);
+            }
+        }
+        flush(chunk, chunkLines, result);
+        return result;
+    }
+
+    private void flush(List<Item> chunk, List<Long> chunkLines, ImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<ItemWriteResult> written = inventoryService.upsertItems(chunk);
+        for (ItemWriteResult row : written) {
+            if (row.isSuccess()) {
+                result.rowsWritten++;
+            } else {
+                result.fail(chunkLines.get(row.getIndex()), row.getError());
+            }
+        }
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private Item toItem(List<String> record, Map<String, Integer> columns) {
+        String name = field(record, columns, "name");
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        Item item = new Item(
+            name,
+            intField(record, columns, "quantity", 0),
+            field(record, columns, "location"),
+            orDefault(field(record, columns, "category"), "General"),
+            field(record, columns, "description"),
+            intField(record, columns, "min_stock_level", 10),
+            doubleField(record, columns, "price"),
+            intField(record, columns, "supplier_id", 0)
+        );
+        item.setId(intField(record, columns, "id", 0));
+        return item;
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static int intField(List<String> record, Map<String, Integer> columns, String column, int defaultValue) {
+        String value = field(record, columns, column);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid " + column + " '" + value + "'");
+        }
+    }
+
+    private static double doubleField(List<String> record, Map<String, Integer> columns, String column) {
+        String value = field(record, columns, column);
+        if (value == null) {
+            return 0.0;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid " + column + " '" + value + "'");
+        }
+    }
+
+    private static String orDefault(String value, String defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Minimal RFC 4180 record reader: quoted fields may contain delimiters,
+     * doubled quotes and line breaks
+     */
+    private static class RecordReader {
+        private final Reader in;
+        private final char delimiter;
+        private final StringBuilder field = new StringBuilder();
+        private long line = 1;
+        private long recordLine;
+        private boolean eof;
+
+        RecordReader(Reader in, char delimiter) {
+            this.in = in.markSupported() ? in : new BufferedReader(in);
+            this.delimiter = delimiter;
+        }
+
+        long getRecordLine() {
+            return recordLine;
+        }
+
+        List<String> next() throws IOException {
+            if (eof) {
+                return null;
+            }
+            recordLine = line;
+            List<String> record = new ArrayList<>();
+            field.setLength(0);
+            boolean quoted = false;
+            boolean any = false;
+
+            while (true) {
+                int c = in.read();
+                if (c == -1) {
+                    eof = true;
+                    if (!any && record.isEmpty()) {
+                        return null;
+                    }
+                    record.add(field.toString());
+                    return record;
+                }
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        in.mark(1);
+                        int following = in.read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (following != -1) {
+                                in.reset();
+                            }
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == delimiter) {
+                    record.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    line++;
+                    record.add(field.toString());
+                    return record;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+        }
+    }
+}
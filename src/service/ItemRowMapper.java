@@ -0,0 +1,64 @@
+package service;
+
+import database.RowMapper;
+import model.Item;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps items table rows selected with ItemRowMapper.COLUMNS to Item objects
+ * Columns are read by position, starting at a fixed index, so mapping a row
+ * costs no column name lookups
+ */
+public class ItemRowMapper implements RowMapper<Item> {
+    
+    /** Item columns in the order the mapper reads them */
+    public static final String COLUMNS = "id, name, quantity, location, category, description, " +
+            "min_stock_level, price, supplier_id, created_date, updated_date, version";
+    
+    // Offsets of the timestamp and version columns within COLUMNS
+    static final int CREATED_DATE = 9;
+    static final int UPDATED_DATE = 10;
+    static final int VERSION = 11;
+    
+    /** Mapper for queries that select COLUMNS first */
+    public static final ItemRowMapper INSTANCE = new ItemRowMapper(1);
+    
+    private final int first;
+    
+    /**
+     * Constructor
+     * @param first Index of the first item column in the select list
+     */
+    public ItemRowMapper(int first) {
+        this.first = first;
+    }
+    
+    /**
+     * Get the mapped columns qualified with a table alias, for joins
+     * @param alias Table alias
+     * @return Column list such as "i.id, i.name, ..."
+     */
+    public static String columns(String alias) {
+        return COLUMNS.replaceAll("(\\w+)", alias + ".$1");
+    }
+    
+    @Override
+    public Item map(ResultSet rs) throws SQLException {
+        Item item = new Item(
+            rs.getInt(first),
+            rs.getString(first + 1),
+            rs.getInt(first + 2),
+            rs.getString(first + 3),
+            rs.getString(first + 4),
+            rs.getString(first + 5),
+            rs.getInt(first + 6),
+            rs.getDouble(first + 7),
+            rs.getInt(first + 8)
+        );
+        item.setCreatedDate(rs.getString(first + CREATED_DATE));
+        item.setUpdatedDate(rs.getString(first + UPDATED_DATE));
+        item.setVersion(rs.getInt(first + VERSION));
+        return item;
+    }
+}
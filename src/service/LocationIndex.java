@@ -0,0 +1,135 @@
+package service;
+
+import model.InventorySnapshot;
+import model.Location;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * In-memory index from item to parsed location and walk order, over an InventorySnapshot
+ * Each distinct location code is parsed once and given a walk rank: parsed locations in
+ * aisle, bay, slot order, then codes that do not parse, by code. Item lookups go through
+ * the snapshot's ID index and its location dictionary, so the index itself holds a few
+ * ints per location code, not per item. Immutable once built.
+ */
+public class LocationIndex {
+
+    /** Result of find for unknown items and items without a location */
+    public static final int NO_LOCATION = InventorySnapshot.NO_CODE;
+    /** Aisle of codes that do not parse; they sort after every real aisle */
+    public static final int UNPARSED_AISLE = Integer.MAX_VALUE;
+
+    private final InventorySnapshot snapshot;
+    private final int[] walkRanks;
+    private final int[] aisles;
+    private final int unparsedCount;
+
+    private LocationIndex(InventorySnapshot snapshot, int[] walkRanks, int[] aisles, int unparsedCount) {
+        this.snapshot = snapshot;
+        this.walkRanks = walkRanks;
+        this.aisles = aisles;
+        this.unparsedCount = unparsedCount;
+    }
+
+    /**
+     * Build the index for a snapshot
+     * @param snapshot Items and their location codes
+     * @return Index over the snapshot
+     */
+    public static LocationIndex build(InventorySnapshot snapshot) {
+        int count = snapshot.getLocationCount();
+        Location[] parsed = new Location[count];
+        int[] aisles = new int[count];
+        int unparsed = 0;
+        for (int code = 0; code < count; code++) {
+            parsed[code] = Location.parse(snapshot.getLocation(code));
+            if (parsed[code] == null) {
+                aisles[code] = UNPARSED_AISLE;
+                unparsed++;
+            } else {
+                aisles[code] = parsed[code].getAisle();
+            }
+        }
+
+        Integer[] byWalk = new Integer[count];
+        for (int code = 0; code < count; code++) {
+            byWalk[code] = code;
+        }
+        Comparator<Integer> walkOrder = (a, b) -> {
+            Location la = parsed[a];
+            Location lb = parsed[b];
+            if (la != null && lb != null) {
+                int c = la.compareTo(lb);
+                if (c != 0) {
+                    return c;
+                }
+            } else if (la != null || lb != null) {
+                return la != null ? -1 : 1;
+            }
+            return snapshot.getLocation(a).compareTo(snapshot.getLocation(b));
+        };
+        Arrays.sort(byWalk, walkOrder);
+        int[] walkRanks = new int[count];
+        for (int rank = 0; rank < count; rank++) {
+            walkRanks[byWalk[rank]] = rank;
+        }
+
+        // Build the snapshot's ID index now rather than on the first plan
+        snapshot.rowOf(0);
+        return new LocationIndex(snapshot, walkRanks, aisles, unparsed);
+    }
+
+    /**
+     * Location of an item
+     * @param itemId Item ID
+     * @return Location code of the item in the snapshot's dictionary, or NO_LOCATION
+     */
+    public int find(int itemId) {
+        int row = snapshot.rowOf(itemId);
+        return row < 0 ? NO_LOCATION : snapshot.getLocationCode(row);
+    }
+
+    /**
+     * Position of a location in walk order
+     * @param code Location code from find
+     * @return Rank from 0, unique per code
+     */
+    public int getWalkRank(int code) {
+        return walkRanks[code];
+    }
+
+    /**
+     * @param code Location code from find
+     * @return Aisle number, UNPARSED_AISLE if the code does not parse
+     */
+    public int getAisle(int code) {
+        return aisles[code];
+    }
+
+    /**
+     * @param code Location code from find
+     * @return Location as stored on the items
+     */
+    public String getCode(int code) {
+        return snapshot.getLocation(code);
+    }
+
+    public int getLocationCount() {
+        return walkRanks.length;
+    }
+
+    public int getUnparsedCount() {
+        return unparsedCount;
+    }
+
+    public int getItemCount() {
+        return snapshot.size();
+    }
+
+    /**
+     * @return When the underlying snapshot was loaded
+     */
+    public long getBuiltAtMillis() {
+        return snapshot.getLoadedAtMillis();
+    }
+}
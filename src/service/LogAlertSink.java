@@ -0,0 +1,17 @@
+package service;
+
+import model.StockAlert;
+
+/**
+ * Stock alert sink writing one line per alert to standard output
+ * Useful for the headless server: -Dwarehouse.alerts.sinks=service.LogAlertSink
+ */
+public class LogAlertSink implements StockAlertSink {
+
+    @Override
+    public void onStockAlert(StockAlert alert) {
+        System.out.println("Stock alert: " + alert.getLevel() + " item " + alert.getItemId()
+            + " '" + alert.getItemName() + "' quantity " + alert.getQuantity()
+            + ", minimum " + alert.getMinStockLevel());
+    }
+}
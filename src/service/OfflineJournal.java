@@ -0,0 +1,794 @@
+package service;
+
+import database.DBConnection;
+import model.Item;
+import model.ItemUpdateResult;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Local write-ahead journal for inventory mutations made while the database is unreachable
+ * Mutations are appended to memory-mapped segment files, each record carrying a
+ * sequence number and a CRC so a torn write at the tail is detected and ignored.
+ * Appends are made durable by group commit: a thread that needs its record on disk
+ * forces the segment once for every record written so far, so concurrent appenders
+ * share one fsync.
+ *
+ * A background replayer applies the journal in sequence order once the database is
+ * back. Each record is applied in the same transaction that advances this station's
+ * high-water mark in journal_applied, so a record is applied exactly once even if the
+ * station crashes mid-replay. While records are pending, new mutations are journaled
+ * too so they cannot overtake older ones. A full-row update carries the row version it
+ * was made on and is skipped if the row has moved on by the time it is replayed; a
+ * field-level edit is merged into the current row the same way as when online.
+ */
+public class OfflineJournal {
+
+    /**
+     * Kind of journaled mutation
+     */
+    public enum Operation {
+        ADD_ITEM,
+        UPDATE_ITEM,
+        DELETE_ITEM,
+        // Field-level edit: the item as read before editing plus the edited item
+        UPDATE_FIELDS
+    }
+
+    private static final Path DIRECTORY = Paths.get(System.getProperty("warehouse.journal.dir",
+        System.getProperty("user.home") + "/.warehouse/journal"));
+    private static final int SEGMENT_SIZE = 8 * 1024 * 1024;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    // Record header: payload length, CRC of everything after it, sequence number, operation
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 1;
+    private static final long REPLAY_INTERVAL_MILLIS = 5_000;
+
+    private static final String SELECT_APPLIED_SQL = "SELECT last_seq FROM journal_applied WHERE station = ?";
+    private static final String LOCK_APPLIED_SQL = "SELECT last_seq FROM journal_applied WHERE station = ? FOR UPDATE";
+    private static final String UPSERT_APPLIED_SQL = "INSERT INTO journal_applied (station, last_seq) VALUES (?, ?) " +
+            "ON DUPLICATE KEY UPDATE last_seq = GREATEST(last_seq, VALUES(last_seq))";
+
+    /** Base version of an update made without knowing the row's version; replayed unconditionally */
+    public static final int NO_VERSION = -1;
+
+    private static final OfflineJournal INSTANCE = new OfflineJournal();
+
+    // Segments oldest first; the last one is appended to. Guarded by appendLock
+    private final Object appendLock = new Object();
+    private final List<Segment> segments = new ArrayList<>();
+    private long nextSeq = 1;
+    private boolean opened;
+    private String station;
+
+    // Group commit state
+    private final Object syncLock = new Object();
+    private volatile long writtenSeq;
+    private volatile long syncedSeq;
+
+    // Last sequence number known to be applied to the database
+    private volatile long appliedSeq;
+    // Set when the application starts without a database
+    private volatile boolean offline;
+    // Run once when the database answers again after goOffline()
+    private volatile Runnable onReconnected;
+    // Whether an earlier run left segments behind, checked once; null until checked
+    private volatile Boolean leftSegments;
+    private ScheduledExecutorService replayer;
+
+    /**
+     * One memory-mapped segment file
+     */
+    private static final class Segment {
+        private final Path path;
+        private final long firstSeq;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private long lastSeq;
+
+        private Segment(Path path, long firstSeq, MappedByteBuffer buffer) {
+            this.path = path;
+            this.firstSeq = firstSeq;
+            this.buffer = buffer;
+            this.lastSeq = firstSeq - 1;
+        }
+    }
+
+    /**
+     * A decoded journal record
+     */
+    private static final class JournalRecord {
+        private final long seq;
+        private final Operation operation;
+        // Null if the record could not be decoded
+        private final Item item;
+        // Version an update was based on, or NO_VERSION
+        private final int baseVersion;
+        // Item as read before editing, for UPDATE_FIELDS
+        private final Item original;
+
+        private JournalRecord(long seq, Operation operation, Item item, int baseVersion) {
+            this(seq, operation, item, baseVersion, null);
+        }
+
+        private JournalRecord(long seq, Operation operation, Item item, int baseVersion, Item original) {
+            this.seq = seq;
+            this.operation = operation;
+            this.item = item;
+            this.baseVersion = baseVersion;
+            this.original = original;
+        }
+    }
+
+    /**
+     * Get the shared journal
+     * @return OfflineJournal instance
+     */
+    public static OfflineJournal getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Whether a failure means the database could not be reached, as opposed to a rejected statement
+     * @param e Exception from a database call
+     * @return true for lost connections, refused connections and pool timeouts
+     */
+    public static boolean isConnectionFailure(SQLException e) {
+        return e instanceof SQLTransientConnectionException
+            || e instanceof SQLNonTransientConnectionException
+            || e instanceof SQLRecoverableException;
+    }
+
+    /**
+     * Work without a database: journal every mutation until the replayer reaches it
+     */
+    public void goOffline() {
+        goOffline(null);
+    }
+
+    /**
+     * Work without a database, with a callback for when it is reachable again
+     * @param onReconnected Run once on the replay thread after the first successful replay, or null
+     */
+    public void goOffline(Runnable onReconnected) {
+        this.onReconnected = onReconnected;
+        offline = true;
+        open();
+        startReplayer();
+    }
+
+    /**
+     * Whether mutations must currently go to the journal
+     * @return true while offline or while journaled records are waiting to be replayed
+     */
+    public boolean isActive() {
+        if (offline) {
+            return true;
+        }
+        if (!isOpened() && !hasLeftSegments()) {
+            return false;
+        }
+        open();
+        return writtenSeq > appliedSeq;
+    }
+
+    /**
+     * Number of journaled mutations not yet applied to the database
+     * @return Pending record count
+     */
+    public long getPendingCount() {
+        if (!isOpened() && !hasLeftSegments()) {
+            return 0;
+        }
+        open();
+        return Math.max(0, writtenSeq - appliedSeq);
+    }
+
+    private boolean isOpened() {
+        synchronized (appendLock) {
+            return opened;
+        }
+    }
+
+    /**
+     * Whether segments from an earlier run exist, so a station that never goes offline
+     * does not create the journal directory or map a segment. Checked once: after that,
+     * segments are only created through open(), by going offline or journaling a change.
+     */
+    private boolean hasLeftSegments() {
+        Boolean left = leftSegments;
+        if (left == null) {
+            left = false;
+            if (Files.isDirectory(DIRECTORY)) {
+                try (DirectoryStream<Path> dir = Files.newDirectoryStream(DIRECTORY, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+                    left = dir.iterator().hasNext();
+                } catch (IOException e) {
+                    // Let open() report it
+                    left = true;
+                }
+            }
+            leftSegments = left;
+        }
+        return left;
+    }
+
+    /**
+     * Durably journal a mutation
+     * @param operation Kind of mutation
+     * @param item Item added or updated; for deletes only the ID is used
+     * @return true if the record is on disk, false if the journal could not be written
+     */
+    public boolean record(Operation operation, Item item) {
+        return record(operation, item, NO_VERSION);
+    }
+
+    /**
+     * Durably journal a mutation
+     * @param operation Kind of mutation
+     * @param item Item added or updated; for deletes only the ID is used
+     * @param baseVersion For updates, the row version the change was made on, or NO_VERSION
+     * @return true if the record is on disk, false if the journal could not be written
+     */
+    public boolean record(Operation operation, Item item, int baseVersion) {
+        return record(operation, encode(operation, item, baseVersion));
+    }
+
+    /**
+     * Durably journal a field-level edit, replayed by merging the changed fields into
+     * the row as it is by then (see InventoryService.updateItemFields())
+     * @param original Item as read before editing, including its version
+     * @param edited Same item with the operator's changes
+     * @return true if the record is on disk, false if the journal could not be written
+     */
+    public boolean recordFields(Item original, Item edited) {
+        PayloadWriter out = new PayloadWriter();
+        out.putInt(original.getId());
+        out.putInt(original.getVersion());
+        putFields(out, original);
+        putFields(out, edited);
+        return record(Operation.UPDATE_FIELDS, out.toByteArray());
+    }
+
+    private boolean record(Operation operation, byte[] payload) {
+        try {
+            append(operation, payload);
+            startReplayer();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error writing offline journal: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void append(Operation operation, byte[] payload) throws IOException {
+        long seq;
+        synchronized (appendLock) {
+            openOrThrow();
+            Segment segment = segments.get(segments.size() - 1);
+            if (segment.position + HEADER_SIZE + payload.length > segment.buffer.capacity()) {
+                if (HEADER_SIZE + payload.length > SEGMENT_SIZE) {
+                    throw new IOException("Journal record too large: " + payload.length + " bytes");
+                }
+                segment = roll();
+            }
+            seq = nextSeq++;
+            write(segment, seq, operation, payload);
+            writtenSeq = seq;
+        }
+        sync(seq);
+    }
+
+    /**
+     * Write one record; the length goes last so a partly written record reads as the end
+     */
+    private static void write(Segment segment, long seq, Operation operation, byte[] payload) {
+        MappedByteBuffer buffer = segment.buffer;
+        int at = segment.position;
+        buffer.putLong(at + 8, seq);
+        buffer.put(at + 16, (byte) operation.ordinal());
+        buffer.put(at + HEADER_SIZE, payload);
+        buffer.putInt(at + 4, checksum(buffer, at, payload.length));
+        buffer.putInt(at, payload.length);
+        segment.position = at + HEADER_SIZE + payload.length;
+        segment.lastSeq = seq;
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int at, int payloadLength) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(at + 8, HEADER_SIZE - 8 + payloadLength));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Group commit: force the active segment once for every record written so far
+     */
+    private void sync(long seq) {
+        synchronized (syncLock) {
+            if (syncedSeq >= seq) {
+                // Another appender's fsync already covered this record
+                return;
+            }
+            Segment active;
+            long target;
+            synchronized (appendLock) {
+                active = segments.get(segments.size() - 1);
+                target = writtenSeq;
+            }
+            active.buffer.force();
+            syncedSeq = target;
+        }
+    }
+
+    /**
+     * Start a new segment; the full one is forced first so sync() only ever needs the active one
+     */
+    private Segment roll() throws IOException {
+        Segment full = segments.get(segments.size() - 1);
+        full.buffer.force();
+        Segment segment = createSegment(nextSeq);
+        segments.add(segment);
+        return segment;
+    }
+
+    private void open() {
+        synchronized (appendLock) {
+            try {
+                openOrThrow();
+            } catch (IOException e) {
+                System.err.println("Error opening offline journal: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Map the existing segments, find the end of the journal and load the replay position
+     */
+    private void openOrThrow() throws IOException {
+        if (opened) {
+            return;
+        }
+        Files.createDirectories(DIRECTORY);
+        Path stationFile = DIRECTORY.resolve("station");
+        if (Files.exists(stationFile)) {
+            station = Files.readString(stationFile, StandardCharsets.UTF_8).trim();
+        } else {
+            station = UUID.randomUUID().toString();
+            Files.writeString(stationFile, station, StandardCharsets.UTF_8);
+        }
+        appliedSeq = readAppliedHint();
+
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(DIRECTORY, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : dir) {
+                paths.add(path);
+            }
+        }
+        // Zero-padded first sequence numbers sort by name
+        paths.sort(null);
+        for (Path path : paths) {
+            String name = path.getFileName().toString();
+            long firstSeq = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            Segment segment = new Segment(path, firstSeq, map(path));
+            scan(segment);
+            segments.add(segment);
+        }
+        if (segments.isEmpty()) {
+            segments.add(createSegment(appliedSeq + 1));
+        }
+        Segment last = segments.get(segments.size() - 1);
+        nextSeq = Math.max(last.lastSeq + 1, appliedSeq + 1);
+        writtenSeq = nextSeq - 1;
+        syncedSeq = writtenSeq;
+        opened = true;
+        if (writtenSeq > appliedSeq) {
+            startReplayer();
+        }
+    }
+
+    /**
+     * Walk a segment's records up to the first empty or corrupt one
+     */
+    private static void scan(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int at = 0;
+        while (at + HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(at);
+            if (length <= 0 || at + HEADER_SIZE + length > buffer.capacity()
+                    || buffer.getInt(at + 4) != checksum(buffer, at, length)) {
+                break;
+            }
+            segment.lastSeq = buffer.getLong(at + 8);
+            at += HEADER_SIZE + length;
+        }
+        segment.position = at;
+    }
+
+    private static Segment createSegment(long firstSeq) throws IOException {
+        Path path = DIRECTORY.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX));
+        return new Segment(path, firstSeq, map(path));
+    }
+
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Mapping past the end grows the file; the new bytes read as zero, i.e. no record
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(SEGMENT_SIZE, channel.size()));
+        }
+    }
+
+    private synchronized void startReplayer() {
+        if (replayer != null) {
+            return;
+        }
+        replayer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "offline-journal-replay");
+            t.setDaemon(true);
+            return t;
+        });
+        replayer.scheduleWithFixedDelay(this::replaySafely, 0, REPLAY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void replaySafely() {
+        try {
+            replay();
+        } catch (RuntimeException e) {
+            System.err.println("Offline journal replay error: " + e);
+        }
+    }
+
+    /**
+     * Apply every pending record in order, then drop segments that are fully applied
+     */
+    private void replay() {
+        if (!offline && writtenSeq <= appliedSeq) {
+            compact();
+            return;
+        }
+        try (Connection conn = DBConnection.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(SELECT_APPLIED_SQL)) {
+                pstmt.setString(1, station);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        appliedSeq = Math.max(appliedSeq, rs.getLong(1));
+                    }
+                }
+            }
+
+            int applied = 0;
+            for (JournalRecord record : readPending()) {
+                apply(conn, record);
+                appliedSeq = record.seq;
+                applied++;
+            }
+            // The database answered: from here on mutations go straight to it once the journal is drained
+            offline = false;
+            if (applied > 0) {
+                DBConnection.recordWrite();
+                System.out.println("Replayed " + applied + " journaled inventory changes");
+            }
+            Runnable reconnected = onReconnected;
+            if (reconnected != null) {
+                onReconnected = null;
+                reconnected.run();
+            }
+            writeAppliedHint();
+            compact();
+
+        } catch (SQLException e) {
+            if (!isConnectionFailure(e)) {
+                System.err.println("Error replaying offline journal: " + e.getMessage());
+            }
+            // Still unreachable: try again next round
+        } catch (IOException e) {
+            System.err.println("Error reading offline journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Apply one record together with the high-water mark update
+     * A record the database rejects outright (e.g. a constraint violation) is logged
+     * and skipped so it cannot block the records behind it. An update is applied only
+     * if the row is still at the version it was based on, so a late replay does not
+     * overwrite e.g. quantities changed by scans in the meantime.
+     */
+    private void apply(Connection conn, JournalRecord record) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            if (lockApplied(conn) < record.seq) {
+                if (record.item == null) {
+                    System.err.println("Skipping unreadable journal record " + record.seq);
+                } else {
+                    switch (record.operation) {
+                        case ADD_ITEM:
+                            InventoryService.insertItemRow(conn, record.item);
+                            break;
+                        case UPDATE_ITEM:
+                            if (InventoryService.updateItemRow(conn, record.item, record.baseVersion) == 0) {
+                                System.err.println("Skipping journaled update of item " + record.item.getId()
+                                    + ": it was changed or deleted on the database since");
+                            }
+                            break;
+                        case UPDATE_FIELDS:
+                            ItemUpdateResult result = InventoryService.replayItemFields(conn, record.original, record.item);
+                            if (result.getStatus() == ItemUpdateResult.Status.CONFLICT
+                                    || result.getStatus() == ItemUpdateResult.Status.NOT_FOUND) {
+                                System.err.println("Skipping journaled edit of item " + record.item.getId()
+                                    + ": " + (result.getStatus() == ItemUpdateResult.Status.CONFLICT
+                                        ? "the same fields were changed on the database since" : "it was deleted"));
+                            }
+                            break;
+                        default:
+                            InventoryService.deleteItemRow(conn, record.item.getId());
+                            break;
+                    }
+                }
+                markApplied(conn, record.seq);
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            if (isConnectionFailure(e) || e instanceof SQLTransientException) {
+                throw e;
+            }
+            System.err.println("Skipping journaled " + record.operation + " of item "
+                + (record.item != null ? record.item.getId() : 0) + ": " + e.getMessage());
+            markApplied(conn, record.seq);
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private long lockApplied(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(LOCK_APPLIED_SQL)) {
+            pstmt.setString(1, station);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private void markApplied(Connection conn, long seq) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_APPLIED_SQL)) {
+            pstmt.setString(1, station);
+            pstmt.setLong(2, seq);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Decode the records after appliedSeq, in sequence order
+     */
+    private List<JournalRecord> readPending() throws IOException {
+        List<Segment> snapshot;
+        int[] ends;
+        long upTo;
+        synchronized (appendLock) {
+            snapshot = new ArrayList<>(segments);
+            ends = new int[snapshot.size()];
+            for (int i = 0; i < ends.length; i++) {
+                ends[i] = snapshot.get(i).position;
+            }
+            upTo = writtenSeq;
+        }
+        List<JournalRecord> records = new ArrayList<>();
+        for (int i = 0; i < ends.length; i++) {
+            Segment segment = snapshot.get(i);
+            if (segment.lastSeq <= appliedSeq) {
+                continue;
+            }
+            // Bytes past the end are a torn tail from before a restart, partly overwritten since
+            MappedByteBuffer buffer = segment.buffer;
+            int at = 0;
+            while (at + HEADER_SIZE <= ends[i]) {
+                int length = buffer.getInt(at);
+                if (length <= 0 || at + HEADER_SIZE + length > ends[i]
+                        || buffer.getInt(at + 4) != checksum(buffer, at, length)) {
+                    break;
+                }
+                long seq = buffer.getLong(at + 8);
+                if (seq > upTo) {
+                    break;
+                }
+                if (seq > appliedSeq) {
+                    records.add(decode(seq, buffer.get(at + 16), buffer, at + HEADER_SIZE, length));
+                }
+                at += HEADER_SIZE + length;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Delete segments whose records are all applied; the active segment is replaced
+     * by an empty one so the journal does not keep growing across outages
+     */
+    private void compact() {
+        synchronized (appendLock) {
+            if (!opened || writtenSeq > appliedSeq) {
+                // Only fully applied older segments can go
+                while (segments.size() > 1 && segments.get(0).lastSeq <= appliedSeq) {
+                    delete(segments.remove(0));
+                }
+                return;
+            }
+            Segment active = segments.get(segments.size() - 1);
+            if (segments.size() == 1 && active.position == 0) {
+                return;
+            }
+            try {
+                Segment fresh = createSegment(nextSeq);
+                List<Segment> old = new ArrayList<>(segments);
+                segments.clear();
+                segments.add(fresh);
+                for (Segment segment : old) {
+                    delete(segment);
+                }
+            } catch (IOException e) {
+                System.err.println("Error compacting offline journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void delete(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            // Still mapped on some platforms; the segment is skipped as applied and retried next time
+            System.err.println("Could not delete journal segment " + segment.path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * The replay position is also kept locally so a restart does not treat applied
+     * records as pending before the database has been asked; the database stays authoritative
+     */
+    private long readAppliedHint() {
+        try {
+            Path file = DIRECTORY.resolve("applied");
+            return Files.exists(file) ? Long.parseLong(Files.readString(file, StandardCharsets.UTF_8).trim()) : 0;
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void writeAppliedHint() throws IOException {
+        Files.writeString(DIRECTORY.resolve("applied"), Long.toString(appliedSeq), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encode(Operation operation, Item item, int baseVersion) {
+        PayloadWriter out = new PayloadWriter();
+        out.putInt(item.getId());
+        if (operation == Operation.UPDATE_ITEM) {
+            out.putInt(baseVersion);
+        }
+        if (operation != Operation.DELETE_ITEM) {
+            putFields(out, item);
+        }
+        return out.toByteArray();
+    }
+
+    private static void putFields(PayloadWriter out, Item item) {
+        out.putString(item.getName());
+        out.putInt(item.getQuantity());
+        out.putString(item.getLocation());
+        out.putString(item.getCategory());
+        out.putString(item.getDescription());
+        out.putInt(item.getMinStockLevel());
+        out.putLong(Double.doubleToLongBits(item.getPrice()));
+        out.putInt(item.getSupplierId());
+    }
+
+    /**
+     * Decode a record whose checksum matched; one that still cannot be decoded is
+     * returned without an item so replay skips it instead of stalling on it
+     */
+    private static JournalRecord decode(long seq, byte operationCode, MappedByteBuffer buffer, int at, int length) {
+        Operation[] operations = Operation.values();
+        if (operationCode < 0 || operationCode >= operations.length) {
+            return new JournalRecord(seq, null, null, NO_VERSION);
+        }
+        Operation operation = operations[operationCode];
+        byte[] payload = new byte[length];
+        buffer.get(at, payload);
+        java.nio.ByteBuffer in = java.nio.ByteBuffer.wrap(payload);
+        try {
+            Item item = new Item();
+            item.setId(in.getInt());
+            if (operation == Operation.UPDATE_FIELDS) {
+                Item original = new Item();
+                original.setId(item.getId());
+                original.setVersion(in.getInt());
+                getFields(in, original);
+                getFields(in, item);
+                return new JournalRecord(seq, operation, item, original.getVersion(), original);
+            }
+            int baseVersion = operation == Operation.UPDATE_ITEM ? in.getInt() : NO_VERSION;
+            if (operation != Operation.DELETE_ITEM) {
+                getFields(in, item);
+            }
+            return new JournalRecord(seq, operation, item, baseVersion);
+        } catch (RuntimeException e) {
+            return new JournalRecord(seq, operation, null, NO_VERSION);
+        }
+    }
+
+    private static void getFields(java.nio.ByteBuffer in, Item item) {
+        item.setName(getString(in));
+        item.setQuantity(in.getInt());
+        item.setLocation(getString(in));
+        item.setCategory(getString(in));
+        item.setDescription(getString(in));
+        item.setMinStockLevel(in.getInt());
+        item.setPrice(Double.longBitsToDouble(in.getLong()));
+        item.setSupplierId(in.getInt());
+    }
+
+    private static String getString(java.nio.ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Growable big-endian byte sink for record payloads
+     */
+    private static final class PayloadWriter {
+        private java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(256);
+
+        void putInt(int value) {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        void putString(String value) {
+            if (value == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+
+        byte[] toByteArray() {
+            byte[] bytes = new byte[buffer.position()];
+            buffer.flip().get(bytes);
+            return bytes;
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                java.nio.ByteBuffer larger = java.nio.ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package service;
+
+import metrics.OperationMetrics;
+import metrics.ServiceMetrics;
+import model.OrderLine;
+import model.PickList;
+import model.PickTask;
+import model.Wave;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class planning picking waves for open order lines
+ * Orders are kept whole and sorted by the walk rank of their first location, so orders
+ * that start in the same part of the warehouse share a wave; waves are filled up to a
+ * line limit. Within a wave the picks are sorted into walk order and walked serpentine,
+ * every other aisle back to front, then cut into one contiguous stretch per picker,
+ * preferably at an aisle boundary. Lines whose item is unknown or has no location are
+ * returned with their wave for picking by hand.
+ *
+ * Locations come from a LocationIndex over the inventory snapshot, shared by every
+ * planner and reloaded once it is older than warehouse.picking.locationMaxAgeSeconds.
+ */
+public class PickPlanner {
+
+    private static final int DEFAULT_MAX_LINES_PER_WAVE = Integer.getInteger("warehouse.picking.maxLinesPerWave", 500);
+    private static final long LOCATION_MAX_AGE_MILLIS = Long.getLong("warehouse.picking.locationMaxAgeSeconds", 300) * 1000;
+
+    // Latency metrics per operation, see ServiceMetrics
+    private static final OperationMetrics PLAN_WAVES = ServiceMetrics.operation("PickPlanner.planWaves");
+    private static final OperationMetrics LOAD_LOCATION_INDEX = ServiceMetrics.operation("PickPlanner.loadLocationIndex");
+
+    private static volatile LocationIndex sharedIndex;
+
+    private final ReportService reportService = new ReportService();
+
+    /**
+     * Get the shared location index, loading it if missing or too old
+     * @return Location index, the previous one if reloading fails, or null if none could be loaded
+     */
+    public LocationIndex getLocationIndex() {
+        LocationIndex index = sharedIndex;
+        if (index != null && System.currentTimeMillis() - index.getBuiltAtMillis() < LOCATION_MAX_AGE_MILLIS) {
+            return index;
+        }
+        synchronized (PickPlanner.class) {
+            index = sharedIndex;
+            if (index != null && System.currentTimeMillis() - index.getBuiltAtMillis() < LOCATION_MAX_AGE_MILLIS) {
+                return index;
+            }
+            long start = LOAD_LOCATION_INDEX.start();
+            try {
+                LocationIndex loaded = LocationIndex.build(reportService.loadInventorySnapshot());
+                LOAD_LOCATION_INDEX.finished(start, loaded.getItemCount());
+                sharedIndex = loaded;
+                return loaded;
+            } catch (SQLException e) {
+                LOAD_LOCATION_INDEX.error(e);
+                LOAD_LOCATION_INDEX.finished(start, 0);
+                System.err.println("Error loading item locations: " + e.getMessage());
+                return index;
+            }
+        }
+    }
+
+    /**
+     * Plan waves with the configured wave size
+     * @param lines Open order lines
+     * @param pickers Pickers per wave
+     * @return Waves in picking order, or null if item locations cannot be loaded
+     */
+    public List<Wave> planWaves(List<OrderLine> lines, int pickers) {
+        return planWaves(lines, pickers, DEFAULT_MAX_LINES_PER_WAVE);
+    }
+
+    /**
+     * Plan waves using the shared location index
+     * @param lines Open order lines
+     * @param pickers Pickers per wave
+     * @param maxLinesPerWave Line limit per wave; an order with more lines gets a wave of its own
+     * @return Waves in picking order, or null if item locations cannot be loaded
+     */
+    public List<Wave> planWaves(List<OrderLine> lines, int pickers, int maxLinesPerWave) {
+        LocationIndex index = getLocationIndex();
+        if (index == null) {
+            return null;
+        }
+        return planWaves(index, lines, pickers, maxLinesPerWave);
+    }
+
+    /**
+     * Plan waves against a given location index
+     * @param index Item locations
+     * @param lines Open order lines
+     * @param pickers Pickers per wave, at least 1
+     * @param maxLinesPerWave Line limit per wave, at least 1
+     * @return Waves in picking order
+     */
+    public List<Wave> planWaves(LocationIndex index, List<OrderLine> lines, int pickers, int maxLinesPerWave) {
+        if (pickers < 1 || maxLinesPerWave < 1) {
+            throw new IllegalArgumentException("Invalid wave setup: pickers=" + pickers + ", maxLinesPerWave=" + maxLinesPerWave);
+        }
+        long start = PLAN_WAVES.start();
+        WavePlan plan = new WavePlan(index, lines, pickers);
+        List<Wave> waves = plan.planWaves(maxLinesPerWave);
+        PLAN_WAVES.finished(start, lines.size());
+        return waves;
+    }
+
+    /**
+     * Working state of one planWaves call, in arrays indexed by line or by order
+     */
+    private static final class WavePlan {
+        private final LocationIndex index;
+        private final List<OrderLine> lines;
+        private final int pickers;
+        // Location code per line
+        private final int[] codes;
+        // Lines of each order are linesByOrder[lineOffsets[order]] up to lineOffsets[order + 1]
+        private final int[] lineOffsets;
+        private final int[] linesByOrder;
+        // (first walk rank << 32 | order), sorted
+        private final long[] orderKeys;
+
+        WavePlan(LocationIndex index, List<OrderLine> lines, int pickers) {
+            this.index = index;
+            this.lines = lines;
+            this.pickers = pickers;
+            int n = lines.size();
+            codes = new int[n];
+
+            // Number orders by first appearance
+            Map<Integer, Integer> orderNumbers = new HashMap<>();
+            int[] orderOfLine = new int[n];
+            int[] firstRanks = new int[n];
+            int[] lineCounts = new int[n + 1];
+            Arrays.fill(firstRanks, Integer.MAX_VALUE);
+            for (int i = 0; i < n; i++) {
+                OrderLine line = lines.get(i);
+                Integer order = orderNumbers.get(line.getOrderId());
+                if (order == null) {
+                    order = orderNumbers.size();
+                    orderNumbers.put(line.getOrderId(), order);
+                }
+                int code = index.find(line.getItemId());
+                codes[i] = code;
+                orderOfLine[i] = order;
+                lineCounts[order + 1]++;
+                if (code != LocationIndex.NO_LOCATION) {
+                    firstRanks[order] = Math.min(firstRanks[order], index.getWalkRank(code));
+                }
+            }
+            int orderCount = orderNumbers.size();
+
+            lineOffsets = new int[orderCount + 1];
+            for (int order = 0; order < orderCount; order++) {
+                lineOffsets[order + 1] = lineOffsets[order] + lineCounts[order + 1];
+            }
+            linesByOrder = new int[n];
+            int[] next = Arrays.copyOf(lineOffsets, orderCount);
+            for (int i = 0; i < n; i++) {
+                linesByOrder[next[orderOfLine[i]]++] = i;
+            }
+
+            // Orders with no located line have rank MAX_VALUE and come last
+            orderKeys = new long[orderCount];
+            for (int order = 0; order < orderCount; order++) {
+                orderKeys[order] = (long) firstRanks[order] << 32 | order;
+            }
+            Arrays.sort(orderKeys);
+        }
+
+        List<Wave> planWaves(int maxLinesPerWave) {
+            List<Wave> waves = new ArrayList<>();
+            int first = 0;
+            int waveLines = 0;
+            for (int k = 0; k < orderKeys.length; k++) {
+                int order = (int) orderKeys[k];
+                int orderLines = lineOffsets[order + 1] - lineOffsets[order];
+                if (waveLines > 0 && waveLines + orderLines > maxLinesPerWave) {
+                    waves.add(buildWave(waves.size() + 1, first, k, waveLines));
+                    first = k;
+                    waveLines = 0;
+                }
+                waveLines += orderLines;
+            }
+            if (waveLines > 0) {
+                waves.add(buildWave(waves.size() + 1, first, orderKeys.length, waveLines));
+            }
+            return waves;
+        }
+
+        /**
+         * Build the wave of the orders orderKeys[from] up to orderKeys[to]
+         */
+        private Wave buildWave(int waveNumber, int from, int to, int waveLines) {
+            // (walk rank << 32 | line) of located lines
+            long[] keys = new long[waveLines];
+            int located = 0;
+            List<OrderLine> unlocated = new ArrayList<>();
+            for (int k = from; k < to; k++) {
+                int order = (int) orderKeys[k];
+                for (int j = lineOffsets[order]; j < lineOffsets[order + 1]; j++) {
+                    int line = linesByOrder[j];
+                    if (codes[line] == LocationIndex.NO_LOCATION) {
+                        unlocated.add(lines.get(line));
+                    } else {
+                        keys[located++] = (long) index.getWalkRank(codes[line]) << 32 | line;
+                    }
+                }
+            }
+            Arrays.sort(keys, 0, located);
+
+            // Serpentine: every other aisle visited is walked back to front
+            int[] walk = new int[located];
+            boolean reverse = false;
+            int runStart = 0;
+            while (runStart < located) {
+                int aisle = aisleOf((int) keys[runStart]);
+                int runEnd = runStart + 1;
+                while (runEnd < located && aisleOf((int) keys[runEnd]) == aisle) {
+                    runEnd++;
+                }
+                for (int j = runStart; j < runEnd; j++) {
+                    walk[j] = (int) keys[reverse ? runStart + runEnd - 1 - j : j];
+                }
+                reverse = !reverse;
+                runStart = runEnd;
+            }
+
+            List<PickList> pickLists = new ArrayList<>();
+            int[] cuts = splitWalk(walk);
+            for (int p = 0; p + 1 < cuts.length; p++) {
+                List<PickTask> picks = new ArrayList<>(cuts[p + 1] - cuts[p]);
+                int aisleCount = 0;
+                for (int j = cuts[p]; j < cuts[p + 1]; j++) {
+                    int line = walk[j];
+                    picks.add(new PickTask(lines.get(line), index.getCode(codes[line])));
+                    if (j == cuts[p] || aisleOf(line) != aisleOf(walk[j - 1])) {
+                        aisleCount++;
+                    }
+                }
+                pickLists.add(new PickList(p + 1, picks, aisleCount));
+            }
+            return new Wave(waveNumber, to - from, pickLists, unlocated);
+        }
+
+        /**
+         * Cut a walk into one stretch per picker of about equal length, moving each cut
+         * by up to a quarter stretch to fall between two aisles
+         * @return Start of each stretch followed by the walk length
+         */
+        private int[] splitWalk(int[] walk) {
+            int parts = Math.min(pickers, walk.length);
+            int[] cuts = new int[parts + 1];
+            cuts[parts] = walk.length;
+            if (parts == 0) {
+                return cuts;
+            }
+            int slack = walk.length / parts / 4;
+            for (int p = 1; p < parts; p++) {
+                int target = (int) ((long) walk.length * p / parts);
+                int low = cuts[p - 1] + 1;
+                int high = walk.length - (parts - p);
+                int cut = Math.max(low, Math.min(high, target));
+                for (int d = 0; d <= slack; d++) {
+                    if (isAisleBoundary(walk, target - d, low, high)) {
+                        cut = target - d;
+                        break;
+                    }
+                    if (isAisleBoundary(walk, target + d, low, high)) {
+                        cut = target + d;
+                        break;
+                    }
+                }
+                cuts[p] = cut;
+            }
+            return cuts;
+        }
+
+        private boolean isAisleBoundary(int[] walk, int j, int low, int high) {
+            return j >= low && j <= high && aisleOf(walk[j - 1]) != aisleOf(walk[j]);
+        }
+
+        private int aisleOf(int line) {
+            return index.getAisle(codes[line]);
+        }
+    }
+}
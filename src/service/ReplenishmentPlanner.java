@@ -0,0 +1,281 @@
+package service;
+
+import database.DBConnection;
+import metrics.OperationMetrics;
+import metrics.ServiceMetrics;
+import model.InventorySnapshot;
+import model.PurchaseOrder;
+import model.ReorderLine;
+import model.Supplier;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Service class proposing per-supplier purchase orders from recent demand
+ * Items come from the columnar InventorySnapshot and demand from the OUT movements
+ * of the last weeks, summed per item and day by the database and streamed in one
+ * pass. Each item's daily demand is an exponentially weighted moving average of
+ * those daily totals, so recent weeks count most. Reorder decisions are made for
+ * all items in parallel over row ranges of the snapshot:
+ *
+ *   safety stock  = max(min_stock_level, demand * safety days)
+ *   reorder point = demand * lead time + safety stock
+ *   order up to   = demand * (lead time + review period) + safety stock
+ *
+ * An item at or below its reorder point is ordered up to its order-up-to level.
+ * Only the names of the items to order are read afterwards.
+ */
+public class ReplenishmentPlanner {
+
+    // Planning parameters, in days
+    private static final int LOOKBACK_DAYS = Integer.getInteger("warehouse.replenishment.lookbackDays", 56);
+    private static final int HALF_LIFE_DAYS = Integer.getInteger("warehouse.replenishment.halfLifeDays", 14);
+    private static final int LEAD_TIME_DAYS = Integer.getInteger("warehouse.replenishment.leadTimeDays", 7);
+    private static final int REVIEW_DAYS = Integer.getInteger("warehouse.replenishment.reviewDays", 7);
+    private static final int SAFETY_DAYS = Integer.getInteger("warehouse.replenishment.safetyDays", 3);
+
+    // Rows per fork/join leaf, as in InventorySnapshot
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    // Item IDs per name lookup; keeps the IN list well below the packet size
+    private static final int NAME_BATCH_SIZE = 1000;
+
+    // Units picked per item and whole day, yesterday being day 1; today is incomplete and left out
+    private static final String DEMAND_SQL = "SELECT item_id, DATEDIFF(CURRENT_DATE, movement_date), SUM(quantity) " +
+            "FROM stock_movements WHERE movement_type = 'OUT' " +
+            "AND movement_date >= CURRENT_DATE - INTERVAL ? DAY AND movement_date < CURRENT_DATE " +
+            "GROUP BY item_id, DATEDIFF(CURRENT_DATE, movement_date)";
+    private static final String SELECT_NAMES = "SELECT id, name FROM items WHERE id IN ";
+
+    // Latency metrics per operation, see ServiceMetrics
+    private static final OperationMetrics PLAN_PURCHASE_ORDERS = ServiceMetrics.operation("ReplenishmentPlanner.planPurchaseOrders");
+    private static final OperationMetrics LOAD_DEMAND_RATES = ServiceMetrics.operation("ReplenishmentPlanner.loadDemandRates");
+
+    private final ReportService reportService = new ReportService();
+    private final SupplierService supplierService = new SupplierService();
+
+    /**
+     * Plan purchase orders for every item
+     * @return One order per supplier with items to reorder, by supplier name; items without a supplier last
+     * @throws SQLException if items or movements cannot be read
+     */
+    public List<PurchaseOrder> planPurchaseOrders() throws SQLException {
+        long start = PLAN_PURCHASE_ORDERS.start();
+        List<PurchaseOrder> orders;
+        try {
+            InventorySnapshot snapshot = reportService.loadInventorySnapshot();
+            double[] dailyDemand = loadDemandRates(snapshot);
+            Map<Integer, List<ReorderLine>> linesBySupplier = computeReorderLines(snapshot, dailyDemand);
+            loadItemNames(linesBySupplier);
+            orders = toPurchaseOrders(linesBySupplier);
+        } catch (SQLException e) {
+            PLAN_PURCHASE_ORDERS.error(e);
+            PLAN_PURCHASE_ORDERS.finished(start, 0);
+            throw e;
+        }
+
+        int lines = 0;
+        for (PurchaseOrder order : orders) {
+            lines += order.getLines().size();
+        }
+        PLAN_PURCHASE_ORDERS.finished(start, lines);
+        return orders;
+    }
+
+    /**
+     * Read recent demand and reduce it to an expected daily rate per item
+     * The weight of a day's total depends only on its age, so rows can arrive in any
+     * order and each is added to its item's rate as it streams in. Weights are
+     * normalised over the look-back window: steady demand of n a day gives a rate of n.
+     * @param snapshot Items to compute rates for
+     * @return Expected units picked per day, indexed by snapshot row
+     * @throws SQLException if the movements cannot be read
+     */
+    public double[] loadDemandRates(InventorySnapshot snapshot) throws SQLException {
+        long start = LOAD_DEMAND_RATES.start();
+        double[] weights = dayWeights();
+        double[] rates = new double[snapshot.size()];
+        long rowsRead = 0;
+
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(DEMAND_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            pstmt.setInt(1, LOOKBACK_DAYS);
+            // Stream rows instead of buffering the whole result in the driver
+            pstmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rowsRead++;
+                    int row = snapshot.rowOf(rs.getInt(1));
+                    int age = rs.getInt(2);
+                    if (row < 0 || age < 1 || age > LOOKBACK_DAYS) {
+                        // Item deleted since the snapshot, or a movement dated in the future
+                        continue;
+                    }
+                    rates[row] += weights[age] * rs.getLong(3);
+                }
+            }
+        } catch (SQLException e) {
+            LOAD_DEMAND_RATES.error(e);
+            LOAD_DEMAND_RATES.finished(start, 0);
+            throw e;
+        }
+
+        LOAD_DEMAND_RATES.finished(start, rowsRead);
+        return rates;
+    }
+
+    /**
+     * Decide which items to reorder and how many, in parallel for large snapshots
+     * @param snapshot Items
+     * @param dailyDemand Expected units picked per day, indexed by snapshot row
+     * @return Reorder lines per supplier ID, without item names
+     */
+    public Map<Integer, List<ReorderLine>> computeReorderLines(InventorySnapshot snapshot, double[] dailyDemand) {
+        PlanTask task = new PlanTask(snapshot, dailyDemand, 0, snapshot.size());
+        return snapshot.size() < PARALLEL_THRESHOLD ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+    }
+
+    /**
+     * Weight of a daily total by its age in days, index 1 to LOOKBACK_DAYS
+     * EWMA with the smoothing factor of the configured half-life, rescaled so the
+     * weights of the window sum to one
+     */
+    private static double[] dayWeights() {
+        double alpha = 1.0 - Math.pow(0.5, 1.0 / Math.max(HALF_LIFE_DAYS, 1));
+        double[] weights = new double[LOOKBACK_DAYS + 1];
+        double total = 0;
+        for (int age = 1; age <= LOOKBACK_DAYS; age++) {
+            weights[age] = alpha * Math.pow(1.0 - alpha, age - 1);
+            total += weights[age];
+        }
+        for (int age = 1; age <= LOOKBACK_DAYS; age++) {
+            weights[age] /= total;
+        }
+        return weights;
+    }
+
+    /**
+     * Fill in the names of the items to order, a batch of IDs per query
+     */
+    private void loadItemNames(Map<Integer, List<ReorderLine>> linesBySupplier) throws SQLException {
+        Map<Integer, ReorderLine> byItemId = new HashMap<>();
+        for (List<ReorderLine> lines : linesBySupplier.values()) {
+            for (ReorderLine line : lines) {
+                byItemId.put(line.getItemId(), line);
+            }
+        }
+        Integer[] ids = byItemId.keySet().toArray(new Integer[0]);
+
+        try (Connection conn = DBConnection.getReadConnection()) {
+            for (int from = 0; from < ids.length; from += NAME_BATCH_SIZE) {
+                int count = Math.min(NAME_BATCH_SIZE, ids.length - from);
+                StringBuilder sql = new StringBuilder(SELECT_NAMES).append('(');
+                for (int i = 0; i < count; i++) {
+                    sql.append(i == 0 ? "?" : ", ?");
+                }
+                sql.append(')');
+
+                try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                    for (int i = 0; i < count; i++) {
+                        pstmt.setInt(i + 1, ids[from + i]);
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            byItemId.get(rs.getInt(1)).setItemName(rs.getString(2));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * One purchase order per supplier, most urgent lines first
+     */
+    private List<PurchaseOrder> toPurchaseOrders(Map<Integer, List<ReorderLine>> linesBySupplier) {
+        Map<Integer, String> supplierNames = new HashMap<>();
+        for (Supplier supplier : supplierService.getAllSuppliers()) {
+            supplierNames.put(supplier.getId(), supplier.getName());
+        }
+
+        List<PurchaseOrder> orders = new ArrayList<>(linesBySupplier.size());
+        for (Map.Entry<Integer, List<ReorderLine>> entry : linesBySupplier.entrySet()) {
+            int supplierId = entry.getKey();
+            List<ReorderLine> lines = entry.getValue();
+            lines.sort(Comparator.comparingDouble(ReorderLine::getDaysOfCover).thenComparingInt(ReorderLine::getItemId));
+            String name = supplierId == 0 ? "No supplier" : supplierNames.getOrDefault(supplierId, "Supplier #" + supplierId);
+            orders.add(new PurchaseOrder(supplierId, name, lines));
+        }
+        orders.sort(Comparator.comparing((PurchaseOrder order) -> order.getSupplierId() == 0)
+                .thenComparing(PurchaseOrder::getSupplierName, String.CASE_INSENSITIVE_ORDER));
+        return orders;
+    }
+
+    /**
+     * Fork/join planning over a row range; each leaf groups its own lines by supplier
+     */
+    private static final class PlanTask extends RecursiveTask<Map<Integer, List<ReorderLine>>> {
+        private final InventorySnapshot snapshot;
+        private final double[] dailyDemand;
+        private final int from;
+        private final int to;
+
+        private PlanTask(InventorySnapshot snapshot, double[] dailyDemand, int from, int to) {
+            this.snapshot = snapshot;
+            this.dailyDemand = dailyDemand;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Integer, List<ReorderLine>> compute() {
+            if (to - from > PARALLEL_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                PlanTask left = new PlanTask(snapshot, dailyDemand, from, mid);
+                left.fork();
+                Map<Integer, List<ReorderLine>> right = new PlanTask(snapshot, dailyDemand, mid, to).compute();
+                return merge(left.join(), right);
+            }
+
+            Map<Integer, List<ReorderLine>> lines = new HashMap<>();
+            for (int row = from; row < to; row++) {
+                double demand = dailyDemand[row];
+                int quantity = snapshot.getQuantity(row);
+                long safetyStock = Math.max(snapshot.getMinStockLevel(row), (long) Math.ceil(demand * SAFETY_DAYS));
+                long reorderPoint = (long) Math.ceil(demand * LEAD_TIME_DAYS) + safetyStock;
+                // Nothing sold and no minimum: there is nothing to cover
+                if (reorderPoint == 0 || quantity > reorderPoint) {
+                    continue;
+                }
+
+                long orderUpTo = (long) Math.ceil(demand * (LEAD_TIME_DAYS + REVIEW_DAYS)) + safetyStock;
+                int reorderQuantity = (int) Math.min(Math.max(orderUpTo - quantity, 1), Integer.MAX_VALUE);
+                double daysOfCover = demand > 0 ? Math.max(quantity, 0) / demand : Double.POSITIVE_INFINITY;
+                ReorderLine line = new ReorderLine(snapshot.getId(row), snapshot.getSupplierId(row), quantity,
+                    snapshot.getMinStockLevel(row), demand, daysOfCover, (int) Math.min(reorderPoint, Integer.MAX_VALUE),
+                    reorderQuantity, snapshot.getPriceCents(row));
+                lines.computeIfAbsent(line.getSupplierId(), k -> new ArrayList<>()).add(line);
+            }
+            return lines;
+        }
+
+        private static Map<Integer, List<ReorderLine>> merge(Map<Integer, List<ReorderLine>> into,
+                                                             Map<Integer, List<ReorderLine>> other) {
+            for (Map.Entry<Integer, List<ReorderLine>> entry : other.entrySet()) {
+                List<ReorderLine> lines = into.get(entry.getKey());
+                if (lines == null) {
+                    into.put(entry.getKey(), entry.getValue());
+                } else {
+                    lines.addAll(entry.getValue());
+                }
+            }
+            return into;
+        }
+    }
+}
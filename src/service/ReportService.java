@@ -0,0 +1,207 @@
+package service;
+
+import database.DBConnection;
+import metrics.OperationMetrics;
+import metrics.ServiceMetrics;
+import model.CategorySummary;
+import model.InventorySnapshot;
+import model.LocationSummary;
+import model.Supplier;
+import model.SupplierSummary;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service class for reporting operations
+ * Category, location and supplier figures come from item_summaries, which the item
+ * triggers keep current (see SummaryReconciler), so they cost O(categories) rather
+ * than a scan of the items table
+ */
+public class ReportService {
+    
+    // Summary totals are split over slots; these sum them per value
+    private static final String SUMMARY_COLUMNS = "SELECT dim_value, SUM(item_count), SUM(total_quantity), " +
+            "SUM(total_value_cents), SUM(low_stock_count) FROM item_summaries ";
+    
+    // Latency metrics per operation, see ServiceMetrics
+    private static final OperationMetrics SUPPLIER_SUMMARIES = ServiceMetrics.operation("ReportService.getSupplierSummaries");
+    private static final OperationMetrics CATEGORY_SUMMARIES = ServiceMetrics.operation("ReportService.getCategorySummaries");
+    private static final OperationMetrics LOCATION_SUMMARIES = ServiceMetrics.operation("ReportService.getLocationSummaries");
+    private static final OperationMetrics INVENTORY_TOTALS = ServiceMetrics.operation("ReportService.getInventoryTotals");
+    private static final OperationMetrics LOAD_INVENTORY_SNAPSHOT = ServiceMetrics.operation("ReportService.loadInventorySnapshot");
+    
+    /**
+     * Get every supplier together with the number of items it supplies
+     * Suppliers without items are included with a count of zero
+     * @return List of supplier summaries ordered by supplier ID
+     */
+    public List<SupplierSummary> getSupplierSummaries() {
+        long start = SUPPLIER_SUMMARIES.start();
+        List<SupplierSummary> summaries = new ArrayList<>();
+        String supplierColumns = SupplierRowMapper.columns("s");
+        String sql = "SELECT " + supplierColumns + ", COALESCE(t.item_count, 0) " +
+                     "FROM suppliers s LEFT JOIN (" +
+                     "SELECT dim_value, SUM(item_count) AS item_count FROM item_summaries " +
+                     "WHERE dimension = 'SUPPLIER' GROUP BY dim_value" +
+                     ") t ON t.dim_value = CAST(s.id AS CHAR) ORDER BY s.id";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            while (rs.next()) {
+                Supplier supplier = SupplierRowMapper.INSTANCE.map(rs);
+                summaries.add(new SupplierSummary(supplier, rs.getInt(5)));
+            }
+            
+        } catch (SQLException e) {
+            SUPPLIER_SUMMARIES.error(e);
+            System.err.println("Error retrieving supplier summaries: " + e.getMessage());
+        }
+        
+        SUPPLIER_SUMMARIES.finished(start, summaries.size());
+        return summaries;
+    }
+    
+    /**
+     * Get item count, total quantity, total value and low stock count per category
+     * @return List of category summaries ordered by category name
+     */
+    public List<CategorySummary> getCategorySummaries() {
+        long start = CATEGORY_SUMMARIES.start();
+        List<CategorySummary> summaries = new ArrayList<>();
+        String sql = SUMMARY_COLUMNS + "WHERE dimension = 'CATEGORY' AND dim_value <> '' " +
+                     "GROUP BY dim_value HAVING SUM(item_count) > 0 ORDER BY dim_value";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            while (rs.next()) {
+                summaries.add(new CategorySummary(
+                    rs.getString(1),
+                    rs.getInt(2),
+                    rs.getLong(3),
+                    rs.getLong(4) / 100.0,
+                    rs.getInt(5)
+                ));
+            }
+            
+        } catch (SQLException e) {
+            CATEGORY_SUMMARIES.error(e);
+            System.err.println("Error retrieving category summaries: " + e.getMessage());
+        }
+        
+        CATEGORY_SUMMARIES.finished(start, summaries.size());
+        return summaries;
+    }
+    
+    /**
+     * Get item count, total quantity, total value and low stock count per location
+     * @return List of location summaries ordered by location
+     */
+    public List<LocationSummary> getLocationSummaries() {
+        long start = LOCATION_SUMMARIES.start();
+        List<LocationSummary> summaries = new ArrayList<>();
+        String sql = SUMMARY_COLUMNS + "WHERE dimension = 'LOCATION' AND dim_value <> '' " +
+                     "GROUP BY dim_value HAVING SUM(item_count) > 0 ORDER BY dim_value";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            while (rs.next()) {
+                summaries.add(new LocationSummary(
+                    rs.getString(1),
+                    rs.getInt(2),
+                    rs.getLong(3),
+                    rs.getLong(4) / 100.0,
+                    rs.getInt(5)
+                ));
+            }
+            
+        } catch (SQLException e) {
+            LOCATION_SUMMARIES.error(e);
+            System.err.println("Error retrieving location summaries: " + e.getMessage());
+        }
+        
+        LOCATION_SUMMARIES.finished(start, summaries.size());
+        return summaries;
+    }
+    
+    /**
+     * Get warehouse-wide totals, including items without a category
+     * @return Summary with a null category, or null if it could not be read
+     */
+    public CategorySummary getInventoryTotals() {
+        long start = INVENTORY_TOTALS.start();
+        CategorySummary totals = null;
+        String sql = "SELECT NULL, COALESCE(SUM(item_count), 0), COALESCE(SUM(total_quantity), 0), " +
+                     "COALESCE(SUM(total_value_cents), 0), COALESCE(SUM(low_stock_count), 0) " +
+                     "FROM item_summaries WHERE dimension = 'CATEGORY'";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            if (rs.next()) {
+                totals = new CategorySummary(null, rs.getInt(2), rs.getLong(3), rs.getLong(4) / 100.0, rs.getInt(5));
+            }
+            
+        } catch (SQLException e) {
+            INVENTORY_TOTALS.error(e);
+            System.err.println("Error retrieving inventory totals: " + e.getMessage());
+        }
+        
+        INVENTORY_TOTALS.finished(start, totals != null ? 1 : 0);
+        return totals;
+    }
+    
+    /**
+     * Load the whole items table into a columnar snapshot in one streaming pass
+     * Prices are converted to cents and timestamps to epoch milliseconds by the
+     * database so numeric columns are read as primitives; category and location are
+     * still read as one String each per row and encoded into dictionary codes
+     * @return InventorySnapshot of every item
+     * @throws SQLException if the table cannot be read
+     */
+    public InventorySnapshot loadInventorySnapshot() throws SQLException {
+        long start = LOAD_INVENTORY_SNAPSHOT.start();
+        InventorySnapshot.Builder builder = new InventorySnapshot.Builder();
+        String sql = "SELECT id, COALESCE(quantity, 0), COALESCE(min_stock_level, 0), " +
+                     "CAST(ROUND(COALESCE(price, 0) * 100) AS SIGNED), COALESCE(supplier_id, 0), category, location, " +
+                     "COALESCE(UNIX_TIMESTAMP(created_date) * 1000, 0), COALESCE(UNIX_TIMESTAMP(updated_date) * 1000, 0) " +
+                     "FROM items";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            // Stream rows instead of buffering the whole result in the driver
+            pstmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    builder.add(
+                        rs.getInt(1),
+                        rs.getInt(2),
+                        rs.getInt(3),
+                        rs.getLong(4),
+                        rs.getInt(5),
+                        rs.getString(6),
+                        rs.getString(7),
+                        rs.getLong(8),
+                        rs.getLong(9)
+                    );
+                }
+            }
+        } catch (SQLException e) {
+            LOAD_INVENTORY_SNAPSHOT.error(e);
+            LOAD_INVENTORY_SNAPSHOT.finished(start, 0);
+            throw e;
+        }
+        
+        InventorySnapshot snapshot = builder.build();
+        LOAD_INVENTORY_SNAPSHOT.finished(start, snapshot.size());
+        return snapshot;
+    }
+}
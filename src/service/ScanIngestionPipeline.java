@@ -0,0 +1,402 @@
+package service;
+
+import database.DBConnection;
+import metrics.OperationMetrics;
+import metrics.ServiceMetrics;
+import model.ScanEvent;
+import model.StockMovement;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ingests barcode scans from scanner stations at thousands of scans per second
+ * Stations hand scans to a bounded ring buffer. A single writer drains it, sums the
+ * deltas per item, user and location over a short window and records the result
+ * through StockMovementService as one batch of stock movements with a single
+ * quantity update per item.
+ *
+ * The writer takes whatever queued up while the previous batch was committing, so
+ * batches grow as the database slows down. When it falls further behind, the ring
+ * buffer fills and submit() holds stations back (up to their timeout) instead of
+ * queueing without bound. Lost connections and deadlocks are retried with backoff;
+ * a movement the database rejects, e.g. for an unknown item, is dropped and counted.
+ */
+public class ScanIngestionPipeline implements ScanIngestionPipelineMXBean {
+
+    private static final int RING_CAPACITY = 65_536;
+    // How long the writer keeps collecting scans after the first scan of a batch
+    private static final long COALESCE_WINDOW_MILLIS = 50;
+    // Distinct movements per batch; a full batch is flushed without waiting out the window
+    private static final int MAX_BATCH_MOVEMENTS = 2_000;
+    private static final int DRAIN_CHUNK = 4_096;
+    // How often an idle writer checks whether it should stop
+    private static final long IDLE_POLL_MILLIS = 100;
+    private static final long RETRY_BACKOFF_MIN_MILLIS = 100;
+    private static final long RETRY_BACKOFF_MAX_MILLIS = 5_000;
+    // Attempts per batch once shutting down, so a dead database cannot block exit
+    private static final int SHUTDOWN_ATTEMPTS = 3;
+    // Width of stock_movements.reason
+    private static final int MAX_REASON_LENGTH = 100;
+
+    private static final ScanIngestionPipeline INSTANCE = new ScanIngestionPipeline();
+    private static final OperationMetrics FLUSH = ServiceMetrics.operation("ScanIngestionPipeline.flush");
+
+    private final ArrayBlockingQueue<ScanEvent> ring = new ArrayBlockingQueue<>(RING_CAPACITY);
+    private final StockMovementService movementService = new StockMovementService();
+    private Thread writer;
+    private volatile boolean stopping;
+    // Submitters check stopping and offer under the read lock; shutdown() sets it under the
+    // write lock, so once it is set no scan can still be on its way into the ring
+    private final ReentrantReadWriteLock submitLock = new ReentrantReadWriteLock();
+
+    // Per-stage counters
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder flushedScans = new LongAdder();
+    private final LongAdder flushedMovements = new LongAdder();
+    private final LongAdder droppedScans = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    /**
+     * Scans of one item by one user at one location, summed over a batch window
+     */
+    private static final class Coalesced {
+        private final int itemId;
+        private final String userName;
+        private final String location;
+        private int delta;
+        private int scans;
+
+        private Coalesced(int itemId, String userName, String location) {
+            this.itemId = itemId;
+            this.userName = userName;
+            this.location = location;
+        }
+    }
+
+    /**
+     * Key scans are coalesced by
+     */
+    private static final class Key {
+        private final int itemId;
+        private final String userName;
+        private final String location;
+
+        private Key(ScanEvent event) {
+            this.itemId = event.getItemId();
+            this.userName = event.getUserName();
+            this.location = event.getLocation();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return itemId == other.itemId && Objects.equals(userName, other.userName)
+                && Objects.equals(location, other.location);
+        }
+
+        @Override
+        public int hashCode() {
+            return (itemId * 31 + Objects.hashCode(userName)) * 31 + Objects.hashCode(location);
+        }
+    }
+
+    /**
+     * Get the shared pipeline
+     * @return ScanIngestionPipeline instance
+     */
+    public static ScanIngestionPipeline getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Submit a scan, waiting while the ring buffer is full
+     * @param event Scan to record
+     * @param timeout How long to wait for room
+     * @param unit Unit of the timeout
+     * @return true if accepted, false if the pipeline is full or shut down;
+     *         the station should slow down and resend
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean submit(ScanEvent event, long timeout, TimeUnit unit) throws InterruptedException {
+        submitLock.readLock().lock();
+        try {
+            if (!stopping) {
+                start();
+                if (ring.offer(event, timeout, unit)) {
+                    accepted.increment();
+                    return true;
+                }
+            }
+        } finally {
+            submitLock.readLock().unlock();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Submit a scan without waiting
+     * @param event Scan to record
+     * @return true if accepted, false if the pipeline is full or shut down
+     */
+    public boolean trySubmit(ScanEvent event) {
+        submitLock.readLock().lock();
+        try {
+            if (!stopping) {
+                start();
+                if (ring.offer(event)) {
+                    accepted.increment();
+                    return true;
+                }
+            }
+        } finally {
+            submitLock.readLock().unlock();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Start the writer thread on first use
+     */
+    private synchronized void start() {
+        if (writer != null) {
+            return;
+        }
+        writer = new Thread(this::runWriter, "scan-ingestion-writer");
+        writer.setDaemon(true);
+        writer.start();
+        ServiceMetrics.registerMBean("type=ScanIngestionPipeline", this);
+        ServiceMetrics.addReporter(() -> "scans accepted=" + getAcceptedCount() + " rejected=" + getRejectedCount()
+            + " dropped=" + getDroppedScanCount() + " queue=" + getQueueDepth() + "/" + RING_CAPACITY);
+        DBConnection.addShutdownTask(this::shutdown);
+    }
+
+    /**
+     * Stop accepting scans and wait for the buffered ones to be written
+     * Waits for submitters still blocked on a full ring, up to their timeout. The writer
+     * is not interrupted: an interrupt during a flush would fail the connection borrow
+     * and drop the batch, and every one after it, as bad scans.
+     */
+    public void shutdown() {
+        submitLock.writeLock().lock();
+        try {
+            stopping = true;
+        } finally {
+            submitLock.writeLock().unlock();
+        }
+        Thread running;
+        synchronized (this) {
+            running = writer;
+        }
+        if (running == null) {
+            return;
+        }
+        try {
+            running.join(30_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter() {
+        List<ScanEvent> drained = new ArrayList<>(DRAIN_CHUNK);
+        while (true) {
+            ScanEvent first;
+            try {
+                first = ring.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // Only shutdown() stops the writer
+                continue;
+            }
+            if (first == null) {
+                if (stopping) {
+                    break;
+                }
+                continue;
+            }
+            Map<Key, Coalesced> batch = new LinkedHashMap<>();
+            add(batch, first);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(COALESCE_WINDOW_MILLIS);
+            try {
+                while (batch.size() < MAX_BATCH_MOVEMENTS) {
+                    ScanEvent next = ring.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    add(batch, next);
+                    drained.clear();
+                    ring.drainTo(drained, DRAIN_CHUNK);
+                    for (ScanEvent event : drained) {
+                        add(batch, event);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Not used to stop the writer; write what was collected
+            }
+            flush(batch);
+        }
+
+        // Scans offered between the last poll and shutdown(); nothing is offered after it
+        while (!ring.isEmpty()) {
+            Map<Key, Coalesced> batch = new LinkedHashMap<>();
+            ScanEvent event;
+            while (batch.size() < MAX_BATCH_MOVEMENTS && (event = ring.poll()) != null) {
+                add(batch, event);
+            }
+            flush(batch);
+        }
+    }
+
+    private static void add(Map<Key, Coalesced> batch, ScanEvent event) {
+        Coalesced coalesced = batch.computeIfAbsent(new Key(event),
+            k -> new Coalesced(k.itemId, k.userName, k.location));
+        coalesced.delta += event.getDelta();
+        coalesced.scans++;
+    }
+
+    /**
+     * Record a batch, retrying while the database is unreachable
+     */
+    private void flush(Map<Key, Coalesced> batch) {
+        List<Coalesced> sources = new ArrayList<>(batch.size());
+        List<StockMovement> movements = new ArrayList<>(batch.size());
+        int scans = 0;
+        for (Coalesced coalesced : batch.values()) {
+            scans += coalesced.scans;
+            // Scans that cancel out (e.g. a pick and its undo) leave nothing to record
+            if (coalesced.delta != 0) {
+                sources.add(coalesced);
+                movements.add(toMovement(coalesced));
+            }
+        }
+        if (movements.isEmpty()) {
+            flushedScans.add(scans);
+            return;
+        }
+
+        long start = FLUSH.start();
+        long backoff = RETRY_BACKOFF_MIN_MILLIS;
+        int attempts = 0;
+        while (true) {
+            try {
+                movementService.recordBatch(movements);
+                flushedScans.add(scans);
+                flushedMovements.add(movements.size());
+                FLUSH.finished(start, movements.size());
+                return;
+            } catch (SQLException e) {
+                FLUSH.error(e);
+                attempts++;
+                if (!isTransient(e)) {
+                    // Some movement is bad; find it by writing them one at a time
+                    flushIndividually(sources, movements);
+                    FLUSH.finished(start, movements.size());
+                    return;
+                }
+                if (stopping && attempts >= SHUTDOWN_ATTEMPTS) {
+                    System.err.println("Dropping " + scans + " scans at shutdown: " + e.getMessage());
+                    droppedScans.add(scans);
+                    FLUSH.finished(start, 0);
+                    return;
+                }
+                retries.increment();
+                System.err.println("Error writing scans, retrying in " + backoff + "ms: " + e.getMessage());
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                // Not used to stop the writer; retry now
+            }
+            backoff = Math.min(backoff * 2, RETRY_BACKOFF_MAX_MILLIS);
+        }
+    }
+
+    private void flushIndividually(List<Coalesced> sources, List<StockMovement> movements) {
+        for (int i = 0; i < movements.size(); i++) {
+            Coalesced coalesced = sources.get(i);
+            try {
+                movementService.recordBatch(List.of(movements.get(i)));
+                flushedScans.add(coalesced.scans);
+                flushedMovements.increment();
+            } catch (SQLException e) {
+                System.err.println("Dropping " + coalesced.scans + " scans of item " + coalesced.itemId + ": " + e.getMessage());
+                droppedScans.add(coalesced.scans);
+            }
+        }
+    }
+
+    private static StockMovement toMovement(Coalesced coalesced) {
+        StockMovement.Type type = coalesced.delta > 0 ? StockMovement.Type.IN : StockMovement.Type.OUT;
+        String reason = "Scan x" + coalesced.scans + (coalesced.location != null ? " at " + coalesced.location : "");
+        if (reason.length() > MAX_REASON_LENGTH) {
+            reason = reason.substring(0, MAX_REASON_LENGTH);
+        }
+        return new StockMovement(coalesced.itemId, type, Math.abs(coalesced.delta), reason, coalesced.userName);
+    }
+
+    /**
+     * Whether a failure is worth retrying as is: lost connections, pool timeouts, deadlocks
+     */
+    private static boolean isTransient(SQLException e) {
+        return e instanceof SQLTransientException
+            || e instanceof SQLRecoverableException
+            || e instanceof SQLNonTransientConnectionException;
+    }
+
+    // MXBean attributes
+    @Override
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public long getFlushedScanCount() {
+        return flushedScans.sum();
+    }
+
+    @Override
+    public long getFlushedMovementCount() {
+        return flushedMovements.sum();
+    }
+
+    @Override
+    public long getDroppedScanCount() {
+        return droppedScans.sum();
+    }
+
+    @Override
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return ring.size();
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return RING_CAPACITY;
+    }
+}
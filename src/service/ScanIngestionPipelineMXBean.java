@@ -0,0 +1,30 @@
+package service;
+
+/**
+ * JMX view of the scan ingestion pipeline
+ * Registered as warehouse:type=ScanIngestionPipeline
+ */
+public interface ScanIngestionPipelineMXBean {
+
+    /** Scans accepted into the ring buffer */
+    long getAcceptedCount();
+
+    /** Scans refused because the ring buffer stayed full (backpressure) */
+    long getRejectedCount();
+
+    /** Scans written to the database */
+    long getFlushedScanCount();
+
+    /** Coalesced movements written to the database */
+    long getFlushedMovementCount();
+
+    /** Scans dropped because their movement could not be recorded, e.g. unknown item */
+    long getDroppedScanCount();
+
+    /** Flushes retried after a connection failure */
+    long getRetryCount();
+
+    int getQueueDepth();
+
+    int getQueueCapacity();
+}
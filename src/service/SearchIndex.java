@@ -0,0 +1,330 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * In-memory text index over records identified by an int ID
+ * Each record has one or more text fields; the first is the primary field
+ * (e.g. a name) used for ranking. Substrings of three characters or more are
+ * found through trigram postings, shorter search terms match the start of words
+ * through a sorted word map, so search-as-you-type works from the first keystroke.
+ *
+ * Postings are kept as sorted int arrays to keep memory close to four bytes per
+ * trigram occurrence. The index is not thread-safe; callers synchronize.
+ */
+public class SearchIndex {
+    /** Shortest search term answered by substring match rather than word prefix */
+    public static final int GRAM = 3;
+
+    private final Map<Integer, String[]> entries = new HashMap<>();
+    private final Map<Long, Postings> grams = new HashMap<>();
+    private final TreeMap<String, Postings> words = new TreeMap<>();
+
+    /**
+     * Add or replace a record
+     * @param id Record ID
+     * @param fields Text fields, primary field first; null fields are skipped
+     */
+    public void put(int id, String... fields) {
+        remove(id);
+        String[] normalized = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            normalized[i] = normalize(fields[i]);
+        }
+        entries.put(id, normalized);
+        for (String field : normalized) {
+            forEachGram(field, gram -> grams.computeIfAbsent(gram, k -> new Postings()).add(id));
+            for (String word : words(field)) {
+                words.computeIfAbsent(word, k -> new Postings()).add(id);
+            }
+        }
+    }
+
+    /**
+     * Remove a record
+     * @param id Record ID
+     */
+    public void remove(int id) {
+        String[] fields = entries.remove(id);
+        if (fields == null) {
+            return;
+        }
+        for (String field : fields) {
+            forEachGram(field, gram -> {
+                Postings postings = grams.get(gram);
+                if (postings != null && postings.remove(id) && postings.size == 0) {
+                    grams.remove(gram);
+                }
+            });
+            for (String word : words(field)) {
+                Postings postings = words.get(word);
+                if (postings != null && postings.remove(id) && postings.size == 0) {
+                    words.remove(word);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove every record
+     */
+    public void clear() {
+        entries.clear();
+        grams.clear();
+        words.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Find records matching every whitespace-separated term of a query
+     * Results are ranked: primary field equal to the query, starting with it,
+     * having a word starting with it, containing it, then other matches;
+     * ties are broken by the shorter, then alphabetically first, primary field.
+     * @param query Search text, case-insensitive
+     * @param primaryOnly Match only the primary field
+     * @param limit Maximum number of IDs returned
+     * @return Matching record IDs, best first
+     */
+    public List<Integer> search(String query, boolean primaryOnly, int limit) {
+        String q = normalize(query).trim();
+        if (q.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        String[] terms = q.split("\\s+");
+        // Only the most selective (longest) term goes through the postings; the rest are checked per candidate
+        String driver = terms[0];
+        for (String term : terms) {
+            if (term.length() > driver.length()) {
+                driver = term;
+            }
+        }
+        int[] candidates = candidates(driver);
+
+        Comparator<Ranked> order = Comparator.<Ranked>comparingInt(r -> r.score)
+            .thenComparingInt(r -> r.primary.length())
+            .thenComparing(r -> r.primary)
+            .thenComparingInt(r -> r.id);
+        PriorityQueue<Ranked> best = new PriorityQueue<>(order.reversed());
+        for (int id : candidates) {
+            String[] fields = entries.get(id);
+            if (fields == null || !matchesAll(fields, terms, primaryOnly)) {
+                continue;
+            }
+            String primary = fields.length > 0 && fields[0] != null ? fields[0] : "";
+            best.add(new Ranked(id, score(primary, q), primary));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Ranked> ranked = new ArrayList<>(best);
+        ranked.sort(order);
+        List<Integer> ids = new ArrayList<>(ranked.size());
+        for (Ranked r : ranked) {
+            ids.add(r.id);
+        }
+        return ids;
+    }
+
+    /**
+     * Candidate IDs for one term, sorted; may contain false positives for trigram lookups
+     */
+    private int[] candidates(String term) {
+        if (term.length() < GRAM) {
+            Collection<Postings> matches = words.subMap(term, true, term + Character.MAX_VALUE, true).values();
+            int total = 0;
+            for (Postings postings : matches) {
+                total += postings.size;
+            }
+            int[] ids = new int[total];
+            int n = 0;
+            for (Postings postings : matches) {
+                System.arraycopy(postings.ids, 0, ids, n, postings.size);
+                n += postings.size;
+            }
+            Arrays.sort(ids);
+            return dedupe(ids);
+        }
+
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            Postings postings = grams.get(gram(term, i));
+            if (postings == null) {
+                return new int[0];
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(p -> p.size));
+        Postings smallest = lists.get(0);
+        int[] ids = new int[smallest.size];
+        int n = 0;
+        outer:
+        for (int i = 0; i < smallest.size; i++) {
+            int id = smallest.ids[i];
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(id)) {
+                    continue outer;
+                }
+            }
+            ids[n++] = id;
+        }
+        return Arrays.copyOf(ids, n);
+    }
+
+    private static boolean matchesAll(String[] fields, String[] terms, boolean primaryOnly) {
+        int searched = primaryOnly ? Math.min(1, fields.length) : fields.length;
+        for (String term : terms) {
+            boolean found = false;
+            for (int i = 0; i < searched && !found; i++) {
+                found = fields[i] != null && matches(fields[i], term);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(String field, String term) {
+        if (term.length() >= GRAM) {
+            return field.contains(term);
+        }
+        for (int at = field.indexOf(term); at >= 0; at = field.indexOf(term, at + 1)) {
+            if (at == 0 || !Character.isLetterOrDigit(field.charAt(at - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int score(String primary, String query) {
+        if (primary.equals(query)) {
+            return 0;
+        }
+        if (primary.startsWith(query)) {
+            return 1;
+        }
+        int at = primary.indexOf(query);
+        if (at > 0 && !Character.isLetterOrDigit(primary.charAt(at - 1))) {
+            return 2;
+        }
+        return at > 0 ? 3 : 4;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? null : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> words(String field) {
+        List<String> result = new ArrayList<>();
+        if (field == null) {
+            return result;
+        }
+        int start = -1;
+        for (int i = 0; i <= field.length(); i++) {
+            boolean wordChar = i < field.length() && Character.isLetterOrDigit(field.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                result.add(field.substring(start, i));
+                start = -1;
+            }
+        }
+        return result;
+    }
+
+    private interface GramConsumer {
+        void accept(long gram);
+    }
+
+    private static void forEachGram(String field, GramConsumer consumer) {
+        if (field == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM <= field.length(); i++) {
+            consumer.accept(gram(field, i));
+        }
+    }
+
+    private static long gram(String s, int at) {
+        return ((long) s.charAt(at) << 32) | ((long) s.charAt(at + 1) << 16) | s.charAt(at + 2);
+    }
+
+    private static int[] dedupe(int[] sorted) {
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (n == 0 || sorted[n - 1] != sorted[i]) {
+                sorted[n++] = sorted[i];
+            }
+        }
+        return n == sorted.length ? sorted : Arrays.copyOf(sorted, n);
+    }
+
+    /**
+     * Sorted, duplicate-free list of record IDs
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            // Bulk loads arrive in ID order, which makes this an append
+            if (size > 0 && ids[size - 1] >= id) {
+                int at = Arrays.binarySearch(ids, 0, size, id);
+                if (at >= 0) {
+                    return;
+                }
+                insertAt(-at - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        private void insertAt(int at, int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+
+    private static final class Ranked {
+        private final int id;
+        private final int score;
+        private final String primary;
+
+        private Ranked(int id, int score, String primary) {
+            this.id = id;
+            this.score = score;
+            this.primary = primary;
+        }
+    }
+}
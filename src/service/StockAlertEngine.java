@@ -0,0 +1,403 @@
+package service;
+
+import model.Item;
+import model.ItemChange;
+import model.StockAlert;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Raises low stock alerts as stock changes are written, without querying the items table
+ * The service write paths hand every item they write (stock movements and scans after
+ * re-reading the committed rows) to itemChanged(); changes from other stations arrive
+ * through the item change feed. The engine keeps state only for items that are short
+ * or were recently alerted, with the short ones in a set ordered by deficit, largest
+ * first, for the dashboard. An alert is raised when an item falls to or below its
+ * minimum stock level, raised again when it runs out, and resolved when it recovers.
+ *
+ * Alerts are deduplicated and rate-limited before they reach the sinks:
+ * - only changes of level are sent, so stock moving within a level is silent;
+ * - an item is notified at most once per warehouse.alerts.minIntervalSeconds, except
+ *   when it runs out; changes inside the interval are held back, and the item's level
+ *   at the end of the interval is sent if it still differs, so a flapping item
+ *   produces one alert instead of one per scan;
+ * - at most warehouse.alerts.maxPerSecond alerts are sent overall; the rest queue up,
+ *   once per item, and are sent in order at that rate, so a bulk import cannot flood
+ *   a pager.
+ *
+ * Sinks are called on a single dispatch thread, never on the writer's thread.
+ */
+public class StockAlertEngine {
+    private static final long MIN_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(Long.getLong("warehouse.alerts.minIntervalSeconds", 300));
+    private static final int MAX_ALERTS_PER_SECOND = Math.max(Integer.getInteger("warehouse.alerts.maxPerSecond", 50), 1);
+    private static final String SINK_CLASSES = System.getProperty("warehouse.alerts.sinks", "").trim();
+
+    // Largest deficit first; items out of stock by their deficit like the others
+    private static final Comparator<ItemState> BY_DEFICIT = Comparator
+            .comparingInt((ItemState state) -> state.minStockLevel - state.quantity).reversed()
+            .thenComparingInt(state -> state.itemId);
+
+    // Created after BY_DEFICIT, which its queue needs
+    private static final StockAlertEngine INSTANCE = new StockAlertEngine();
+
+    private final List<StockAlertSink> sinks = new CopyOnWriteArrayList<>();
+    private volatile boolean started;
+    private ScheduledExecutorService dispatcher;
+
+    // Guarded by this
+    private final Map<Integer, ItemState> states = new HashMap<>();
+    private final TreeSet<ItemState> shortItems = new TreeSet<>(BY_DEFICIT);
+    // Items waiting for the overall rate limit, oldest first
+    private final LinkedHashSet<Integer> backlog = new LinkedHashSet<>();
+    private boolean drainScheduled;
+    private double tokens = MAX_ALERTS_PER_SECOND;
+    private long tokensRefilledAt = System.nanoTime();
+
+    private final LongAdder raisedCount = new LongAdder();
+    private final LongAdder resolvedCount = new LongAdder();
+    private final LongAdder deferredCount = new LongAdder();
+
+    /**
+     * Alert state of one item
+     */
+    private static final class ItemState {
+        private final int itemId;
+        private String itemName;
+        private int quantity;
+        private int minStockLevel;
+        private StockAlert.Level level = StockAlert.Level.RESOLVED;
+        // What the sinks were last told, and when
+        private StockAlert.Level notifiedLevel = StockAlert.Level.RESOLVED;
+        private long notifiedAtMillis = Long.MIN_VALUE / 2;
+        private boolean flushScheduled;
+
+        private ItemState(int itemId) {
+            this.itemId = itemId;
+        }
+
+        private StockAlert toAlert(long timeMillis) {
+            return new StockAlert(level, itemId, itemName, quantity, minStockLevel, timeMillis);
+        }
+    }
+
+    /**
+     * Get the shared engine
+     * @return StockAlertEngine instance
+     */
+    public static StockAlertEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Start evaluating stock changes
+     * Items already short are picked up once from the low stock query without alerting,
+     * sinks named in warehouse.alerts.sinks are added, and changes made by other
+     * stations are followed through the item change feed.
+     */
+    public void start() {
+        synchronized (this) {
+            if (started) {
+                return;
+            }
+            dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "stock-alerts");
+                t.setDaemon(true);
+                return t;
+            });
+            started = true;
+        }
+
+        for (String className : SINK_CLASSES.split(",")) {
+            if (!className.isBlank()) {
+                addConfiguredSink(className.trim());
+            }
+        }
+
+        // Items the writers have already reported since start() are more recent than this query
+        List<Item> lowStock = new InventoryService().getLowStockItems();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            for (Item item : lowStock) {
+                if (!states.containsKey(item.getId())) {
+                    ItemState state = new ItemState(item.getId());
+                    update(state, item);
+                    state.notifiedLevel = state.level;
+                    state.notifiedAtMillis = now;
+                    if (state.level != StockAlert.Level.RESOLVED) {
+                        states.put(state.itemId, state);
+                        shortItems.add(state);
+                    }
+                }
+            }
+        }
+
+        ItemChangeFeed.getInstance().addListener(changes -> {
+            for (ItemChange change : changes) {
+                if (change.getType() == ItemChange.Type.DELETE) {
+                    itemRemoved(change.getItemId());
+                } else {
+                    itemChanged(change.getItem());
+                }
+            }
+        });
+    }
+
+    private void addConfiguredSink(String className) {
+        try {
+            addSink((StockAlertSink) Class.forName(className).getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            System.err.println("Error creating stock alert sink " + className + ": " + e);
+        }
+    }
+
+    /**
+     * Register a sink for alerts raised from now on
+     * @param sink Sink to add
+     */
+    public void addSink(StockAlertSink sink) {
+        sinks.add(sink);
+    }
+
+    /**
+     * Unregister a sink
+     * @param sink Sink to remove
+     */
+    public void removeSink(StockAlertSink sink) {
+        sinks.remove(sink);
+    }
+
+    /**
+     * Evaluate the committed state of a written item
+     * Called by the service write paths; returns at once for items that are not short
+     * and were not alerted recently, which is almost every write
+     * @param item Item as stored
+     */
+    public void itemChanged(Item item) {
+        if (!started || item == null) {
+            return;
+        }
+        boolean isShort = item.getQuantity() <= item.getMinStockLevel();
+        synchronized (this) {
+            ItemState state = states.get(item.getId());
+            if (state == null) {
+                if (!isShort) {
+                    return;
+                }
+                state = new ItemState(item.getId());
+                states.put(state.itemId, state);
+            } else if (state.level != StockAlert.Level.RESOLVED) {
+                // Re-inserted below once its deficit is updated
+                shortItems.remove(state);
+            }
+            update(state, item);
+            if (state.level != StockAlert.Level.RESOLVED) {
+                shortItems.add(state);
+            }
+            evaluate(state);
+        }
+    }
+
+    /**
+     * Forget a deleted item's alert state without notifying the sinks
+     * A RESOLVED alert would read as the item being restocked; the item simply
+     * drops out of getActiveAlerts(), and any held-back alert for it is discarded
+     * @param itemId ID of the deleted item
+     */
+    public void itemRemoved(int itemId) {
+        if (!started) {
+            return;
+        }
+        synchronized (this) {
+            ItemState state = states.remove(itemId);
+            if (state == null) {
+                return;
+            }
+            shortItems.remove(state);
+            backlog.remove(itemId);
+        }
+    }
+
+    /**
+     * Items currently at or below their minimum stock level, largest deficit first
+     * Includes alerts still held back by the rate limits
+     * @param limit Maximum number of alerts returned
+     * @return Current alerts
+     */
+    public synchronized List<StockAlert> getActiveAlerts(int limit) {
+        long now = System.currentTimeMillis();
+        List<StockAlert> alerts = new ArrayList<>(Math.min(limit, shortItems.size()));
+        for (ItemState state : shortItems) {
+            if (alerts.size() >= limit) {
+                break;
+            }
+            alerts.add(state.toAlert(now));
+        }
+        return alerts;
+    }
+
+    /**
+     * Number of items currently at or below their minimum stock level
+     * @return Active alert count
+     */
+    public synchronized int getActiveCount() {
+        return shortItems.size();
+    }
+
+    public long getRaisedCount() {
+        return raisedCount.sum();
+    }
+
+    public long getResolvedCount() {
+        return resolvedCount.sum();
+    }
+
+    /**
+     * Number of times a change of level was held back by the per-item interval or the overall rate
+     * @return Deferred alert count
+     */
+    public long getDeferredCount() {
+        return deferredCount.sum();
+    }
+
+    private static void update(ItemState state, Item item) {
+        state.itemName = item.getName();
+        state.quantity = item.getQuantity();
+        state.minStockLevel = item.getMinStockLevel();
+        if (state.quantity > state.minStockLevel) {
+            state.level = StockAlert.Level.RESOLVED;
+        } else {
+            state.level = state.quantity <= 0 ? StockAlert.Level.OUT_OF_STOCK : StockAlert.Level.LOW;
+        }
+    }
+
+    /**
+     * Send the item's level to the sinks if it changed and the limits allow, otherwise
+     * look again once they do. Caller holds the lock.
+     */
+    private void evaluate(ItemState state) {
+        if (state.level == state.notifiedLevel) {
+            forgetIfSettled(state);
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        boolean urgent = state.level == StockAlert.Level.OUT_OF_STOCK;
+        long waitMillis = urgent ? 0 : state.notifiedAtMillis + MIN_INTERVAL_MILLIS - now;
+        if (waitMillis > 0) {
+            if (!state.flushScheduled) {
+                deferredCount.increment();
+                state.flushScheduled = true;
+                dispatcher.schedule(() -> flush(state.itemId), waitMillis, TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+        if (!takeToken()) {
+            if (backlog.add(state.itemId)) {
+                deferredCount.increment();
+            }
+            scheduleDrain();
+            return;
+        }
+
+        state.notifiedLevel = state.level;
+        state.notifiedAtMillis = now;
+        if (state.level == StockAlert.Level.RESOLVED) {
+            resolvedCount.increment();
+        } else {
+            raisedCount.increment();
+        }
+        StockAlert alert = state.toAlert(now);
+        dispatcher.execute(() -> deliver(alert));
+        forgetIfSettled(state);
+    }
+
+    private synchronized void flush(int itemId) {
+        ItemState state = states.get(itemId);
+        if (state != null) {
+            state.flushScheduled = false;
+            evaluate(state);
+        }
+    }
+
+    private void scheduleDrain() {
+        if (!drainScheduled) {
+            drainScheduled = true;
+            dispatcher.schedule(this::drain, 1000 / MAX_ALERTS_PER_SECOND + 1, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Send queued alerts as far as the overall rate allows
+     */
+    private synchronized void drain() {
+        drainScheduled = false;
+        while (!backlog.isEmpty()) {
+            if (refillTokens() < 1) {
+                scheduleDrain();
+                return;
+            }
+            Iterator<Integer> oldest = backlog.iterator();
+            ItemState state = states.get(oldest.next());
+            oldest.remove();
+            if (state != null) {
+                evaluate(state);
+            }
+        }
+    }
+
+    /**
+     * Drop the state of a recovered item once it no longer limits the next alert
+     */
+    private void forgetIfSettled(ItemState state) {
+        if (state.level == StockAlert.Level.RESOLVED && state.notifiedLevel == StockAlert.Level.RESOLVED
+                && !state.flushScheduled) {
+            long sinceNotified = System.currentTimeMillis() - state.notifiedAtMillis;
+            if (sinceNotified >= MIN_INTERVAL_MILLIS) {
+                states.remove(state.itemId);
+            } else {
+                // Keep the rate limit for a quick relapse, then forget the item
+                state.flushScheduled = true;
+                dispatcher.schedule(() -> flush(state.itemId), MIN_INTERVAL_MILLIS - sinceNotified, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Token bucket over all items. Caller holds the lock.
+     */
+    private boolean takeToken() {
+        if (refillTokens() < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    private double refillTokens() {
+        long now = System.nanoTime();
+        tokens = Math.min(MAX_ALERTS_PER_SECOND, tokens + (now - tokensRefilledAt) * MAX_ALERTS_PER_SECOND / 1e9);
+        tokensRefilledAt = now;
+        return tokens;
+    }
+
+    private void deliver(StockAlert alert) {
+        for (StockAlertSink sink : sinks) {
+            try {
+                sink.onStockAlert(alert);
+            } catch (RuntimeException e) {
+                System.err.println("Error delivering stock alert: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package service;
+
+import model.StockAlert;
+
+/**
+ * Destination for stock alerts, e.g. the dashboard, a log or a pager
+ * Called on the alert engine's dispatch thread; Swing sinks must hop to the EDT themselves.
+ * Sinks named in -Dwarehouse.alerts.sinks are created with their no-argument constructor.
+ */
+public interface StockAlertSink {
+
+    /**
+     * Handle one alert
+     * @param alert Item that became low, ran out or recovered
+     */
+    void onStockAlert(StockAlert alert);
+}
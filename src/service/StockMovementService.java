@@ -0,0 +1,325 @@
+package service;
+
+import database.DBConnection;
+import database.RowMapper;
+import metrics.OperationMetrics;
+import metrics.ServiceMetrics;
+import model.StockMovement;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Service class for the stock movement ledger
+ * Every movement is written to stock_movements and applied to items.quantity
+ * as a relative delta (quantity = quantity + ?) in the same transaction, so
+ * concurrent pickers never overwrite each other's changes.
+ *
+ * High-rate callers such as scanners use submit(), which hands movements to a
+ * single group-commit writer: whatever queued up while the previous transaction
+ * was committing goes out together, with one UPDATE per item (deltas summed)
+ * taken in item ID order. A hot SKU is locked once per group instead of once
+ * per scan, and the fixed lock order rules out deadlocks between stations.
+ */
+public class StockMovementService {
+
+    // Largest number of movements committed in one group transaction
+    private static final int MAX_GROUP_SIZE = 500;
+
+    private static final String INSERT_MOVEMENT_SQL = "INSERT INTO stock_movements (item_id, movement_type, quantity, reason, user_name) VALUES (?, ?, ?, ?, ?)";
+    private static final String APPLY_DELTA_SQL = "UPDATE items SET quantity = quantity + ? WHERE id = ?";
+    private static final String SELECT_MOVEMENTS = "SELECT id, item_id, movement_type, quantity, reason, user_name, movement_date FROM stock_movements";
+
+    private static final OperationMetrics RECORD_MOVEMENTS = ServiceMetrics.operation("StockMovementService.recordMovements");
+
+    private static final RowMapper<StockMovement> MOVEMENT_MAPPER = rs -> {
+        StockMovement movement = new StockMovement(
+            rs.getInt(2),
+            StockMovement.Type.valueOf(rs.getString(3)),
+            rs.getInt(4),
+            rs.getString(5),
+            rs.getString(6)
+        );
+        movement.setId(rs.getInt(1));
+        movement.setMovementDate(rs.getString(7));
+        return movement;
+    };
+
+    // Group-commit writer shared by every StockMovementService instance
+    private static final BlockingQueue<PendingMovement> QUEUE = new LinkedBlockingQueue<>();
+    private static Thread writer;
+    // Guarded by the class lock together with the enqueue, so nothing is queued after STOP
+    private static boolean stopping;
+    // Queued last by shutdown(); the writer commits everything before it and exits
+    private static final PendingMovement STOP = new PendingMovement(null);
+
+    private final InventoryService inventoryService = new InventoryService();
+
+    /**
+     * A submitted movement waiting for the writer
+     */
+    private static final class PendingMovement {
+        private final StockMovement movement;
+        private final CompletableFuture<StockMovement> future = new CompletableFuture<>();
+
+        private PendingMovement(StockMovement movement) {
+            this.movement = movement;
+        }
+    }
+
+    /**
+     * Records a single movement and applies it to the item's quantity
+     * @param movement Movement to record; its ID is set on success
+     * @return true if successful, false otherwise
+     */
+    public boolean recordMovement(StockMovement movement) {
+        return recordMovements(List.of(movement));
+    }
+
+    /**
+     * Records movements and applies them to item quantities in one transaction
+     * Either every movement is recorded or none is
+     * @param movements Movements to record; their IDs are set on success
+     * @return true if successful, false otherwise
+     */
+    public boolean recordMovements(List<StockMovement> movements) {
+        long start = RECORD_MOVEMENTS.start();
+        try {
+            commit(movements);
+            RECORD_MOVEMENTS.finished(start, movements.size());
+            return true;
+        } catch (SQLException e) {
+            RECORD_MOVEMENTS.error(e);
+            RECORD_MOVEMENTS.finished(start, 0);
+            System.err.println("Error recording stock movements: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Queue a movement for the group-commit writer
+     * @param movement Movement to record
+     * @return Future completed with the recorded movement (ID set) once committed,
+     *         or exceptionally if it could not be recorded
+     */
+    public CompletableFuture<StockMovement> submit(StockMovement movement) {
+        PendingMovement pending = new PendingMovement(movement);
+        synchronized (StockMovementService.class) {
+            if (stopping) {
+                pending.future.completeExceptionally(new IllegalStateException("Stock movement writer is shut down"));
+                return pending.future;
+            }
+            startWriter();
+            QUEUE.add(pending);
+        }
+        return pending.future;
+    }
+
+    /**
+     * Get the most recent movements of an item
+     * @param itemId Item ID
+     * @param limit Maximum number of movements returned
+     * @return Movements, newest first
+     */
+    public List<StockMovement> getMovementsForItem(int itemId, int limit) {
+        List<StockMovement> movements = new ArrayList<>();
+        String sql = SELECT_MOVEMENTS + " WHERE item_id = ? ORDER BY id DESC LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, itemId);
+            pstmt.setInt(2, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    movements.add(MOVEMENT_MAPPER.map(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error getting stock movements: " + e.getMessage());
+        }
+
+        return movements;
+    }
+
+    /**
+     * Records movements in one transaction like recordMovements(), but reports the
+     * failure so callers can tell a lost connection from a bad movement
+     * @param movements Movements to record; their IDs are set on success
+     * @throws SQLException if nothing was recorded
+     */
+    void recordBatch(List<StockMovement> movements) throws SQLException {
+        commit(movements);
+    }
+
+    /**
+     * Write movements and their net quantity deltas in one transaction
+     */
+    private void commit(List<StockMovement> movements) throws SQLException {
+        if (movements.isEmpty()) {
+            return;
+        }
+        // Net delta per item, in ID order so every writer takes row locks in the same order
+        Map<Integer, Integer> deltas = new TreeMap<>();
+        for (StockMovement movement : movements) {
+            deltas.merge(movement.getItemId(), movement.getDelta(), Integer::sum);
+        }
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement update = conn.prepareStatement(APPLY_DELTA_SQL);
+                 PreparedStatement insert = conn.prepareStatement(INSERT_MOVEMENT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+
+                List<Integer> itemIds = new ArrayList<>(deltas.keySet());
+                for (Map.Entry<Integer, Integer> entry : deltas.entrySet()) {
+                    update.setInt(1, entry.getValue());
+                    update.setInt(2, entry.getKey());
+                    update.addBatch();
+                }
+                int[] updated = update.executeBatch();
+                for (int i = 0; i < updated.length; i++) {
+                    if (updated[i] == 0) {
+                        throw new SQLException("Item not found: " + itemIds.get(i));
+                    }
+                }
+
+                for (StockMovement movement : movements) {
+                    insert.setInt(1, movement.getItemId());
+                    insert.setString(2, movement.getType().name());
+                    insert.setInt(3, movement.getQuantity());
+                    insert.setString(4, movement.getReason());
+                    insert.setString(5, movement.getUserName());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                List<Integer> ids = new ArrayList<>(movements.size());
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getInt(1));
+                    }
+                }
+
+                conn.commit();
+                DBConnection.recordWrite();
+                for (int i = 0; i < movements.size() && i < ids.size(); i++) {
+                    movements.get(i).setId(ids.get(i));
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        inventoryService.refreshCachedItems(deltas.keySet());
+    }
+
+    /**
+     * Start the writer thread on first use
+     */
+    private static synchronized void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        StockMovementService service = new StockMovementService();
+        writer = new Thread(service::runWriter, "stock-movement-writer");
+        writer.setDaemon(true);
+        writer.start();
+        DBConnection.addShutdownTask(StockMovementService::shutdown);
+    }
+
+    /**
+     * Stop accepting movements and wait for the queued ones to be committed
+     * The writer is not interrupted: an interrupt during a commit would fail the
+     * connection borrow and lose the movements still queued
+     */
+    public static void shutdown() {
+        Thread running;
+        synchronized (StockMovementService.class) {
+            if (stopping) {
+                return;
+            }
+            stopping = true;
+            running = writer;
+            if (running != null) {
+                QUEUE.add(STOP);
+            }
+        }
+        if (running == null) {
+            return;
+        }
+        try {
+            running.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever the writer did not reach in time will not be written
+        List<PendingMovement> left = new ArrayList<>();
+        QUEUE.drainTo(left);
+        for (PendingMovement pending : left) {
+            if (pending != STOP) {
+                pending.future.completeExceptionally(new IllegalStateException("Stock movement writer is shut down"));
+            }
+        }
+    }
+
+    private void runWriter() {
+        while (true) {
+            List<PendingMovement> group = new ArrayList<>();
+            try {
+                group.add(QUEUE.take());
+            } catch (InterruptedException e) {
+                // Only shutdown() stops the writer
+                continue;
+            }
+            QUEUE.drainTo(group, MAX_GROUP_SIZE - 1);
+            // STOP is the last movement ever queued, so it can only end a group
+            boolean stop = group.get(group.size() - 1) == STOP;
+            if (stop) {
+                group.remove(group.size() - 1);
+            }
+            if (!group.isEmpty()) {
+                commitGroup(group);
+            }
+            if (stop) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Commit a group in one transaction; if that fails, retry each movement on its
+     * own so one bad movement (e.g. an unknown item) does not fail the others
+     */
+    private void commitGroup(List<PendingMovement> group) {
+        List<StockMovement> movements = new ArrayList<>(group.size());
+        for (PendingMovement pending : group) {
+            movements.add(pending.movement);
+        }
+        try {
+            commit(movements);
+            for (PendingMovement pending : group) {
+                pending.future.complete(pending.movement);
+            }
+            return;
+        } catch (SQLException e) {
+            if (group.size() == 1) {
+                group.get(0).future.completeExceptionally(e);
+                return;
+            }
+        }
+        for (PendingMovement pending : group) {
+            try {
+                commit(List.of(pending.movement));
+                pending.future.complete(pending.movement);
+            } catch (SQLException e) {
+                pending.future.completeExceptionally(e);
+            }
+        }
+    }
+}
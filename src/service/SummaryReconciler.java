@@ -0,0 +1,254 @@
+package service;
+
+import database.DBConnection;
+import metrics.OperationMetrics;
+import metrics.ServiceMetrics;
+import java.sql.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rebuilds the item_summaries totals from the items table
+ * The totals are maintained incrementally by triggers on items; this job corrects any
+ * drift (e.g. from rows changed with the triggers disabled) without a long lock.
+ *
+ * Items are read in ID-ordered chunks, each in its own short transaction that locks the
+ * row in item_summary_rebuild_state, adds the chunk's totals to item_summaries_rebuild and
+ * advances next_item_id there. While a rebuild is active the triggers apply changes to
+ * items below that cursor to the rebuild table as well, so it stays exact as the scan
+ * moves on. Once the scan reaches the end, the rebuilt totals replace the live ones in one
+ * transaction.
+ *
+ * The state row is the only lock the rebuild takes: the chunk is read without locking
+ * items, because an item writer locks its item row before its trigger waits for the
+ * state row, so waiting for item locks while holding the state row could deadlock.
+ */
+public class SummaryReconciler {
+    private static final long INTERVAL_MINUTES = Long.getLong("warehouse.summary.reconcileIntervalMinutes", 360);
+    private static final int CHUNK_SIZE = 5_000;
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+    // Must match the slot expression in the item summary triggers
+    private static final int SLOTS = 16;
+    // Named lock so only one station rebuilds at a time
+    private static final String LOCK_NAME = "warehouse_item_summary_rebuild";
+
+    private static final String BEGIN_SQL = "UPDATE item_summary_rebuild_state SET active = TRUE, next_item_id = 0 WHERE id = 1";
+    private static final String CHUNK_END_SQL = "SELECT id FROM items WHERE id >= ? ORDER BY id LIMIT 1 OFFSET " + CHUNK_SIZE;
+    private static final String UPSERT_REBUILD_SQL = "INSERT INTO item_summaries_rebuild " +
+            "(dimension, dim_value, slot, item_count, total_quantity, total_value_cents, low_stock_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE item_count = item_count + VALUES(item_count), " +
+            "total_quantity = total_quantity + VALUES(total_quantity), " +
+            "total_value_cents = total_value_cents + VALUES(total_value_cents), " +
+            "low_stock_count = low_stock_count + VALUES(low_stock_count)";
+    private static final String ADVANCE_SQL = "UPDATE item_summary_rebuild_state SET next_item_id = ? WHERE id = 1";
+    private static final String LOCK_STATE_SQL = "SELECT active FROM item_summary_rebuild_state WHERE id = 1 FOR UPDATE";
+    private static final String[] DIMENSIONS = {"CATEGORY", "LOCATION", "SUPPLIER"};
+    private static final String[] DIMENSION_COLUMNS = {"category", "location", "supplier_id"};
+
+    private static final SummaryReconciler INSTANCE = new SummaryReconciler();
+    private static final OperationMetrics REBUILD = ServiceMetrics.operation("SummaryReconciler.rebuild");
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Get the shared reconciler
+     * @return SummaryReconciler instance
+     */
+    public static SummaryReconciler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Rebuild the summaries periodically in the background
+     * Disabled when warehouse.summary.reconcileIntervalMinutes is 0
+     */
+    public synchronized void start() {
+        if (scheduler != null || INTERVAL_MINUTES <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "summary-reconciler");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::rebuild, INTERVAL_MINUTES, INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Rebuild the summaries now
+     * @return true if rebuilt, false if it failed or another station is already rebuilding
+     */
+    public boolean rebuild() {
+        long start = REBUILD.start();
+        try (Connection conn = DBConnection.getConnection()) {
+            if (!acquireLock(conn)) {
+                REBUILD.finished(start, 0);
+                return false;
+            }
+            try {
+                int items = rebuild(conn);
+                REBUILD.finished(start, items);
+                return true;
+            } finally {
+                releaseLock(conn);
+            }
+        } catch (SQLException e) {
+            REBUILD.error(e);
+            REBUILD.finished(start, 0);
+            System.err.println("Error rebuilding item summaries: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private int rebuild(Connection conn) throws SQLException {
+        // Start over; a rebuild abandoned by a crashed station is simply restarted
+        conn.setAutoCommit(false);
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM item_summaries_rebuild");
+                stmt.executeUpdate(BEGIN_SQL);
+            }
+            conn.commit();
+
+            int items = 0;
+            int from = 0;
+            while (true) {
+                int to;
+                for (int attempt = 1; ; attempt++) {
+                    try {
+                        lockState(conn);
+                        to = chunkEnd(conn, from);
+                        items += copyChunk(conn, from, to);
+                        conn.commit();
+                        break;
+                    } catch (SQLTransactionRollbackException e) {
+                        // Chosen as a deadlock victim, e.g. behind two writers of the same item
+                        conn.rollback();
+                        if (attempt == MAX_CHUNK_ATTEMPTS) {
+                            throw e;
+                        }
+                    }
+                }
+                if (to == Integer.MAX_VALUE) {
+                    break;
+                }
+                from = to;
+            }
+
+            swap(conn);
+            conn.commit();
+            DBConnection.recordWrite();
+            return items;
+
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Exclusive end of the chunk starting at from; Integer.MAX_VALUE for the last chunk
+     * The last chunk is open-ended so items inserted during the rebuild are covered either by the scan or by the triggers
+     */
+    private int chunkEnd(Connection conn, int from) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(CHUNK_END_SQL)) {
+            pstmt.setInt(1, from);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : Integer.MAX_VALUE;
+            }
+        }
+    }
+
+    /**
+     * Hold item writers back until the chunk is committed
+     * Writers whose trigger already read the state row have committed once this returns;
+     * it must come before the transaction's first plain read so the chunk is read after them.
+     */
+    private static void lockState(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(LOCK_STATE_SQL)) {
+            pstmt.executeQuery().close();
+        }
+    }
+
+    /**
+     * Add the totals of the items in [from, to) to the rebuild table and move the cursor past them
+     * Called with the state row locked. The chunk is read from the transaction's snapshot:
+     * a change not in it belongs to a writer still waiting for the state row, whose trigger
+     * will see the new cursor and apply the change to the rebuild table itself.
+     * (INSERT ... SELECT would share-lock the items instead.)
+     * @return Number of items in the chunk
+     */
+    private int copyChunk(Connection conn, int from, int to) throws SQLException {
+        int items = 0;
+        try (PreparedStatement upsert = conn.prepareStatement(UPSERT_REBUILD_SQL)) {
+            for (int d = 0; d < DIMENSIONS.length; d++) {
+                String column = "COALESCE(" + DIMENSION_COLUMNS[d] + ", '')";
+                String sql = "SELECT " + column + ", id % " + SLOTS + ", COUNT(*), " +
+                             "SUM(COALESCE(quantity, 0)), " +
+                             "SUM(COALESCE(quantity, 0) * ROUND(COALESCE(price, 0) * 100)), " +
+                             "SUM(IF(COALESCE(quantity, 0) <= COALESCE(min_stock_level, 0), 1, 0)) " +
+                             "FROM items WHERE id >= ? AND id < ? GROUP BY " + column + ", id % " + SLOTS;
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, from);
+                    pstmt.setInt(2, to);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            upsert.setString(1, DIMENSIONS[d]);
+                            upsert.setString(2, rs.getString(1));
+                            upsert.setInt(3, rs.getInt(2));
+                            upsert.setInt(4, rs.getInt(3));
+                            upsert.setLong(5, rs.getLong(4));
+                            upsert.setLong(6, rs.getLong(5));
+                            upsert.setInt(7, rs.getInt(6));
+                            upsert.addBatch();
+                            if (d == 0) {
+                                items += rs.getInt(3);
+                            }
+                        }
+                    }
+                }
+            }
+            upsert.executeBatch();
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(ADVANCE_SQL)) {
+            pstmt.setInt(1, to);
+            pstmt.executeUpdate();
+        }
+        return items;
+    }
+
+    /**
+     * Replace the live totals with the rebuilt ones
+     * Locking the state row holds item writers back for the few statements this takes
+     */
+    private void swap(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeQuery(LOCK_STATE_SQL).close();
+            stmt.executeUpdate("DELETE FROM item_summaries");
+            stmt.executeUpdate("INSERT INTO item_summaries SELECT * FROM item_summaries_rebuild WHERE item_count <> 0");
+            stmt.executeUpdate("UPDATE item_summary_rebuild_state SET active = FALSE WHERE id = 1");
+            stmt.executeUpdate("DELETE FROM item_summaries_rebuild");
+        }
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            pstmt.setString(1, LOCK_NAME);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.executeQuery().close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package service;
+
+import database.RowMapper;
+import model.Supplier;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps suppliers table rows selected with SupplierRowMapper.COLUMNS to Supplier objects
+ * Columns are read by position, starting at a fixed index
+ */
+public class SupplierRowMapper implements RowMapper<Supplier> {
+    
+    /** Supplier columns in the order the mapper reads them */
+    public static final String COLUMNS = "id, name, contact, address";
+    
+    /** Mapper for queries that select COLUMNS first */
+    public static final SupplierRowMapper INSTANCE = new SupplierRowMapper(1);
+    
+    private final int first;
+    
+    /**
+     * Constructor
+     * @param first Index of the first supplier column in the select list
+     */
+    public SupplierRowMapper(int first) {
+        this.first = first;
+    }
+    
+    /**
+     * Get the mapped columns qualified with a table alias, for joins
+     * @param alias Table alias
+     * @return Column list such as "s.id, s.name, s.contact, s.address"
+     */
+    public static String columns(String alias) {
+        return COLUMNS.replaceAll("(\\w+)", alias + ".$1");
+    }
+    
+    @Override
+    public Supplier map(ResultSet rs) throws SQLException {
+        return new Supplier(
+            rs.getInt(first),
+            rs.getString(first + 1),
+            rs.getString(first + 2),
+            rs.getString(first + 3)
+        );
+    }
+}
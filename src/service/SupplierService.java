@@ -1,6 +1,8 @@
 package service;
 
 import database.DBConnection;
+import metrics.OperationMetrics;
+import metrics.ServiceMetrics;
 import model.Supplier;
 import java.sql.*;
 import java.util.ArrayList;
@@ -12,26 +14,49 @@ import java.util.List;
  */
 public class SupplierService {
     
+    // Explicit column list read by position through SUPPLIER_MAPPER
+    private static final String SELECT_SUPPLIERS = "SELECT " + SupplierRowMapper.COLUMNS + " FROM suppliers";
+    private static final SupplierRowMapper SUPPLIER_MAPPER = SupplierRowMapper.INSTANCE;
+    
+    // Latency metrics per operation, see ServiceMetrics
+    private static final OperationMetrics ADD_SUPPLIER = ServiceMetrics.operation("SupplierService.addSupplier");
+    private static final OperationMetrics UPDATE_SUPPLIER = ServiceMetrics.operation("SupplierService.updateSupplier");
+    private static final OperationMetrics DELETE_SUPPLIER = ServiceMetrics.operation("SupplierService.deleteSupplier");
+    private static final OperationMetrics GET_ALL_SUPPLIERS = ServiceMetrics.operation("SupplierService.getAllSuppliers");
+    private static final OperationMetrics GET_SUPPLIER_BY_ID = ServiceMetrics.operation("SupplierService.getSupplierById");
+    
     /**
      * Adds a new supplier
-     * @param supplier Supplier object to add
+     * @param supplier Supplier object to add; its ID is set to the generated one
      * @return true if successful, false otherwise
      */
     public boolean addSupplier(Supplier supplier) {
+        long start = ADD_SUPPLIER.start();
         String sql = "INSERT INTO suppliers (name, contact, address) VALUES (?, ?, ?)";
         
         try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setString(1, supplier.getName());
             pstmt.setString(2, supplier.getContact());
             pstmt.setString(3, supplier.getAddress());
             
             int rowsAffected = pstmt.executeUpdate();
+            DBConnection.recordWrite();
+            if (rowsAffected > 0) {
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        supplier.setId(keys.getInt(1));
+                    }
+                }
+            }
+            ADD_SUPPLIER.finished(start, rowsAffected);
             return rowsAffected > 0;
             
         } catch (SQLException e) {
+            ADD_SUPPLIER.error(e);
             System.err.println("Error adding supplier: " + e.getMessage());
+            ADD_SUPPLIER.finished(start, 0);
             return false;
         }
     }
@@ -42,6 +67,7 @@ public class SupplierService {
      * @return true if successful, false otherwise
      */
     public boolean updateSupplier(Supplier supplier) {
+        long start = UPDATE_SUPPLIER.start();
         String sql = "UPDATE suppliers SET name = ?, contact = ?, address = ? WHERE id = ?";
         
         try (Connection conn = DBConnection.getConnection();
@@ -53,10 +79,14 @@ public class SupplierService {
             pstmt.setInt(4, supplier.getId());
             
             int rowsAffected = pstmt.executeUpdate();
+            DBConnection.recordWrite();
+            UPDATE_SUPPLIER.finished(start, rowsAffected);
             return rowsAffected > 0;
             
         } catch (SQLException e) {
+            UPDATE_SUPPLIER.error(e);
             System.err.println("Error updating supplier: " + e.getMessage());
+            UPDATE_SUPPLIER.finished(start, 0);
             return false;
         }
     }
@@ -67,6 +97,7 @@ public class SupplierService {
      * @return true if successful, false otherwise
      */
     public boolean deleteSupplier(int id) {
+        long start = DELETE_SUPPLIER.start();
         String sql = "DELETE FROM suppliers WHERE id = ?";
         
         try (Connection conn = DBConnection.getConnection();
@@ -75,10 +106,14 @@ public class SupplierService {
             pstmt.setInt(1, id);
             
             int rowsAffected = pstmt.executeUpdate();
+            DBConnection.recordWrite();
+            DELETE_SUPPLIER.finished(start, rowsAffected);
             return rowsAffected > 0;
             
         } catch (SQLException e) {
+            DELETE_SUPPLIER.error(e);
             System.err.println("Error deleting supplier: " + e.getMessage());
+            DELETE_SUPPLIER.finished(start, 0);
             return false;
         }
     }
@@ -88,27 +123,24 @@ public class SupplierService {
      * @return List of all suppliers
      */
     public List<Supplier> getAllSuppliers() {
+        long start = GET_ALL_SUPPLIERS.start();
         List<Supplier> suppliers = new ArrayList<>();
-        String sql = "SELECT * FROM suppliers ORDER BY id";
+        String sql = SELECT_SUPPLIERS + " ORDER BY id";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
-                Supplier supplier = new Supplier(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("contact"),
-                    rs.getString("address")
-                );
-                suppliers.add(supplier);
+                suppliers.add(SUPPLIER_MAPPER.map(rs));
             }
             
         } catch (SQLException e) {
+            GET_ALL_SUPPLIERS.error(e);
             System.err.println("Error retrieving suppliers: " + e.getMessage());
         }
         
+        GET_ALL_SUPPLIERS.finished(start, suppliers.size());
         return suppliers;
     }
     
@@ -118,28 +150,28 @@ public class SupplierService {
      * @return Supplier object or null if not found
      */
     public Supplier getSupplierById(int id) {
-        String sql = "SELECT * FROM suppliers WHERE id = ?";
+        long start = GET_SUPPLIER_BY_ID.start();
+        String sql = SELECT_SUPPLIERS + " WHERE id = ?";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, id);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Supplier(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("contact"),
-                        rs.getString("address")
-                    );
+                    Supplier supplier = SUPPLIER_MAPPER.map(rs);
+                    GET_SUPPLIER_BY_ID.finished(start, 1);
+                    return supplier;
                 }
             }
             
         } catch (SQLException e) {
+            GET_SUPPLIER_BY_ID.error(e);
             System.err.println("Error retrieving supplier by ID: " + e.getMessage());
         }
         
+        GET_SUPPLIER_BY_ID.finished(start, 0);
         return null;
     }
 }